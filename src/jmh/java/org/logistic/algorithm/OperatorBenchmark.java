@@ -0,0 +1,92 @@
+package org.logistic.algorithm;
+
+import java.util.concurrent.TimeUnit;
+
+import org.logistic.benchmark.InstanceState;
+import org.logistic.model.Route;
+import org.logistic.model.Solution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Đo các toán tử biến đổi của AbstractOptimizer (qua {@link Operators}, nên benchmark nằm cùng
+ * package với optimizer). Mỗi lần đo khôi phục giải pháp về trạng thái ban đầu bằng copyFrom
+ * (không cấp phát) rồi áp dụng toán tử; benchmark {@code restoreOnly} đo riêng phần khôi phục để
+ * có thể trừ ra.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperatorBenchmark {
+    Operators operators;
+    Solution working;
+    int next;
+
+    @Setup
+    public void setup(InstanceState state) {
+        operators = new Operators(state.fitnessUtil, state.checkConditionUtil, state.locations,
+                state.travelMatrix);
+        working = state.solution.copy();
+    }
+
+    private Route[] restore(InstanceState state) {
+        working.copyFrom(state.solution);
+        return working.getRoutes();
+    }
+
+    private Route nextRoute(Route[] routes) {
+        next = next + 1 < routes.length ? next + 1 : 0;
+        return routes[next];
+    }
+
+    @Benchmark
+    public Route[] restoreOnly(InstanceState state) {
+        return restore(state);
+    }
+
+    @Benchmark
+    public double swap(InstanceState state) {
+        return operators.swap(nextRoute(restore(state)));
+    }
+
+    @Benchmark
+    public double swapSequence(InstanceState state) {
+        return operators.swapSequence(nextRoute(restore(state)));
+    }
+
+    @Benchmark
+    public double randomOperation(InstanceState state) {
+        return operators.randomOperation(nextRoute(restore(state)));
+    }
+
+    @Benchmark
+    public double pdShift(InstanceState state) {
+        return operators.pdShift(restore(state));
+    }
+
+    @Benchmark
+    public double pdExchange(InstanceState state) {
+        return operators.pdExchange(restore(state));
+    }
+
+    @Benchmark
+    public double pdRearrange(InstanceState state) {
+        return operators.pdRearrange(restore(state));
+    }
+
+    @Benchmark
+    public double randomMultiRouteOperation(InstanceState state) {
+        return operators.randomMultiRouteOperation(restore(state));
+    }
+}
@@ -0,0 +1,51 @@
+package org.logistic.algorithm;
+
+import org.logistic.algorithm.gwo.GreyWolfOptimizer;
+import org.logistic.model.Location;
+import org.logistic.model.Route;
+import org.logistic.model.TravelMatrix;
+import org.logistic.util.CheckConditionUtil;
+import org.logistic.util.FitnessUtil;
+
+/**
+ * Truy cập các toán tử protected của {@link AbstractOptimizer} cho benchmark (cùng package nên
+ * gọi được trực tiếp). Các toán tử chỉ dùng trạng thái chung của AbstractOptimizer nên có thể
+ * mượn một optimizer bất kỳ; optimizer được thiết lập tham số nhưng không bao giờ chạy.
+ */
+final class Operators {
+    private final AbstractOptimizer optimizer = new GreyWolfOptimizer();
+
+    Operators(FitnessUtil fitnessUtil, CheckConditionUtil checkConditionUtil, Location[] locations,
+            TravelMatrix travelMatrix) {
+        optimizer.travelMatrix = travelMatrix;
+        optimizer.setupParameters(fitnessUtil, checkConditionUtil, locations);
+    }
+
+    double swap(Route route) {
+        return optimizer.applySwapOperator(route);
+    }
+
+    double swapSequence(Route route) {
+        return optimizer.applySwapSequence(route);
+    }
+
+    double randomOperation(Route route) {
+        return optimizer.applyRandomOperation(route);
+    }
+
+    double pdShift(Route[] routes) {
+        return optimizer.applyPdShift(routes);
+    }
+
+    double pdExchange(Route[] routes) {
+        return optimizer.applyPdExchange(routes);
+    }
+
+    double pdRearrange(Route[] routes) {
+        return optimizer.applyPdRearrange(routes);
+    }
+
+    double randomMultiRouteOperation(Route[] routes) {
+        return optimizer.applyRandomMultiRouteOperation(routes);
+    }
+}
@@ -0,0 +1,61 @@
+package org.logistic.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.logistic.model.Route;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Đo chi phí kiểm tra ràng buộc của CheckConditionUtil:
+ * - cached: tuyến không đổi, kết quả lấy từ bộ nhớ đệm theo phiên bản
+ * - modified: tuyến vừa thay đổi, phải xây dựng lại dữ liệu tiền tố/hậu tố (O(n))
+ * - nodeInsertion: kiểm tra chèn một điểm vào tuyến chưa đổi (O(1))
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeasibilityBenchmark {
+    int next;
+
+    private Route nextRoute(InstanceState state) {
+        Route[] routes = state.routes;
+        next = next + 1 < routes.length ? next + 1 : 0;
+        return routes[next];
+    }
+
+    @Benchmark
+    public boolean cached(InstanceState state) {
+        Route route = nextRoute(state);
+        return state.checkConditionUtil.isInsertionFeasible(route, state.locations, route.getMaxPayload(),
+                state.travelMatrix);
+    }
+
+    @Benchmark
+    public boolean modified(InstanceState state) {
+        Route route = nextRoute(state);
+        route.markModified();
+        return state.checkConditionUtil.isInsertionFeasible(route, state.locations, route.getMaxPayload(),
+                state.travelMatrix);
+    }
+
+    @Benchmark
+    public boolean nodeInsertion(InstanceState state) {
+        Route route = nextRoute(state);
+        int[] way = route.getIndLocations();
+        int pos = next % (way.length + 1);
+        int node = way[way.length - 1 - (next % way.length)];
+        return state.checkConditionUtil.isNodeInsertionFeasible(route, pos, node, state.locations,
+                route.getMaxPayload(), state.travelMatrix);
+    }
+}
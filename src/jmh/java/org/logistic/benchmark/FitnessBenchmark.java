@@ -0,0 +1,85 @@
+package org.logistic.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.logistic.model.Route;
+import org.logistic.util.FitnessUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Đo thời gian tính fitness của một giải pháp, tuần tự và song song, với cả hai cách tính
+ * khoảng cách (Euclidean và ma trận khoảng cách-thời gian):
+ * - cached: các tuyến không đổi, chi phí lấy từ chi phí đã lưu trong tuyến (chỉ cộng dồn)
+ * - modified: mọi tuyến vừa thay đổi, chi phí từng tuyến phải tính lại từ khoảng cách (O(n))
+ *
+ * Chế độ song song chỉ được dùng khi số tuyến đạt parallelRouteThreshold. Các bài toán có
+ * khoảng 2, 8, 30 và 72 tuyến (25, 100, 400 và 1000 khách hàng), nên các ngưỡng 1, 16 và 64 (mặc
+ * định) cho thấy điểm hòa vốn của chế độ song song.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FitnessBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    @Param({ "1", "16", "64" })
+    public int parallelRouteThreshold;
+
+    int previousThreshold;
+
+    @Setup
+    public void setup() {
+        FitnessUtil fitnessUtil = FitnessUtil.getInstance();
+        previousThreshold = fitnessUtil.getParallelRouteThreshold();
+        fitnessUtil.setParallelRouteThreshold(parallelRouteThreshold);
+    }
+
+    @TearDown
+    public void tearDown() {
+        FitnessUtil.getInstance().setParallelRouteThreshold(previousThreshold);
+    }
+
+    @Benchmark
+    public double euclideanCached(InstanceState state) {
+        return state.fitnessUtil.calculatorFitness(state.routes, state.locations, parallel);
+    }
+
+    @Benchmark
+    public double euclideanModified(InstanceState state) {
+        markModified(state.routes);
+        return state.fitnessUtil.calculatorFitness(state.routes, state.locations, parallel);
+    }
+
+    @Benchmark
+    public double travelMatrixCached(InstanceState state) {
+        return state.fitnessUtil.calculatorFitness(state.routes, state.locations, state.travelMatrix, parallel);
+    }
+
+    @Benchmark
+    public double travelMatrixModified(InstanceState state) {
+        markModified(state.routes);
+        return state.fitnessUtil.calculatorFitness(state.routes, state.locations, state.travelMatrix, parallel);
+    }
+
+    private static void markModified(Route[] routes) {
+        for (Route route : routes) {
+            route.markModified();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.logistic.benchmark;
+
+import org.logistic.data.ReadDataFromFile.ProblemType;
+import org.logistic.data.SyntheticInstance;
+import org.logistic.model.Location;
+import org.logistic.model.Route;
+import org.logistic.model.Solution;
+import org.logistic.model.TravelMatrix;
+import org.logistic.util.CheckConditionUtil;
+import org.logistic.util.FitnessUtil;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Trạng thái dùng chung cho các benchmark: một bài toán sinh ngẫu nhiên với seed cố định và
+ * giải pháp ban đầu của nó. Bài toán VRPSPDTW có ma trận khoảng cách-thời gian nên cả hai
+ * cách tính khoảng cách (Euclidean và ma trận) đều được đo trên cùng dữ liệu.
+ */
+@State(Scope.Benchmark)
+public class InstanceState {
+    static final long SEED = 42L;
+
+    @Param({ "25", "100", "400", "1000" })
+    public int customers;
+
+    @Param({ "VRPSPDTW_WANG_CHEN" })
+    public ProblemType problemType;
+
+    public SyntheticInstance instance;
+    public Location[] locations;
+    public TravelMatrix travelMatrix;
+    public FitnessUtil fitnessUtil;
+    public CheckConditionUtil checkConditionUtil;
+    public Solution solution;
+    public Route[] routes;
+
+    @Setup
+    public void setup() {
+        instance = SyntheticInstance.generate(problemType, customers, SEED);
+        locations = instance.getLocations();
+        travelMatrix = instance.getTravelMatrix();
+        fitnessUtil = FitnessUtil.getInstance();
+        checkConditionUtil = CheckConditionUtil.getInstance();
+        solution = instance.createInitialSolution(fitnessUtil);
+        routes = solution.getRoutes();
+    }
+}
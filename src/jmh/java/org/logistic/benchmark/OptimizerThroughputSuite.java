@@ -0,0 +1,320 @@
+package org.logistic.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.logistic.algorithm.Optimizer;
+import org.logistic.algorithm.TerminationCriterion;
+import org.logistic.algorithm.aco.AntColonyOptimization;
+import org.logistic.algorithm.gwo.GreyWolfOptimizer;
+import org.logistic.algorithm.sa.SimulatedAnnealing;
+import org.logistic.algorithm.sho.SpottedHyenaOptimizer;
+import org.logistic.algorithm.woa.WhaleOptimizationAlgorithm;
+import org.logistic.data.ReadDataFromFile.ProblemType;
+import org.logistic.data.SyntheticInstance;
+import org.logistic.model.Solution;
+import org.logistic.util.CheckConditionUtil;
+import org.logistic.util.EvaluationContext;
+import org.logistic.util.FingerprintCache;
+import org.logistic.util.FitnessStrategy;
+import org.logistic.util.FitnessUtil;
+import org.logistic.util.SeedUtil;
+
+/**
+ * Benchmark đầu-cuối cho các optimizer: chạy từng thuật toán trên các bài toán sinh ngẫu nhiên
+ * và xuất kết quả dạng JSON để so sánh giữa hai commit. Bài toán, quần thể ban đầu và bộ sinh số
+ * ngẫu nhiên của optimizer đều dùng seed suy ra từ --seed nên các lần chạy có thể tái lập.
+ *
+ * Với mỗi lần chạy ghi lại: thời gian, số lần đánh giá fitness và số lần đánh giá mỗi giây,
+ * fitness cuối, thời gian để đạt trong phạm vi X% so với fitness tốt nhất đã biết (fitness tốt
+ * nhất mà mọi thuật toán đạt được trên bài toán đó trong cùng lần đo), heap cao nhất và lượng
+ * bộ nhớ cấp phát (của luồng chạy optimizer; fitness được tính tuần tự và các con kiến của ACO
+ * chạy ngay trên luồng gọi để không bị bỏ sót).
+ *
+ * Cách chạy:
+ * <pre>
+ * mvn -Pjmh package -DskipTests
+ * java -cp target/benchmarks.jar org.logistic.benchmark.OptimizerThroughputSuite \
+ *     --customers 100,400 --runs 3 --out throughput.json
+ * </pre>
+ *
+ * Tham số: --types (VRPTW,PDPTW,VRPSPDTW_WANG_CHEN), --customers (100), --algorithms
+ * (SA,ACO,ACO_MMAS,GWO,SHO,WOA), --runs (3), --warmup (1), --population (10), --seed (42),
+ * --target (5, phần trăm), --budget-ms (ngân sách thời gian như nhau cho mỗi lần chạy, bỏ trống để
+ * dùng số vòng lặp mặc định), --fitness-cache (số phần tử của bộ nhớ đệm fitness, 0 để tắt),
+ * --out (in ra màn hình nếu bỏ trống), --verbose.
+ */
+public class OptimizerThroughputSuite {
+    static final Map<String, Function<Solution[], Optimizer>> ALGORITHMS = Map.of(
+            "SA", solutions -> new SimulatedAnnealing(solutions[0]),
+            "ACO", solutions -> new AntColonyOptimization(AntColonyOptimization.Variant.ANT_SYSTEM, Runnable::run),
+            "ACO_MMAS", solutions -> new AntColonyOptimization(AntColonyOptimization.Variant.MAX_MIN, Runnable::run),
+            "GWO", solutions -> new GreyWolfOptimizer(),
+            "SHO", solutions -> new SpottedHyenaOptimizer(),
+            "WOA", solutions -> new WhaleOptimizationAlgorithm());
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        String[] types = options.getOrDefault("types", "VRPTW,PDPTW,VRPSPDTW_WANG_CHEN").split(",");
+        String[] customers = options.getOrDefault("customers", "100").split(",");
+        String[] algorithms = options.getOrDefault("algorithms", "SA,ACO,ACO_MMAS,GWO,SHO,WOA").split(",");
+        int runs = Integer.parseInt(options.getOrDefault("runs", "3"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "1"));
+        int population = Integer.parseInt(options.getOrDefault("population", "10"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        double targetPercent = Double.parseDouble(options.getOrDefault("target", "5"));
+        boolean verbose = options.containsKey("verbose");
+        int fitnessCache = Integer.parseInt(options.getOrDefault("fitness-cache", "0"));
+        String budget = options.get("budget-ms");
+        TerminationCriterion termination = budget != null
+                ? TerminationCriterion.maxTime(Duration.ofMillis(Long.parseLong(budget)))
+                : null;
+
+        FitnessUtil fitnessUtil = FitnessUtil.getInstance();
+        CheckConditionUtil checkConditionUtil = CheckConditionUtil.getInstance();
+        FitnessStrategy originalStrategy = fitnessUtil.getFitnessStrategy();
+        boolean originalParallel = fitnessUtil.isParallelMode();
+        int originalCacheCapacity = fitnessUtil.getFitnessCacheCapacity();
+        RecordingFitnessStrategy recorder = new RecordingFitnessStrategy(originalStrategy);
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"suite\": \"optimizer-throughput\",\n");
+        json.append("  \"java\": \"").append(System.getProperty("java.version")).append("\",\n");
+        json.append("  \"availableProcessors\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+        json.append("  \"maxHeapBytes\": ").append(Runtime.getRuntime().maxMemory()).append(",\n");
+        json.append("  \"seed\": ").append(seed).append(",\n");
+        json.append("  \"runs\": ").append(runs).append(",\n");
+        json.append("  \"targetPercent\": ").append(number(targetPercent)).append(",\n");
+        if (budget != null) {
+            json.append("  \"budgetMs\": ").append(Long.parseLong(budget)).append(",\n");
+        }
+        json.append("  \"fitnessCacheCapacity\": ").append(fitnessCache).append(",\n");
+        json.append("  \"instances\": [");
+
+        PrintStream console = System.out;
+        try {
+            fitnessUtil.setFitnessStrategy(recorder);
+            fitnessUtil.setParallelMode(false);
+            fitnessUtil.setFitnessCacheCapacity(fitnessCache);
+
+            boolean firstInstance = true;
+            for (String type : types) {
+                for (String size : customers) {
+                    SyntheticInstance instance = SyntheticInstance.generate(ProblemType.valueOf(type.trim()),
+                            Integer.parseInt(size.trim()), seed);
+                    console.println("Benchmarking " + instance);
+
+                    List<RunResult> results = new ArrayList<>();
+                    for (String algorithm : algorithms) {
+                        String name = algorithm.trim();
+                        if (!ALGORITHMS.containsKey(name)) {
+                            throw new IllegalArgumentException("Unknown algorithm: " + name);
+                        }
+                        for (int run = -warmup; run < runs; run++) {
+                            long runSeed = SeedUtil.derive(seed, name.hashCode(), run);
+                            RunResult result = runOnce(name, instance, population, runSeed, termination, fitnessUtil,
+                                    checkConditionUtil, recorder, verbose ? console : null);
+                            if (run >= 0) {
+                                results.add(result);
+                                console.printf(Locale.ROOT, "  %-4s run %d: fitness=%.2f time=%dms evals/s=%.0f%n",
+                                        name, run + 1, result.fitness, result.nanos / 1_000_000,
+                                        result.evaluationsPerSecond());
+                            }
+                        }
+                    }
+
+                    double bestKnown = Double.POSITIVE_INFINITY;
+                    for (RunResult result : results) {
+                        bestKnown = Math.min(bestKnown, result.fitness);
+                    }
+                    double target = bestKnown * (1 + targetPercent / 100);
+
+                    json.append(firstInstance ? "\n" : ",\n");
+                    firstInstance = false;
+                    appendInstance(json, instance, bestKnown, target, results);
+                }
+            }
+        } finally {
+            System.setOut(console);
+            fitnessUtil.setFitnessStrategy(originalStrategy);
+            fitnessUtil.setParallelMode(originalParallel);
+            fitnessUtil.setFitnessCacheCapacity(originalCacheCapacity);
+        }
+
+        json.append("\n  ]\n}\n");
+
+        String out = options.get("out");
+        if (out == null) {
+            console.print(json);
+        } else {
+            Path path = Paths.get(out);
+            Files.writeString(path, json, StandardCharsets.UTF_8);
+            console.println("Results written to " + path.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Chạy một thuật toán một lần trên bài toán cho trước và đo các chỉ số
+     */
+    private static RunResult runOnce(String algorithm, SyntheticInstance instance, int population, long seed,
+            TerminationCriterion termination, FitnessUtil fitnessUtil, CheckConditionUtil checkConditionUtil, RecordingFitnessStrategy recorder,
+            PrintStream console) {
+        Solution[] initialSolutions = instance.createInitialSolutions(fitnessUtil, population);
+        Optimizer optimizer = ALGORITHMS.get(algorithm).apply(initialSolutions);
+
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = heapPools();
+        for (MemoryPoolMXBean pool : heapPools) {
+            pool.resetPeakUsage();
+        }
+        long allocatedBefore = allocatedBytes();
+
+        // Các optimizer in nhiều thông tin trong vòng lặp, tắt đi để không ảnh hưởng đến thời gian đo
+        PrintStream previous = System.out;
+        System.setOut(console != null ? console : new PrintStream(OutputStream.nullOutputStream()));
+        Solution best;
+        long nanos;
+        try {
+            recorder.reset();
+            long start = System.nanoTime();
+            best = optimizer.run(initialSolutions, fitnessUtil, checkConditionUtil, instance.getLocations(),
+                    instance.getTravelMatrix(), seed, termination);
+            nanos = System.nanoTime() - start;
+        } finally {
+            System.setOut(previous);
+        }
+
+        long allocated = allocatedBytes() - allocatedBefore;
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+
+        long evaluations = recorder.evaluations;
+        // Tính lại fitness của kết quả để không phụ thuộc vào giá trị optimizer tự lưu
+        double fitness = best == null ? Double.NaN
+                : fitnessUtil.calculatorFitness(best.getRoutes(), instance.getLocations(),
+                        instance.getTravelMatrix(), false);
+
+        long[] improvementNanos = Arrays.copyOf(recorder.improvementNanos, recorder.improvements);
+        double[] improvementFitness = Arrays.copyOf(recorder.improvementFitness, recorder.improvements);
+        EvaluationContext context = optimizer.getEvaluationContext();
+        FingerprintCache solutionCache = context != null ? context.getSolutionCache() : null;
+        FingerprintCache routeCache = context != null ? context.getRouteCache() : null;
+        return new RunResult(algorithm, nanos, evaluations, fitness, allocated, peakHeap, improvementNanos,
+                improvementFitness, solutionCache != null ? solutionCache.hitRate() : Double.NaN,
+                routeCache != null ? routeCache.hitRate() : Double.NaN);
+    }
+
+    private static void appendInstance(StringBuilder json, SyntheticInstance instance, double bestKnown,
+            double target, List<RunResult> results) {
+        json.append("    {\n");
+        json.append("      \"problemType\": \"").append(instance.getProblemType()).append("\",\n");
+        json.append("      \"customers\": ").append(instance.getCustomers()).append(",\n");
+        json.append("      \"seed\": ").append(instance.getSeed()).append(",\n");
+        json.append("      \"bestKnownFitness\": ").append(number(bestKnown)).append(",\n");
+        json.append("      \"targetFitness\": ").append(number(target)).append(",\n");
+        json.append("      \"results\": [");
+        for (int i = 0; i < results.size(); i++) {
+            RunResult result = results.get(i);
+            long toTarget = -1;
+            for (int k = 0; k < result.improvementFitness.length; k++) {
+                if (result.improvementFitness[k] <= target) {
+                    toTarget = result.improvementNanos[k];
+                    break;
+                }
+            }
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("        {\"algorithm\": \"").append(result.algorithm).append("\"");
+            json.append(", \"timeMs\": ").append(number(result.nanos / 1e6));
+            json.append(", \"evaluations\": ").append(result.evaluations);
+            json.append(", \"evaluationsPerSecond\": ").append(number(result.evaluationsPerSecond()));
+            json.append(", \"fitness\": ").append(number(result.fitness));
+            json.append(", \"timeToTargetMs\": ").append(toTarget < 0 ? "null" : number(toTarget / 1e6));
+            json.append(", \"allocatedBytes\": ").append(result.allocatedBytes);
+            json.append(", \"allocationRateMBps\": ").append(number(result.allocationRate() / (1024 * 1024)));
+            json.append(", \"peakHeapBytes\": ").append(result.peakHeapBytes);
+            json.append(", \"solutionCacheHitRate\": ").append(number(result.solutionCacheHitRate));
+            json.append(", \"routeCacheHitRate\": ").append(number(result.routeCacheHitRate));
+            json.append("}");
+        }
+        json.append("\n      ]\n    }");
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pools.add(pool);
+            }
+        }
+        return pools;
+    }
+
+    /**
+     * Tổng số byte đã cấp phát bởi luồng hiện tại, hoặc -1 nếu JVM không hỗ trợ
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                && threadBean.isThreadAllocatedMemorySupported()) {
+            return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static String number(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return "null";
+        }
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String key = args[i].substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(key, args[++i]);
+            } else {
+                options.put(key, "true");
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Kết quả của một lần chạy
+     */
+    private record RunResult(String algorithm, long nanos, long evaluations, double fitness, long allocatedBytes,
+            long peakHeapBytes, long[] improvementNanos, double[] improvementFitness, double solutionCacheHitRate,
+            double routeCacheHitRate) {
+
+        double evaluationsPerSecond() {
+            return nanos == 0 ? 0 : evaluations * 1e9 / nanos;
+        }
+
+        double allocationRate() {
+            return nanos == 0 || allocatedBytes < 0 ? 0 : allocatedBytes * 1e9 / nanos;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.logistic.benchmark;
+
+import java.util.Arrays;
+
+import org.logistic.util.FitnessStrategy;
+
+/**
+ * Strategy bao ngoài strategy thật để ghi lại quá trình tìm kiếm mà không phải sửa các
+ * optimizer: đếm số lần đánh giá fitness và lưu các mốc (thời gian, fitness) mỗi khi tìm được
+ * fitness tốt hơn. Chỉ dùng trong một luồng (bộ benchmark chạy tuần tự).
+ */
+final class RecordingFitnessStrategy implements FitnessStrategy {
+    final FitnessStrategy delegate;
+
+    long evaluations;
+    long startNanos;
+    double best;
+
+    // Các mốc cải thiện: thời gian (ns kể từ khi bắt đầu) và fitness tốt nhất tại thời điểm đó
+    long[] improvementNanos = new long[64];
+    double[] improvementFitness = new double[64];
+    int improvements;
+
+    RecordingFitnessStrategy(FitnessStrategy delegate) {
+        this.delegate = delegate;
+        reset();
+    }
+
+    /**
+     * Bắt đầu ghi cho một lần chạy mới
+     */
+    void reset() {
+        evaluations = 0;
+        improvements = 0;
+        best = Double.POSITIVE_INFINITY;
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public double calculateFitness(int numberVehicle, int totalDistances, int totalServiceTime,
+            int totalWaitingTime) {
+        return record(delegate.calculateFitness(numberVehicle, totalDistances, totalServiceTime, totalWaitingTime));
+    }
+
+    @Override
+    public double calculateFitness(int numberVehicle, double totalDistances, double totalServiceTime,
+            double totalWaitingTime) {
+        return record(delegate.calculateFitness(numberVehicle, totalDistances, totalServiceTime, totalWaitingTime));
+    }
+
+    @Override
+    public boolean needsDistance() {
+        return delegate.needsDistance();
+    }
+
+    @Override
+    public boolean needsServiceTime() {
+        return delegate.needsServiceTime();
+    }
+
+    @Override
+    public boolean needsWaitingTime() {
+        return delegate.needsWaitingTime();
+    }
+
+    @Override
+    public boolean needsVehicleCount() {
+        return delegate.needsVehicleCount();
+    }
+
+    private double record(double fitness) {
+        evaluations++;
+        if (fitness < best) {
+            best = fitness;
+            if (improvements == improvementNanos.length) {
+                improvementNanos = Arrays.copyOf(improvementNanos, improvements * 2);
+                improvementFitness = Arrays.copyOf(improvementFitness, improvements * 2);
+            }
+            improvementNanos[improvements] = System.nanoTime() - startNanos;
+            improvementFitness[improvements] = fitness;
+            improvements++;
+        }
+        return fitness;
+    }
+}
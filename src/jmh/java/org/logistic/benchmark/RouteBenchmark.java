@@ -0,0 +1,65 @@
+package org.logistic.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.logistic.model.Route;
+import org.logistic.model.Solution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Đo các thao tác cơ bản trên mô hình: tính khoảng cách tuyến và sao chép giải pháp
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteBenchmark {
+    Solution target;
+
+    @Setup
+    public void setup(InstanceState state) {
+        target = state.solution.copy();
+    }
+
+    @Benchmark
+    public double calculateDistanceEuclidean(InstanceState state) {
+        double total = 0;
+        for (Route route : target.getRoutes()) {
+            route.calculateDistance(state.locations);
+            total += route.getDistance();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double calculateDistanceTravelMatrix(InstanceState state) {
+        double total = 0;
+        for (Route route : target.getRoutes()) {
+            route.calculateDistance(state.locations, state.travelMatrix);
+            total += route.getDistance();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Solution solutionCopy(InstanceState state) {
+        return state.solution.copy();
+    }
+
+    @Benchmark
+    public Solution solutionCopyFrom(InstanceState state) {
+        target.copyFrom(state.solution);
+        return target;
+    }
+}
@@ -1,5 +1,7 @@
 package org.logistic;
 
+import org.logistic.algorithm.TerminationCriterion;
+import org.logistic.algorithm.aco.AntColonyOptimization;
 import org.logistic.data.ReadDataFromFile;
 import org.logistic.parallel.ParallelExecutionManager;
 import org.logistic.parallel.PerformanceMonitor;
@@ -11,6 +13,9 @@ import org.logistic.util.FitnessStrategy;
 import org.logistic.util.FitnessUtil;
 import org.logistic.util.PrintUtil;
 import org.logistic.util.RLUtil;
+import org.logistic.util.SeedUtil;
+
+import java.time.Duration;
 
 /**
  * Lớp chính của ứng dụng tối ưu hóa hậu cần
@@ -61,6 +66,17 @@ public class Main {
         int epoch = 1;
         // Loại bài toán (chỉ định trực tiếp)
         ReadDataFromFile.ProblemType problemType = ReadDataFromFile.ProblemType.VRPTW;
+        // Seed gốc cho các bộ sinh số ngẫu nhiên; null để sinh ngẫu nhiên (seed được in ra để chạy lại)
+        Long seed = null;
+        // Ngân sách thời gian (ms) cho mỗi lần chạy của mỗi thuật toán; null để dùng số vòng lặp
+        // mặc định của từng thuật toán
+        Long timeBudgetMillis = null;
+        // Số phần tử tối đa của bộ nhớ đệm fitness theo fingerprint trong mỗi lần chạy (0 để tắt);
+        // tỷ lệ trúng được in trong báo cáo hiệu suất
+        int fitnessCacheCapacity = 0;
+        // Biến thể ACO: ANT_SYSTEM (gốc) hoặc MAX_MIN (MAX-MIN Ant System, giới hạn pheromone và
+        // khởi tạo lại khi trì trệ)
+        AntColonyOptimization.Variant acoVariant = AntColonyOptimization.Variant.ANT_SYSTEM;
     }
 
     /**
@@ -97,6 +113,8 @@ public class Main {
         .build();
 
         fitnessUtil.setFitnessStrategy(strategy);
+        fitnessUtil.setFitnessCacheCapacity(config.fitnessCacheCapacity);
+        ExecutionUtil.setAcoVariant(config.acoVariant);
         PrintUtil printUtil = PrintUtil.getInstance();
         CheckConditionUtil checkConditionUtil = CheckConditionUtil.getInstance();
         ReadDataFromFile rdff = new ReadDataFromFile();
@@ -117,27 +135,35 @@ public class Main {
 
         System.out.println("Loại bài toán: " + problemType);
 
+        long seed = config.seed != null ? config.seed : SeedUtil.randomSeed();
+        TerminationCriterion terminationCriterion = config.timeBudgetMillis != null
+                ? TerminationCriterion.maxTime(Duration.ofMillis(config.timeBudgetMillis))
+                : null;
+
         if (config.runMode == RunMode.DIRECTORY) {
             // Xử lý tất cả các file trong thư mục
             ExecutionUtil.processAllFilesInDirectory(config.srcDirectory, config.solutionDirectory,
                     rdff, fitnessUtil, printUtil, checkConditionUtil, problemType,
-                    config.exportType, config.iterations, config.parallelEnabled);
+                    config.exportType, config.iterations, config.parallelEnabled, seed, terminationCriterion);
         } else if (config.runMode == RunMode.SINGLE_FILE) {
             // Chạy với một file duy nhất
             ExecutionUtil.processSingleFile(config.dataLocation, config.dataSolution,
                     rdff, fitnessUtil, printUtil, checkConditionUtil, problemType,
-                    config.exportType, config.iterations, config.parallelEnabled);
+                    config.exportType, config.iterations, config.parallelEnabled, seed, terminationCriterion);
         } else if (config.runMode == RunMode.RL) {
             // Xử lý học tăng cường
             RLUtil.processRL(config.srcDirectory, config.solutionDirectory,
                     rdff, fitnessUtil, printUtil, checkConditionUtil, problemType, strategy,
-                    config.exportType, config.iterations, config.parallelEnabled, config.iterations, config.epoch);
+                    config.exportType, config.iterations, config.parallelEnabled, config.iterations, config.epoch,
+                    seed);
         }
 
         // Lưu file Excel nếu đã được chỉ định, RL không cần ghi file excel
         if ((config.exportType == ExportType.EXCEL || config.exportType == ExportType.ALL)
                 && config.runMode != RunMode.RL) {
+            long exportStart = System.nanoTime();
             excelUtil.saveExcelWorkbook();
+            performanceMonitor.recordStage(PerformanceMonitor.Stage.EXPORT, System.nanoTime() - exportStart);
         }
 
         // Kết thúc monitoring và in báo cáo
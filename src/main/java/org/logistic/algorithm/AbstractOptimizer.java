@@ -1,14 +1,16 @@
 package org.logistic.algorithm;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
-import org.logistic.model.DistanceTime;
 import org.logistic.model.Location;
 import org.logistic.model.Route;
+import org.logistic.model.RouteBuffer;
+import org.logistic.model.RouteCost;
 import org.logistic.model.Solution;
+import org.logistic.model.TravelMatrix;
+import org.logistic.model.Zobrist;
 import org.logistic.util.CheckConditionUtil;
+import org.logistic.util.EvaluationContext;
 import org.logistic.util.FitnessUtil;
 
 import lombok.AccessLevel;
@@ -20,14 +22,32 @@ import lombok.experimental.FieldDefaults;
 @FieldDefaults(level = AccessLevel.PROTECTED)
 public abstract class AbstractOptimizer implements Optimizer {
 
-    // Các tham số chung
-    final Random random = new Random();
+    // Bộ sinh số ngẫu nhiên riêng của optimizer (không đồng bộ, không tranh chấp giữa các luồng)
+    SplittableRandom random = new SplittableRandom();
 
     // Các tham số được thiết lập trong quá trình chạy
     Location[] locations;
-    DistanceTime[] distanceTimes;
+    TravelMatrix travelMatrix;
     FitnessUtil fitnessUtil;
     CheckConditionUtil checkConditionUtil;
+    MoveEvaluator moveEvaluator;
+    NeighborIndex neighborIndex;
+    EvaluationContext evaluationContext;
+
+    // Đánh dấu láng giềng của điểm đang xét (neighborMarks[j] == neighborStamp), dùng lại giữa các bước
+    int[] neighborMarks;
+    int neighborStamp;
+
+    // Bộ đệm dùng lại giữa các lần biến đổi để tránh cấp phát trong vòng lặp chính
+    final RouteBuffer routeBuffer = new RouteBuffer();
+    // Đoạn tạm của PD-Rearrange (chỉ dùng segmentLength phần tử đầu)
+    int[] segmentScratch = new int[8];
+
+    // Điều kiện dừng do người gọi chỉ định (null: dùng số vòng lặp mặc định của thuật toán)
+    TerminationCriterion terminationCriterion;
+    // Điều kiện dừng thực tế và tiến trình của lần chạy hiện tại
+    TerminationCriterion activeTermination;
+    final SearchProgress progress = new SearchProgress();
 
     /**
      * Khởi tạo optimizer
@@ -37,27 +57,238 @@ public abstract class AbstractOptimizer implements Optimizer {
     }
 
     /**
-     * Override phương thức run với DistanceTime
+     * Override phương thức run với ma trận khoảng cách-thời gian
      */
     @Override
     public Solution run(Solution[] initialSolutions,
             FitnessUtil fitnessUtil,
             CheckConditionUtil checkConditionUtil,
             Location[] locations,
-            DistanceTime[] distanceTimes) {
-        this.distanceTimes = distanceTimes;
+            TravelMatrix travelMatrix) {
+        this.travelMatrix = travelMatrix;
         return run(initialSolutions, fitnessUtil, checkConditionUtil, locations);
     }
 
+    /**
+     * Đặt lại seed cho bộ sinh số ngẫu nhiên để lần chạy có thể tái lập
+     *
+     * @param seed Seed mới
+     */
+    @Override
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Đặt điều kiện dừng cho các lần chạy tiếp theo
+     *
+     * @param terminationCriterion Điều kiện dừng, null để dùng số vòng lặp mặc định của thuật toán
+     */
+    @Override
+    public void setTerminationCriterion(TerminationCriterion terminationCriterion) {
+        this.terminationCriterion = terminationCriterion;
+    }
+
+    /**
+     * Bắt đầu theo dõi tiến trình của lần chạy mới và xác định điều kiện dừng thực tế. Điều kiện
+     * không có giới hạn (chỉ stagnation hoặc fitness mục tiêu) được kết hợp với số vòng lặp mặc
+     * định để lần chạy luôn kết thúc.
+     *
+     * @param defaultIterations Số vòng lặp mặc định của thuật toán
+     * @return Điều kiện dừng thực tế
+     */
+    protected TerminationCriterion startTermination(long defaultIterations) {
+        progress.reset();
+        TerminationCriterion criterion = terminationCriterion;
+        if (criterion == null) {
+            criterion = TerminationCriterion.maxIterations(defaultIterations);
+        } else if (!criterion.isBounded()) {
+            criterion = TerminationCriterion.anyOf(criterion, TerminationCriterion.maxIterations(defaultIterations));
+        }
+        activeTermination = criterion;
+        return criterion;
+    }
+
+    /**
+     * @return true nếu lần chạy hiện tại cần dừng
+     */
+    protected boolean shouldStop() {
+        return activeTermination.isMet(progress);
+    }
+
+    /**
+     * @return Tỷ lệ ngân sách đã dùng trong [0, 1], dùng cho lịch giảm tham số của thuật toán
+     */
+    protected double budgetUsed() {
+        return activeTermination.budgetUsed(progress);
+    }
+
+    /**
+     * Kết thúc một vòng lặp của thuật toán
+     *
+     * @param bestFitness Fitness tốt nhất tìm được tính đến hiện tại
+     */
+    protected void completeIteration(double bestFitness) {
+        progress.completeIteration(bestFitness);
+    }
+
+    /**
+     * Tạo một luồng số ngẫu nhiên con độc lập, dùng cho các công việc chạy trên luồng khác
+     * (mỗi luồng cần một bộ sinh riêng vì SplittableRandom không an toàn đa luồng)
+     *
+     * @return Bộ sinh số ngẫu nhiên mới được tách từ bộ sinh hiện tại
+     */
+    protected SplittableRandom splitRandom() {
+        return random.split();
+    }
+
+    /**
+     * Lấy bộ đánh giá chênh lệch khoảng cách cho dữ liệu hiện tại
+     *
+     * @return MoveEvaluator, hoặc null nếu chưa có thông tin locations
+     */
+    protected MoveEvaluator moveEvaluator() {
+        if (locations == null) {
+            return null;
+        }
+        if (moveEvaluator == null || !moveEvaluator.isFor(locations, travelMatrix)) {
+            moveEvaluator = new MoveEvaluator(locations, travelMatrix);
+        }
+        return moveEvaluator;
+    }
+
+    /**
+     * Lấy danh sách láng giềng gần nhất, chỉ xây dựng lại khi dữ liệu bài toán thay đổi
+     *
+     * @return NeighborIndex, hoặc null nếu chưa có thông tin locations
+     */
+    protected NeighborIndex neighborIndex() {
+        if (locations == null) {
+            return null;
+        }
+        if (neighborIndex == null || !neighborIndex.isFor(locations, travelMatrix)) {
+            neighborIndex = new NeighborIndex(locations, travelMatrix, NeighborIndex.DEFAULT_K);
+        }
+        return neighborIndex;
+    }
+
+    /**
+     * Chọn ngẫu nhiên (đều) một vị trí trong way mà điểm tại đó là láng giềng gần của node, chi
+     * phí O(K + way.length)
+     *
+     * @param node Điểm đang xét
+     * @param way  Tuyến đường cần tìm
+     * @return Vị trí tìm được, hoặc -1 nếu tuyến không chứa láng giềng nào của node
+     */
+    protected int neighborPosition(int node, int[] way) {
+        NeighborIndex index = neighborIndex();
+        if (index == null || node >= locations.length || index.count(node) == 0) {
+            return -1;
+        }
+        if (neighborMarks == null || neighborMarks.length != locations.length
+                || neighborStamp == Integer.MAX_VALUE) {
+            neighborMarks = new int[locations.length];
+            neighborStamp = 0;
+        }
+        int stamp = ++neighborStamp;
+        for (int rank = 0; rank < index.count(node); rank++) {
+            neighborMarks[index.neighbor(node, rank)] = stamp;
+        }
+
+        int chosen = -1;
+        int seen = 0;
+        for (int pos = 0; pos < way.length; pos++) {
+            int candidate = way[pos];
+            if (candidate < neighborMarks.length && neighborMarks[candidate] == stamp
+                    && random.nextInt(++seen) == 0) {
+                chosen = pos;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Chọn một tuyến khác gần tuyến routeIndex về không gian: chọn ngẫu nhiên (đều) trong các tuyến
+     * có hình chữ nhật bao giao với tuyến đó, nếu không có thì chọn tuyến có hình chữ nhật bao gần
+     * nhất. Hình chữ nhật bao lấy từ chi phí đã lưu của tuyến (chỉ tính lại các tuyến đã thay
+     * đổi), nên chi phí O(số tuyến). Nếu không xác định được (chưa có locations, tuyến rỗng) thì
+     * chọn ngẫu nhiên như trước.
+     *
+     * @param routes     Mảng các tuyến đường (ít nhất 2 tuyến)
+     * @param routeIndex Chỉ số tuyến đã chọn
+     * @return Chỉ số tuyến còn lại, khác routeIndex
+     */
+    protected int selectNearbyRoute(Route[] routes, int routeIndex) {
+        int chosen = -1;
+        if (locations != null && routes[routeIndex].getIndLocations().length > 0) {
+            RouteCost origin = routes[routeIndex].getCost(locations, travelMatrix);
+            double closestGap = Double.POSITIVE_INFINITY;
+            int overlapping = 0;
+            for (int i = 0; i < routes.length; i++) {
+                if (i == routeIndex || routes[i].getIndLocations().length == 0) {
+                    continue;
+                }
+                double gap = origin.boundsGap(routes[i].getCost(locations, travelMatrix));
+                if (gap == 0) {
+                    if (random.nextInt(++overlapping) == 0) {
+                        chosen = i;
+                    }
+                } else if (overlapping == 0 && gap < closestGap) {
+                    closestGap = gap;
+                    chosen = i;
+                }
+            }
+        }
+        if (chosen < 0) {
+            do {
+                chosen = random.nextInt(routes.length);
+            } while (chosen == routeIndex);
+        }
+        return chosen;
+    }
+
+    /**
+     * Ngữ cảnh đánh giá của lần chạy gần nhất (null nếu chưa chạy)
+     */
+    @Override
+    public EvaluationContext getEvaluationContext() {
+        return evaluationContext;
+    }
+
+    /**
+     * Lấy ngữ cảnh đánh giá fitness riêng của lần chạy hiện tại
+     *
+     * @return EvaluationContext gắn với locations và travelMatrix hiện tại
+     */
+    protected EvaluationContext evaluationContext() {
+        if (evaluationContext == null || evaluationContext.getLocations() != locations
+                || evaluationContext.getTravelMatrix() != travelMatrix) {
+            evaluationContext = fitnessUtil.createContext(locations, travelMatrix);
+        }
+        return evaluationContext;
+    }
+
+    /**
+     * Tính fitness của tập tuyến đường bằng ngữ cảnh đánh giá của lần chạy hiện tại
+     *
+     * @param routes Mảng các tuyến đường
+     * @return Giá trị fitness (càng thấp càng tốt)
+     */
+    protected double calculateFitness(Route[] routes) {
+        progress.recordEvaluation();
+        return evaluationContext().calculatorFitness(routes);
+    }
+
     /**
      * Áp dụng toán tử hoán đổi (swap) cho một tuyến đường
      *
      * @param route Tuyến đường cần áp dụng toán tử
+     * @return Chênh lệch khoảng cách của tuyến đường
      */
-    protected void applySwapOperator(Route route) {
+    protected double applySwapOperator(Route route) {
         int[] way = route.getIndLocations();
         if (way.length < 2) {
-            return; // Không thể hoán đổi nếu chỉ có 1 phần tử hoặc ít hơn
+            return 0; // Không thể hoán đổi nếu chỉ có 1 phần tử hoặc ít hơn
         }
 
         // Chọn hai vị trí ngẫu nhiên khác nhau
@@ -67,10 +298,20 @@ public abstract class AbstractOptimizer implements Optimizer {
             pos2 = random.nextInt(way.length);
         } while (pos1 == pos2);
 
+        // Đánh giá chênh lệch trước khi hoán đổi (chỉ các cạnh bị ảnh hưởng)
+        MoveEvaluator evaluator = moveEvaluator();
+        double delta = evaluator != null ? evaluator.swapDelta(way, pos1, pos2) : 0;
+        long fingerprintDelta = Zobrist.swapDelta(way, pos1, pos2);
+
         // Hoán đổi hai điểm
         int temp = way[pos1];
         way[pos1] = way[pos2];
         way[pos2] = temp;
+        route.markModified();
+        route.applyFingerprintDelta(fingerprintDelta);
+
+        route.applyDistanceDelta(delta);
+        return delta;
     }
 
     /**
@@ -78,18 +319,16 @@ public abstract class AbstractOptimizer implements Optimizer {
      * đường khác
      *
      * @param routes Mảng các tuyến đường cần áp dụng toán tử
+     * @return Tổng chênh lệch khoảng cách (0 nếu không áp dụng)
      */
-    protected void applyPdShift(Route[] routes) {
+    protected double applyPdShift(Route[] routes) {
         if (routes.length < 2) {
-            return; // Cần ít nhất 2 tuyến đường để thực hiện shift
+            return 0; // Cần ít nhất 2 tuyến đường để thực hiện shift
         }
 
-        // Chọn ngẫu nhiên 2 tuyến đường khác nhau
+        // Chọn ngẫu nhiên tuyến 1, tuyến 2 là một tuyến gần tuyến 1 về không gian
         int routeIndex1 = random.nextInt(routes.length);
-        int routeIndex2;
-        do {
-            routeIndex2 = random.nextInt(routes.length);
-        } while (routeIndex1 == routeIndex2);
+        int routeIndex2 = selectNearbyRoute(routes, routeIndex1);
 
         Route route1 = routes[routeIndex1];
         Route route2 = routes[routeIndex2];
@@ -99,83 +338,87 @@ public abstract class AbstractOptimizer implements Optimizer {
 
         // Kiểm tra nếu một trong hai tuyến đường không có điểm nào
         if (way1.length == 0 || way2.length == 0) {
-            return;
+            return 0;
         }
 
-        // Lưu lại bản sao của các tuyến đường gốc để khôi phục nếu cần
-        int[] originalWay1 = way1.clone();
-        int[] originalWay2 = way2.clone();
-
         // Chọn một điểm ngẫu nhiên từ tuyến đường 1 để di chuyển sang tuyến đường 2
         int posToMove = random.nextInt(way1.length);
         int locationToMove = way1[posToMove];
 
-        // Chọn vị trí ngẫu nhiên trên tuyến đường 2 để chèn điểm
-        int insertPos = way2.length > 0 ? random.nextInt(way2.length + 1) : 0;
+        // Ưu tiên chèn ngay trước một láng giềng gần của điểm, nếu không có thì chọn ngẫu nhiên
+        int insertPos = neighborPosition(locationToMove, way2);
+        if (insertPos < 0) {
+            insertPos = random.nextInt(way2.length + 1);
+        }
 
-        // Tạo mảng mới cho tuyến đường 1 (loại bỏ điểm được di chuyển)
-        int[] newWay1 = new int[way1.length - 1];
-        for (int i = 0, j = 0; i < way1.length; i++) {
-            if (i != posToMove) {
-                newWay1[j++] = way1[i];
+        // Kiểm tra tính khả thi trong O(1) trước khi tạo tuyến mới, bỏ qua ngay nếu không hợp lệ
+        if (locations != null) {
+            if (!checkConditionUtil.isRemovalFeasible(route1, posToMove, locations, route1.getMaxPayload(),
+                    travelMatrix) ||
+                    !checkConditionUtil.isNodeInsertionFeasible(route2, insertPos, locationToMove, locations,
+                            route2.getMaxPayload(), travelMatrix)) {
+                return 0;
             }
         }
 
-        // Tạo mảng mới cho tuyến đường 2 (thêm điểm mới)
-        int[] newWay2 = new int[way2.length + 1];
-        for (int i = 0; i < insertPos; i++) {
-            newWay2[i] = way2[i];
-        }
-        newWay2[insertPos] = locationToMove;
-        for (int i = insertPos; i < way2.length; i++) {
-            newWay2[i + 1] = way2[i];
-        }
+        // Đánh giá chênh lệch trên các mảng gốc trước khi tạo tuyến mới
+        MoveEvaluator evaluator = moveEvaluator();
+        double delta1 = evaluator != null ? evaluator.removeDelta(way1, posToMove) : 0;
+        double delta2 = evaluator != null ? evaluator.insertDelta(way2, insertPos, locationToMove) : 0;
+        long fingerprintDelta1 = Zobrist.removeDelta(way1, posToMove);
+        long fingerprintDelta2 = Zobrist.insertDelta(way2, insertPos, locationToMove);
 
-        // Cập nhật các tuyến đường
-        route1.setIndLocations(newWay1);
-        route2.setIndLocations(newWay2);
+        // Loại bỏ điểm khỏi tuyến 1 và chèn vào tuyến 2 qua bộ đệm; mảng cũ của hai tuyến được bộ
+        // đệm giữ lại cho các lần sau nên không cấp phát mảng mới khi đã chạy ổn định
+        routeBuffer.load(way1);
+        routeBuffer.remove(posToMove);
+        routeBuffer.storeTo(route1);
+
+        routeBuffer.load(way2);
+        routeBuffer.insert(insertPos, locationToMove);
+        routeBuffer.storeTo(route2);
 
         // Đảm bảo giá trị không vượt quá giới hạn
-        validateLocationIndices(newWay1);
-        validateLocationIndices(newWay2);
+        boolean clamped = validateLocationIndices(route1.getIndLocations());
+        clamped |= validateLocationIndices(route2.getIndLocations());
 
-        // Kiểm tra tính khả thi
-        if (locations != null) {
-            if (!checkConditionUtil.isInsertionFeasible(route1, locations, route1.getMaxPayload()) ||
-                    !checkConditionUtil.isInsertionFeasible(route2, locations, route2.getMaxPayload())) {
-                // Khôi phục lại nếu không khả thi
-                route1.setIndLocations(originalWay1);
-                route2.setIndLocations(originalWay2);
-                return;
-            }
+        // Tuyến mới đã được xác nhận khả thi ở trên, các lần kiểm tra sau không cần duyệt lại
+        if (locations != null && !clamped) {
+            route1.markFeasible(locations, travelMatrix, route1.getMaxPayload());
+            route2.markFeasible(locations, travelMatrix, route2.getMaxPayload());
+        }
+        if (!clamped) {
+            route1.applyFingerprintDelta(fingerprintDelta1);
+            route2.applyFingerprintDelta(fingerprintDelta2);
+            route1.applyDistanceDelta(delta1);
+            route2.applyDistanceDelta(delta2);
+            return delta1 + delta2;
+        }
 
-            // Cập nhật khoảng cách
-            if (distanceTimes != null && distanceTimes.length > 0) {
-                route1.calculateDistance(locations, distanceTimes);
-                route2.calculateDistance(locations, distanceTimes);
-            } else {
-                route1.calculateDistance(locations);
-                route2.calculateDistance(locations);
-            }
+        // Chỉ số đã bị thay đổi nên chênh lệch tính trước không còn đúng, tính lại khoảng cách
+        if (evaluator == null) {
+            return 0;
         }
+        double before = route1.getDistance() + route2.getDistance();
+        route1.setDistance(evaluator.routeDistance(route1.getIndLocations()));
+        route2.setDistance(evaluator.routeDistance(route2.getIndLocations()));
+        return route1.getDistance() + route2.getDistance() - before;
     }
 
     /**
      * Áp dụng toán tử PD-Exchange: Trao đổi các điểm giữa hai tuyến đường
      *
      * @param routes Mảng các tuyến đường cần áp dụng toán tử
+     * @return Tổng chênh lệch khoảng cách
      */
-    protected void applyPdExchange(Route[] routes) {
+    protected double applyPdExchange(Route[] routes) {
         if (routes.length < 2) {
-            return; // Cần ít nhất 2 tuyến đường để thực hiện exchange
+            return 0; // Cần ít nhất 2 tuyến đường để thực hiện exchange
         }
 
-        // Chọn ngẫu nhiên 2 tuyến đường khác nhau
+        // Chọn ngẫu nhiên tuyến 1, tuyến 2 là một tuyến gần tuyến 1 về không gian
         int routeIndex1 = random.nextInt(routes.length);
-        int routeIndex2;
-        do {
-            routeIndex2 = random.nextInt(routes.length);
-        } while (routeIndex1 == routeIndex2);
+        int routeIndex2 = selectNearbyRoute(routes, routeIndex1);
 
         Route route1 = routes[routeIndex1];
         Route route2 = routes[routeIndex2];
@@ -185,60 +428,86 @@ public abstract class AbstractOptimizer implements Optimizer {
 
         // Kiểm tra nếu một trong hai tuyến đường không có điểm nào
         if (way1.length == 0 || way2.length == 0) {
-            return;
+            return 0;
         }
 
-        // Chọn một điểm ngẫu nhiên từ mỗi tuyến đường để trao đổi
+        // Chọn một điểm ngẫu nhiên từ tuyến 1, ưu tiên trao đổi với một láng giềng gần của nó ở tuyến 2
         int pos1 = random.nextInt(way1.length);
-        int pos2 = random.nextInt(way2.length);
+        int pos2 = neighborPosition(way1[pos1], way2);
+        if (pos2 < 0) {
+            pos2 = random.nextInt(way2.length);
+        }
+
+        // Đánh giá chênh lệch trước khi trao đổi
+        MoveEvaluator evaluator = moveEvaluator();
+        double delta1 = evaluator != null ? evaluator.replaceDelta(way1, pos1, way2[pos2]) : 0;
+        double delta2 = evaluator != null ? evaluator.replaceDelta(way2, pos2, way1[pos1]) : 0;
+        long fingerprintDelta1 = Zobrist.replaceDelta(way1, pos1, way2[pos2]);
+        long fingerprintDelta2 = Zobrist.replaceDelta(way2, pos2, way1[pos1]);
+
+        // Nếu đã có dữ liệu tiền tố/hậu tố, xác định tính khả thi của hai tuyến mới trong O(1)
+        boolean feasible1 = locations != null && route1.hasSegments(locations, travelMatrix)
+                && checkConditionUtil.isReplacementFeasible(route1, pos1, way2[pos2], locations,
+                        route1.getMaxPayload(), travelMatrix);
+        boolean feasible2 = locations != null && route2.hasSegments(locations, travelMatrix)
+                && checkConditionUtil.isReplacementFeasible(route2, pos2, way1[pos1], locations,
+                        route2.getMaxPayload(), travelMatrix);
 
         // Trao đổi hai điểm
         int temp = way1[pos1];
         way1[pos1] = way2[pos2];
         way2[pos2] = temp;
-
-        // Cập nhật khoảng cách nếu có thông tin về locations
-        if (locations != null) {
-            if (distanceTimes != null && distanceTimes.length > 0) {
-                route1.calculateDistance(locations, distanceTimes);
-                route2.calculateDistance(locations, distanceTimes);
-            } else {
-                route1.calculateDistance(locations);
-                route2.calculateDistance(locations);
-            }
+        route1.markModified();
+        route2.markModified();
+        route1.applyFingerprintDelta(fingerprintDelta1);
+        route2.applyFingerprintDelta(fingerprintDelta2);
+        if (feasible1) {
+            route1.markFeasible(locations, travelMatrix, route1.getMaxPayload());
+        }
+        if (feasible2) {
+            route2.markFeasible(locations, travelMatrix, route2.getMaxPayload());
         }
+
+        route1.applyDistanceDelta(delta1);
+        route2.applyDistanceDelta(delta2);
+        return delta1 + delta2;
     }
 
     /**
      * Áp dụng toán tử ngẫu nhiên cho khám phá
      *
      * @param route Tuyến đường cần áp dụng toán tử
+     * @return Chênh lệch khoảng cách của tuyến đường
      */
-    protected void applyRandomOperation(Route route) {
+    protected double applyRandomOperation(Route route) {
         if (!route.isUse())
-            return;
+            return 0;
         int operator = random.nextInt(2);
-        switch (operator) {
+        return switch (operator) {
             case 0 -> applySwapOperator(route);
             case 1 -> applySwapSequence(route);
-        }
+            default -> 0;
+        };
     }
 
     /**
      * Áp dụng toán tử hoán đổi chuỗi cho một tuyến đường
      *
      * @param route Tuyến đường cần áp dụng toán tử
+     * @return Tổng chênh lệch khoảng cách của các lần hoán đổi
      */
-    protected void applySwapSequence(Route route) {
+    protected double applySwapSequence(Route route) {
         int[] way = route.getIndLocations();
         if (way.length < 2) {
-            return; // Không thể hoán đổi nếu chỉ có 1 phần tử hoặc ít hơn
+            return 0; // Không thể hoán đổi nếu chỉ có 1 phần tử hoặc ít hơn
         }
 
         int n = random.nextInt(10) + 1;
+        double delta = 0;
         for (int i = 0; i < n; i++) {
-            applySwapOperator(route);
+            delta += applySwapOperator(route);
         }
+        return delta;
     }
 
     /**
@@ -246,10 +515,11 @@ public abstract class AbstractOptimizer implements Optimizer {
      * cách
      *
      * @param routes Mảng các tuyến đường cần áp dụng toán tử
+     * @return Chênh lệch khoảng cách của tuyến đường được chọn
      */
-    protected void applyPdRearrange(Route[] routes) {
+    protected double applyPdRearrange(Route[] routes) {
         if (routes.length < 1) {
-            return; // Cần ít nhất 1 tuyến đường để thực hiện rearrange
+            return 0; // Cần ít nhất 1 tuyến đường để thực hiện rearrange
         }
 
         // Chọn ngẫu nhiên 1 tuyến đường
@@ -260,7 +530,7 @@ public abstract class AbstractOptimizer implements Optimizer {
 
         // Kiểm tra nếu tuyến đường không có đủ điểm để sắp xếp lại
         if (way.length < 3) {
-            return;
+            return 0;
         }
 
         // Chọn ngẫu nhiên một đoạn để sắp xếp lại
@@ -270,9 +540,14 @@ public abstract class AbstractOptimizer implements Optimizer {
 
         // Chọn ngẫu nhiên một trong 3 cách sắp xếp
         int method = random.nextInt(3);
+        MoveEvaluator evaluator = moveEvaluator();
+        double delta;
+        long fingerprintDelta;
 
         if (method == 0) {
             // Cách 1: Đảo ngược đoạn
+            delta = evaluator != null ? evaluator.reverseDelta(way, startPos, endPos) : 0;
+            fingerprintDelta = Zobrist.reverseDelta(way, startPos, endPos);
             int left = startPos;
             int right = endPos;
             while (left < right) {
@@ -282,65 +557,76 @@ public abstract class AbstractOptimizer implements Optimizer {
                 left++;
                 right--;
             }
-        } else if (method == 1) {
-            // Cách 2: Xoay vòng đoạn
-            int rotateBy = 1 + random.nextInt(segmentLength - 1);
-            int[] segment = new int[segmentLength];
-
-            // Sao chép đoạn cần xoay
-            for (int i = 0; i < segmentLength; i++) {
-                segment[i] = way[startPos + i];
-            }
-
-            // Xoay vòng đoạn
-            for (int i = 0; i < segmentLength; i++) {
-                way[startPos + i] = segment[(i + rotateBy) % segmentLength];
-            }
         } else {
-            // Cách 3: Sắp xếp ngẫu nhiên đoạn
-            for (int i = 0; i < segmentLength; i++) {
-                int j = random.nextInt(segmentLength);
-                int temp = way[startPos + i];
-                way[startPos + i] = way[startPos + j];
-                way[startPos + j] = temp;
+            // Tạo đoạn mới trong mảng tạm dùng lại, đánh giá rồi mới ghi vào tuyến đường
+            if (segmentScratch.length < segmentLength) {
+                segmentScratch = new int[segmentLength];
             }
-        }
-
-        // Cập nhật khoảng cách nếu có thông tin về locations
-        if (locations != null) {
-            if (distanceTimes != null && distanceTimes.length > 0) {
-                route.calculateDistance(locations, distanceTimes);
+            int[] segment = segmentScratch;
+            if (method == 1) {
+                // Cách 2: Xoay vòng đoạn
+                int rotateBy = 1 + random.nextInt(segmentLength - 1);
+                for (int i = 0; i < segmentLength; i++) {
+                    segment[i] = way[startPos + (i + rotateBy) % segmentLength];
+                }
             } else {
-                route.calculateDistance(locations);
+                // Cách 3: Sắp xếp ngẫu nhiên đoạn
+                System.arraycopy(way, startPos, segment, 0, segmentLength);
+                for (int i = 0; i < segmentLength; i++) {
+                    int j = random.nextInt(segmentLength);
+                    int temp = segment[i];
+                    segment[i] = segment[j];
+                    segment[j] = temp;
+                }
             }
+
+            delta = evaluator != null ? evaluator.segmentDelta(way, startPos, segment, segmentLength) : 0;
+            fingerprintDelta = Zobrist.segmentDelta(way, startPos, segment, segmentLength);
+            System.arraycopy(segment, 0, way, startPos, segmentLength);
         }
+        route.markModified();
+        route.applyFingerprintDelta(fingerprintDelta);
+
+        route.applyDistanceDelta(delta);
+        return delta;
     }
 
     /**
      * Áp dụng toán tử ngẫu nhiên cho nhiều tuyến đường
      *
      * @param routes Mảng các tuyến đường cần áp dụng toán tử
+     * @return Tổng chênh lệch khoảng cách
      */
-    protected void applyRandomMultiRouteOperation(Route[] routes) {
+    protected double applyRandomMultiRouteOperation(Route[] routes) {
         if (routes.length < 2) {
-            return; // Cần ít nhất 2 tuyến đường để thực hiện các toán tử đa tuyến
+            return 0; // Cần ít nhất 2 tuyến đường để thực hiện các toán tử đa tuyến
         }
 
-        // Bỏ qua route không sử dụng
-        List<Route> usableRoutes = new ArrayList<>();
+        // Bỏ qua route không sử dụng (chỉ tạo mảng mới khi thực sự có route bị loại)
+        int usableCount = 0;
         for (Route route : routes) {
             if (route.isUse()) {
-                usableRoutes.add(route);
+                usableCount++;
+            }
+        }
+        Route[] filterRoute = routes;
+        if (usableCount < routes.length) {
+            filterRoute = new Route[usableCount];
+            int index = 0;
+            for (Route route : routes) {
+                if (route.isUse()) {
+                    filterRoute[index++] = route;
+                }
             }
         }
-        Route[] filterRoute = usableRoutes.toArray(new Route[0]);
 
         int operator = random.nextInt(3);
-        switch (operator) {
+        double delta = switch (operator) {
             case 0 -> applyPdShift(filterRoute);
             case 1 -> applyPdExchange(filterRoute);
             case 2 -> applyPdRearrange(filterRoute);
-        }
+            default -> 0;
+        };
 
         // Loại bỏ các route rỗng
         for (int i = 0; i < routes.length; i++) {
@@ -349,6 +635,23 @@ public abstract class AbstractOptimizer implements Optimizer {
             }
         }
 
+        return delta;
+    }
+
+    /**
+     * Sao chép giải pháp nguồn vào một giải pháp tạm để biến đổi, dùng lại bộ nhớ của
+     * giải pháp tạm nếu có
+     *
+     * @param target Giải pháp tạm (có thể null)
+     * @param source Giải pháp nguồn
+     * @return Giải pháp chứa bản sao của nguồn
+     */
+    protected Solution copyInto(Solution target, Solution source) {
+        if (target == null || target == source) {
+            return source.copy();
+        }
+        target.copyFrom(source);
+        return target;
     }
 
     /**
@@ -364,23 +667,40 @@ public abstract class AbstractOptimizer implements Optimizer {
         this.fitnessUtil = fitnessUtil;
         this.checkConditionUtil = checkConditionUtil;
         this.locations = locations;
+        // Mỗi lần chạy dùng ngữ cảnh mới để cấu hình strategy được cố định trong suốt lần chạy
+        this.evaluationContext = fitnessUtil.createContext(locations, travelMatrix);
     }
 
     /**
      * Đảm bảo các chỉ số vị trí không vượt quá giới hạn
      *
      * @param indices Mảng các chỉ số cần kiểm tra
+     * @return true nếu có chỉ số bị thay đổi
      */
-    protected void validateLocationIndices(int[] indices) {
+    protected boolean validateLocationIndices(int[] indices) {
         if (locations == null) {
-            return;
+            return false;
         }
 
+        boolean changed = false;
         int maxLocationIndex = locations.length - 1;
         for (int i = 0; i < indices.length; i++) {
             if (indices[i] > maxLocationIndex) {
                 indices[i] = maxLocationIndex;
+                changed = true;
             }
         }
+        return changed;
+    }
+
+    /**
+     * Đảm bảo các chỉ số vị trí của tuyến đường không vượt quá giới hạn
+     *
+     * @param route Tuyến đường cần kiểm tra
+     */
+    protected void validateLocationIndices(Route route) {
+        if (validateLocationIndices(route.getIndLocations())) {
+            route.markModified();
+        }
     }
 }
\ No newline at end of file
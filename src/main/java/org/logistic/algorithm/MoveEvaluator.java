@@ -0,0 +1,178 @@
+package org.logistic.algorithm;
+
+import org.logistic.model.Location;
+import org.logistic.model.TravelMatrix;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Đánh giá chênh lệch khoảng cách của một bước biến đổi (move) trước khi áp dụng.
+ *
+ * Tuyến đường được xem như chu trình kín 0 -> way[0] -> ... -> way[n-1] -> 0 (giống
+ * cách tính fitness). Mỗi phương thức chỉ đọc các cạnh bị thay đổi nên có chi phí O(1),
+ * riêng các phép biến đổi trên một đoạn dài k có chi phí O(k). Giá trị trả về là
+ * (khoảng cách sau) - (khoảng cách trước); mảng đầu vào không bị thay đổi.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class MoveEvaluator {
+    static final int DEPOT = 0;
+
+    Location[] locations;
+    TravelMatrix travelMatrix;
+
+    /**
+     * @param locations    Mảng các địa điểm
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null, khi đó dùng Euclidean)
+     */
+    public MoveEvaluator(Location[] locations, TravelMatrix travelMatrix) {
+        this.locations = locations;
+        this.travelMatrix = travelMatrix;
+    }
+
+    /**
+     * Kiểm tra evaluator có được tạo cho đúng dữ liệu này không
+     */
+    public boolean isFor(Location[] locations, TravelMatrix travelMatrix) {
+        return this.locations == locations && this.travelMatrix == travelMatrix;
+    }
+
+    /**
+     * Khoảng cách của cạnh from -> to
+     */
+    public double distance(int from, int to) {
+        if (travelMatrix != null) {
+            return travelMatrix.distance(from, to);
+        }
+        return locations[from].distance(locations[to]);
+    }
+
+    /**
+     * Khoảng cách của cả tuyến (chu trình kín qua depot), chi phí O(n); dùng khi không thể cập
+     * nhật theo chênh lệch
+     */
+    public double routeDistance(int[] way) {
+        if (way.length == 0) {
+            return 0;
+        }
+        double total = distance(DEPOT, way[0]) + distance(way[way.length - 1], DEPOT);
+        for (int i = 0; i < way.length - 1; i++) {
+            total += distance(way[i], way[i + 1]);
+        }
+        return total;
+    }
+
+    /**
+     * Chênh lệch khi hoán đổi hai vị trí pos1 và pos2 trong cùng một tuyến
+     */
+    public double swapDelta(int[] way, int pos1, int pos2) {
+        if (pos1 == pos2) {
+            return 0;
+        }
+        int i = Math.min(pos1, pos2);
+        int j = Math.max(pos1, pos2);
+        int a = way[i];
+        int b = way[j];
+        int prev = previous(way, i);
+        int next = next(way, j);
+
+        if (j == i + 1) {
+            // Hai vị trí kề nhau: chỉ có 3 cạnh bị thay đổi
+            double before = distance(prev, a) + distance(a, b) + distance(b, next);
+            double after = distance(prev, b) + distance(b, a) + distance(a, next);
+            return after - before;
+        }
+
+        int afterA = way[i + 1];
+        int beforeB = way[j - 1];
+        double before = distance(prev, a) + distance(a, afterA) + distance(beforeB, b) + distance(b, next);
+        double after = distance(prev, b) + distance(b, afterA) + distance(beforeB, a) + distance(a, next);
+        return after - before;
+    }
+
+    /**
+     * Chênh lệch khi loại bỏ điểm tại vị trí pos
+     */
+    public double removeDelta(int[] way, int pos) {
+        int node = way[pos];
+        int prev = previous(way, pos);
+        int next = next(way, pos);
+        return distance(prev, next) - distance(prev, node) - distance(node, next);
+    }
+
+    /**
+     * Chênh lệch khi chèn node vào trước vị trí pos (pos = way.length nghĩa là chèn vào cuối)
+     */
+    public double insertDelta(int[] way, int pos, int node) {
+        int prev = pos == 0 ? DEPOT : way[pos - 1];
+        int next = pos == way.length ? DEPOT : way[pos];
+        return distance(prev, node) + distance(node, next) - distance(prev, next);
+    }
+
+    /**
+     * Chênh lệch khi thay điểm tại vị trí pos bằng node (dùng cho trao đổi giữa hai tuyến)
+     */
+    public double replaceDelta(int[] way, int pos, int node) {
+        int old = way[pos];
+        int prev = previous(way, pos);
+        int next = next(way, pos);
+        return distance(prev, node) + distance(node, next) - distance(prev, old) - distance(old, next);
+    }
+
+    /**
+     * Chênh lệch khi đảo ngược đoạn [start, end]. Ma trận có thể không đối xứng
+     * nên các cạnh bên trong đoạn cũng được tính lại, chi phí O(end - start).
+     */
+    public double reverseDelta(int[] way, int start, int end) {
+        if (start >= end) {
+            return 0;
+        }
+        int prev = previous(way, start);
+        int next = next(way, end);
+
+        double before = distance(prev, way[start]) + distance(way[end], next);
+        double after = distance(prev, way[end]) + distance(way[start], next);
+        for (int k = start; k < end; k++) {
+            before += distance(way[k], way[k + 1]);
+            after += distance(way[k + 1], way[k]);
+        }
+        return after - before;
+    }
+
+    /**
+     * Chênh lệch khi thay đoạn way[start .. start + segment.length - 1] bằng segment
+     * (xoay vòng, xáo trộn,...). Chi phí O(segment.length).
+     */
+    public double segmentDelta(int[] way, int start, int[] segment) {
+        return segmentDelta(way, start, segment, segment.length);
+    }
+
+    /**
+     * Chênh lệch khi thay đoạn way[start .. start + length - 1] bằng length phần tử đầu của
+     * segment (segment có thể là mảng tạm dài hơn được dùng lại giữa các lần gọi)
+     */
+    public double segmentDelta(int[] way, int start, int[] segment, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int end = start + length - 1;
+        int prev = previous(way, start);
+        int next = next(way, end);
+
+        double before = distance(prev, way[start]) + distance(way[end], next);
+        double after = distance(prev, segment[0]) + distance(segment[length - 1], next);
+        for (int k = 0; k < length - 1; k++) {
+            before += distance(way[start + k], way[start + k + 1]);
+            after += distance(segment[k], segment[k + 1]);
+        }
+        return after - before;
+    }
+
+    private int previous(int[] way, int pos) {
+        return pos == 0 ? DEPOT : way[pos - 1];
+    }
+
+    private int next(int[] way, int pos) {
+        return pos == way.length - 1 ? DEPOT : way[pos + 1];
+    }
+}
@@ -0,0 +1,160 @@
+package org.logistic.algorithm;
+
+import org.logistic.model.Location;
+import org.logistic.model.SpatialGrid;
+import org.logistic.model.TravelMatrix;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Danh sách ứng viên láng giềng gần nhất (granular neighbourhood) của từng điểm.
+ *
+ * Với mỗi điểm i, giữ tối đa K điểm j (khác depot và khác i) gần i nhất theo khoảng cách mà có
+ * thể đi ngay sau i: bỏ các cặp không bao giờ liền kề được vì dù bắt đầu phục vụ i sớm nhất
+ * (ltw_i) thì vẫn đến j sau utw_j. Các danh sách nằm liên tiếp trong một mảng int phẳng
+ * (node * K .. node * K + count(node)), sắp xếp theo khoảng cách tăng dần.
+ *
+ * Chỉ số được xây dựng một lần cho mỗi bộ dữ liệu với chi phí O(n^2 * K); khi khoảng cách là
+ * Euclidean (không có ma trận hoặc {@link TravelMatrix#isEuclidean()}) thì tìm bằng
+ * {@link SpatialGrid} nên chỉ xấp xỉ O(n * K) với dữ liệu phân bố đều. Sau khi xây dựng chỉ số
+ * không thay đổi nên có thể dùng chung giữa các luồng. Các toán tử dùng danh sách này để chọn vị
+ * trí chèn/trao đổi có ý nghĩa, ACO dùng để giới hạn các điểm được xét ở mỗi bước, nên chi phí
+ * mỗi bước không còn phụ thuộc vào kích thước bài toán.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class NeighborIndex {
+    /** Số láng giềng mặc định của mỗi điểm */
+    public static final int DEFAULT_K = 10;
+
+    static final int DEPOT = 0;
+
+    Location[] locations;
+    TravelMatrix travelMatrix;
+
+    @Getter
+    int k;
+    int[] neighbors;
+    int[] counts;
+
+    /**
+     * Xây dựng danh sách láng giềng
+     *
+     * @param locations    Mảng các địa điểm
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null, khi đó dùng Euclidean)
+     * @param k            Số láng giềng tối đa của mỗi điểm
+     */
+    public NeighborIndex(Location[] locations, TravelMatrix travelMatrix, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be >= 1");
+        }
+        this.locations = locations;
+        this.travelMatrix = travelMatrix;
+        int n = locations.length;
+        this.k = Math.max(1, Math.min(k, n - 2));
+        this.neighbors = new int[n * this.k];
+        this.counts = new int[n];
+
+        if (travelMatrix == null || travelMatrix.isEuclidean()) {
+            buildFromGrid(new SpatialGrid(locations));
+            return;
+        }
+
+        double[] best = new double[this.k];
+        for (int from = 0; from < n; from++) {
+            Location origin = locations[from];
+            double departure = origin.getLtw() + origin.getServiceTime();
+            int base = from * this.k;
+            int count = 0;
+
+            for (int to = 1; to < n; to++) {
+                if (to == from || departure + travelTime(from, to) > locations[to].getUtw()) {
+                    continue;
+                }
+                double distance = distance(from, to);
+                if (count == this.k && distance >= best[count - 1]) {
+                    continue;
+                }
+
+                // Chèn vào danh sách đã sắp xếp (tối đa K phần tử), bỏ phần tử xa nhất nếu đầy
+                int pos = count < this.k ? count++ : count - 1;
+                while (pos > 0 && best[pos - 1] > distance) {
+                    best[pos] = best[pos - 1];
+                    neighbors[base + pos] = neighbors[base + pos - 1];
+                    pos--;
+                }
+                best[pos] = distance;
+                neighbors[base + pos] = to;
+            }
+            counts[from] = count;
+        }
+    }
+
+    /**
+     * Tìm láng giềng bằng lưới không gian (khoảng cách Euclidean trùng với khoảng cách của lưới)
+     */
+    private void buildFromGrid(SpatialGrid grid) {
+        int[] found = new int[k];
+        for (int from = 0; from < locations.length; from++) {
+            Location origin = locations[from];
+            double departure = origin.getLtw() + origin.getServiceTime();
+            int source = from;
+            int count = grid.nearest(origin.getX(), origin.getY(), k,
+                    to -> to != DEPOT && to != source && departure + travelTime(source, to) <= locations[to].getUtw(),
+                    found);
+            System.arraycopy(found, 0, neighbors, from * k, count);
+            counts[from] = count;
+        }
+    }
+
+    /**
+     * Kiểm tra chỉ số có được tạo cho đúng dữ liệu này không
+     */
+    public boolean isFor(Location[] locations, TravelMatrix travelMatrix) {
+        return this.locations == locations && this.travelMatrix == travelMatrix;
+    }
+
+    /**
+     * Số láng giềng của một điểm (có thể nhỏ hơn K)
+     */
+    public int count(int node) {
+        return counts[node];
+    }
+
+    /**
+     * Láng giềng gần thứ rank (bắt đầu từ 0) của một điểm
+     */
+    public int neighbor(int node, int rank) {
+        return neighbors[node * k + rank];
+    }
+
+    /**
+     * Mảng phẳng chứa mọi danh sách; danh sách của node bắt đầu tại {@link #offset(int)}.
+     * Không được sửa đổi mảng trả về.
+     */
+    public int[] neighbors() {
+        return neighbors;
+    }
+
+    /**
+     * Vị trí bắt đầu danh sách của một điểm trong mảng phẳng
+     */
+    public int offset(int node) {
+        return node * k;
+    }
+
+    private double distance(int from, int to) {
+        if (travelMatrix != null) {
+            return travelMatrix.distance(from, to);
+        }
+        return locations[from].distance(locations[to]);
+    }
+
+    private double travelTime(int from, int to) {
+        if (travelMatrix != null) {
+            return travelMatrix.travelTime(from, to);
+        }
+        return locations[from].distance(locations[to]);
+    }
+}
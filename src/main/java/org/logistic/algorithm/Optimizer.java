@@ -1,9 +1,10 @@
 package org.logistic.algorithm;
 
-import org.logistic.model.DistanceTime;
 import org.logistic.model.Location;
 import org.logistic.model.Solution;
+import org.logistic.model.TravelMatrix;
 import org.logistic.util.CheckConditionUtil;
+import org.logistic.util.EvaluationContext;
 import org.logistic.util.FitnessUtil;
 
 /**
@@ -25,21 +26,92 @@ public interface Optimizer {
                 Location[] locations);
 
     /**
-     * Run the optimization algorithm with DistanceTime information
+     * Run the optimization algorithm with a distance/travel-time matrix
      * 
      * @param initialSolutions Initial solutions to start with
      * @param fitnessUtil Utility for calculating fitness
      * @param checkConditionUtil Utility for checking conditions
      * @param locations Array of locations
-     * @param distanceTimes Array of distance-time information
+     * @param travelMatrix Distance/travel-time matrix of the problem (may be null)
      * @return The best solution found
      */
     default Solution run(Solution[] initialSolutions, 
                         FitnessUtil fitnessUtil,
                         CheckConditionUtil checkConditionUtil, 
                         Location[] locations,
-                        DistanceTime[] distanceTimes) {
+                        TravelMatrix travelMatrix) {
         // Default implementation fallback to original method
         return run(initialSolutions, fitnessUtil, checkConditionUtil, locations);
     }
-}
\ No newline at end of file
+
+    /**
+     * Run the optimization algorithm with a fixed random seed, so that the run is reproducible
+     *
+     * @param initialSolutions Initial solutions to start with
+     * @param fitnessUtil Utility for calculating fitness
+     * @param checkConditionUtil Utility for checking conditions
+     * @param locations Array of locations
+     * @param travelMatrix Distance/travel-time matrix of the problem (may be null)
+     * @param seed Seed of the optimizer's random number generator
+     * @return The best solution found
+     */
+    default Solution run(Solution[] initialSolutions,
+                        FitnessUtil fitnessUtil,
+                        CheckConditionUtil checkConditionUtil,
+                        Location[] locations,
+                        TravelMatrix travelMatrix,
+                        long seed) {
+        setSeed(seed);
+        return run(initialSolutions, fitnessUtil, checkConditionUtil, locations, travelMatrix);
+    }
+
+    /**
+     * Reseed the optimizer's random number generator
+     *
+     * @param seed New seed
+     */
+    default void setSeed(long seed) {
+        // Optimizers without randomness ignore the seed
+    }
+
+    /**
+     * Run the optimization algorithm with a fixed random seed and a termination criterion
+     *
+     * @param initialSolutions Initial solutions to start with
+     * @param fitnessUtil Utility for calculating fitness
+     * @param checkConditionUtil Utility for checking conditions
+     * @param locations Array of locations
+     * @param travelMatrix Distance/travel-time matrix of the problem (may be null)
+     * @param seed Seed of the optimizer's random number generator
+     * @param terminationCriterion When to stop, or null for the algorithm's default iteration count
+     * @return The best solution found before the criterion was met
+     */
+    default Solution run(Solution[] initialSolutions,
+                        FitnessUtil fitnessUtil,
+                        CheckConditionUtil checkConditionUtil,
+                        Location[] locations,
+                        TravelMatrix travelMatrix,
+                        long seed,
+                        TerminationCriterion terminationCriterion) {
+        setTerminationCriterion(terminationCriterion);
+        return run(initialSolutions, fitnessUtil, checkConditionUtil, locations, travelMatrix, seed);
+    }
+
+    /**
+     * Set the termination criterion used by subsequent runs
+     *
+     * @param terminationCriterion When to stop, or null for the algorithm's default iteration count
+     */
+    default void setTerminationCriterion(TerminationCriterion terminationCriterion) {
+        // Optimizers without an iterative loop ignore the criterion
+    }
+
+    /**
+     * Evaluation context of the most recent run, e.g. to report its fitness cache statistics
+     *
+     * @return The context, or null if the optimizer does not use one
+     */
+    default EvaluationContext getEvaluationContext() {
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+package org.logistic.algorithm;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Tiến trình của một lần chạy optimizer, dùng để kiểm tra điều kiện dừng.
+ *
+ * Mỗi lần chạy có một đối tượng riêng (không chia sẻ giữa các luồng). Các thao tác cập nhật chỉ
+ * là phép cộng/so sánh nên có thể gọi trong vòng lặp chính mà không ảnh hưởng hiệu năng.
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SearchProgress {
+    long startNanos;
+    long iterations;
+    long evaluations;
+    double bestFitness;
+    long lastImprovementIteration;
+
+    public SearchProgress() {
+        reset();
+    }
+
+    /**
+     * Bắt đầu lại tiến trình (gọi khi bắt đầu một lần chạy mới)
+     */
+    public void reset() {
+        startNanos = System.nanoTime();
+        iterations = 0;
+        evaluations = 0;
+        bestFitness = Double.POSITIVE_INFINITY;
+        lastImprovementIteration = 0;
+    }
+
+    /**
+     * Ghi nhận một lần đánh giá fitness
+     */
+    public void recordEvaluation() {
+        evaluations++;
+    }
+
+    /**
+     * Ghi nhận nhiều lần đánh giá fitness (ví dụ do các luồng con thực hiện)
+     *
+     * @param count Số lần đánh giá
+     */
+    public void recordEvaluations(long count) {
+        evaluations += count;
+    }
+
+    /**
+     * Kết thúc một vòng lặp của thuật toán
+     *
+     * @param bestFitness Fitness tốt nhất tìm được tính đến hiện tại
+     */
+    public void completeIteration(double bestFitness) {
+        iterations++;
+        if (bestFitness < this.bestFitness) {
+            this.bestFitness = bestFitness;
+            lastImprovementIteration = iterations;
+        }
+    }
+
+    /**
+     * @return Thời gian đã chạy (nano giây)
+     */
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * @return Số vòng lặp liên tiếp gần nhất không cải thiện được fitness tốt nhất
+     */
+    public long iterationsSinceImprovement() {
+        return iterations - lastImprovementIteration;
+    }
+}
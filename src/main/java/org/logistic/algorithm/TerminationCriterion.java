@@ -0,0 +1,236 @@
+package org.logistic.algorithm;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Điều kiện dừng của một lần chạy optimizer.
+ *
+ * Các thuật toán kiểm tra điều kiện sau mỗi vòng lặp (và giữa các cá thể trong một vòng lặp) rồi
+ * trả về giải pháp tốt nhất tìm được đến lúc đó. Điều kiện không giữ trạng thái (trạng thái nằm
+ * trong {@link SearchProgress} của từng lần chạy), nên một đối tượng có thể dùng chung cho nhiều
+ * optimizer chạy song song.
+ *
+ * Điều kiện "có giới hạn" (số vòng lặp, thời gian, số lần đánh giá) còn cho biết tỷ lệ ngân sách
+ * đã dùng, các thuật toán dùng tỷ lệ này cho lịch giảm tham số (hệ số a của GWO/SHO/WOA, nhiệt độ
+ * của SA) thay vì số vòng lặp cố định.
+ */
+public interface TerminationCriterion {
+
+    /**
+     * @param progress Tiến trình của lần chạy hiện tại
+     * @return true nếu cần dừng
+     */
+    boolean isMet(SearchProgress progress);
+
+    /**
+     * Tỷ lệ ngân sách đã dùng
+     *
+     * @param progress Tiến trình của lần chạy hiện tại
+     * @return Giá trị trong [0, 1], hoặc NaN nếu điều kiện không có giới hạn
+     */
+    default double budgetUsed(SearchProgress progress) {
+        return Double.NaN;
+    }
+
+    /**
+     * @return true nếu điều kiện chắc chắn dừng được lần chạy (không phụ thuộc vào chất lượng lời giải)
+     */
+    default boolean isBounded() {
+        return false;
+    }
+
+    /**
+     * Dừng sau một số vòng lặp
+     */
+    static TerminationCriterion maxIterations(long iterations) {
+        return new MaxIterations(iterations);
+    }
+
+    /**
+     * Dừng khi hết thời gian
+     */
+    static TerminationCriterion maxTime(Duration duration) {
+        return new MaxTime(duration.toNanos());
+    }
+
+    /**
+     * Dừng sau một số lần đánh giá fitness
+     */
+    static TerminationCriterion maxEvaluations(long evaluations) {
+        return new MaxEvaluations(evaluations);
+    }
+
+    /**
+     * Dừng khi không cải thiện được fitness tốt nhất sau một số vòng lặp liên tiếp
+     */
+    static TerminationCriterion stagnation(long iterations) {
+        return new Stagnation(iterations);
+    }
+
+    /**
+     * Dừng khi đạt fitness mục tiêu (fitness càng thấp càng tốt)
+     */
+    static TerminationCriterion targetFitness(double target) {
+        return new TargetFitness(target);
+    }
+
+    /**
+     * Dừng khi một trong các điều kiện thỏa mãn
+     */
+    static TerminationCriterion anyOf(TerminationCriterion... criteria) {
+        return new AnyOf(criteria.clone());
+    }
+
+    /**
+     * Dừng sau một số vòng lặp
+     */
+    record MaxIterations(long iterations) implements TerminationCriterion {
+        public MaxIterations {
+            if (iterations < 0) {
+                throw new IllegalArgumentException("iterations must be >= 0");
+            }
+        }
+
+        @Override
+        public boolean isMet(SearchProgress progress) {
+            return progress.getIterations() >= iterations;
+        }
+
+        @Override
+        public double budgetUsed(SearchProgress progress) {
+            return iterations == 0 ? 1 : Math.min(1, (double) progress.getIterations() / iterations);
+        }
+
+        @Override
+        public boolean isBounded() {
+            return true;
+        }
+    }
+
+    /**
+     * Dừng khi hết thời gian (tính bằng nano giây)
+     */
+    record MaxTime(long nanos) implements TerminationCriterion {
+        public MaxTime {
+            if (nanos < 0) {
+                throw new IllegalArgumentException("duration must be >= 0");
+            }
+        }
+
+        @Override
+        public boolean isMet(SearchProgress progress) {
+            return progress.elapsedNanos() >= nanos;
+        }
+
+        @Override
+        public double budgetUsed(SearchProgress progress) {
+            return nanos == 0 ? 1 : Math.min(1, (double) progress.elapsedNanos() / nanos);
+        }
+
+        @Override
+        public boolean isBounded() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "MaxTime[" + Duration.ofNanos(nanos) + "]";
+        }
+    }
+
+    /**
+     * Dừng sau một số lần đánh giá fitness
+     */
+    record MaxEvaluations(long evaluations) implements TerminationCriterion {
+        public MaxEvaluations {
+            if (evaluations < 0) {
+                throw new IllegalArgumentException("evaluations must be >= 0");
+            }
+        }
+
+        @Override
+        public boolean isMet(SearchProgress progress) {
+            return progress.getEvaluations() >= evaluations;
+        }
+
+        @Override
+        public double budgetUsed(SearchProgress progress) {
+            return evaluations == 0 ? 1 : Math.min(1, (double) progress.getEvaluations() / evaluations);
+        }
+
+        @Override
+        public boolean isBounded() {
+            return true;
+        }
+    }
+
+    /**
+     * Dừng khi không cải thiện được fitness tốt nhất sau một số vòng lặp liên tiếp
+     */
+    record Stagnation(long iterations) implements TerminationCriterion {
+        public Stagnation {
+            if (iterations < 1) {
+                throw new IllegalArgumentException("iterations must be >= 1");
+            }
+        }
+
+        @Override
+        public boolean isMet(SearchProgress progress) {
+            return progress.iterationsSinceImprovement() >= iterations;
+        }
+    }
+
+    /**
+     * Dừng khi đạt fitness mục tiêu
+     */
+    record TargetFitness(double target) implements TerminationCriterion {
+        @Override
+        public boolean isMet(SearchProgress progress) {
+            return progress.getBestFitness() <= target;
+        }
+    }
+
+    /**
+     * Dừng khi một trong các điều kiện thỏa mãn; tỷ lệ ngân sách là tỷ lệ lớn nhất của các điều
+     * kiện có giới hạn
+     */
+    record AnyOf(TerminationCriterion[] criteria) implements TerminationCriterion {
+        @Override
+        public boolean isMet(SearchProgress progress) {
+            for (TerminationCriterion criterion : criteria) {
+                if (criterion.isMet(progress)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public double budgetUsed(SearchProgress progress) {
+            double used = Double.NaN;
+            for (TerminationCriterion criterion : criteria) {
+                double value = criterion.budgetUsed(progress);
+                if (!Double.isNaN(value) && !(value <= used)) {
+                    used = value;
+                }
+            }
+            return used;
+        }
+
+        @Override
+        public boolean isBounded() {
+            for (TerminationCriterion criterion : criteria) {
+                if (criterion.isBounded()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "AnyOf" + Arrays.toString(criteria);
+        }
+    }
+}
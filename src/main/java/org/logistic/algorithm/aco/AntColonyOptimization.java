@@ -2,8 +2,12 @@ package org.logistic.algorithm.aco;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import org.logistic.algorithm.AbstractOptimizer;
+import org.logistic.algorithm.NeighborIndex;
 
 import org.logistic.model.Location;
 import org.logistic.model.Route;
@@ -13,13 +17,38 @@ import org.logistic.util.FitnessUtil;
 
 
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.experimental.FieldDefaults;
 
 /**
  * Thuật toán Ant Colony Optimization
+ *
+ * Có hai biến thể ({@link Variant}): Ant System gốc (mọi kiến để lại pheromone, giới hạn cố định)
+ * và MAX-MIN Ant System (chỉ kiến tốt nhất vòng lặp hoặc tốt nhất toàn cục để lại pheromone, giới
+ * hạn [tau_min, tau_max] suy ra từ fitness tốt nhất, khởi tạo lại pheromone khi trì trệ).
+ *
+ * Pheromone và heuristic nằm trong một {@link PheromoneStore}: ma trận đầy đủ cho bài toán nhỏ, chỉ
+ * các cạnh láng giềng với bay hơi tính trễ khi số điểm vượt SPARSE_PHEROMONE_THRESHOLD.
+ *
+ * Trong một vòng lặp, các kiến chỉ đọc pheromone/heuristic nên được cải thiện song song
+ * trên executor (mặc định common ForkJoinPool, work-stealing). Mỗi kiến có một bộ xây dựng riêng
+ * (cùng lớp, với bộ sinh số ngẫu nhiên tách từ optimizer chính, ngữ cảnh đánh giá và bộ đệm
+ * riêng) và ghi lượng pheromone để lại vào {@link PheromoneDeposits} riêng; tại điểm đồng bộ cuối
+ * vòng lặp các bộ đệm được cộng vào nơi lưu pheromone theo thứ tự kiến. Vì vậy kết quả không phụ
+ * thuộc vào số luồng hay thứ tự lập lịch, và số kiến có thể tăng theo số nhân CPU.
  */
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class AntColonyOptimization extends AbstractOptimizer {
+    /**
+     * Các biến thể cập nhật pheromone
+     */
+    public enum Variant {
+        // Ant System: mọi kiến để lại pheromone, giới hạn cố định
+        ANT_SYSTEM,
+        // MAX-MIN Ant System: một kiến để lại pheromone, giới hạn theo giải pháp tốt nhất
+        MAX_MIN
+    }
+
     // Các tham số của thuật toán
     static final int MAX_ITERATIONS = 100;
     static final int COLONY_SIZE = 20; // Số lượng kiến trong đàn
@@ -27,22 +56,93 @@ public class AntColonyOptimization extends AbstractOptimizer {
     static final double BETA = 2.0; // Hệ số ảnh hưởng của heuristic (khoảng cách)
     static final double RHO = 0.1; // Tốc độ bay hơi pheromone
     static final double Q = 100.0; // Hằng số chất lượng pheromone
+    // Số điểm tối thiểu để chỉ lưu pheromone trên các cạnh láng giềng (O(n * K) thay vì O(n^2))
+    static final int SPARSE_PHEROMONE_THRESHOLD = 1000;
+
+    // Các tham số của MAX-MIN Ant System
+    // Xác suất xây dựng lại giải pháp tốt nhất khi hội tụ, dùng để tính tau_min
+    static final double MMAS_P_BEST = 0.05;
+    // Cứ mỗi GLOBAL_BEST_INTERVAL vòng lặp thì kiến tốt nhất toàn cục để lại pheromone
+    static final int GLOBAL_BEST_INTERVAL = 5;
+    // Số vòng lặp không cải thiện trước khi khởi tạo lại pheromone
+    static final int STAGNATION_LIMIT = 20;
 
     // Danh sách các kiến
     List<Ant> colony;
+    // Bộ xây dựng và lượng pheromone để lại của từng kiến (cùng chỉ số với colony)
+    AntColonyOptimization[] builders;
+    PheromoneDeposits[] deposits;
+    final Executor executor;
+    @Getter
+    final Variant variant;
     Ant bestAnt; // Kiến có fitness tốt nhất
-
-    // Ma trận pheromone
-    double[][] pheromone;
-    double[][] heuristic; // Ma trận heuristic (khoảng cách nghịch đảo)
+    Solution candidate; // Bộ nhớ tạm dùng lại giữa các vòng lặp
+
+    // Pheromone và heuristic (khoảng cách nghịch đảo) trên các cạnh
+    @Getter(AccessLevel.PACKAGE)
+    PheromoneStore pheromones;
+
+    // Trạng thái MMAS: lượng pheromone của kiến được chọn, giới hạn pheromone, số vòng lặp không
+    // cải thiện
+    PheromoneDeposits eliteDeposit;
+    @Getter(AccessLevel.PACKAGE)
+    double pheromoneMin;
+    @Getter(AccessLevel.PACKAGE)
+    double pheromoneMax;
+    @Getter(AccessLevel.PACKAGE)
+    int iterationsWithoutImprovement;
     
     int numLocations; // Số lượng địa điểm
+
+    // Đánh dấu các điểm chưa thăm của tuyến đang xây dựng (unvisitedMarks[j] == unvisitedStamp)
+    int[] unvisitedMarks;
+    int unvisitedStamp;
+    // Các điểm chưa thăm (unvisited[0..unvisitedCount)) và vị trí của mỗi điểm trong mảng,
+    // xóa bằng cách hoán đổi với phần tử cuối
+    int[] unvisited;
+    int[] unvisitedPositions;
+    int unvisitedCount;
+    // Bộ đệm xác suất của các láng giềng ứng viên
+    double[] candidateWeights;
+    // Bộ đệm trọng số chọn của các điểm chưa thăm (cùng chỉ số với unvisited), khi không còn
+    // láng giềng ứng viên nào chưa thăm
+    double[] unvisitedWeights;
     
     /**
-     * Khởi tạo thuật toán Ant Colony Optimization
+     * Khởi tạo thuật toán Ant Colony Optimization (Ant System), các kiến chạy trên common ForkJoinPool
      */
     public AntColonyOptimization() {
+        this(Variant.ANT_SYSTEM);
+    }
+
+    /**
+     * Khởi tạo thuật toán Ant Colony Optimization (Ant System)
+     *
+     * @param executor Executor chạy các kiến trong một vòng lặp
+     */
+    public AntColonyOptimization(Executor executor) {
+        this(Variant.ANT_SYSTEM, executor);
+    }
+
+    /**
+     * Khởi tạo thuật toán Ant Colony Optimization, các kiến chạy trên common ForkJoinPool
+     *
+     * @param variant Biến thể cập nhật pheromone
+     */
+    public AntColonyOptimization(Variant variant) {
+        this(variant, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Khởi tạo thuật toán Ant Colony Optimization
+     *
+     * @param variant  Biến thể cập nhật pheromone
+     * @param executor Executor chạy các kiến trong một vòng lặp
+     */
+    public AntColonyOptimization(Variant variant, Executor executor) {
         super();
+        this.variant = variant;
+        this.executor = executor;
     }
 
     /**
@@ -52,8 +152,16 @@ public class AntColonyOptimization extends AbstractOptimizer {
         colony = new ArrayList<>();
         numLocations = locations.length;
 
-        // Khởi tạo ma trận pheromone và heuristic
-        initializeMatrices();
+        // Khởi tạo pheromone và heuristic
+        pheromones = numLocations >= SPARSE_PHEROMONE_THRESHOLD
+                ? new SparsePheromoneStore(locations, neighborIndex(), RHO, ALPHA, BETA)
+                : new DensePheromoneStore(locations, neighborIndex(), RHO, ALPHA, BETA);
+        unvisitedMarks = new int[numLocations];
+        unvisitedStamp = 0;
+        unvisited = new int[numLocations];
+        unvisitedPositions = new int[numLocations];
+        unvisitedWeights = new double[numLocations];
+        candidateWeights = new double[neighborIndex().getK()];
 
         // Sử dụng trực tiếp các giải pháp ban đầu làm kiến
         for (Solution solution : initialSolutions) {
@@ -66,39 +174,83 @@ public class AntColonyOptimization extends AbstractOptimizer {
             }
         }
 
-        System.out.println("Initialized ACO with " + colony.size() + " ants from initial solutions");
+        // Tạo bộ xây dựng trên luồng hiện tại để seed của từng kiến không phụ thuộc vào lập lịch
+        builders = new AntColonyOptimization[colony.size()];
+        deposits = new PheromoneDeposits[colony.size()];
+        for (int i = 0; i < colony.size(); i++) {
+            builders[i] = createBuilder();
+            deposits[i] = new PheromoneDeposits();
+        }
+
+        // MMAS: pheromone ban đầu bằng tau_max của giải pháp tốt nhất ban đầu
+        if (variant == Variant.MAX_MIN) {
+            eliteDeposit = new PheromoneDeposits();
+            iterationsWithoutImprovement = 0;
+            updatePheromoneBounds();
+            pheromones.reset(pheromoneMax);
+            pheromones.refreshChoices();
+        }
+
+        System.out.println("Initialized ACO (" + variant + ") with " + colony.size() + " ants from initial solutions");
         System.out.println("Initial best fitness: " + bestAnt.getFitness());
     }
 
     /**
-     * Khởi tạo ma trận pheromone và heuristic
+     * Tạo bộ xây dựng cho một kiến: dùng chung dữ liệu chỉ đọc (pheromone, heuristic, láng giềng),
+     * riêng bộ sinh số ngẫu nhiên, ngữ cảnh đánh giá và các bộ đệm
+     */
+    private AntColonyOptimization createBuilder() {
+        AntColonyOptimization builder = new AntColonyOptimization(variant, executor);
+        builder.travelMatrix = travelMatrix;
+        builder.setupParameters(fitnessUtil, checkConditionUtil, locations);
+        builder.random = splitRandom();
+        builder.moveEvaluator = moveEvaluator();
+        builder.neighborIndex = neighborIndex();
+        builder.numLocations = numLocations;
+        builder.pheromones = pheromones;
+        builder.unvisitedMarks = new int[numLocations];
+        builder.unvisited = new int[numLocations];
+        builder.unvisitedPositions = new int[numLocations];
+        builder.unvisitedWeights = new double[numLocations];
+        builder.candidateWeights = new double[candidateWeights.length];
+        return builder;
+    }
+
+    /**
+     * Cải thiện giải pháp của một kiến trên bộ xây dựng của nó và ghi lại lượng pheromone kiến để
+     * lại (chạy trên luồng của executor, chỉ đọc pheromone). MMAS không ghi vì chỉ một kiến được
+     * để lại pheromone, được chọn tại điểm đồng bộ
+     */
+    private static void buildAnt(AntColonyOptimization builder, Ant ant, PheromoneDeposits deposit) {
+        builder.improveAntSolution(ant);
+        if (builder.variant == Variant.ANT_SYSTEM) {
+            recordDeposits(ant, deposit);
+        }
+    }
+
+    /**
+     * Ghi lượng pheromone Q / fitness trên các cạnh của giải pháp của kiến
      */
-    private void initializeMatrices() {
-        pheromone = new double[numLocations][numLocations];
-        heuristic = new double[numLocations][numLocations];
-
-        // Khởi tạo pheromone với giá trị nhỏ đồng đều
-        for (int i = 0; i < numLocations; i++) {
-            for (int j = 0; j < numLocations; j++) {
-                if (i != j) {
-                    pheromone[i][j] = 0.1;
-                    
-                    // Heuristic là nghịch đảo của khoảng cách
-                    double distance = locations[i].distance(locations[j]);
-                    heuristic[i][j] = distance > 0 ? 1.0 / distance : 0.0;
+    private static void recordDeposits(Ant ant, PheromoneDeposits deposit) {
+        deposit.clear();
+        double deltaPheromone = Q / ant.getFitness();
+        for (Route route : ant.getSolution().getRoutes()) {
+            if (route.isUse()) {
+                int[] way = route.getIndLocations();
+                for (int i = 0; i < way.length - 1; i++) {
+                    deposit.add(way[i], way[i + 1], deltaPheromone);
                 }
             }
         }
     }
 
-
-
     /**
      * Cải thiện giải pháp của kiến dựa trên pheromone và heuristic (ACO gốc)
      */
     private void improveAntSolution(Ant ant) {
         Solution currentSolution = ant.getSolution();
-        Solution newSolution = currentSolution.copy();
+        Solution newSolution = copyInto(candidate, currentSolution);
+        candidate = newSolution;
         Route[] routes = newSolution.getRoutes();
 
         // Cải thiện từng tuyến đường dựa trên pheromone
@@ -119,159 +271,243 @@ public class AntColonyOptimization extends AbstractOptimizer {
             applyRandomMultiRouteOperation(routes);
         }
 
-        // Kiểm tra ràng buộc
-        for (Route route : routes) {
-            if (!checkConditionUtil.isInsertionFeasible(route, locations, routes[0].getMaxPayload())) {
-                
-            }
-        }
-        
-        
-        // Cập nhật khoảng cách cho tất cả các tuyến đường
-        for (Route route : routes) {
-            if (distanceTimes != null && distanceTimes.length > 0) {
-                route.calculateDistance(locations, distanceTimes);
-            } else {
-                route.calculateDistance(locations);
-            }
-        }
-
         // Tính toán fitness mới
-        double newFitness = fitnessUtil.calculatorFitness(routes, locations);
+        double newFitness = calculateFitness(routes);
         newSolution.setFitness(newFitness);
 
-        // Cập nhật nếu tốt hơn (greedy acceptance)
+        // Cập nhật nếu tốt hơn (greedy acceptance); kiến tốt nhất được cập nhật sau điểm đồng bộ
         if (newFitness < ant.getFitness()) {
             ant.setSolution(newSolution);
             ant.setFitness(newFitness);
-
-            // Cập nhật kiến tốt nhất
-            if (newFitness < bestAnt.getFitness()) {
-                bestAnt = new Ant(newSolution.copy(), newFitness);
-                System.out.println("ACO improved solution with fitness: " + newFitness);
-            }
+            // Giải pháp cũ không còn được tham chiếu, dùng lại làm bộ nhớ tạm
+            candidate = currentSolution;
         }
     }
 
     /**
-     * Xây dựng lại tuyến đường dựa trên pheromone và heuristic (ACO gốc)
+     * Xây dựng lại tuyến đường dựa trên pheromone và heuristic (ACO gốc). Các điểm chưa thăm nằm
+     * trong mảng nguyên (xóa bằng hoán đổi với phần tử cuối), tuyến mới được ghi trực tiếp vào
+     * mảng của tuyến nên không cấp phát bộ nhớ
      */
     private void constructRouteWithPheromone(Route route) {
         int[] way = route.getIndLocations();
         if (way.length <= 2) return; // Không đủ điểm để xây dựng lại
-        
-        // Giữ điểm đầu và điểm cuối (thường là depot)
-        int start = way[0];
-        int end = way[way.length - 1];
-        
-        // Tạo danh sách các điểm cần thăm (không bao gồm điểm đầu và cuối)
-        List<Integer> unvisited = new ArrayList<>();
+
+        // Giữ điểm đầu và điểm cuối (thường là depot); các điểm cần thăm là các điểm ở giữa
+        int stamp = ++unvisitedStamp;
+        unvisitedCount = 0;
         for (int i = 1; i < way.length - 1; i++) {
-            unvisited.add(way[i]);
+            int node = way[i];
+            unvisited[unvisitedCount] = node;
+            unvisitedPositions[node] = unvisitedCount++;
+            unvisitedMarks[node] = stamp;
         }
-        
-        // Xây dựng tuyến đường mới dựa trên pheromone
-        List<Integer> newWay = new ArrayList<>();
-        newWay.add(start);
-        
-        int current = start;
-        while (!unvisited.isEmpty()) {
-            int next = selectNextLocationByPheromone(current, unvisited);
-            newWay.add(next);
+
+        // Xây dựng tuyến đường mới dựa trên pheromone, ghi đè các điểm ở giữa
+        int current = way[0];
+        for (int i = 1; unvisitedCount > 0; i++) {
+            int next = selectNextLocationByPheromone(current);
+            way[i] = next;
             current = next;
-            unvisited.remove(Integer.valueOf(next));
-        }
-        
-        newWay.add(end);
-        
-        // Cập nhật tuyến đường
-        for (int i = 0; i < way.length; i++) {
-            way[i] = newWay.get(i);
+            removeUnvisited(next);
+            unvisitedMarks[next] = stamp - 1;
         }
+
+        // Tuyến đường được xây dựng lại hoàn toàn nên tính lại khoảng cách
+        route.markModified();
+        route.calculateDistance(locations, travelMatrix);
     }
 
     /**
-     * Chọn địa điểm tiếp theo dựa trên pheromone và heuristic (ACO gốc)
+     * Xóa một điểm khỏi danh sách chưa thăm bằng cách chuyển phần tử cuối vào vị trí của nó
      */
-    private int selectNextLocationByPheromone(int current, List<Integer> unvisited) {
-        if (unvisited.isEmpty()) return -1;
-        if (unvisited.size() == 1) return unvisited.get(0);
-        
-        // Tính tổng xác suất
+    private void removeUnvisited(int node) {
+        int position = unvisitedPositions[node];
+        int last = unvisited[--unvisitedCount];
+        unvisited[position] = last;
+        unvisitedPositions[last] = position;
+    }
+
+    /**
+     * Chọn địa điểm tiếp theo dựa trên pheromone và heuristic (ACO gốc). Chỉ xét các láng giềng
+     * gần nhất chưa thăm của điểm hiện tại (candidate list), chỉ khi không còn láng giềng nào
+     * chưa thăm mới xét toàn bộ các điểm chưa thăm. Roulette wheel đọc trọng số chọn từ bảng đã
+     * tính sẵn: lượt thứ nhất tính tổng và giữ trọng số trong bộ đệm (với pheromone thưa, trọng số
+     * của cạnh ngoài danh sách láng giềng được tính khi đọc nên chỉ tính một lần), lượt thứ hai
+     * tìm điểm được chọn
+     */
+    private int selectNextLocationByPheromone(int current) {
+        if (unvisitedCount == 1) return unvisited[0];
+
+        int candidate = selectFromNeighbors(current);
+        if (candidate >= 0) {
+            return candidate;
+        }
+
+        // Tính tổng trọng số τ^α * η^β
         double total = 0.0;
-        double[] probabilities = new double[unvisited.size()];
-        
-        for (int i = 0; i < unvisited.size(); i++) {
-            int next = unvisited.get(i);
-            double pheromoneValue = pheromone[current][next];
-            double heuristicValue = heuristic[current][next];
-            
-            // Công thức ACO gốc: τ^α * η^β
-            probabilities[i] = Math.pow(pheromoneValue, ALPHA) * Math.pow(heuristicValue, BETA);
-            total += probabilities[i];
+        for (int i = 0; i < unvisitedCount; i++) {
+            unvisitedWeights[i] = pheromones.choice(current, unvisited[i]);
+            total += unvisitedWeights[i];
         }
-        
+
         // Roulette wheel selection
         double rand = random.nextDouble() * total;
         double sum = 0.0;
-        
-        for (int i = 0; i < unvisited.size(); i++) {
-            sum += probabilities[i];
+        for (int i = 0; i < unvisitedCount; i++) {
+            sum += unvisitedWeights[i];
             if (rand <= sum) {
-                return unvisited.get(i);
+                return unvisited[i];
             }
         }
-        
+
         // Mặc định trả về địa điểm cuối cùng
-        return unvisited.get(unvisited.size() - 1);
+        return unvisited[unvisitedCount - 1];
     }
 
     /**
-     * Cập nhật pheromone theo ACO gốc (Ant System)
+     * Roulette wheel trên các láng giềng gần nhất chưa thăm của điểm hiện tại
+     *
+     * @return Điểm được chọn, hoặc -1 nếu không có láng giềng nào chưa thăm
      */
-    private void updatePheromone() {
-        // Bước 1: Bay hơi pheromone trên tất cả các cạnh
-        for (int i = 0; i < numLocations; i++) {
-            for (int j = 0; j < numLocations; j++) {
-                if (i != j) {
-                    pheromone[i][j] *= (1.0 - RHO);
-                    // Đảm bảo pheromone không quá nhỏ
-                    if (pheromone[i][j] < 0.01) {
-                        pheromone[i][j] = 0.01;
-                    }
-                }
+    private int selectFromNeighbors(int current) {
+        NeighborIndex index = neighborIndex();
+        int count = index.count(current);
+        int stamp = unvisitedStamp;
+        double total = 0.0;
+        for (int rank = 0; rank < count; rank++) {
+            int next = index.neighbor(current, rank);
+            double weight = 0.0;
+            if (unvisitedMarks[next] == stamp) {
+                weight = pheromones.candidateChoice(current, rank);
             }
+            candidateWeights[rank] = weight;
+            total += weight;
         }
-        
-        // Bước 2: Thêm pheromone từ tất cả các kiến (Ant System gốc)
-        for (Ant ant : colony) {
-            Solution solution = ant.getSolution();
-            double deltaPheromone = Q / ant.getFitness();
-            
-            // Thêm pheromone cho từng tuyến đường của kiến này
-            for (Route route : solution.getRoutes()) {
-                if (route.isUse()) {
-                    int[] way = route.getIndLocations();
-                    for (int i = 0; i < way.length - 1; i++) {
-                        int from = way[i];
-                        int to = way[i + 1];
-                        pheromone[from][to] += deltaPheromone;
-                        pheromone[to][from] += deltaPheromone; // Đồ thị vô hướng
-                    }
+        if (total <= 0) {
+            return -1;
+        }
+
+        double rand = random.nextDouble() * total;
+        double sum = 0.0;
+        int last = -1;
+        for (int rank = 0; rank < count; rank++) {
+            if (candidateWeights[rank] > 0) {
+                sum += candidateWeights[rank];
+                last = index.neighbor(current, rank);
+                if (rand <= sum) {
+                    return last;
                 }
             }
         }
-        
-        // Bước 3: Giới hạn pheromone tối đa để tránh stagnation
-        for (int i = 0; i < numLocations; i++) {
-            for (int j = 0; j < numLocations; j++) {
-                if (i != j && pheromone[i][j] > 10.0) {
-                    pheromone[i][j] = 10.0;
-                }
+        return last;
+    }
+
+    /**
+     * Chạy một vòng lặp: cải thiện song song tất cả các kiến rồi đồng bộ tại cuối vòng lặp
+     *
+     * @return Kiến tốt nhất của vòng lặp
+     */
+    private Ant runIteration() {
+        CompletableFuture<?>[] ants = new CompletableFuture<?>[colony.size()];
+        for (int i = 0; i < colony.size(); i++) {
+            AntColonyOptimization builder = builders[i];
+            Ant ant = colony.get(i);
+            PheromoneDeposits deposit = deposits[i];
+            ants[i] = CompletableFuture.runAsync(() -> buildAnt(builder, ant, deposit), executor);
+        }
+        CompletableFuture.allOf(ants).join();
+
+        // Điểm đồng bộ: cập nhật kiến tốt nhất và số lần đánh giá theo thứ tự kiến
+        Ant iterationBest = colony.get(0);
+        boolean improved = false;
+        for (int i = 0; i < colony.size(); i++) {
+            Ant ant = colony.get(i);
+            if (ant.getFitness() < iterationBest.getFitness()) {
+                iterationBest = ant;
             }
+            if (ant.getFitness() < bestAnt.getFitness()) {
+                bestAnt = new Ant(ant.getSolution().copy(), ant.getFitness());
+                improved = true;
+                System.out.println("ACO improved solution with fitness: " + ant.getFitness());
+            }
+            progress.recordEvaluations(builders[i].progress.getEvaluations());
+            builders[i].progress.reset();
+        }
+        iterationsWithoutImprovement = improved ? 0 : iterationsWithoutImprovement + 1;
+        return iterationBest;
+    }
+
+    /**
+     * Cập nhật pheromone theo biến thể đã chọn
+     */
+    private void updatePheromone(int iteration, Ant iterationBest) {
+        if (variant == Variant.MAX_MIN) {
+            updatePheromoneMaxMin(iteration, iterationBest);
+        } else {
+            updatePheromoneAntSystem();
         }
     }
 
+    /**
+     * Cập nhật pheromone theo ACO gốc (Ant System)
+     */
+    private void updatePheromoneAntSystem() {
+        // Bước 1: Bay hơi pheromone trên tất cả các cạnh, đảm bảo pheromone không quá nhỏ
+        pheromones.evaporate();
+
+        // Bước 2: Thêm pheromone từ tất cả các kiến (Ant System gốc) theo thứ tự kiến, giới hạn
+        // pheromone tối đa để tránh stagnation. Bay hơi chỉ làm giảm pheromone nên chỉ các cạnh
+        // được cộng mới có thể vượt giới hạn
+        for (PheromoneDeposits deposit : deposits) {
+            deposit.applyTo(pheromones);
+        }
+        pheromones.refreshChoices();
+    }
+
+    /**
+     * Cập nhật pheromone theo MAX-MIN Ant System: giới hạn theo giải pháp tốt nhất, bay hơi, chỉ
+     * kiến tốt nhất vòng lặp (hoặc tốt nhất toàn cục mỗi GLOBAL_BEST_INTERVAL vòng lặp) để lại
+     * pheromone. Sau STAGNATION_LIMIT vòng lặp không cải thiện, pheromone được đặt lại về tau_max
+     */
+    private void updatePheromoneMaxMin(int iteration, Ant iterationBest) {
+        updatePheromoneBounds();
+        if (iterationsWithoutImprovement >= STAGNATION_LIMIT) {
+            restartPheromone();
+            System.out.println("ACO (MMAS) reinitialized pheromone after " + STAGNATION_LIMIT
+                    + " iterations without improvement");
+            return;
+        }
+
+        pheromones.evaporate();
+        Ant elite = (iteration + 1) % GLOBAL_BEST_INTERVAL == 0 ? bestAnt : iterationBest;
+        recordDeposits(elite, eliteDeposit);
+        eliteDeposit.applyTo(pheromones);
+        pheromones.refreshChoices();
+    }
+
+    /**
+     * Khởi động lại MMAS: đặt pheromone trên mọi cạnh về tau_max và xóa bộ đếm trì trệ
+     */
+    void restartPheromone() {
+        pheromones.reset(pheromoneMax);
+        pheromones.refreshChoices();
+        iterationsWithoutImprovement = 0;
+    }
+
+    /**
+     * Tính lại giới hạn MMAS từ fitness tốt nhất: tau_max = Q / (rho * best) là điểm cân bằng khi
+     * chỉ giải pháp tốt nhất để lại pheromone, tau_min = tau_max * (1 - p) / ((avg - 1) * p) với
+     * p = MMAS_P_BEST^(1/n) và avg là số láng giềng ứng viên trung bình được xét ở mỗi bước
+     */
+    private void updatePheromoneBounds() {
+        pheromoneMax = Q / (RHO * bestAnt.getFitness());
+        double pDecision = Math.pow(MMAS_P_BEST, 1.0 / numLocations);
+        double average = Math.max(neighborIndex().getK() / 2.0, 2.0);
+        pheromoneMin = Math.min(pheromoneMax * (1.0 - pDecision) / ((average - 1.0) * pDecision), pheromoneMax);
+        pheromones.setBounds(pheromoneMin, pheromoneMax);
+    }
+
     /**
      * Chạy thuật toán ACO
      */
@@ -284,20 +520,20 @@ public class AntColonyOptimization extends AbstractOptimizer {
         // Khởi tạo đàn kiến
         initialize(initialSolutions);
 
-        // Vòng lặp chính của ACO
-        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
-            // Cải thiện giải pháp cho từng kiến dựa trên pheromone
-            for (Ant ant : colony) {
-                improveAntSolution(ant);
-            }
-            
-            // Cập nhật pheromone dựa trên tất cả các kiến
-            updatePheromone();
+        // Vòng lặp chính của ACO, dừng theo điều kiện dừng (mặc định MAX_ITERATIONS vòng lặp)
+        startTermination(MAX_ITERATIONS);
+        for (int iteration = 0; !shouldStop(); iteration++) {
+            // Cải thiện song song giải pháp của các kiến dựa trên pheromone
+            Ant iterationBest = runIteration();
+
+            // Cập nhật pheromone (tất cả các kiến với Ant System, một kiến với MMAS)
+            updatePheromone(iteration, iterationBest);
             
             // In thông tin tiến trình
             if (iteration % 20 == 0) {
                 System.out.println("ACO Iteration " + iteration + ", Best fitness: " + bestAnt.getFitness());
             }
+            completeIteration(bestAnt.getFitness());
         }
 
         return bestAnt.getSolution();
@@ -0,0 +1,127 @@
+package org.logistic.algorithm.aco;
+
+import org.logistic.algorithm.NeighborIndex;
+import org.logistic.model.Location;
+
+import java.util.Arrays;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Lưu pheromone, η^β và trọng số chọn trên mọi cạnh trong các ma trận double n x n. Bay hơi và làm
+ * mới trọng số chọn duyệt toàn bộ ma trận (O(n^2) mỗi vòng lặp), phù hợp với bài toán nhỏ.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class DensePheromoneStore implements PheromoneStore {
+    final int size;
+    final double rho;
+    final double alpha;
+    final NeighborIndex neighbors;
+    final double[][] pheromone;
+    // η^β, tính một lần khi khởi tạo
+    final double[][] heuristicWeight;
+    // τ^α * η^β, làm mới sau mỗi lần cập nhật pheromone
+    final double[][] choice;
+
+    double minPheromone = MIN_PHEROMONE;
+    double maxPheromone = MAX_PHEROMONE;
+
+    /**
+     * @param locations Mảng các địa điểm (heuristic theo khoảng cách Euclidean)
+     * @param neighbors Danh sách láng giềng (cho các truy vấn theo thứ hạng)
+     * @param rho       Tốc độ bay hơi
+     * @param alpha     Hệ số ảnh hưởng của pheromone
+     * @param beta      Hệ số ảnh hưởng của heuristic
+     */
+    DensePheromoneStore(Location[] locations, NeighborIndex neighbors, double rho, double alpha, double beta) {
+        this.size = locations.length;
+        this.rho = rho;
+        this.alpha = alpha;
+        this.neighbors = neighbors;
+        this.pheromone = new double[size][size];
+        this.heuristicWeight = new double[size][size];
+        this.choice = new double[size][size];
+
+        // Khởi tạo pheromone với giá trị nhỏ đồng đều, heuristic là nghịch đảo của khoảng cách
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (i != j) {
+                    pheromone[i][j] = INITIAL_PHEROMONE;
+                    double distance = locations[i].distance(locations[j]);
+                    heuristicWeight[i][j] = Math.pow(distance > 0 ? 1.0 / distance : 0.0, beta);
+                }
+            }
+        }
+        refreshChoices();
+    }
+
+    @Override
+    public double pheromone(int from, int to) {
+        return pheromone[from][to];
+    }
+
+    @Override
+    public double candidatePheromone(int from, int rank) {
+        return pheromone[from][neighbors.neighbor(from, rank)];
+    }
+
+    @Override
+    public double choice(int from, int to) {
+        return choice[from][to];
+    }
+
+    @Override
+    public double candidateChoice(int from, int rank) {
+        return choice[from][neighbors.neighbor(from, rank)];
+    }
+
+    @Override
+    public void refreshChoices() {
+        for (int i = 0; i < size; i++) {
+            double[] tau = pheromone[i];
+            double[] eta = heuristicWeight[i];
+            double[] row = choice[i];
+            for (int j = 0; j < size; j++) {
+                row[j] = (alpha == 1.0 ? tau[j] : Math.pow(tau[j], alpha)) * eta[j];
+            }
+        }
+    }
+
+    @Override
+    public void evaporate() {
+        for (int i = 0; i < size; i++) {
+            double[] row = pheromone[i];
+            for (int j = 0; j < size; j++) {
+                if (i != j) {
+                    row[j] = Math.max(row[j] * (1.0 - rho), minPheromone);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void deposit(int from, int to, double amount) {
+        pheromone[from][to] = Math.min(pheromone[from][to] + amount, maxPheromone);
+    }
+
+    @Override
+    public void setBounds(double min, double max) {
+        PheromoneStore.checkBounds(min, max);
+        this.minPheromone = min;
+        this.maxPheromone = max;
+    }
+
+    @Override
+    public void reset(double value) {
+        for (int i = 0; i < size; i++) {
+            Arrays.fill(pheromone[i], value);
+            pheromone[i][i] = 0.0;
+        }
+    }
+
+    @Override
+    public long memoryBytes() {
+        return 3L * size * size * Double.BYTES;
+    }
+}
@@ -0,0 +1,56 @@
+package org.logistic.algorithm.aco;
+
+import java.util.Arrays;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Bộ đệm thưa ghi lại lượng pheromone một kiến để lại trong một vòng lặp.
+ *
+ * Mỗi kiến ghi vào bộ đệm riêng trong lúc chạy song song (không chia sẻ pheromone khi ghi), sau
+ * đó các bộ đệm được cộng vào {@link PheromoneStore} theo thứ tự kiến tại điểm đồng bộ cuối vòng
+ * lặp, nên kết quả giống hệt cập nhật tuần tự. Chỉ lưu các cạnh thực sự được đi qua (O(số điểm của
+ * giải pháp)) thay vì một ma trận n x n cho mỗi luồng; các mảng được dùng lại giữa các vòng lặp.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class PheromoneDeposits {
+    int[] from = new int[16];
+    int[] to = new int[16];
+    double[] amounts = new double[16];
+    int size;
+
+    /**
+     * Xóa các cạnh đã ghi (giữ lại bộ nhớ)
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Ghi lượng pheromone để lại trên cạnh from -> to
+     */
+    void add(int fromNode, int toNode, double amount) {
+        if (size == from.length) {
+            int capacity = size * 2;
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        from[size] = fromNode;
+        to[size] = toNode;
+        amounts[size] = amount;
+        size++;
+    }
+
+    /**
+     * Cộng các cạnh đã ghi vào nơi lưu pheromone (đồ thị vô hướng). Lượng để lại luôn dương nên
+     * giới hạn trên sau từng lần cộng cho cùng kết quả với giới hạn một lần sau khi cộng tất cả.
+     */
+    void applyTo(PheromoneStore pheromones) {
+        for (int i = 0; i < size; i++) {
+            pheromones.deposit(from[i], to[i], amounts[i]);
+            pheromones.deposit(to[i], from[i], amounts[i]);
+        }
+    }
+}
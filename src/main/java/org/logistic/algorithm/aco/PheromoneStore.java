@@ -0,0 +1,84 @@
+package org.logistic.algorithm.aco;
+
+/**
+ * Nơi lưu pheromone (τ) và heuristic (η = 1 / khoảng cách) trên các cạnh cho ACO.
+ *
+ * Ngoài pheromone, mỗi nơi lưu giữ bảng trọng số chọn (choice info) τ^α * η^β cho roulette wheel:
+ * η^β được tính một lần khi khởi tạo, bảng chỉ được làm mới bởi {@link #refreshChoices()} sau
+ * mỗi lần cập nhật pheromone, nên bước xây dựng tuyến không gọi Math.pow.
+ *
+ * Pheromone luôn nằm trong [min, max] (mặc định [MIN_PHEROMONE, MAX_PHEROMONE], MMAS điều chỉnh
+ * theo giải pháp tốt nhất): mỗi vòng lặp bay hơi theo hệ số (1 - rho) rồi giới hạn dưới, mỗi lần
+ * kiến để lại thì giới hạn trên. Có hai cách lưu trữ:
+ * {@link DensePheromoneStore} (ma trận đầy đủ, mọi cạnh) và {@link SparsePheromoneStore} (chỉ các
+ * cạnh trong danh sách láng giềng, cho bài toán lớn). Trong một vòng lặp các kiến chỉ đọc nên có
+ * thể đọc đồng thời; bay hơi và để lại pheromone chỉ được gọi tại điểm đồng bộ.
+ */
+interface PheromoneStore {
+    double INITIAL_PHEROMONE = 0.1;
+    double MIN_PHEROMONE = 0.01;
+    double MAX_PHEROMONE = 10.0;
+
+    /**
+     * Pheromone trên cạnh from -> to
+     */
+    double pheromone(int from, int to);
+
+    /**
+     * Pheromone trên cạnh từ from đến láng giềng gần thứ rank của nó
+     */
+    double candidatePheromone(int from, int rank);
+
+    /**
+     * Trọng số chọn τ^α * η^β của cạnh from -> to (theo lần làm mới gần nhất)
+     */
+    double choice(int from, int to);
+
+    /**
+     * Trọng số chọn τ^α * η^β của cạnh từ from đến láng giềng gần thứ rank của nó
+     */
+    double candidateChoice(int from, int rank);
+
+    /**
+     * Làm mới bảng trọng số chọn theo pheromone hiện tại, gọi tại điểm đồng bộ sau khi bay hơi,
+     * để lại hoặc đặt lại pheromone
+     */
+    void refreshChoices();
+
+    /**
+     * Bay hơi pheromone trên mọi cạnh theo hệ số (1 - rho), giới hạn dưới min
+     */
+    void evaporate();
+
+    /**
+     * Để lại pheromone trên cạnh from -> to, giới hạn trên max
+     */
+    void deposit(int from, int to, double amount);
+
+    /**
+     * Đặt giới hạn pheromone, áp dụng từ lần đọc, bay hơi hoặc để lại tiếp theo
+     *
+     * @param min Giới hạn dưới (dương)
+     * @param max Giới hạn trên (không nhỏ hơn min)
+     */
+    void setBounds(double min, double max);
+
+    /**
+     * Đặt lại pheromone trên mọi cạnh về cùng một giá trị (khởi động lại khi trì trệ)
+     */
+    void reset(double value);
+
+    /**
+     * @return Dung lượng bộ nhớ xấp xỉ (byte)
+     */
+    long memoryBytes();
+
+    /**
+     * Kiểm tra giới hạn pheromone hợp lệ cho {@link #setBounds(double, double)}
+     */
+    static void checkBounds(double min, double max) {
+        if (!(min > 0) || !(max >= min)) {
+            throw new IllegalArgumentException("Invalid pheromone bounds: [" + min + ", " + max + "]");
+        }
+    }
+}
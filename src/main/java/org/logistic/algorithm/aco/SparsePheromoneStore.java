@@ -0,0 +1,202 @@
+package org.logistic.algorithm.aco;
+
+import org.logistic.algorithm.NeighborIndex;
+import org.logistic.model.Location;
+
+import java.util.Arrays;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Lưu pheromone chỉ trên các cạnh trong danh sách láng giềng ({@link NeighborIndex}), trong các
+ * mảng float phẳng cùng bố cục với danh sách láng giềng (node * K + rank), nên bộ nhớ là O(n * K)
+ * thay vì O(n^2).
+ *
+ * Bay hơi được tính trễ: mỗi cạnh lưu giá trị và vòng lặp lần cuối được ghi (timestamp), vòng
+ * lặp hiện tại chỉ là một bộ đếm nên bay hơi là O(1) mỗi vòng lặp. Giá trị thực tế là
+ * max(giá trị * (1 - rho)^tuổi, min) với (1 - rho)^tuổi lấy từ bảng dùng chung; bằng đúng kết
+ * quả của việc bay hơi rồi giới hạn dưới từng vòng lặp. Khi tuổi đủ lớn để mọi giá trị đều đã về
+ * min thì không cần tra bảng. Bảng chỉ phụ thuộc tỉ lệ max / min nên chỉ được tạo lại khi tỉ lệ
+ * này tăng.
+ *
+ * Trọng số chọn của các cạnh láng giềng được làm mới trong O(n * K) sau mỗi lần cập nhật. Các
+ * cạnh ngoài danh sách láng giềng luôn có pheromone bằng giới hạn dưới (lượng để lại trên các cạnh
+ * này bị bỏ qua) nên trọng số chọn là min^α (lưu sẵn khi đặt giới hạn) nhân η^β tính khi cần từ
+ * bình phương khoảng cách, không cần căn bậc hai và với β = 2 (mặc định) không gọi Math.pow.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class SparsePheromoneStore implements PheromoneStore {
+    final Location[] locations;
+    final NeighborIndex neighbors;
+    final int[] candidates;
+    final int k;
+
+    final float[] pheromone;
+    final int[] stamps;
+    // η^β của các cạnh láng giềng, tính một lần khi khởi tạo
+    final float[] heuristicWeight;
+    // τ^α * η^β của các cạnh láng giềng, làm mới sau mỗi lần cập nhật pheromone
+    final float[] choice;
+    final double rho;
+    final double alpha;
+    final double beta;
+
+    double minPheromone = MIN_PHEROMONE;
+    double maxPheromone = MAX_PHEROMONE;
+    // min^α: trọng số pheromone của các cạnh ngoài danh sách láng giềng
+    double minWeight;
+    // decay[age] = (1 - rho)^age cho đến khi maxPheromone * (1 - rho)^age < minPheromone
+    double[] decay;
+
+    // Số lần bay hơi đã thực hiện
+    int iteration;
+
+    /**
+     * @param locations Mảng các địa điểm (heuristic theo khoảng cách Euclidean)
+     * @param neighbors Danh sách láng giềng xác định các cạnh được lưu
+     * @param rho       Tốc độ bay hơi
+     * @param alpha     Hệ số ảnh hưởng của pheromone
+     * @param beta      Hệ số ảnh hưởng của heuristic
+     */
+    SparsePheromoneStore(Location[] locations, NeighborIndex neighbors, double rho, double alpha, double beta) {
+        if (rho <= 0 || rho >= 1) {
+            throw new IllegalArgumentException("rho must be in (0, 1)");
+        }
+        this.locations = locations;
+        this.rho = rho;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.neighbors = neighbors;
+        this.candidates = neighbors.neighbors();
+        this.k = neighbors.getK();
+        this.pheromone = new float[candidates.length];
+        this.stamps = new int[candidates.length];
+        this.heuristicWeight = new float[candidates.length];
+        this.choice = new float[candidates.length];
+
+        for (int node = 0; node < locations.length; node++) {
+            int offset = neighbors.offset(node);
+            for (int rank = 0; rank < neighbors.count(node); rank++) {
+                pheromone[offset + rank] = (float) INITIAL_PHEROMONE;
+                heuristicWeight[offset + rank] = (float) computeHeuristicWeight(node, candidates[offset + rank]);
+            }
+        }
+        this.decay = decayTable(rho, MAX_PHEROMONE / MIN_PHEROMONE);
+        this.minWeight = weight(minPheromone);
+        refreshChoices();
+    }
+
+    private static double[] decayTable(double rho, double ratio) {
+        int length = 1;
+        for (double value = ratio; value >= 1.0; value *= 1.0 - rho) {
+            length++;
+        }
+        double[] table = new double[length];
+        table[0] = 1.0;
+        for (int age = 1; age < length; age++) {
+            table[age] = table[age - 1] * (1.0 - rho);
+        }
+        return table;
+    }
+
+    @Override
+    public double pheromone(int from, int to) {
+        int rank = rankOf(from, to);
+        return rank < 0 ? minPheromone : candidatePheromone(from, rank);
+    }
+
+    @Override
+    public double candidatePheromone(int from, int rank) {
+        int index = from * k + rank;
+        int age = iteration - stamps[index];
+        return age < decay.length ? Math.max(pheromone[index] * decay[age], minPheromone) : minPheromone;
+    }
+
+    @Override
+    public double choice(int from, int to) {
+        int rank = rankOf(from, to);
+        return rank < 0 ? minWeight * computeHeuristicWeight(from, to) : choice[from * k + rank];
+    }
+
+    @Override
+    public double candidateChoice(int from, int rank) {
+        return choice[from * k + rank];
+    }
+
+    @Override
+    public void refreshChoices() {
+        for (int node = 0; node < locations.length; node++) {
+            int offset = node * k;
+            for (int rank = 0; rank < neighbors.count(node); rank++) {
+                choice[offset + rank] = (float) (weight(candidatePheromone(node, rank)) * heuristicWeight[offset + rank]);
+            }
+        }
+    }
+
+    @Override
+    public void evaporate() {
+        iteration++;
+    }
+
+    @Override
+    public void deposit(int from, int to, double amount) {
+        int rank = rankOf(from, to);
+        if (rank < 0) {
+            return;
+        }
+        int index = from * k + rank;
+        double current = candidatePheromone(from, rank);
+        pheromone[index] = (float) Math.min(current + amount, maxPheromone);
+        stamps[index] = iteration;
+    }
+
+    @Override
+    public void setBounds(double min, double max) {
+        PheromoneStore.checkBounds(min, max);
+        if (max / min > maxPheromone / minPheromone) {
+            decay = decayTable(rho, max / min);
+        }
+        this.minPheromone = min;
+        this.maxPheromone = max;
+        this.minWeight = weight(min);
+    }
+
+    @Override
+    public void reset(double value) {
+        Arrays.fill(pheromone, (float) value);
+        Arrays.fill(stamps, iteration);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) pheromone.length * (Float.BYTES + Integer.BYTES + Float.BYTES + Float.BYTES);
+    }
+
+    private int rankOf(int from, int to) {
+        int offset = from * k;
+        for (int rank = 0; rank < neighbors.count(from); rank++) {
+            if (candidates[offset + rank] == to) {
+                return rank;
+            }
+        }
+        return -1;
+    }
+
+    private double weight(double tau) {
+        return alpha == 1.0 ? tau : Math.pow(tau, alpha);
+    }
+
+    /**
+     * η^β = (1 / khoảng cách)^β = (bình phương khoảng cách)^(-β / 2), 0 nếu hai điểm trùng nhau
+     */
+    private double computeHeuristicWeight(int from, int to) {
+        double dx = locations[from].getX() - locations[to].getX();
+        double dy = locations[from].getY() - locations[to].getY();
+        double squared = dx * dx + dy * dy;
+        if (squared <= 0) {
+            return 0.0;
+        }
+        return beta == 2.0 ? 1.0 / squared : Math.pow(squared, -0.5 * beta);
+    }
+}
@@ -28,6 +28,10 @@ public class GreyWolfOptimizer extends AbstractOptimizer {
     Wolf beta;  // Sói beta (tốt thứ hai)
     Wolf delta; // Sói delta (tốt thứ ba)
 
+    // Bộ nhớ tạm dùng lại giữa các vòng lặp
+    Solution candidate;
+    final Route[] leaderMoves = new Route[3];
+
     /**
      * Khởi tạo thuật toán Grey Wolf Optimizer
      */
@@ -100,8 +104,9 @@ public class GreyWolfOptimizer extends AbstractOptimizer {
     private void updateWolfPosition(Wolf wolf, double a) {
         Solution currentSolution = wolf.getSolution();
         
-        // Tạo giải pháp mới
-        Solution newSolution = currentSolution.copy();
+        // Tạo giải pháp mới trên bộ nhớ tạm
+        Solution newSolution = copyInto(candidate, currentSolution);
+        candidate = newSolution;
         Route[] routes = newSolution.getRoutes();
         
         // Số chiều (số tuyến đường)
@@ -126,17 +131,17 @@ public class GreyWolfOptimizer extends AbstractOptimizer {
             double D_delta = calculateRouteDistance(currentRoute, delta.getSolution().getRoutes()[i], C3[i]);
             
             // Tính toán vị trí mới theo hướng dẫn của sói alpha, beta và delta
-            Route X1 = moveTowardsLeader(alpha.getSolution().getRoutes()[i], D_alpha, A1[i]);
-            Route X2 = moveTowardsLeader(beta.getSolution().getRoutes()[i], D_beta, A2[i]);
-            Route X3 = moveTowardsLeader(delta.getSolution().getRoutes()[i], D_delta, A3[i]);
+            Route X1 = moveTowardsLeader(0, alpha.getSolution().getRoutes()[i], D_alpha, A1[i]);
+            Route X2 = moveTowardsLeader(1, beta.getSolution().getRoutes()[i], D_beta, A2[i]);
+            Route X3 = moveTowardsLeader(2, delta.getSolution().getRoutes()[i], D_delta, A3[i]);
             
             // Cập nhật vị trí mới là trung bình của ba vị trí
             updateRouteFromLeaders(currentRoute, X1, X2, X3);
             
             // Kiểm tra tính khả thi
             if (!checkConditionUtil.isInsertionFeasible(currentRoute, locations,
-                    currentRoute.getMaxPayload())) {
-                routes[i] = currentSolution.getRoutes()[i].copy();
+                    currentRoute.getMaxPayload(), travelMatrix)) {
+                routes[i].copyFrom(currentSolution.getRoutes()[i]);
             }
         }
         
@@ -147,20 +152,22 @@ public class GreyWolfOptimizer extends AbstractOptimizer {
             // Kiểm tra tính khả thi sau khi áp dụng toán tử đa tuyến
             for (int i = 0; i < dimensions; i++) {
                 if (!checkConditionUtil.isInsertionFeasible(routes[i], locations,
-                        routes[i].getMaxPayload())) {
-                    routes[i] = currentSolution.getRoutes()[i].copy();
+                        routes[i].getMaxPayload(), travelMatrix)) {
+                    routes[i].copyFrom(currentSolution.getRoutes()[i]);
                 }
             }
         }
         
         // Tính toán fitness mới
-        double newFitness = fitnessUtil.calculatorFitness(routes, locations);
+        double newFitness = calculateFitness(routes);
         newSolution.setFitness(newFitness);
         
         // Cập nhật nếu tốt hơn
         if (newFitness < wolf.getFitness()) {
             wolf.setSolution(newSolution);
             wolf.setFitness(newFitness);
+            // Giải pháp cũ không còn được tham chiếu, dùng lại làm bộ nhớ tạm
+            candidate = currentSolution;
             
             // Cập nhật thứ bậc sói
             updateHierarchy(wolf);
@@ -202,9 +209,17 @@ public class GreyWolfOptimizer extends AbstractOptimizer {
 
     /**
      * Di chuyển về phía sói lãnh đạo theo công thức GWO
+     *
+     * @param slot Vị trí bộ nhớ tạm dùng cho kết quả (0, 1, 2 ứng với alpha, beta, delta)
      */
-    private Route moveTowardsLeader(Route leaderRoute, double D, double A) {
-        Route newRoute = leaderRoute.copy();
+    private Route moveTowardsLeader(int slot, Route leaderRoute, double D, double A) {
+        Route newRoute = leaderMoves[slot];
+        if (newRoute == null) {
+            newRoute = leaderRoute.copy();
+            leaderMoves[slot] = newRoute;
+        } else {
+            newRoute.copyFrom(leaderRoute);
+        }
         int[] leaderWay = leaderRoute.getIndLocations();
         int[] newWay = newRoute.getIndLocations();
         
@@ -224,6 +239,7 @@ public class GreyWolfOptimizer extends AbstractOptimizer {
                 newWay[i] = maxLocationIndex;
             }
         }
+        newRoute.markModified();
         
         return newRoute;
     }
@@ -252,6 +268,8 @@ public class GreyWolfOptimizer extends AbstractOptimizer {
                 way[i] = adjustedPos;
             }
         }
+        route.markModified();
+        route.calculateDistance(locations, travelMatrix);
         
         // Áp dụng toán tử ngẫu nhiên để đa dạng hóa
         if (random.nextDouble() < 0.5) {
@@ -272,20 +290,25 @@ public class GreyWolfOptimizer extends AbstractOptimizer {
         // Khởi tạo quần thể
         initialize(initialSolutions);
         
-        // Vòng lặp chính
-        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
-            // Hệ số a giảm tuyến tính từ 2 về 0
-            double a = 2 - iteration * (2.0 / MAX_ITERATIONS);
+        // Vòng lặp chính, dừng theo điều kiện dừng (mặc định MAX_ITERATIONS vòng lặp)
+        startTermination(MAX_ITERATIONS);
+        for (int iteration = 0; !shouldStop(); iteration++) {
+            // Hệ số a giảm tuyến tính từ 2 về 0 theo ngân sách đã dùng
+            double a = 2 * (1 - budgetUsed());
             
             // Cập nhật vị trí từng sói
             for (Wolf wolf : population) {
+                if (shouldStop()) {
+                    break;
+                }
                 updateWolfPosition(wolf, a);
             }
             
             // Đa dạng hóa quần thể định kỳ
-            if (iteration % 10 == 0) {
+            if (iteration % 10 == 0 && !shouldStop()) {
                 diversifyPopulation();
             }
+            completeIteration(alpha.getFitness());
         }
         
         return alpha.getSolution();
@@ -304,7 +327,7 @@ public class GreyWolfOptimizer extends AbstractOptimizer {
         
         for (int i = keepCount; i < population.size(); i++) {
             Solution newSolution = createDiversifiedSolution();
-            double newFitness = fitnessUtil.calculatorFitness(newSolution.getRoutes(), locations);
+            double newFitness = calculateFitness(newSolution.getRoutes());
             population.get(i).setSolution(newSolution);
             population.get(i).setFitness(newFitness);
             
@@ -347,15 +370,7 @@ public class GreyWolfOptimizer extends AbstractOptimizer {
             applyRandomMultiRouteOperation(routes);
         }
         
-        // Cập nhật khoảng cách cho tất cả các tuyến đường
-        for (Route route : routes) {
-            if (distanceTimes != null && distanceTimes.length > 0) {
-                route.calculateDistance(locations, distanceTimes);
-            } else {
-                route.calculateDistance(locations);
-            }
-        }
-        
+        // Khoảng cách của các tuyến đã được các toán tử cập nhật theo chênh lệch
         return newSolution;
     }
 }
@@ -0,0 +1,196 @@
+package org.logistic.algorithm.sa;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.logistic.algorithm.AbstractOptimizer;
+import org.logistic.model.Location;
+import org.logistic.model.Solution;
+import org.logistic.model.TravelMatrix;
+import org.logistic.util.CheckConditionUtil;
+import org.logistic.util.FitnessUtil;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Simulated Annealing nhiều chuỗi theo kiểu parallel tempering (replica exchange).
+ *
+ * N bản sao (replica) chạy đồng thời ở N nhiệt độ cố định trải theo cấp số nhân từ
+ * INITIAL_TEMPERATURE đến FINAL_TEMPERATURE của {@link SimulatedAnnealing}. Mỗi vòng, mọi bản
+ * sao thực hiện SWEEP_MOVES bước Metropolis trên executor, sau đó các cặp nhiệt độ liền kề (xen
+ * kẽ chẵn/lẻ) thử trao đổi giải pháp với xác suất min(1, exp((1/T_i - 1/T_j)(E_i - E_j))), nên giải
+ * pháp tốt dần được đẩy về chuỗi lạnh còn chuỗi nóng tiếp tục khám phá.
+ *
+ * Mặc định chạy COOLING_STEPS vòng (mỗi bản sao thực hiện số bước bằng một lần chạy SA), nên với
+ * đủ số nhân CPU thời gian chạy xấp xỉ một lần SA. Quần thể gồm giải pháp ban đầu, ảnh chụp một
+ * bản sao (xoay vòng qua các nhiệt độ) sau mỗi vòng và giải pháp tốt nhất của từng bản sao.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ParallelTempering extends AbstractOptimizer {
+    // Số bước của mỗi bản sao giữa hai lần thử trao đổi
+    static final int SWEEP_MOVES = SimulatedAnnealing.MAX_ITERATIONS;
+
+    // Giải pháp ban đầu
+    final Solution initialSolution;
+    @Getter
+    final int replicaCount;
+    final Executor executor;
+
+    // Nhiệt độ của từng bản sao, giảm dần theo chỉ số
+    final double[] temperatures;
+
+    @Getter
+    long acceptedSwaps;
+    @Getter
+    long attemptedSwaps;
+
+    /**
+     * Khởi tạo parallel tempering chạy trên common ForkJoinPool
+     *
+     * @param solution     Giải pháp ban đầu
+     * @param replicaCount Số bản sao (tối thiểu 2)
+     */
+    public ParallelTempering(Solution solution, int replicaCount) {
+        this(solution, replicaCount, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Khởi tạo parallel tempering
+     *
+     * @param solution     Giải pháp ban đầu
+     * @param replicaCount Số bản sao (tối thiểu 2)
+     * @param executor     Executor chạy các bản sao (ví dụ thread pool của ParallelExecutionManager)
+     */
+    public ParallelTempering(Solution solution, int replicaCount, Executor executor) {
+        super();
+        if (replicaCount < 2) {
+            throw new IllegalArgumentException("replicaCount must be >= 2");
+        }
+        this.initialSolution = solution;
+        this.replicaCount = replicaCount;
+        this.executor = executor;
+        this.temperatures = new double[replicaCount];
+        double ratio = SimulatedAnnealing.FINAL_TEMPERATURE / SimulatedAnnealing.INITIAL_TEMPERATURE;
+        for (int i = 0; i < replicaCount; i++) {
+            temperatures[i] = SimulatedAnnealing.INITIAL_TEMPERATURE * Math.pow(ratio, (double) i / (replicaCount - 1));
+        }
+    }
+
+    @Override
+    public Solution run(Solution[] initialSolutions, FitnessUtil fitnessUtil,
+                        CheckConditionUtil checkConditionUtil, Location[] locations) {
+        setupParameters(fitnessUtil, checkConditionUtil, locations);
+
+        Solution startSolution = initialSolution;
+        if (initialSolutions != null && initialSolutions.length > 0) {
+            startSolution = initialSolutions[0];
+        }
+
+        return temper(startSolution, null);
+    }
+
+    /**
+     * Chạy parallel tempering và trả về quần thể đa dạng theo nhiệt độ, dùng thay cho
+     * {@link SimulatedAnnealing#runAndGetPopulation} khi có nhiều nhân CPU
+     *
+     * @return Tập quần thể (không trùng lặp)
+     */
+    public Solution[] runAndGetPopulation(FitnessUtil fitnessUtil, CheckConditionUtil checkConditionUtil,
+                                          Location[] locations, TravelMatrix travelMatrix) {
+        this.travelMatrix = travelMatrix;
+        setupParameters(fitnessUtil, checkConditionUtil, locations);
+
+        Set<Solution> population = new HashSet<>();
+        population.add(initialSolution);
+        List<Solution> snapshots = new ArrayList<>();
+        temper(initialSolution, snapshots);
+        population.addAll(snapshots);
+        return population.toArray(new Solution[0]);
+    }
+
+    /**
+     * Vòng lặp chính: chạy các bản sao song song, sau mỗi vòng thử trao đổi giữa các nhiệt độ
+     * liền kề
+     *
+     * @param snapshots Nơi lưu ảnh chụp và giải pháp tốt nhất của từng bản sao, có thể null
+     * @return Giải pháp tốt nhất tìm được
+     */
+    private Solution temper(Solution startSolution, List<Solution> snapshots) {
+        acceptedSwaps = 0;
+        attemptedSwaps = 0;
+
+        // Tạo bản sao trên luồng hiện tại để seed của từng bản sao không phụ thuộc vào lập lịch
+        SimulatedAnnealing[] replicas = new SimulatedAnnealing[replicaCount];
+        for (int i = 0; i < replicaCount; i++) {
+            replicas[i] = new SimulatedAnnealing(startSolution);
+            replicas[i].prepareChain(fitnessUtil, checkConditionUtil, locations, travelMatrix, splitRandom());
+            replicas[i].startChain(startSolution);
+        }
+
+        Solution bestSolution = replicas[0].getBestSolution().copy();
+        double bestEnergy = replicas[0].getBestEnergy();
+        long evaluations = 0;
+
+        startTermination(SimulatedAnnealing.COOLING_STEPS);
+        CompletableFuture<?>[] sweeps = new CompletableFuture<?>[replicaCount];
+        while (!shouldStop()) {
+            for (int i = 0; i < replicaCount; i++) {
+                SimulatedAnnealing replica = replicas[i];
+                double temperature = temperatures[i];
+                sweeps[i] = CompletableFuture.runAsync(() -> {
+                    for (int move = 0; move < SWEEP_MOVES; move++) {
+                        replica.step(temperature);
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(sweeps).join();
+
+            // Thử trao đổi giữa các cặp liền kề, xen kẽ cặp chẵn và cặp lẻ giữa các vòng
+            for (int i = (int) (progress.getIterations() % 2); i + 1 < replicaCount; i += 2) {
+                attemptSwap(replicas[i], temperatures[i], replicas[i + 1], temperatures[i + 1]);
+            }
+
+            long total = 0;
+            for (SimulatedAnnealing replica : replicas) {
+                total += replica.evaluations();
+                if (replica.getBestEnergy() < bestEnergy) {
+                    bestSolution.copyFrom(replica.getBestSolution());
+                    bestEnergy = replica.getBestEnergy();
+                }
+            }
+            progress.recordEvaluations(total - evaluations);
+            evaluations = total;
+
+            if (snapshots != null) {
+                // Giữ bản sao vì giải pháp hiện tại của bản sao sẽ tiếp tục bị dùng lại
+                int index = (int) (progress.getIterations() % replicaCount);
+                snapshots.add(replicas[index].getCurrentSolution().copy());
+            }
+            completeIteration(bestEnergy);
+        }
+
+        if (snapshots != null) {
+            for (SimulatedAnnealing replica : replicas) {
+                snapshots.add(replica.getBestSolution());
+            }
+        }
+        return bestSolution;
+    }
+
+    /**
+     * Thử trao đổi giải pháp giữa chuỗi nóng hơn (i) và chuỗi lạnh hơn (j)
+     */
+    private void attemptSwap(SimulatedAnnealing hot, double hotTemperature, SimulatedAnnealing cold,
+                             double coldTemperature) {
+        attemptedSwaps++;
+        double exponent = (1 / hotTemperature - 1 / coldTemperature)
+                * (hot.getCurrentEnergy() - cold.getCurrentEnergy());
+        if (exponent >= 0 || random.nextDouble() < Math.exp(exponent)) {
+            hot.swapCurrent(cold);
+            acceptedSwaps++;
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package org.logistic.algorithm.sa;
 
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.experimental.FieldDefaults;
 import org.logistic.algorithm.AbstractOptimizer;
+import org.logistic.algorithm.TerminationCriterion;
 import org.logistic.model.Location;
 import org.logistic.model.Route;
 import org.logistic.model.Solution;
+import org.logistic.model.TravelMatrix;
 import org.logistic.util.CheckConditionUtil;
 import org.logistic.util.FitnessUtil;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * Thuật toán Simulated Annealing
@@ -21,10 +25,29 @@ public class SimulatedAnnealing extends AbstractOptimizer {
     static final double COOLING_RATE = 0.95;
     static final double FINAL_TEMPERATURE = 0.1;
     static final int MAX_ITERATIONS = 1000;
+    // Số mức nhiệt độ từ INITIAL_TEMPERATURE đến FINAL_TEMPERATURE
+    static final int COOLING_STEPS = (int) Math.ceil(
+            Math.log(FINAL_TEMPERATURE / INITIAL_TEMPERATURE) / Math.log(COOLING_RATE));
+    // Số chuỗi tối đa khi tạo quần thể song song, nhiều hơn thì mỗi chuỗi quá ngắn để làm lạnh
+    public static final int MAX_POPULATION_CHAINS = 8;
 
     // Giải pháp ban đầu
     final Solution initialSolution;
 
+    // Trạng thái của chuỗi đang chạy
+    @Getter(AccessLevel.PACKAGE)
+    Solution currentSolution;
+    @Getter(AccessLevel.PACKAGE)
+    double currentEnergy;
+    @Getter(AccessLevel.PACKAGE)
+    Solution bestSolution;
+    @Getter(AccessLevel.PACKAGE)
+    double bestEnergy;
+
+    // Bộ nhớ tạm dùng lại giữa các vòng lặp
+    Solution candidate;
+    Route spareRoute;
+
     /**
      * Khởi tạo thuật toán Simulated Annealing với giải pháp ban đầu
      *
@@ -47,39 +70,7 @@ public class SimulatedAnnealing extends AbstractOptimizer {
             startSolution = initialSolutions[0];
         }
 
-        Set<Solution> population = new HashSet<>();
-        population.add(startSolution);
-        double temperature = INITIAL_TEMPERATURE;
-
-        Solution currentSolution = startSolution;
-        Solution bestSolution = currentSolution.copy();
-        double bestEnergy = calculateEnergy(bestSolution.getRoutes());
-
-        while (temperature > FINAL_TEMPERATURE) {
-            for (int i = 0; i < MAX_ITERATIONS; i++) {
-                Solution newSolution = perturbSolution(currentSolution.copy());
-
-                if (!newSolution.equals(currentSolution)) {
-                    double currentEnergy = calculateEnergy(currentSolution.getRoutes());
-                    double newEnergy = calculateEnergy(newSolution.getRoutes());
-                    double deltaEnergy = newEnergy - currentEnergy;
-
-                    if (deltaEnergy < 0 || acceptanceProbability(deltaEnergy, temperature) <= random.nextDouble()) {
-                        currentSolution = newSolution.copy();
-                        if (newEnergy < bestEnergy) {
-                            bestSolution = newSolution.copy();
-                            bestEnergy = newEnergy;
-                        }
-                    }
-                }
-            }
-
-            population.add(currentSolution);
-            temperature *= COOLING_RATE;
-        }
-
-        // Trả về giải pháp tốt nhất thay vì toàn bộ quần thể
-        return bestSolution;
+        return anneal(startSolution, null);
     }
 
     /**
@@ -87,34 +78,187 @@ public class SimulatedAnnealing extends AbstractOptimizer {
      */
     public Solution[] runAndGetPopulation(FitnessUtil fitnessUtil, CheckConditionUtil checkConditionUtil,
                                           Location[] locations) {
+        return runAndGetPopulation(fitnessUtil, checkConditionUtil, locations, null);
+    }
+
+    /**
+     * Tạo tập quần thể ban đầu với ma trận khoảng cách-thời gian
+     */
+    public Solution[] runAndGetPopulation(FitnessUtil fitnessUtil, CheckConditionUtil checkConditionUtil,
+                                          Location[] locations, TravelMatrix travelMatrix) {
+        return runAndGetPopulation(fitnessUtil, checkConditionUtil, locations, travelMatrix, 1);
+    }
+
+    /**
+     * Tạo tập quần thể ban đầu trong một lần làm lạnh: ảnh chụp giải pháp hiện tại được lấy sau
+     * mỗi MAX_ITERATIONS bước, kèm theo giải pháp ban đầu và giải pháp tốt nhất tìm được.
+     *
+     * Với chains > 1, các chuỗi độc lập (mỗi chuỗi có seed riêng tách từ bộ sinh của optimizer)
+     * chạy song song và chia nhau ngân sách mặc định, nên tổng số bước và số ảnh chụp gần như
+     * không đổi nhưng thời gian chạy giảm theo số chuỗi.
+     *
+     * @param chains Số chuỗi làm lạnh độc lập
+     * @return Tập quần thể (không trùng lặp)
+     */
+    public Solution[] runAndGetPopulation(FitnessUtil fitnessUtil, CheckConditionUtil checkConditionUtil,
+                                          Location[] locations, TravelMatrix travelMatrix, int chains) {
+        if (chains < 1) {
+            throw new IllegalArgumentException("chains must be >= 1");
+        }
+
         // Thiết lập các tham số từ lớp cha
+        this.travelMatrix = travelMatrix;
         setupParameters(fitnessUtil, checkConditionUtil, locations);
 
-        // Chạy thuật toán để tìm giải pháp tốt nhất
-        run(new Solution[]{initialSolution}, fitnessUtil, checkConditionUtil, locations);
-
-        // Tạo tập quần thể
         Set<Solution> population = new HashSet<>();
         population.add(initialSolution);
-        double temperature = INITIAL_TEMPERATURE;
-        Solution currentSolution = initialSolution;
-
-        while (temperature > FINAL_TEMPERATURE) {
-            for (int i = 0; i < MAX_ITERATIONS; i++) {
-                Solution newSolution = perturbSolution(currentSolution.copy());
-                double currentEnergy = calculateEnergy(currentSolution.getRoutes());
-                double newEnergy = calculateEnergy(newSolution.getRoutes());
-                double deltaEnergy = newEnergy - currentEnergy;
-
-                if (deltaEnergy < 0 || acceptanceProbability(deltaEnergy, temperature) <= random.nextDouble()) {
-                    currentSolution = newSolution.copy();
+
+        if (chains == 1) {
+            List<Solution> snapshots = new ArrayList<>();
+            population.add(anneal(initialSolution, snapshots));
+            population.addAll(snapshots);
+            return population.toArray(new Solution[0]);
+        }
+
+        // Tạo các chuỗi trên luồng hiện tại để seed của từng chuỗi không phụ thuộc vào lập lịch
+        long chainIterations = ((long) COOLING_STEPS * MAX_ITERATIONS + chains - 1) / chains;
+        SimulatedAnnealing[] replicas = new SimulatedAnnealing[chains];
+        for (int i = 0; i < chains; i++) {
+            SimulatedAnnealing replica = new SimulatedAnnealing(initialSolution);
+            replica.prepareChain(fitnessUtil, checkConditionUtil, locations, travelMatrix, splitRandom());
+            replica.setTerminationCriterion(terminationCriterion != null ? terminationCriterion
+                    : TerminationCriterion.maxIterations(chainIterations));
+            replicas[i] = replica;
+        }
+
+        List<List<Solution>> results = IntStream.range(0, chains).parallel()
+                .mapToObj(i -> {
+                    List<Solution> snapshots = new ArrayList<>();
+                    snapshots.add(replicas[i].anneal(initialSolution, snapshots));
+                    return snapshots;
+                })
+                .toList();
+        for (List<Solution> snapshots : results) {
+            population.addAll(snapshots);
+        }
+        return population.toArray(new Solution[0]);
+    }
+
+    /**
+     * Số chuỗi nên dùng khi tạo quần thể
+     *
+     * @param parallelEnabled Có sử dụng xử lý song song hay không
+     * @return Số nhân CPU (tối đa MAX_POPULATION_CHAINS) khi chạy song song, 1 nếu tuần tự
+     */
+    public static int populationChains(boolean parallelEnabled) {
+        return populationChains(parallelEnabled, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Số chuỗi nên dùng khi tạo quần thể với mức song song cho trước
+     *
+     * @param parallelEnabled Có sử dụng xử lý song song hay không
+     * @param parallelism     Số nhân được phép dùng (ví dụ theo hạn mức CPU của container)
+     * @return parallelism (tối đa MAX_POPULATION_CHAINS) khi chạy song song, 1 nếu tuần tự
+     */
+    public static int populationChains(boolean parallelEnabled, int parallelism) {
+        return parallelEnabled ? Math.max(1, Math.min(parallelism, MAX_POPULATION_CHAINS)) : 1;
+    }
+
+    /**
+     * Một chuỗi làm lạnh từ giải pháp cho trước. Năng lượng của giải pháp hiện tại được giữ lại
+     * giữa các bước nên mỗi bước chỉ tính fitness của giải pháp mới.
+     *
+     * @param startSolution Giải pháp xuất phát (không bị thay đổi)
+     * @param snapshots     Nơi lưu ảnh chụp giải pháp hiện tại sau mỗi MAX_ITERATIONS bước, có
+     *                      thể null nếu không cần
+     * @return Giải pháp tốt nhất tìm được (fitness đã được cập nhật)
+     */
+    private Solution anneal(Solution startSolution, List<Solution> snapshots) {
+        startChain(startSolution);
+
+        // Mỗi vòng lặp là một bước biến đổi; mặc định MAX_ITERATIONS bước cho mỗi mức nhiệt độ
+        startTermination((long) COOLING_STEPS * MAX_ITERATIONS);
+        while (!shouldStop()) {
+            step(temperature(budgetUsed()));
+            completeIteration(bestEnergy);
+            if (snapshots != null && progress.getIterations() % MAX_ITERATIONS == 0) {
+                // Giữ bản sao vì giải pháp hiện tại sẽ tiếp tục bị dùng lại
+                snapshots.add(currentSolution.copy());
+            }
+        }
+
+        return bestSolution;
+    }
+
+    /**
+     * Chuẩn bị optimizer để dùng như một bản sao (replica) trong ParallelTempering
+     *
+     * @param random Bộ sinh số ngẫu nhiên riêng của bản sao
+     */
+    void prepareChain(FitnessUtil fitnessUtil, CheckConditionUtil checkConditionUtil, Location[] locations,
+                      TravelMatrix travelMatrix, SplittableRandom random) {
+        this.random = random;
+        this.travelMatrix = travelMatrix;
+        setupParameters(fitnessUtil, checkConditionUtil, locations);
+        progress.reset();
+    }
+
+    /**
+     * Bắt đầu chuỗi từ giải pháp cho trước (giải pháp này không bị thay đổi)
+     */
+    void startChain(Solution startSolution) {
+        // Giải pháp hiện tại là bản sao riêng để có thể dùng lại bộ nhớ khi hoán vị với giải pháp tạm
+        currentSolution = startSolution.copy();
+        currentEnergy = calculateEnergy(currentSolution.getRoutes());
+        currentSolution.setFitness(currentEnergy);
+        bestSolution = currentSolution.copy();
+        bestEnergy = currentEnergy;
+        candidate = null;
+    }
+
+    /**
+     * Một bước Metropolis ở nhiệt độ cho trước: biến đổi giải pháp hiện tại, chấp nhận nếu tốt
+     * hơn hoặc với xác suất exp(-delta / T) nếu tệ hơn
+     *
+     * @param temperature Nhiệt độ
+     */
+    void step(double temperature) {
+        candidate = copyInto(candidate, currentSolution);
+        Solution newSolution = perturbSolution(candidate);
+
+        if (!newSolution.equals(currentSolution)) {
+            double newEnergy = calculateEnergy(newSolution.getRoutes());
+            double deltaEnergy = newEnergy - currentEnergy;
+
+            if (deltaEnergy < 0 || random.nextDouble() < acceptanceProbability(deltaEnergy, temperature)) {
+                // Hoán vị giải pháp hiện tại và giải pháp tạm thay vì sao chép
+                newSolution.setFitness(newEnergy);
+                candidate = currentSolution;
+                currentSolution = newSolution;
+                currentEnergy = newEnergy;
+                if (newEnergy < bestEnergy) {
+                    bestSolution.copyFrom(newSolution);
+                    bestEnergy = newEnergy;
                 }
             }
-            population.add(currentSolution);
-            temperature *= COOLING_RATE;
         }
+    }
 
-        return population.toArray(new Solution[0]);
+    /**
+     * Hoán đổi giải pháp hiện tại với một chuỗi khác (bước trao đổi của ParallelTempering)
+     */
+    void swapCurrent(SimulatedAnnealing other) {
+        Solution solution = currentSolution;
+        double energy = currentEnergy;
+        currentSolution = other.currentSolution;
+        currentEnergy = other.currentEnergy;
+        other.currentSolution = solution;
+        other.currentEnergy = energy;
+    }
+
+    long evaluations() {
+        return progress.getEvaluations();
     }
 
     /**
@@ -137,7 +281,7 @@ public class SimulatedAnnealing extends AbstractOptimizer {
             // Kiểm tra tính khả thi của tất cả các tuyến đường
             for (int i = 0; i < routes.length; i++) {
                 if (!checkConditionUtil.isInsertionFeasible(routes[i], locations,
-                        routes[i].getMaxPayload())) {
+                        routes[i].getMaxPayload(), travelMatrix)) {
                     // Khôi phục tuyến đường không khả thi
                     routes[i] = solution.getRoutes()[i].copy();
                 }
@@ -145,25 +289,26 @@ public class SimulatedAnnealing extends AbstractOptimizer {
         } else {
             // Chọn ngẫu nhiên một tuyến đường để biến đổi
             int routeIndex = random.nextInt(routes.length);
-            Route cloneRoute = routes[routeIndex].copy();
+            Route cloneRoute = spareRoute;
+            if (cloneRoute == null) {
+                cloneRoute = routes[routeIndex].copy();
+            } else {
+                cloneRoute.copyFrom(routes[routeIndex]);
+            }
 
             applyRandomOperation(cloneRoute);
 
             // Kiểm tra tính khả thi của tuyến đường mới
-            if (checkConditionUtil.isInsertionFeasible(cloneRoute, locations, cloneRoute.getMaxPayload())) {
-                routes[routeIndex] = cloneRoute; // Cập nhật tuyến đường
-            }
-        }
-        
-        // Cập nhật khoảng cách cho tất cả các tuyến đường
-        for (Route route : routes) {
-            if (distanceTimes != null && distanceTimes.length > 0) {
-                route.calculateDistance(locations, distanceTimes);
+            if (checkConditionUtil.isInsertionFeasible(cloneRoute, locations, cloneRoute.getMaxPayload(), travelMatrix)) {
+                // Cập nhật tuyến đường, tuyến cũ được giữ lại làm bộ nhớ tạm cho lần sau
+                spareRoute = routes[routeIndex];
+                routes[routeIndex] = cloneRoute;
             } else {
-                route.calculateDistance(locations);
+                spareRoute = cloneRoute;
             }
         }
 
+        // Khoảng cách của các tuyến đã được các toán tử cập nhật theo chênh lệch
         return solution;
     }
 
@@ -177,7 +322,19 @@ public class SimulatedAnnealing extends AbstractOptimizer {
      * @return Giá trị năng lượng
      */
     private double calculateEnergy(Route[] routes) {
-        return fitnessUtil.calculatorFitness(routes, locations);
+        return calculateFitness(routes);
+    }
+
+    /**
+     * Nhiệt độ theo lịch làm lạnh dạng bậc thang: mỗi mức nhiệt độ chiếm 1/COOLING_STEPS ngân
+     * sách, với ngân sách mặc định mỗi mức kéo dài đúng MAX_ITERATIONS bước
+     *
+     * @param budgetUsed Tỷ lệ ngân sách đã dùng trong [0, 1]
+     * @return Nhiệt độ hiện tại
+     */
+    private double temperature(double budgetUsed) {
+        int step = Math.min((int) (budgetUsed * COOLING_STEPS), COOLING_STEPS - 1);
+        return INITIAL_TEMPERATURE * Math.pow(COOLING_RATE, step);
     }
 
     /**
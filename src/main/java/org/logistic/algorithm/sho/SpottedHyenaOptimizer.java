@@ -4,6 +4,7 @@ import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import org.logistic.algorithm.AbstractOptimizer;
 import org.logistic.algorithm.Agent;
+import org.logistic.algorithm.MoveEvaluator;
 
 import org.logistic.model.Location;
 import org.logistic.model.Route;
@@ -28,6 +29,7 @@ public class SpottedHyenaOptimizer extends AbstractOptimizer {
     List<Hyena> population;
     List<List<Hyena>> clusters; // Các cụm linh cẩu
     Hyena bestHyena; // Linh cẩu có fitness tốt nhất
+    Solution candidate; // Bộ nhớ tạm dùng lại giữa các vòng lặp
 
     /**
      * Khởi tạo thuật toán Spotted Hyena Optimizer
@@ -105,15 +107,12 @@ public class SpottedHyenaOptimizer extends AbstractOptimizer {
         Solution currentSolution = hyena.getSolution();
         Solution bestSolution = bestHyena.getSolution();
 
-        // Tạo giải pháp mới
-        Solution newSolution = currentSolution.copy();
+        // Tạo giải pháp mới trên bộ nhớ tạm; giải pháp hiện tại không bị thay đổi
+        // nên được dùng làm bản gốc để khôi phục
+        Solution newSolution = copyInto(candidate, currentSolution);
+        candidate = newSolution;
         Route[] routes = newSolution.getRoutes();
-
-        // Lưu lại bản sao của các tuyến đường gốc để khôi phục nếu cần
-        Route[] originalRoutes = new Route[routes.length];
-        for (int i = 0; i < routes.length; i++) {
-            originalRoutes[i] = routes[i].copy();
-        }
+        Route[] originalRoutes = currentSolution.getRoutes();
 
         // Số chiều (số tuyến đường)
         int dimensions = routes.length;
@@ -133,15 +132,15 @@ public class SpottedHyenaOptimizer extends AbstractOptimizer {
 
                     // Kiểm tra tính khả thi sau khi áp dụng toán tử đa tuyến
                     for (int j = 0; j < dimensions; j++) {
-                        validateLocationIndices(routes[j].getIndLocations());
+                        validateLocationIndices(routes[j]);
                         if (!checkConditionUtil.isInsertionFeasible(routes[j], locations,
-                                routes[j].getMaxPayload())) {
-                            routes[j] = originalRoutes[j].copy();
+                                routes[j].getMaxPayload(), travelMatrix)) {
+                            routes[j].copyFrom(originalRoutes[j]);
                         }
                     }
                 } else {
                     applyRandomOperation(routes[i]);
-                    validateLocationIndices(routes[i].getIndLocations());
+                    validateLocationIndices(routes[i]);
                 }
             }
             // Pha 2 & 3: Bao vây và tấn công (dựa vào vector E)
@@ -157,21 +156,23 @@ public class SpottedHyenaOptimizer extends AbstractOptimizer {
             }
 
             // Kiểm tra tính khả thi
-            validateLocationIndices(routes[i].getIndLocations());
+            validateLocationIndices(routes[i]);
             if (!checkConditionUtil.isInsertionFeasible(routes[i], locations,
-                    routes[i].getMaxPayload())) {
-                routes[i] = originalRoutes[i].copy();
+                    routes[i].getMaxPayload(), travelMatrix)) {
+                routes[i].copyFrom(originalRoutes[i]);
             }
         }
 
         // Tính toán fitness mới
-        double newFitness = fitnessUtil.calculatorFitness(routes, locations);
+        double newFitness = calculateFitness(routes);
         newSolution.setFitness(newFitness);
 
         // Cập nhật nếu tốt hơn
         if (newFitness < hyena.getFitness()) {
             hyena.setSolution(newSolution);
             hyena.setFitness(newFitness);
+            // Giải pháp cũ không còn được tham chiếu, dùng lại làm bộ nhớ tạm
+            candidate = currentSolution;
 
             // Cập nhật linh cẩu tốt nhất
             if (newFitness < bestHyena.getFitness()) {
@@ -230,8 +231,6 @@ public class SpottedHyenaOptimizer extends AbstractOptimizer {
      * Thực hiện swap và reorder các điểm dựa trên best route
      */
     private void learnFromBestRoute(Route targetRoute, Route bestRoute, double D, double B) {
-        // Lưu lại bản sao của tuyến đường gốc để khôi phục nếu cần
-        int[] originalWay = targetRoute.getIndLocations().clone();
         int[] targetWay = targetRoute.getIndLocations();
         int[] bestWay = bestRoute.getIndLocations();
 
@@ -239,6 +238,11 @@ public class SpottedHyenaOptimizer extends AbstractOptimizer {
             return;
         }
 
+        // Giữ bản gốc trong bộ đệm (không cấp phát), các phép hoán đổi thực hiện trực tiếp trên tuyến
+        double originalDistance = targetRoute.getDistance();
+        MoveEvaluator evaluator = moveEvaluator();
+        routeBuffer.load(targetWay);
+
         // Tính toán số lượng thay đổi dựa trên công thức SHO
         double intensity = Math.abs(B * D);
         int numSwaps = Math.max(1, (int) Math.round(intensity * targetWay.length / 2));
@@ -268,6 +272,9 @@ public class SpottedHyenaOptimizer extends AbstractOptimizer {
 
                 // Thực hiện swap nếu vị trí khác nhau
                 if (targetIndex != newTargetIndex) {
+                    if (evaluator != null) {
+                        targetRoute.applyDistanceDelta(evaluator.swapDelta(targetWay, targetIndex, newTargetIndex));
+                    }
                     int temp = targetWay[targetIndex];
                     targetWay[targetIndex] = targetWay[newTargetIndex];
                     targetWay[newTargetIndex] = temp;
@@ -276,11 +283,13 @@ public class SpottedHyenaOptimizer extends AbstractOptimizer {
         }
 
         // Kiểm tra ràng buộc và đảm bảo không mất điểm
-        targetRoute.setIndLocations(targetWay);
         validateLocationIndices(targetWay);
+        targetRoute.setIndLocations(targetWay);
 
-        if (!checkConditionUtil.isInsertionFeasible(targetRoute, locations, targetRoute.getMaxPayload())) {
-            targetRoute.setIndLocations(originalWay);
+        if (!checkConditionUtil.isInsertionFeasible(targetRoute, locations, targetRoute.getMaxPayload(), travelMatrix)) {
+            // Khôi phục bản gốc vào mảng hiện có (cùng độ dài nên không cấp phát)
+            routeBuffer.storeTo(targetRoute);
+            targetRoute.setDistance(originalDistance);
         }
     }
 
@@ -296,13 +305,17 @@ public class SpottedHyenaOptimizer extends AbstractOptimizer {
         // Khởi tạo quần thể
         initialize(initialSolutions);
 
-        // Vòng lặp chính
-        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
-            // Hệ số a giảm tuyến tính từ 5 về 0
-            double a = 5 * (1 - (double) iteration / MAX_ITERATIONS);
+        // Vòng lặp chính, dừng theo điều kiện dừng (mặc định MAX_ITERATIONS vòng lặp)
+        startTermination(MAX_ITERATIONS);
+        for (int iteration = 0; !shouldStop(); iteration++) {
+            // Hệ số a giảm tuyến tính từ 5 về 0 theo ngân sách đã dùng
+            double a = 5 * (1 - budgetUsed());
 
             // Cập nhật vị trí từng linh cẩu
             for (Hyena hyena : population) {
+                if (shouldStop()) {
+                    break;
+                }
                 updateHyenaPosition(hyena, a);
             }
 
@@ -310,6 +323,7 @@ public class SpottedHyenaOptimizer extends AbstractOptimizer {
             if (iteration % 10 == 0) {
                 formClusters();
             }
+            completeIteration(bestHyena.getFitness());
         }
 
         return bestHyena.getSolution();
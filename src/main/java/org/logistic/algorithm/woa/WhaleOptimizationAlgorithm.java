@@ -16,6 +16,7 @@ public class WhaleOptimizationAlgorithm extends AbstractOptimizer {
     static final int b = 1; // Xác định hình dạng xoắn óc (constant defining the logarithmic spiral)
     Whale bestWhale;
     List<Whale> population;
+    Solution candidate; // Bộ nhớ tạm dùng lại giữa các vòng lặp
 
     /**
      * Khởi tạo optimizer
@@ -32,15 +33,20 @@ public class WhaleOptimizationAlgorithm extends AbstractOptimizer {
         // Khởi tạo quần thể
         initialize(initialSolutions);
 
-        // Vòng lặp chính
-        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
-            // Hệ số a giảm tuyến tính từ 2 về 0
-            double a = 2 * (1 - (double) iteration / MAX_ITERATIONS);
+        // Vòng lặp chính, dừng theo điều kiện dừng (mặc định MAX_ITERATIONS vòng lặp)
+        startTermination(MAX_ITERATIONS);
+        while (!shouldStop()) {
+            // Hệ số a giảm tuyến tính từ 2 về 0 theo ngân sách đã dùng
+            double a = 2 * (1 - budgetUsed());
 
             // Cập nhật vị trí từng cá voi
             for (Whale whale : population) {
+                if (shouldStop()) {
+                    break;
+                }
                 updatePositionWhale(whale, a);
             }
+            completeIteration(bestWhale.getFitness());
         }
 
         return bestWhale.getSolution();
@@ -51,7 +57,8 @@ public class WhaleOptimizationAlgorithm extends AbstractOptimizer {
         Solution bestSolution = bestWhale.getSolution();
 
         // Tạo giải pháp mới
-        Solution newSolution = currentSolution.copy();
+        Solution newSolution = copyInto(candidate, currentSolution);
+        candidate = newSolution;
         Route[] routes = newSolution.getRoutes();
 
         // Số chiều (số tuyến đường)
@@ -86,19 +93,21 @@ public class WhaleOptimizationAlgorithm extends AbstractOptimizer {
 
             // Kiểm tra tính khả thi
             if (!checkConditionUtil.isInsertionFeasible(routes[i], locations,
-                    routes[i].getMaxPayload())) {
-                routes[i] = currentSolution.getRoutes()[i].copy();
+                    routes[i].getMaxPayload(), travelMatrix)) {
+                routes[i].copyFrom(currentSolution.getRoutes()[i]);
             }
         }
 
         // Tính toán fitness mới
-        double newFitness = fitnessUtil.calculatorFitness(routes, locations);
+        double newFitness = calculateFitness(routes);
         newSolution.setFitness(newFitness);
 
         // Cập nhật nếu tốt hơn
         if (newFitness < whale.getFitness()) {
             whale.setSolution(newSolution);
             whale.setFitness(newFitness);
+            // Giải pháp cũ không còn được tham chiếu, dùng lại làm bộ nhớ tạm
+            candidate = currentSolution;
 
             // Cập nhật cá voi tốt nhất
             if (newFitness < bestWhale.getFitness()) {
@@ -141,6 +150,10 @@ public class WhaleOptimizationAlgorithm extends AbstractOptimizer {
             }
             // Nếu không hợp lệ, giữ nguyên giá trị cũ
         }
+        route.markModified();
+        if (locations != null) {
+            route.calculateDistance(locations, travelMatrix);
+        }
     }
 
     public void spiralMovement(Route route, Route bestRoute, double C) {
@@ -161,6 +174,10 @@ public class WhaleOptimizationAlgorithm extends AbstractOptimizer {
             }
             // Nếu không hợp lệ, giữ nguyên giá trị cũ
         }
+        route.markModified();
+        if (locations != null) {
+            route.calculateDistance(locations, travelMatrix);
+        }
     }
 
     public void initialize(Solution[] initialSolutions) {
@@ -7,16 +7,21 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import org.logistic.model.DistanceTime;
 import org.logistic.model.Location;
 import org.logistic.model.Point;
 import org.logistic.model.Route;
+import org.logistic.model.TravelMatrix;
 
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -27,9 +32,13 @@ import lombok.experimental.FieldDefaults;
 @Getter
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class ReadDataFromFile {
+    // Số file được đọc trước trong khi xử lý file hiện tại
+    private static final int PREFETCH_FILES = 2;
+
     Location[] locations;
     Route[] routes;
     DistanceTime[] distanceTimes;
+    TravelMatrix travelMatrix; // Ma trận khoảng cách-thời gian, từ distanceTimes hoặc Euclidean theo tọa độ
     double maxCapacity;
 
     @Getter
@@ -138,6 +147,7 @@ public class ReadDataFromFile {
     }
 
     private void readProblemDataFromPath(Path path, ProblemType problemType) throws IOException {
+        travelMatrix = null;
         switch (problemType) {
             case VRPTW:
                 readVRPTWData(path, problemType);
@@ -154,6 +164,11 @@ public class ReadDataFromFile {
             default:
                 throw new IllegalArgumentException("Unsupported problem type: " + problemType);
         }
+
+        // Dữ liệu chỉ có tọa độ: dùng ma trận Euclidean để vòng lặp chính không phải tính lại căn
+        if (travelMatrix == null && locations != null && locations.length > 0) {
+            travelMatrix = TravelMatrix.euclidean(locations);
+        }
     }
 
     private void readVRPTWData(Path path, ProblemType problemType) throws IOException {
@@ -393,6 +408,7 @@ public class ReadDataFromFile {
 
             locations = locationList.toArray(new Location[0]);
             distanceTimes = distanceTimeList.toArray(new DistanceTime[0]);
+            travelMatrix = TravelMatrix.fromDistanceTimes(locations, distanceTimes);
 
             System.out.println("Đã đọc " + locations.length + " location VRPSPDTW Liu Tang Yao từ " + path);
             System.out.println(
@@ -514,6 +530,7 @@ public class ReadDataFromFile {
 
         locations = locationList.toArray(new Location[0]);
         distanceTimes = distanceTimeList.toArray(new DistanceTime[0]);
+        travelMatrix = TravelMatrix.fromDistanceTimes(locations, distanceTimes);
 
         System.out.println("Đã đọc " + locations.length + " Location từ: " + path);
         System.out
@@ -544,11 +561,7 @@ public class ReadDataFromFile {
                         if (indLocs.length > 1) {
                             Route route = new Route(indLocs, maxCapacity);
                             if (locations != null) {
-                                if (distanceTimes != null && distanceTimes.length > 0) {
-                                    route.calculateDistance(locations, distanceTimes);
-                                } else {
-                                    route.calculateDistance(locations);
-                                }
+                                route.calculateDistance(locations, travelMatrix);
                             }
                             routeList.add(route);
                         }
@@ -581,11 +594,7 @@ public class ReadDataFromFile {
 
                         Route route = new Route(indLocs, maxCapacity);
                         if (locations != null) {
-                            if (distanceTimes != null && distanceTimes.length > 0) {
-                                route.calculateDistance(locations, distanceTimes);
-                            } else {
-                                route.calculateDistance(locations);
-                            }
+                            route.calculateDistance(locations, travelMatrix);
                         }
                         routeList.add(route);
                     } catch (Exception e) {
@@ -625,11 +634,7 @@ public class ReadDataFromFile {
                                 int[] indLocs = nodeList.stream().mapToInt(Integer::intValue).toArray();
                                 Route route = new Route(indLocs, maxCapacity);
                                 if (locations != null) {
-                                    if (distanceTimes != null && distanceTimes.length > 0) {
-                                        route.calculateDistance(locations, distanceTimes);
-                                    } else {
-                                        route.calculateDistance(locations);
-                                    }
+                                    route.calculateDistance(locations, travelMatrix);
                                 }
                                 routeList.add(route);
                             }
@@ -672,11 +677,7 @@ public class ReadDataFromFile {
                                 int[] indLocs = nodeList.stream().mapToInt(Integer::intValue).toArray();
                                 Route route = new Route(indLocs, maxCapacity);
                                 if (locations != null) {
-                                    if (distanceTimes != null && distanceTimes.length > 0) {
-                                        route.calculateDistance(locations, distanceTimes);
-                                    } else {
-                                        route.calculateDistance(locations);
-                                    }
+                                    route.calculateDistance(locations, travelMatrix);
                                 }
                                 routeList.add(route);
                             }
@@ -710,11 +711,7 @@ public class ReadDataFromFile {
                         if (indLocs.length >= 1) {
                             Route route = new Route(indLocs, maxCapacity);
                             if (locations != null) {
-                                if (distanceTimes != null && distanceTimes.length > 0) {
-                                    route.calculateDistance(locations, distanceTimes);
-                                } else {
-                                    route.calculateDistance(locations);
-                                }
+                                route.calculateDistance(locations, travelMatrix);
                             }
                             routeList.add(route);
                         }
@@ -767,28 +764,44 @@ public class ReadDataFromFile {
 
     public void processAllFilesInDirectory(String srcDirPath, String solutionDirPath,
             ProblemType problemType, FileProcessCallback callback) {
+        processAllFilesInDirectory(srcDirPath, solutionDirPath, problemType, callback, Runnable::run);
+    }
+
+    /**
+     * Xử lý tất cả các file trong thư mục, đọc trước tối đa PREFETCH_FILES file trên loader (mỗi
+     * file một đối tượng đọc riêng) trong khi callback xử lý file hiện tại. Callback vẫn được gọi
+     * tuần tự theo thứ tự tên file trên luồng gọi, dữ liệu của file được chép vào đối tượng này
+     * trước mỗi lần gọi (getTravelMatrix(), ... trả về dữ liệu của file đang xử lý).
+     *
+     * @param loader Executor đọc file (Runnable::run để đọc tuần tự trên luồng gọi)
+     */
+    public void processAllFilesInDirectory(String srcDirPath, String solutionDirPath,
+            ProblemType problemType, FileProcessCallback callback, Executor loader) {
         List<File> srcFiles = getFilesInDirectory(srcDirPath, ".txt");
         if (srcFiles.isEmpty()) {
             System.err.println("No source files found in directory: " + srcDirPath);
             return;
         }
 
+        Deque<CompletableFuture<ReadDataFromFile>> pending = new ArrayDeque<>();
+        int next = 0;
         for (File srcFile : srcFiles) {
-            try {
-                locations = null;
-                routes = null;
-
-                readProblemData(srcFile.getAbsolutePath(), problemType);
-                if (locations == null || locations.length == 0)
-                    continue;
+            while (next < srcFiles.size() && pending.size() <= PREFETCH_FILES) {
+                File file = srcFiles.get(next++);
+                pending.add(CompletableFuture.supplyAsync(
+                        () -> loadInstance(file, solutionDirPath, problemType), loader));
+            }
 
-                File solutionFile = getMatchingSolutionFile(srcFile, solutionDirPath);
-                if (solutionFile == null)
+            try {
+                ReadDataFromFile loaded = pending.poll().join();
+                locations = loaded == null ? null : loaded.locations;
+                routes = loaded == null ? null : loaded.routes;
+                if (loaded == null)
                     continue;
 
-                readSolution(solutionFile.getAbsolutePath());
-                if (routes == null || routes.length == 0)
-                    continue;
+                distanceTimes = loaded.distanceTimes;
+                travelMatrix = loaded.travelMatrix;
+                maxCapacity = loaded.maxCapacity;
 
                 callback.process(locations, routes, srcFile.getName());
                 System.gc();
@@ -799,6 +812,27 @@ public class ReadDataFromFile {
         }
     }
 
+    /**
+     * Đọc dữ liệu và giải pháp của một file vào một đối tượng đọc mới
+     *
+     * @return Đối tượng chứa dữ liệu đã đọc, hoặc null nếu thiếu dữ liệu hoặc giải pháp
+     */
+    private static ReadDataFromFile loadInstance(File srcFile, String solutionDirPath, ProblemType problemType) {
+        ReadDataFromFile reader = new ReadDataFromFile();
+        reader.readProblemData(srcFile.getAbsolutePath(), problemType);
+        if (reader.locations == null || reader.locations.length == 0)
+            return null;
+
+        File solutionFile = reader.getMatchingSolutionFile(srcFile, solutionDirPath);
+        if (solutionFile == null)
+            return null;
+
+        reader.readSolution(solutionFile.getAbsolutePath());
+        if (reader.routes == null || reader.routes.length == 0)
+            return null;
+        return reader;
+    }
+
     public interface FileProcessCallback {
         void process(Location[] locations, Route[] routes, String fileName);
     }
@@ -0,0 +1,235 @@
+package org.logistic.data;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.logistic.data.ReadDataFromFile.ProblemType;
+import org.logistic.model.Location;
+import org.logistic.model.Point;
+import org.logistic.model.Route;
+import org.logistic.model.Solution;
+import org.logistic.model.TravelMatrix;
+import org.logistic.util.FitnessUtil;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Bài toán sinh ngẫu nhiên (có seed cố định) dùng cho benchmark.
+ *
+ * Điểm 0 là depot, các khách hàng có tọa độ ngẫu nhiên trong hình vuông 100 x 100, cửa sổ
+ * thời gian ngẫu nhiên trong khoảng [0, HORIZON]. Loại bài toán quyết định loại nhu cầu:
+ * - VRPTW: chỉ giao hàng
+ * - PDPTW: mỗi điểm hoặc nhận hoặc giao
+ * - VRPSPDTW: mỗi điểm vừa giao vừa nhận, kèm ma trận khoảng cách-thời gian (thời gian di
+ *   chuyển không bằng khoảng cách, giống dữ liệu có DISTANCETIME_SECTION)
+ *
+ * Cùng tham số và seed luôn cho ra cùng một bài toán.
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SyntheticInstance {
+    static final double AREA = 100;
+    static final double HORIZON = 1000;
+    static final double SERVICE_TIME = 10;
+    static final double CAPACITY = 200;
+    static final int MAX_DEMAND = 20;
+
+    ProblemType problemType;
+    int customers;
+    long seed;
+    Location[] locations;
+    TravelMatrix travelMatrix;
+    double maxCapacity;
+
+    @Getter(AccessLevel.NONE)
+    int[][] initialWays;
+
+    private SyntheticInstance(ProblemType problemType, int customers, long seed) {
+        this.problemType = problemType;
+        this.customers = customers;
+        this.seed = seed;
+        this.maxCapacity = CAPACITY;
+
+        Random random = new Random(seed);
+        this.locations = createLocations(problemType, customers, random);
+        this.travelMatrix = problemType == ProblemType.VRPSPDTW_LIU_TANG_YAO
+                || problemType == ProblemType.VRPSPDTW_WANG_CHEN ? createTravelMatrix(locations, random) : null;
+        this.initialWays = createInitialWays(locations, maxCapacity);
+    }
+
+    /**
+     * Sinh bài toán
+     *
+     * @param problemType Loại bài toán
+     * @param customers   Số khách hàng (không tính depot)
+     * @param seed        Seed của bộ sinh số ngẫu nhiên
+     * @return Bài toán mới
+     */
+    public static SyntheticInstance generate(ProblemType problemType, int customers, long seed) {
+        if (customers < 1) {
+            throw new IllegalArgumentException("customers must be >= 1");
+        }
+        return new SyntheticInstance(problemType, customers, seed);
+    }
+
+    /**
+     * Tạo các tuyến đường ban đầu (mỗi lần gọi trả về bản sao mới): khách hàng được sắp xếp
+     * theo thời điểm mở cửa sổ thời gian rồi chia tuần tự sao cho không vượt quá trọng tải
+     *
+     * @return Mảng tuyến đường đã tính khoảng cách
+     */
+    public Route[] createInitialRoutes() {
+        Route[] routes = new Route[initialWays.length];
+        for (int i = 0; i < routes.length; i++) {
+            routes[i] = new Route(initialWays[i].clone(), maxCapacity);
+            routes[i].calculateDistance(locations, travelMatrix);
+        }
+        return routes;
+    }
+
+    /**
+     * Tạo giải pháp ban đầu và tính fitness của nó
+     *
+     * @param fitnessUtil Tiện ích tính fitness
+     * @return Giải pháp ban đầu
+     */
+    public Solution createInitialSolution(FitnessUtil fitnessUtil) {
+        Route[] routes = createInitialRoutes();
+        return new Solution(routes, fitnessUtil.calculatorFitness(routes, locations, travelMatrix, false));
+    }
+
+    /**
+     * Tạo nhiều giải pháp ban đầu khác nhau (xoay vòng thứ tự các tuyến và đảo một số tuyến)
+     * để dùng làm quần thể khởi tạo cho các thuật toán bầy đàn
+     *
+     * @param fitnessUtil Tiện ích tính fitness
+     * @param count       Số giải pháp
+     * @return Mảng giải pháp ban đầu
+     */
+    public Solution[] createInitialSolutions(FitnessUtil fitnessUtil, int count) {
+        Random random = new Random(seed ^ 0x5DEECE66DL);
+        Solution[] solutions = new Solution[count];
+        for (int s = 0; s < count; s++) {
+            Route[] routes = createInitialRoutes();
+            if (s > 0) {
+                for (Route route : routes) {
+                    shuffle(route.getIndLocations(), random);
+                    route.markModified();
+                    route.calculateDistance(locations, travelMatrix);
+                }
+            }
+            solutions[s] = new Solution(routes, fitnessUtil.calculatorFitness(routes, locations, travelMatrix, false));
+        }
+        return solutions;
+    }
+
+    @Override
+    public String toString() {
+        return problemType + "-" + customers + "-" + seed;
+    }
+
+    private static Location[] createLocations(ProblemType problemType, int customers, Random random) {
+        Location[] locations = new Location[customers + 1];
+        locations[0] = Location.builder()
+                .id(0)
+                .point(new Point(AREA / 2, AREA / 2))
+                .ltw(0)
+                .utw(HORIZON * 2)
+                .build();
+
+        for (int i = 1; i <= customers; i++) {
+            double ltw = random.nextDouble() * (HORIZON - 200);
+            double width = 100 + random.nextDouble() * 300;
+            Location location = Location.builder()
+                    .id(i)
+                    .point(new Point(random.nextInt((int) AREA + 1), random.nextInt((int) AREA + 1)))
+                    .serviceTimePick(0)
+                    .serviceTimeDeliver(SERVICE_TIME)
+                    .ltw(Math.floor(ltw))
+                    .utw(Math.floor(ltw + width))
+                    .build();
+
+            int demand = 1 + random.nextInt(MAX_DEMAND);
+            switch (problemType) {
+                case VRPTW -> {
+                    location.setDeliver(true);
+                    location.setDemandDeliver(demand);
+                }
+                case PDPTW -> {
+                    if (random.nextBoolean()) {
+                        location.setPick(true);
+                        location.setDemandPick(demand);
+                    } else {
+                        location.setDeliver(true);
+                        location.setDemandDeliver(demand);
+                    }
+                }
+                default -> {
+                    location.setDeliver(true);
+                    location.setDemandDeliver(demand);
+                    location.setPick(true);
+                    location.setDemandPick(1 + random.nextInt(MAX_DEMAND));
+                }
+            }
+            locations[i] = location;
+        }
+        return locations;
+    }
+
+    private static TravelMatrix createTravelMatrix(Location[] locations, Random random) {
+        int size = locations.length;
+        double[] distances = new double[size * size];
+        double[] travelTimes = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                double distance = locations[i].distance(locations[j]);
+                // Thời gian di chuyển dao động quanh khoảng cách (tốc độ khác nhau trên từng cạnh)
+                double speed = 0.8 + random.nextDouble() * 0.4;
+                distances[i * size + j] = distance;
+                travelTimes[i * size + j] = distance / speed;
+            }
+        }
+        return TravelMatrix.fromArrays(size, distances, travelTimes);
+    }
+
+    private static int[][] createInitialWays(Location[] locations, double maxCapacity) {
+        Integer[] order = new Integer[locations.length - 1];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i + 1;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> locations[i].getLtw()));
+
+        int[][] ways = new int[order.length][];
+        int[] current = new int[order.length];
+        int length = 0;
+        int count = 0;
+        double load = 0;
+        for (int node : order) {
+            Location location = locations[node];
+            double demand = Math.max(location.getDemandDeliver(), location.getDemandPick());
+            if (length > 0 && load + demand > maxCapacity) {
+                ways[count++] = Arrays.copyOf(current, length);
+                length = 0;
+                load = 0;
+            }
+            current[length++] = node;
+            load += demand;
+        }
+        if (length > 0) {
+            ways[count++] = Arrays.copyOf(current, length);
+        }
+        return Arrays.copyOf(ways, count);
+    }
+
+    private static void shuffle(int[] way, Random random) {
+        for (int i = way.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = way[i];
+            way[i] = way[j];
+            way[j] = temp;
+        }
+    }
+}
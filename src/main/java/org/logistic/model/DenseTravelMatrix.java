@@ -0,0 +1,114 @@
+package org.logistic.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Ma trận khoảng cách và thời gian di chuyển đầy đủ (size x size phần tử double cho mỗi loại),
+ * dùng cho dữ liệu có DISTANCETIME_SECTION (có thể bất đối xứng, thời gian khác khoảng cách).
+ * Được xây dựng một lần khi đọc dữ liệu và không thay đổi sau đó, mọi truy vấn
+ * cạnh chỉ là phép tính chỉ số trên mảng phẳng (không cấp phát bộ nhớ).
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+final class DenseTravelMatrix implements TravelMatrix {
+    /** Số điểm (kích thước một chiều của ma trận) */
+    @Getter
+    int size;
+
+    /** Khoảng cách, lưu theo hàng: distances[from * size + to] */
+    double[] distances;
+
+    /** Thời gian di chuyển, lưu theo hàng: travelTimes[from * size + to] */
+    double[] travelTimes;
+
+    private DenseTravelMatrix(int size, double[] distances, double[] travelTimes) {
+        this.size = size;
+        this.distances = distances;
+        this.travelTimes = travelTimes;
+    }
+
+    /**
+     * Xây dựng ma trận từ DISTANCETIME_SECTION.
+     * Các cặp điểm không có trong dữ liệu sẽ dùng khoảng cách Euclidean cho cả
+     * khoảng cách và thời gian; nếu một cặp xuất hiện nhiều lần, giữ bản ghi đầu tiên.
+     *
+     * @param locations     Mảng các địa điểm
+     * @param distanceTimes Mảng thông tin khoảng cách-thời gian
+     * @return Ma trận mới, hoặc null nếu không có thông tin DistanceTime
+     */
+    static TravelMatrix fromDistanceTimes(Location[] locations, DistanceTime[] distanceTimes) {
+        if (distanceTimes == null || distanceTimes.length == 0) {
+            return null;
+        }
+
+        int size = locations.length;
+        for (DistanceTime dt : distanceTimes) {
+            size = Math.max(size, Math.max(dt.getFromNode(), dt.getToNode()) + 1);
+        }
+
+        double[] distances = new double[size * size];
+        double[] travelTimes = new double[size * size];
+
+        // Giá trị mặc định là khoảng cách Euclidean giữa các điểm đã biết
+        for (int i = 0; i < locations.length; i++) {
+            for (int j = 0; j < locations.length; j++) {
+                double d = locations[i].distance(locations[j]);
+                distances[i * size + j] = d;
+                travelTimes[i * size + j] = d;
+            }
+        }
+
+        boolean[] defined = new boolean[size * size];
+        for (DistanceTime dt : distanceTimes) {
+            int from = dt.getFromNode();
+            int to = dt.getToNode();
+            if (from < 0 || to < 0) {
+                continue;
+            }
+            int index = from * size + to;
+            if (!defined[index]) {
+                distances[index] = dt.getDistance();
+                travelTimes[index] = dt.getTravelTime();
+                defined[index] = true;
+            }
+        }
+
+        return new DenseTravelMatrix(size, distances, travelTimes);
+    }
+
+    /**
+     * Tạo ma trận từ các mảng phẳng đã có sẵn (lưu theo hàng, kích thước size * size)
+     *
+     * @param size        Số điểm
+     * @param distances   Khoảng cách, distances[from * size + to]
+     * @param travelTimes Thời gian di chuyển, travelTimes[from * size + to]
+     * @return Ma trận mới (dùng trực tiếp các mảng, không sao chép)
+     */
+    static TravelMatrix fromArrays(int size, double[] distances, double[] travelTimes) {
+        if (distances.length != size * size || travelTimes.length != size * size) {
+            throw new IllegalArgumentException("Matrix arrays must have size * size elements");
+        }
+        return new DenseTravelMatrix(size, distances, travelTimes);
+    }
+
+    @Override
+    public double distance(int from, int to) {
+        return distances[from * size + to];
+    }
+
+    @Override
+    public double travelTime(int from, int to) {
+        return travelTimes[from * size + to];
+    }
+
+    @Override
+    public long memoryBytes() {
+        return ((long) distances.length + travelTimes.length) * Double.BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return "DenseTravelMatrix[size=" + size + ", " + (memoryBytes() >> 10) + " KiB]";
+    }
+}
@@ -0,0 +1,105 @@
+package org.logistic.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Khoảng cách Euclidean đối xứng cho bài toán lớn (không tính sẵn toàn bộ ma trận), có bộ nhớ
+ * đệm ánh xạ trực tiếp với dung lượng cố định được điền dần khi truy vấn.
+ *
+ * Mỗi ô là một giá trị long gồm chỉ số cạnh + 1 (32 bit cao, 0 là ô trống) và khoảng cách dạng
+ * float (32 bit thấp), đọc/ghi nguyên tử qua VarHandle nên nhiều luồng dùng chung được mà không
+ * cần khóa: ghi đè lẫn nhau chỉ làm mất một phần tử đệm, không bao giờ trả về giá trị sai. Tọa
+ * độ được chép ra hai mảng double liên tiếp nên khi không trúng bộ nhớ đệm chỉ cần một phép căn.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+final class LazyEuclideanMatrix implements TravelMatrix {
+    /** Số ô mặc định của bộ nhớ đệm (8 MiB) */
+    static final int DEFAULT_CAPACITY = 1 << 20;
+
+    // Chỉ số cạnh phải vừa 32 bit (trừ giá trị dành cho ô trống)
+    static final long MAX_CACHED_EDGES = 0xFFFFFFFFL;
+
+    static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    @Getter
+    int size;
+    double[] xs;
+    double[] ys;
+    long[] slots;
+    int mask;
+    boolean cacheable;
+
+    /**
+     * @param locations Mảng các địa điểm
+     * @param capacity  Số ô tối đa của bộ nhớ đệm (làm tròn lên lũy thừa của 2)
+     */
+    LazyEuclideanMatrix(Location[] locations, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be >= 1");
+        }
+        this.size = locations.length;
+        this.xs = new double[size];
+        this.ys = new double[size];
+        for (int i = 0; i < size; i++) {
+            xs[i] = locations[i].getX();
+            ys[i] = locations[i].getY();
+        }
+        int slotCount = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.slots = new long[slotCount];
+        this.mask = slotCount - 1;
+        this.cacheable = (long) size * (size - 1) / 2 < MAX_CACHED_EDGES;
+    }
+
+    @Override
+    public double distance(int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        if (!cacheable) {
+            return (float) compute(from, to);
+        }
+        long i = Math.max(from, to);
+        long edge = i * (i - 1) / 2 + Math.min(from, to);
+        long tag = (edge + 1) << 32;
+        int slot = (int) ((edge * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+
+        long entry = (long) SLOTS.getOpaque(slots, slot);
+        if ((entry & 0xFFFFFFFF00000000L) == tag) {
+            return Float.intBitsToFloat((int) entry);
+        }
+        float value = (float) compute(from, to);
+        SLOTS.setOpaque(slots, slot, tag | (Float.floatToRawIntBits(value) & 0xFFFFFFFFL));
+        return value;
+    }
+
+    @Override
+    public double travelTime(int from, int to) {
+        return distance(from, to);
+    }
+
+    @Override
+    public boolean isEuclidean() {
+        return true;
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) slots.length * Long.BYTES + 2L * size * Double.BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyEuclideanMatrix[size=" + size + ", " + (memoryBytes() >> 10) + " KiB]";
+    }
+
+    private double compute(int from, int to) {
+        double dx = xs[from] - xs[to];
+        double dy = ys[from] - ys[to];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -0,0 +1,65 @@
+package org.logistic.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Ma trận khoảng cách Euclidean đối xứng tính sẵn, chỉ lưu nửa tam giác dưới (không gồm đường
+ * chéo) dưới dạng float[]: cạnh (i, j) với i > j nằm tại i * (i - 1) / 2 + j. Dung lượng
+ * n * (n - 1) / 2 * 4 byte, khoảng 1/4 ma trận double đầy đủ.
+ *
+ * Khoảng cách được làm tròn về float (sai số tương đối cỡ 1e-7), không đáng kể so với tọa độ của
+ * các bộ dữ liệu. Thời gian di chuyển bằng khoảng cách.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+final class PackedEuclideanMatrix implements TravelMatrix {
+    @Getter
+    int size;
+    float[] distances;
+
+    PackedEuclideanMatrix(Location[] locations) {
+        this.size = locations.length;
+        this.distances = new float[(int) ((long) size * (size - 1) / 2)];
+        int index = 0;
+        for (int i = 1; i < size; i++) {
+            double x = locations[i].getX();
+            double y = locations[i].getY();
+            for (int j = 0; j < i; j++) {
+                double dx = x - locations[j].getX();
+                double dy = y - locations[j].getY();
+                distances[index++] = (float) Math.sqrt(dx * dx + dy * dy);
+            }
+        }
+    }
+
+    @Override
+    public double distance(int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        int i = Math.max(from, to);
+        int j = Math.min(from, to);
+        return distances[i * (i - 1) / 2 + j];
+    }
+
+    @Override
+    public double travelTime(int from, int to) {
+        return distance(from, to);
+    }
+
+    @Override
+    public boolean isEuclidean() {
+        return true;
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) distances.length * Float.BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return "PackedEuclideanMatrix[size=" + size + ", " + (memoryBytes() >> 10) + " KiB]";
+    }
+}
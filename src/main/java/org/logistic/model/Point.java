@@ -13,6 +13,8 @@ public class Point {
     }
 
     public double distanceTo(Point other) {
-        return Math.sqrt(Math.pow(other.getX() - this.x, 2) + Math.pow(other.getY() - this.y, 2));
+        double dx = other.x - this.x;
+        double dy = other.y - this.y;
+        return Math.sqrt(dx * dx + dy * dy);
     }
 }
\ No newline at end of file
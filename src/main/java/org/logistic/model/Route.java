@@ -1,9 +1,7 @@
 package org.logistic.model;
 
 import java.util.Arrays;
-import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -21,6 +19,55 @@ public class Route {
     double distance; // Khoảng cách của tuyến đường
     boolean isUse;
 
+    // Phiên bản của tuyến đường, tăng mỗi khi danh sách điểm thay đổi
+    @Setter(AccessLevel.NONE)
+    int version;
+
+    // Dữ liệu tiền tố/hậu tố để kiểm tra ràng buộc, chỉ hợp lệ khi cùng phiên bản
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    RouteSegments segments;
+
+    // Chi phí (khoảng cách, thời gian, trọng tải) đã tính, chỉ hợp lệ khi cùng phiên bản
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    RouteCost cost;
+
+    // Phiên bản, dữ liệu bài toán và trọng tải mà tại đó tuyến đường đã được xác nhận khả thi
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    int feasibleVersion = -1;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    double feasiblePayload;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    Location[] feasibleLocations;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    TravelMatrix feasibleTravelMatrix;
+
+    // Fingerprint Zobrist của danh sách điểm và phiên bản mà tại đó nó còn hợp lệ
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    long fingerprint;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    int fingerprintVersion = -1;
+
+    // Mã băm nội dung (phụ thuộc thứ tự) để kiểm tra lại khi fingerprint trùng nhau
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    long contentHash;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    int contentHashVersion = -1;
+
     /**
      * Constructor với chỉ indLocations và maxPayload
      * 
@@ -48,7 +95,189 @@ public class Route {
      */
     public Route copy() {
         int[] copiedIndLocations = (indLocations != null) ? indLocations.clone() : new int[0];
-        return new Route(copiedIndLocations, maxPayload, distance);
+        Route route = new Route(copiedIndLocations, maxPayload, distance);
+        route.isUse = isUse;
+        // Bản sao có cùng nội dung nên dùng chung được dữ liệu kiểm tra ràng buộc
+        route.version = version;
+        route.segments = segments;
+        route.cost = cost;
+        route.feasibleVersion = feasibleVersion;
+        route.feasiblePayload = feasiblePayload;
+        route.feasibleLocations = feasibleLocations;
+        route.feasibleTravelMatrix = feasibleTravelMatrix;
+        route.fingerprint = fingerprint;
+        route.fingerprintVersion = fingerprintVersion;
+        route.contentHash = contentHash;
+        route.contentHashVersion = contentHashVersion;
+        return route;
+    }
+
+    /**
+     * Sao chép nội dung của tuyến đường khác vào tuyến đường này, dùng lại mảng hiện có
+     * nếu cùng độ dài để tránh cấp phát bộ nhớ trong vòng lặp chính
+     *
+     * @param other Tuyến đường nguồn
+     */
+    public void copyFrom(Route other) {
+        int[] source = other.indLocations != null ? other.indLocations : new int[0];
+        if (indLocations == null || indLocations.length != source.length) {
+            indLocations = new int[source.length];
+        }
+        System.arraycopy(source, 0, indLocations, 0, source.length);
+        maxPayload = other.maxPayload;
+        distance = other.distance;
+        isUse = other.isUse;
+        version = other.version;
+        segments = other.segments;
+        cost = other.cost;
+        feasibleVersion = other.feasibleVersion;
+        feasiblePayload = other.feasiblePayload;
+        feasibleLocations = other.feasibleLocations;
+        feasibleTravelMatrix = other.feasibleTravelMatrix;
+        fingerprint = other.fingerprint;
+        fingerprintVersion = other.fingerprintVersion;
+        contentHash = other.contentHash;
+        contentHashVersion = other.contentHashVersion;
+    }
+
+    /**
+     * Gán danh sách điểm mới cho tuyến đường và làm mất hiệu lực dữ liệu đã lưu
+     *
+     * @param indLocations Mảng chỉ số các địa điểm
+     */
+    public void setIndLocations(int[] indLocations) {
+        this.indLocations = indLocations;
+        markModified();
+    }
+
+    /**
+     * Đánh dấu tuyến đường đã bị thay đổi. Phải gọi sau mỗi lần sửa trực tiếp
+     * mảng indLocations để dữ liệu kiểm tra ràng buộc được tính lại.
+     */
+    public void markModified() {
+        version++;
+    }
+
+    /**
+     * Lấy fingerprint Zobrist của danh sách điểm, chỉ tính lại (O(n)) khi tuyến đã thay đổi mà
+     * không được cập nhật qua {@link #applyFingerprintDelta(long)}
+     *
+     * @return Fingerprint 64-bit
+     */
+    public long getFingerprint() {
+        if (fingerprintVersion != version) {
+            fingerprint = Zobrist.of(indLocations);
+            fingerprintVersion = version;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Cập nhật fingerprint theo một bước biến đổi vừa áp dụng (gọi ngay sau markModified). Nếu
+     * fingerprint trước bước biến đổi chưa được tính thì bỏ qua, lần đọc sau sẽ tính lại.
+     *
+     * @param delta Giá trị cần cộng từ các phương thức *Delta của {@link Zobrist}
+     */
+    public void applyFingerprintDelta(long delta) {
+        if (fingerprintVersion == version - 1) {
+            fingerprint += delta;
+            fingerprintVersion = version;
+        }
+    }
+
+    /**
+     * Lấy mã băm nội dung của danh sách điểm (xem {@link Zobrist#contentHash(int[])}), chỉ tính
+     * lại (O(n)) khi tuyến đã thay đổi
+     *
+     * @return Mã băm 64-bit
+     */
+    public long getContentHash() {
+        if (contentHashVersion != version) {
+            contentHash = Zobrist.contentHash(indLocations);
+            contentHashVersion = version;
+        }
+        return contentHash;
+    }
+
+    /**
+     * Lấy dữ liệu tiền tố/hậu tố của tuyến đường, chỉ xây dựng lại khi tuyến đã thay đổi
+     *
+     * @param locations    Mảng các địa điểm
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
+     * @return Dữ liệu đoạn ứng với phiên bản hiện tại
+     */
+    public RouteSegments getSegments(Location[] locations, TravelMatrix travelMatrix) {
+        RouteSegments current = segments;
+        if (current == null || !current.isFor(locations, travelMatrix, version)) {
+            current = RouteSegments.build(indLocations, locations, travelMatrix, version);
+            segments = current;
+        }
+        return current;
+    }
+
+    /**
+     * Kiểm tra dữ liệu tiền tố/hậu tố hiện có còn hợp lệ không (không xây dựng lại)
+     */
+    public boolean hasSegments(Location[] locations, TravelMatrix travelMatrix) {
+        RouteSegments current = segments;
+        return current != null && current.isFor(locations, travelMatrix, version);
+    }
+
+    /**
+     * Lấy chi phí của tuyến đường, chỉ tính lại (O(n)) khi tuyến đã thay đổi kể từ lần tính trước
+     *
+     * @param locations    Mảng các địa điểm
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
+     * @return Chi phí ứng với phiên bản hiện tại
+     */
+    public RouteCost getCost(Location[] locations, TravelMatrix travelMatrix) {
+        RouteCost current = cost;
+        if (current == null || !current.isFor(locations, travelMatrix, version)) {
+            current = RouteCost.compute(indLocations, locations, travelMatrix, version);
+            cost = current;
+        }
+        return current;
+    }
+
+    /**
+     * Kiểm tra chi phí đã lưu còn hợp lệ không (không tính lại)
+     */
+    public boolean hasCost(Location[] locations, TravelMatrix travelMatrix) {
+        RouteCost current = cost;
+        return current != null && current.isFor(locations, travelMatrix, version);
+    }
+
+    /**
+     * Gắn chi phí đã biết (ví dụ lấy từ bộ nhớ đệm) cho phiên bản hiện tại của tuyến đường
+     *
+     * @param cost Chi phí được tạo với đúng phiên bản hiện tại
+     */
+    public void attachCost(RouteCost cost) {
+        this.cost = cost;
+    }
+
+    /**
+     * Ghi nhận tuyến đường ở phiên bản hiện tại đã được xác nhận khả thi
+     * (ví dụ bởi một phép kiểm tra O(1) trước khi áp dụng toán tử)
+     *
+     * @param locations    Mảng các địa điểm đã dùng khi kiểm tra
+     * @param travelMatrix Ma trận khoảng cách-thời gian đã dùng khi kiểm tra (có thể null)
+     * @param maxPayload   Trọng tải tối đa đã dùng khi kiểm tra
+     */
+    public void markFeasible(Location[] locations, TravelMatrix travelMatrix, double maxPayload) {
+        this.feasibleVersion = version;
+        this.feasiblePayload = maxPayload;
+        this.feasibleLocations = locations;
+        this.feasibleTravelMatrix = travelMatrix;
+    }
+
+    /**
+     * Tuyến đường ở phiên bản hiện tại đã được xác nhận khả thi với đúng dữ liệu bài toán (so
+     * sánh tham chiếu, giống chi phí đã lưu) và trọng tải này chưa
+     */
+    public boolean isKnownFeasible(Location[] locations, TravelMatrix travelMatrix, double maxPayload) {
+        return feasibleVersion == version && feasiblePayload == maxPayload
+                && feasibleLocations == locations && feasibleTravelMatrix == travelMatrix;
     }
 
     /**
@@ -62,7 +291,7 @@ public class Route {
             return;
         }
 
-        double totalDistance = 0;
+        double totalDistance = locations[0].distance(locations[indLocations[0]]); // Từ kho
 
         for (int i = 0; i < indLocations.length - 1; i++) {
             int currentIndex = indLocations[i];
@@ -78,62 +307,46 @@ public class Route {
     }
 
     /**
-     * Tính khoảng cách của tuyến đường sử dụng thông tin DistanceTime
+     * Tính khoảng cách của tuyến đường sử dụng ma trận khoảng cách-thời gian
      *
-     * @param locations     Mảng các địa điểm
-     * @param distanceTimes Mảng thông tin khoảng cách-thời gian
+     * @param locations    Mảng các địa điểm
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
      */
-    public void calculateDistance(Location[] locations, DistanceTime[] distanceTimes) {
-        if (indLocations == null || indLocations.length < 1) {
-            this.distance = 0;
+    public void calculateDistance(Location[] locations, TravelMatrix travelMatrix) {
+        if (travelMatrix == null) {
+            // Fallback về phương thức cũ nếu không có ma trận
+            calculateDistance(locations);
             return;
         }
 
-        if (distanceTimes == null || distanceTimes.length == 0) {
-            // Fallback về phương thức cũ nếu không có DistanceTime
-            calculateDistance(locations);
+        if (indLocations == null || indLocations.length < 1) {
+            this.distance = 0;
             return;
         }
 
-        // Tạo map để tra cứu nhanh DistanceTime
-        Map<String, DistanceTime> distanceMap = Arrays.stream(distanceTimes)
-                .collect(Collectors.toMap(
-                    dt -> dt.getFromNode() + "-" + dt.getToNode(),
-                    dt -> dt,
-                    (existing, replacement) -> existing
-                ));
-
-        double totalDistance = 0;
+        // Khoảng cách từ depot (node 0) đến điểm đầu tiên
+        double totalDistance = travelMatrix.distance(0, indLocations[0]);
 
         for (int i = 0; i < indLocations.length - 1; i++) {
-            int fromNode = indLocations[i];
-            int toNode = indLocations[i + 1];
-            
-            DistanceTime dt = distanceMap.get(fromNode + "-" + toNode);
-            if (dt != null) {
-                totalDistance += dt.getDistance();
-            } else {
-                // Fallback về tính toán Euclidean nếu không tìm thấy
-                if (fromNode < locations.length && toNode < locations.length) {
-                    totalDistance += locations[fromNode].distance(locations[toNode]);
-                }
-            }
+            totalDistance += travelMatrix.distance(indLocations[i], indLocations[i + 1]);
         }
 
         // Thêm khoảng cách về depot (node 0)
-        int lastNode = indLocations[indLocations.length - 1];
-        DistanceTime dt = distanceMap.get(lastNode + "-0");
-        if (dt != null) {
-            totalDistance += dt.getDistance();
-        } else {
-            if (lastNode < locations.length) {
-                totalDistance += locations[lastNode].distance(locations[0]);
-            }
-        }
+        totalDistance += travelMatrix.distance(indLocations[indLocations.length - 1], 0);
 
         this.distance = totalDistance;
     }
 
+    /**
+     * Cập nhật khoảng cách theo chênh lệch của một bước biến đổi đã áp dụng,
+     * tránh phải tính lại toàn bộ tuyến đường
+     *
+     * @param delta Chênh lệch khoảng cách (sau - trước)
+     */
+    public void applyDistanceDelta(double delta) {
+        this.distance += delta;
+    }
+
     @Override
     public String toString() {
         return "Route: " + Arrays.toString(indLocations) + " - payload: " + maxPayload + " - distance: " + distance;
@@ -144,11 +357,13 @@ public class Route {
         if (o == null || getClass() != o.getClass())
             return false;
         Route route = (Route) o;
-        return maxPayload == route.maxPayload && Objects.deepEquals(indLocations, route.indLocations);
+        // Fingerprint khác nhau thì chắc chắn khác nhau, chỉ so sánh nội dung khi trùng
+        return maxPayload == route.maxPayload && getFingerprint() == route.getFingerprint()
+                && Objects.deepEquals(indLocations, route.indLocations);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(indLocations), maxPayload);
+        return 31 * Long.hashCode(getFingerprint()) + Double.hashCode(maxPayload);
     }
 }
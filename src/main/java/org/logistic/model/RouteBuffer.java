@@ -0,0 +1,122 @@
+package org.logistic.model;
+
+import java.util.Arrays;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Bộ đệm có thể thay đổi cho danh sách điểm của một tuyến đường.
+ *
+ * Dữ liệu được lưu trong một mảng int có dung lượng lớn hơn độ dài thực tế nên các thao tác
+ * chèn, xóa đều thực hiện tại chỗ và không cấp phát bộ nhớ (trừ khi phải mở rộng dung lượng).
+ * Bộ đệm cũng dùng để giữ bản gốc của tuyến trước khi biến đổi trực tiếp trên tuyến, để khôi
+ * phục lại bằng {@link #storeTo(Route)} mà không cấp phát.
+ *
+ * Khi ghi vào tuyến đường với độ dài khác (chèn/xóa điểm), mảng cũ của tuyến được giữ lại theo
+ * độ dài và dùng lại cho lần ghi sau cần đúng độ dài đó, nên các toán tử chuyển điểm giữa các
+ * tuyến không cấp phát mảng mới khi đã chạy ổn định. Vì vậy người gọi không được giữ tham chiếu
+ * đến mảng cũ của tuyến sau khi gọi {@link #storeTo(Route)}.
+ *
+ * Một bộ đệm chỉ nên dùng trong một luồng (thường mỗi optimizer giữ một bộ đệm riêng).
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RouteBuffer {
+    int[] data;
+    int length;
+
+    // Các mảng được tuyến đường trả lại, spares[k] có độ dài k (null nếu chưa có)
+    int[][] spares = new int[0][];
+
+    /**
+     * Tạo bộ đệm với dung lượng mặc định
+     */
+    public RouteBuffer() {
+        this(16);
+    }
+
+    /**
+     * Tạo bộ đệm với dung lượng ban đầu cho trước
+     *
+     * @param capacity Dung lượng ban đầu
+     */
+    public RouteBuffer(int capacity) {
+        this.data = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Nạp danh sách điểm vào bộ đệm
+     *
+     * @param way Danh sách điểm
+     */
+    public void load(int[] way) {
+        ensureCapacity(way.length);
+        System.arraycopy(way, 0, data, 0, way.length);
+        length = way.length;
+    }
+
+    /**
+     * Ghi nội dung bộ đệm vào tuyến đường. Mảng hiện có của tuyến được dùng lại nếu có
+     * cùng độ dài; nếu độ dài thay đổi, dùng một mảng đã được trả lại có đúng độ dài (chỉ cấp
+     * phát khi chưa có) và giữ mảng cũ của tuyến để dùng lại.
+     *
+     * @param route Tuyến đường đích
+     */
+    public void storeTo(Route route) {
+        int[] way = route.getIndLocations();
+        if (way == null || way.length != length) {
+            int[] previous = way;
+            way = takeSpare(length);
+            keepSpare(previous);
+        }
+        System.arraycopy(data, 0, way, 0, length);
+        route.setIndLocations(way);
+    }
+
+    /**
+     * Chèn node vào trước vị trí pos (pos = length nghĩa là chèn vào cuối)
+     */
+    public void insert(int pos, int node) {
+        ensureCapacity(length + 1);
+        System.arraycopy(data, pos, data, pos + 1, length - pos);
+        data[pos] = node;
+        length++;
+    }
+
+    /**
+     * Xóa điểm tại vị trí pos
+     *
+     * @return Điểm đã bị xóa
+     */
+    public int remove(int pos) {
+        int node = data[pos];
+        System.arraycopy(data, pos + 1, data, pos, length - pos - 1);
+        length--;
+        return node;
+    }
+
+    private int[] takeSpare(int size) {
+        if (size < spares.length && spares[size] != null) {
+            int[] spare = spares[size];
+            spares[size] = null;
+            return spare;
+        }
+        return new int[size];
+    }
+
+    private void keepSpare(int[] way) {
+        if (way == null) {
+            return;
+        }
+        if (way.length >= spares.length) {
+            spares = Arrays.copyOf(spares, Math.max(way.length + 1, spares.length * 2));
+        }
+        spares[way.length] = way;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > data.length) {
+            data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+        }
+    }
+}
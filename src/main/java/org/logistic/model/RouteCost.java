@@ -0,0 +1,236 @@
+package org.logistic.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Các thành phần chi phí của một tuyến đường tại một phiên bản: khoảng cách, thời gian phục vụ,
+ * thời gian chờ, hồ sơ trọng tải (cao nhất, thấp nhất, cuối tuyến) và hình chữ nhật bao tọa độ
+ * các điểm của tuyến (không tính depot, dùng để chọn các tuyến gần nhau).
+ *
+ * Ngữ nghĩa thời gian giống fitness: xe xuất phát từ depot (node 0) lúc 0, đến sớm thì chờ đến
+ * đầu cửa sổ thời gian, sau đó phục vụ; khoảng cách tính cả chặng về depot. Trọng tải tính tương
+ * đối so với lúc rời depot, tại mỗi điểm giao hàng trước rồi mới nhận hàng (giống
+ * {@link RouteSegments}).
+ *
+ * Giống RouteSegments, đối tượng không thay đổi sau khi tạo, được gắn với phiên bản của tuyến
+ * đường và dùng chung được giữa các bản sao. Tuyến đường chỉ tính lại khi phiên bản thay đổi
+ * (tuyến "bẩn"), nên các tuyến không bị động đến giữa hai lần đánh giá không phải tính lại.
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RouteCost {
+    // Bố cục khi ghi ra mảng phẳng (xem writeTo/read)
+    public static final int STOPS = 0;
+    public static final int DISTANCE = 1;
+    public static final int SERVICE_TIME = 2;
+    public static final int WAITING_TIME = 3;
+    public static final int PEAK_LOAD = 4;
+    public static final int MIN_LOAD = 5;
+    public static final int END_LOAD = 6;
+    public static final int MIN_X = 7;
+    public static final int MIN_Y = 8;
+    public static final int MAX_X = 9;
+    public static final int MAX_Y = 10;
+    public static final int STRIDE = 11;
+
+    @Getter(AccessLevel.NONE)
+    Location[] locations;
+    @Getter(AccessLevel.NONE)
+    TravelMatrix travelMatrix;
+    @Getter(AccessLevel.NONE)
+    int version;
+
+    int stops;
+    double distance;
+    double serviceTime;
+    double waitingTime;
+    double peakLoad;
+    double minLoad;
+    double endLoad;
+    double minX;
+    double minY;
+    double maxX;
+    double maxY;
+
+    private RouteCost(Location[] locations, TravelMatrix travelMatrix, int version, double[] data, int offset) {
+        this.locations = locations;
+        this.travelMatrix = travelMatrix;
+        this.version = version;
+        this.stops = (int) data[offset + STOPS];
+        this.distance = data[offset + DISTANCE];
+        this.serviceTime = data[offset + SERVICE_TIME];
+        this.waitingTime = data[offset + WAITING_TIME];
+        this.peakLoad = data[offset + PEAK_LOAD];
+        this.minLoad = data[offset + MIN_LOAD];
+        this.endLoad = data[offset + END_LOAD];
+        this.minX = data[offset + MIN_X];
+        this.minY = data[offset + MIN_Y];
+        this.maxX = data[offset + MAX_X];
+        this.maxY = data[offset + MAX_Y];
+    }
+
+    /**
+     * Tính chi phí của một tuyến đường, O(n)
+     *
+     * @param way          Các điểm của tuyến đường (null được xem là rỗng)
+     * @param locations    Mảng các địa điểm
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null, khi đó dùng Euclidean)
+     * @param version      Phiên bản của tuyến đường tại thời điểm tính
+     * @return Chi phí của tuyến đường
+     */
+    public static RouteCost compute(int[] way, Location[] locations, TravelMatrix travelMatrix, int version) {
+        double[] data = new double[STRIDE];
+        compute(way, locations, travelMatrix, data, 0);
+        return new RouteCost(locations, travelMatrix, version, data, 0);
+    }
+
+    /**
+     * Tính chi phí của một tuyến đường và ghi vào out[offset..offset + STRIDE), không cấp phát
+     * bộ nhớ
+     *
+     * @return Số điểm của tuyến đường
+     */
+    public static int compute(int[] way, Location[] locations, TravelMatrix travelMatrix, double[] out, int offset) {
+        if (way == null || way.length == 0) {
+            for (int k = 0; k < MIN_X; k++) {
+                out[offset + k] = 0;
+            }
+            // Hình chữ nhật bao rỗng
+            out[offset + MIN_X] = Double.POSITIVE_INFINITY;
+            out[offset + MIN_Y] = Double.POSITIVE_INFINITY;
+            out[offset + MAX_X] = Double.NEGATIVE_INFINITY;
+            out[offset + MAX_Y] = Double.NEGATIVE_INFINITY;
+            return 0;
+        }
+
+        double distance = 0;
+        double serviceTime = 0;
+        double waitingTime = 0;
+        double currentTime = 0;
+        double load = 0;
+        double peakLoad = 0;
+        double minLoad = 0;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        int prevNode = 0; // Xuất phát từ depot (node 0)
+
+        for (int currNode : way) {
+            Location currLoc = locations[currNode];
+
+            // Tính khoảng cách và thời gian di chuyển
+            currentTime += travelTime(locations, travelMatrix, prevNode, currNode);
+            distance += distance(locations, travelMatrix, prevNode, currNode);
+
+            // Tính thời gian chờ nếu đến sớm hơn time window
+            waitingTime += Math.max(0, currLoc.getLtw() - currentTime);
+
+            // Cập nhật thời gian hiện tại (thời gian bắt đầu phục vụ) và thêm thời gian phục vụ
+            currentTime = Math.max(currentTime, currLoc.getLtw());
+            currentTime += currLoc.getServiceTime();
+            serviceTime += currLoc.getServiceTime();
+
+            // Giao hàng trước rồi mới nhận hàng
+            if (currLoc.isDeliver()) {
+                load -= currLoc.getDemandDeliver();
+                minLoad = Math.min(minLoad, load);
+            }
+            if (currLoc.isPick()) {
+                load += currLoc.getDemandPick();
+                peakLoad = Math.max(peakLoad, load);
+            }
+
+            minX = Math.min(minX, currLoc.getX());
+            minY = Math.min(minY, currLoc.getY());
+            maxX = Math.max(maxX, currLoc.getX());
+            maxY = Math.max(maxY, currLoc.getY());
+
+            prevNode = currNode;
+        }
+
+        // Thêm khoảng cách về depot
+        distance += distance(locations, travelMatrix, prevNode, 0);
+
+        out[offset + STOPS] = way.length;
+        out[offset + DISTANCE] = distance;
+        out[offset + SERVICE_TIME] = serviceTime;
+        out[offset + WAITING_TIME] = waitingTime;
+        out[offset + PEAK_LOAD] = peakLoad;
+        out[offset + MIN_LOAD] = minLoad;
+        out[offset + END_LOAD] = load;
+        out[offset + MIN_X] = minX;
+        out[offset + MIN_Y] = minY;
+        out[offset + MAX_X] = maxX;
+        out[offset + MAX_Y] = maxY;
+        return way.length;
+    }
+
+    /**
+     * Tạo chi phí từ dữ liệu đã ghi bởi {@link #writeTo(double[], int)} (ví dụ lấy từ bộ nhớ đệm)
+     */
+    public static RouteCost read(double[] data, int offset, Location[] locations, TravelMatrix travelMatrix,
+            int version) {
+        return new RouteCost(locations, travelMatrix, version, data, offset);
+    }
+
+    /**
+     * Ghi các thành phần chi phí vào out[offset..offset + STRIDE)
+     */
+    public void writeTo(double[] out, int offset) {
+        out[offset + STOPS] = stops;
+        out[offset + DISTANCE] = distance;
+        out[offset + SERVICE_TIME] = serviceTime;
+        out[offset + WAITING_TIME] = waitingTime;
+        out[offset + PEAK_LOAD] = peakLoad;
+        out[offset + MIN_LOAD] = minLoad;
+        out[offset + END_LOAD] = endLoad;
+        out[offset + MIN_X] = minX;
+        out[offset + MIN_Y] = minY;
+        out[offset + MAX_X] = maxX;
+        out[offset + MAX_Y] = maxY;
+    }
+
+    /**
+     * Kiểm tra chi phí còn đúng với tuyến đường (cùng phiên bản và cùng dữ liệu bài toán)
+     */
+    public boolean isFor(Location[] locations, TravelMatrix travelMatrix, int version) {
+        return this.version == version && this.locations == locations && this.travelMatrix == travelMatrix;
+    }
+
+    /**
+     * @return true nếu tuyến có sử dụng (có ít nhất một điểm)
+     */
+    public boolean isUsed() {
+        return stops > 0;
+    }
+
+    /**
+     * Khoảng cách giữa hình chữ nhật bao của hai tuyến (0 nếu giao nhau, vô cùng nếu một trong
+     * hai tuyến rỗng)
+     */
+    public double boundsGap(RouteCost other) {
+        if (!isUsed() || !other.isUsed()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double dx = Math.max(0, Math.max(minX, other.minX) - Math.min(maxX, other.maxX));
+        double dy = Math.max(0, Math.max(minY, other.minY) - Math.min(maxY, other.maxY));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static double distance(Location[] locations, TravelMatrix travelMatrix, int from, int to) {
+        if (travelMatrix != null) {
+            return travelMatrix.distance(from, to);
+        }
+        return locations[from].distance(locations[to]);
+    }
+
+    private static double travelTime(Location[] locations, TravelMatrix travelMatrix, int from, int to) {
+        if (travelMatrix != null) {
+            return travelMatrix.travelTime(from, to);
+        }
+        return locations[from].distance(locations[to]);
+    }
+}
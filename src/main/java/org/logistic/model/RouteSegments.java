@@ -0,0 +1,318 @@
+package org.logistic.model;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Dữ liệu tiền tố/hậu tố của một tuyến đường dùng để kiểm tra ràng buộc trong O(1).
+ *
+ * Mỗi đoạn (segment) liên tiếp của tuyến được tóm tắt bởi:
+ * - duration: tổng thời gian phục vụ, di chuyển và chờ bắt buộc trong đoạn
+ * - earliest/latest: thời điểm bắt đầu sớm nhất/muộn nhất tại điểm đầu đoạn mà không vi phạm
+ *   cửa sổ thời gian (latest = -vô cùng nếu đoạn không khả thi với mọi thời điểm bắt đầu)
+ * - net/min/max: thay đổi trọng tải của cả đoạn, trọng tải thấp nhất sau khi giao và cao nhất
+ *   sau khi nhận (tính tương đối so với trọng tải lúc vào đoạn)
+ *
+ * Hai đoạn được nối với nhau trong O(1), vì vậy các phép chèn, loại bỏ, thay thế một điểm chỉ
+ * cần nối tiền tố, điểm mới và hậu tố. Ngữ nghĩa giống hệt
+ * {@code CheckConditionUtil.isInsertionFeasible}: xe có mặt tại điểm đầu tiên ở thời điểm 0
+ * với trọng tải 0, tại mỗi điểm giao hàng trước rồi mới nhận hàng.
+ *
+ * Đối tượng không thay đổi sau khi tạo nên có thể dùng chung giữa các bản sao của tuyến đường.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RouteSegments {
+    // Vị trí các thành phần trong mảng phẳng, mỗi đoạn chiếm STRIDE phần tử
+    static final int DURATION = 0;
+    static final int EARLIEST = 1;
+    static final int LATEST = 2;
+    static final int NET = 3;
+    static final int MIN = 4;
+    static final int MAX = 5;
+    static final int STRIDE = 6;
+
+    int[] way;
+    Location[] locations;
+    TravelMatrix travelMatrix;
+    int version;
+
+    /** prefix[i * STRIDE ..] tóm tắt đoạn way[0..i] */
+    double[] prefix;
+
+    /** suffix[i * STRIDE ..] tóm tắt đoạn way[i..n-1] */
+    double[] suffix;
+
+    private RouteSegments(int[] way, Location[] locations, TravelMatrix travelMatrix, int version) {
+        // Giữ bản sao riêng vì mảng của tuyến đường có thể được dùng lại sau khi thay đổi
+        this.way = way.clone();
+        this.locations = locations;
+        this.travelMatrix = travelMatrix;
+        this.version = version;
+
+        int n = way.length;
+        this.prefix = new double[n * STRIDE];
+        this.suffix = new double[n * STRIDE];
+
+        Segment segment = new Segment();
+        for (int i = 0; i < n; i++) {
+            appendNode(segment, way[i]);
+            segment.writeTo(prefix, i * STRIDE);
+        }
+
+        segment.clear();
+        for (int i = n - 1; i >= 0; i--) {
+            prependNode(segment, way[i]);
+            segment.writeTo(suffix, i * STRIDE);
+        }
+    }
+
+    /**
+     * Xây dựng dữ liệu tiền tố/hậu tố cho một tuyến đường, chi phí O(n)
+     *
+     * @param way          Các điểm của tuyến đường
+     * @param locations    Mảng các địa điểm
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
+     * @param version      Phiên bản của tuyến đường tại thời điểm xây dựng
+     * @return Dữ liệu đoạn của tuyến đường
+     */
+    public static RouteSegments build(int[] way, Location[] locations, TravelMatrix travelMatrix, int version) {
+        return new RouteSegments(way, locations, travelMatrix, version);
+    }
+
+    /**
+     * Kiểm tra dữ liệu còn đúng với tuyến đường (cùng phiên bản và cùng dữ liệu bài toán)
+     */
+    public boolean isFor(Location[] locations, TravelMatrix travelMatrix, int version) {
+        return this.version == version && this.locations == locations && this.travelMatrix == travelMatrix;
+    }
+
+    /**
+     * Toàn bộ tuyến đường có khả thi không, O(1)
+     */
+    public boolean isFeasible(double maxPayload) {
+        int n = way.length;
+        if (n == 0) {
+            return true;
+        }
+        Segment segment = new Segment();
+        segment.append(way[0], way[n - 1], prefix, (n - 1) * STRIDE, this);
+        return segment.isFeasible(maxPayload);
+    }
+
+    /**
+     * Tuyến đường sau khi loại bỏ điểm tại vị trí pos có khả thi không, O(1)
+     */
+    public boolean isRemovalFeasible(int pos, double maxPayload) {
+        Segment segment = new Segment();
+        appendPrefix(segment, pos - 1);
+        appendSuffix(segment, pos + 1);
+        return segment.isFeasible(maxPayload);
+    }
+
+    /**
+     * Tuyến đường sau khi chèn node vào trước vị trí pos có khả thi không, O(1)
+     */
+    public boolean isInsertionFeasible(int pos, int node, double maxPayload) {
+        Segment segment = new Segment();
+        appendPrefix(segment, pos - 1);
+        appendNode(segment, node);
+        appendSuffix(segment, pos);
+        return segment.isFeasible(maxPayload);
+    }
+
+    /**
+     * Tuyến đường sau khi thay điểm tại vị trí pos bằng node có khả thi không, O(1)
+     */
+    public boolean isReplacementFeasible(int pos, int node, double maxPayload) {
+        Segment segment = new Segment();
+        appendPrefix(segment, pos - 1);
+        appendNode(segment, node);
+        appendSuffix(segment, pos + 1);
+        return segment.isFeasible(maxPayload);
+    }
+
+    /**
+     * Tuyến đường sau khi hoán đổi hai vị trí pos1 và pos2 có khả thi không.
+     * Chi phí O(|pos2 - pos1|) do phải nối lại các điểm nằm giữa hai vị trí.
+     */
+    public boolean isSwapFeasible(int pos1, int pos2, double maxPayload) {
+        if (pos1 == pos2) {
+            return isFeasible(maxPayload);
+        }
+        int i = Math.min(pos1, pos2);
+        int j = Math.max(pos1, pos2);
+
+        Segment segment = new Segment();
+        appendPrefix(segment, i - 1);
+        appendNode(segment, way[j]);
+        for (int k = i + 1; k < j; k++) {
+            appendNode(segment, way[k]);
+        }
+        appendNode(segment, way[i]);
+        appendSuffix(segment, j + 1);
+        return segment.isFeasible(maxPayload);
+    }
+
+    private void appendPrefix(Segment segment, int end) {
+        if (end >= 0) {
+            segment.append(way[0], way[end], prefix, end * STRIDE, this);
+        }
+    }
+
+    private void appendSuffix(Segment segment, int start) {
+        if (start < way.length) {
+            segment.append(way[start], way[way.length - 1], suffix, start * STRIDE, this);
+        }
+    }
+
+    private void appendNode(Segment segment, int node) {
+        Location location = locations[node];
+        segment.append(node, node, location.getServiceTime(), location.getLtw(), nodeLatest(location),
+                nodeNet(location), nodeMin(location), nodeMax(location), this);
+    }
+
+    private void prependNode(Segment segment, int node) {
+        Location location = locations[node];
+        segment.prepend(node, location.getServiceTime(), location.getLtw(), nodeLatest(location),
+                nodeNet(location), nodeMin(location), nodeMax(location), this);
+    }
+
+    private static double nodeLatest(Location location) {
+        return location.getLtw() <= location.getUtw() ? location.getUtw() : Double.NEGATIVE_INFINITY;
+    }
+
+    private static double nodeNet(Location location) {
+        double deliver = location.isDeliver() ? location.getDemandDeliver() : 0;
+        double pick = location.isPick() ? location.getDemandPick() : 0;
+        return pick - deliver;
+    }
+
+    // Chỉ kiểm tra trọng tải âm tại điểm giao và vượt tải tại điểm nhận
+    private static double nodeMin(Location location) {
+        return location.isDeliver() ? -location.getDemandDeliver() : Double.POSITIVE_INFINITY;
+    }
+
+    private static double nodeMax(Location location) {
+        return location.isPick() ? nodeNet(location) : Double.NEGATIVE_INFINITY;
+    }
+
+    private double travelTime(int from, int to) {
+        if (travelMatrix != null) {
+            return travelMatrix.travelTime(from, to);
+        }
+        return locations[from].distance(locations[to]);
+    }
+
+    /**
+     * Đoạn đang được nối dần (chỉ dùng cục bộ trong một lần kiểm tra)
+     */
+    private static final class Segment {
+        boolean empty = true;
+        int first;
+        int last;
+        double duration;
+        double earliest;
+        double latest;
+        double net;
+        double min;
+        double max;
+
+        void clear() {
+            empty = true;
+        }
+
+        /**
+         * Nối đoạn (first..last) có dữ liệu data[offset..] vào cuối đoạn hiện tại
+         */
+        void append(int otherFirst, int otherLast, double[] data, int offset, RouteSegments owner) {
+            append(otherFirst, otherLast, data[offset + DURATION], data[offset + EARLIEST], data[offset + LATEST],
+                    data[offset + NET], data[offset + MIN], data[offset + MAX], owner);
+        }
+
+        /**
+         * Nối đoạn (first..last) có các giá trị cho trước vào cuối đoạn hiện tại
+         */
+        void append(int otherFirst, int otherLast, double otherDuration, double otherEarliest,
+                double otherLatest, double otherNet, double otherMin, double otherMax, RouteSegments owner) {
+            if (empty) {
+                load(otherFirst, otherLast, otherDuration, otherEarliest, otherLatest, otherNet, otherMin, otherMax);
+                return;
+            }
+            double travel = owner.travelTime(last, otherFirst);
+            concat(travel, otherDuration, otherEarliest, otherLatest, otherNet, otherMin, otherMax);
+            last = otherLast;
+        }
+
+        /**
+         * Nối một điểm vào đầu đoạn hiện tại
+         */
+        void prepend(int node, double nodeDuration, double nodeEarliest, double nodeLatest,
+                double nodeNet, double nodeMin, double nodeMax, RouteSegments owner) {
+            if (empty) {
+                load(node, node, nodeDuration, nodeEarliest, nodeLatest, nodeNet, nodeMin, nodeMax);
+                return;
+            }
+            double travel = owner.travelTime(node, first);
+            double otherDuration = duration;
+            double otherEarliest = earliest;
+            double otherLatest = latest;
+            double otherNet = net;
+            double otherMin = min;
+            double otherMax = max;
+            load(node, last, nodeDuration, nodeEarliest, nodeLatest, nodeNet, nodeMin, nodeMax);
+            concat(travel, otherDuration, otherEarliest, otherLatest, otherNet, otherMin, otherMax);
+        }
+
+        private void load(int first, int last, double duration, double earliest, double latest,
+                double net, double min, double max) {
+            this.empty = false;
+            this.first = first;
+            this.last = last;
+            this.duration = duration;
+            this.earliest = earliest;
+            this.latest = latest;
+            this.net = net;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * Nối đoạn hiện tại với một đoạn khác, travel là thời gian di chuyển giữa hai đoạn
+         */
+        private void concat(double travel, double otherDuration, double otherEarliest, double otherLatest,
+                double otherNet, double otherMin, double otherMax) {
+            double offset = duration + travel;
+            double wait = Math.max(otherEarliest - offset - latest, 0);
+            boolean feasible = latest != Double.NEGATIVE_INFINITY
+                    && otherLatest != Double.NEGATIVE_INFINITY
+                    && earliest + offset <= otherLatest;
+
+            duration = duration + otherDuration + travel + wait;
+            earliest = Math.max(otherEarliest - offset, earliest) - wait;
+            latest = feasible ? Math.min(otherLatest - offset, latest) : Double.NEGATIVE_INFINITY;
+
+            min = Math.min(min, net + otherMin);
+            max = Math.max(max, net + otherMax);
+            net = net + otherNet;
+        }
+
+        void writeTo(double[] target, int offset) {
+            target[offset + DURATION] = duration;
+            target[offset + EARLIEST] = earliest;
+            target[offset + LATEST] = latest;
+            target[offset + NET] = net;
+            target[offset + MIN] = min;
+            target[offset + MAX] = max;
+        }
+
+        /**
+         * Xe đến điểm đầu tiên tại thời điểm 0 với trọng tải 0
+         */
+        boolean isFeasible(double maxPayload) {
+            if (empty) {
+                return true;
+            }
+            return latest >= 0 && min >= 0 && max <= maxPayload;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package org.logistic.model;
 
-import java.util.Arrays;
 import java.util.Objects;
 
 import lombok.AllArgsConstructor;
@@ -24,15 +23,49 @@ public class Solution {
         return new Solution(newRoutes, this.fitness);
     }
 
+    /**
+     * Sao chép giải pháp khác vào giải pháp này, dùng lại các đối tượng Route và mảng
+     * điểm hiện có khi số tuyến đường bằng nhau
+     *
+     * @param other Giải pháp nguồn
+     */
+    public void copyFrom(Solution other) {
+        Route[] source = other.routes;
+        if (routes == null || routes.length != source.length) {
+            routes = new Route[source.length];
+        }
+        for (int i = 0; i < source.length; i++) {
+            if (routes[i] == null) {
+                routes[i] = source[i].copy();
+            } else {
+                routes[i].copyFrom(source[i]);
+            }
+        }
+        fitness = other.fitness;
+    }
+
+    /**
+     * Fingerprint Zobrist của giải pháp (phụ thuộc thứ tự các tuyến), chi phí O(số tuyến) khi
+     * fingerprint của các tuyến đã được lưu
+     *
+     * @return Fingerprint 64-bit
+     */
+    public long fingerprint() {
+        return Zobrist.of(routes);
+    }
+
     @Override
     public boolean equals(Object o) {
+        if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Solution solution = (Solution) o;
-        return Double.compare(fitness, solution.fitness) == 0 && Objects.deepEquals(routes, solution.routes);
+        // Fingerprint khác nhau thì chắc chắn khác nhau, chỉ so sánh nội dung khi trùng
+        return Double.compare(fitness, solution.fitness) == 0 && routes.length == solution.routes.length
+                && fingerprint() == solution.fingerprint() && Objects.deepEquals(routes, solution.routes);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(routes), fitness);
+        return 31 * Long.hashCode(fingerprint()) + Double.hashCode(fitness);
     }
 }
@@ -0,0 +1,198 @@
+package org.logistic.model;
+
+import java.util.function.IntPredicate;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Chỉ mục không gian dạng lưới đều trên tọa độ của các địa điểm.
+ *
+ * Vùng bao của mọi điểm được chia thành các ô có kích thước sao cho mỗi ô chứa trung bình
+ * NODES_PER_CELL điểm. Chỉ số các điểm được xếp liên tiếp theo ô trong một mảng int phẳng
+ * (cellStart[c] .. cellStart[c + 1]), nên truy vấn k láng giềng gần nhất chỉ duyệt các ô quanh
+ * điểm cần tìm (mở rộng dần theo vòng ô).
+ *
+ * Khoảng cách là Euclidean trên tọa độ (giống {@link Location#distance}). Chỉ mục không thay đổi
+ * sau khi tạo nên có thể dùng chung giữa các luồng.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SpatialGrid {
+    // Số điểm trung bình trong một ô
+    static final int NODES_PER_CELL = 2;
+
+    Location[] locations;
+    double minX;
+    double minY;
+    double cellWidth;
+    double cellHeight;
+    @Getter
+    int columns;
+    @Getter
+    int rows;
+    int[] cellStart;
+    int[] cellNodes;
+
+    /**
+     * Xây dựng chỉ mục cho toàn bộ địa điểm (kể cả depot), chi phí O(n)
+     *
+     * @param locations Mảng các địa điểm
+     */
+    public SpatialGrid(Location[] locations) {
+        this.locations = locations;
+        int n = locations.length;
+
+        double loX = Double.POSITIVE_INFINITY;
+        double loY = Double.POSITIVE_INFINITY;
+        double hiX = Double.NEGATIVE_INFINITY;
+        double hiY = Double.NEGATIVE_INFINITY;
+        for (Location location : locations) {
+            loX = Math.min(loX, location.getX());
+            loY = Math.min(loY, location.getY());
+            hiX = Math.max(hiX, location.getX());
+            hiY = Math.max(hiY, location.getY());
+        }
+        if (n == 0) {
+            loX = loY = hiX = hiY = 0;
+        }
+        double width = hiX - loX;
+        double height = hiY - loY;
+
+        int targetCells = Math.max(1, n / NODES_PER_CELL);
+        int cols;
+        int rws;
+        if (width > 0 && height > 0) {
+            double cell = Math.sqrt(width * height / targetCells);
+            cols = (int) Math.min(targetCells, Math.max(1, Math.ceil(width / cell)));
+            rws = (int) Math.min(targetCells, Math.max(1, Math.ceil(height / cell)));
+        } else {
+            // Các điểm nằm trên một đường thẳng (hoặc trùng nhau)
+            cols = width > 0 ? targetCells : 1;
+            rws = height > 0 ? targetCells : 1;
+        }
+
+        this.minX = loX;
+        this.minY = loY;
+        this.columns = cols;
+        this.rows = rws;
+        this.cellWidth = width > 0 ? width / cols : 1;
+        this.cellHeight = height > 0 ? height / rws : 1;
+
+        // Đếm số điểm mỗi ô rồi xếp chỉ số theo ô (counting sort)
+        this.cellStart = new int[cols * rws + 1];
+        this.cellNodes = new int[n];
+        int[] cellOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            cellOf[i] = cell(column(locations[i].getX()), row(locations[i].getY()));
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cols * rws; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] fill = new int[cols * rws];
+        for (int i = 0; i < n; i++) {
+            cellNodes[cellStart[cellOf[i]] + fill[cellOf[i]]++] = i;
+        }
+    }
+
+    /**
+     * Tìm tối đa k điểm gần (x, y) nhất thỏa mãn điều kiện, sắp xếp theo khoảng cách tăng dần
+     *
+     * @param x      Tọa độ X
+     * @param y      Tọa độ Y
+     * @param k      Số điểm tối đa
+     * @param accept Điều kiện chọn điểm (null: chọn mọi điểm)
+     * @param out    Mảng kết quả, độ dài tối thiểu k
+     * @return Số điểm tìm được
+     */
+    public int nearest(double x, double y, int k, IntPredicate accept, int[] out) {
+        if (k <= 0 || cellNodes.length == 0) {
+            return 0;
+        }
+        double[] best = new double[k];
+        int count = 0;
+        int centerColumn = column(x);
+        int centerRow = row(y);
+        int maxRing = Math.max(Math.max(centerColumn, columns - 1 - centerColumn),
+                Math.max(centerRow, rows - 1 - centerRow));
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            int loColumn = centerColumn - ring;
+            int hiColumn = centerColumn + ring;
+            int loRow = centerRow - ring;
+            int hiRow = centerRow + ring;
+
+            for (int r = Math.max(loRow, 0); r <= Math.min(hiRow, rows - 1); r++) {
+                boolean edgeRow = r == loRow || r == hiRow;
+                // Chỉ duyệt viền của vòng: hàng trên/dưới đầy đủ, các hàng giữa chỉ hai ô hai bên
+                int step = edgeRow ? 1 : Math.max(hiColumn - loColumn, 1);
+                for (int c = loColumn; c <= hiColumn; c += step) {
+                    if (c < 0 || c >= columns) {
+                        continue;
+                    }
+                    int cell = cell(c, r);
+                    for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                        int node = cellNodes[p];
+                        if (accept != null && !accept.test(node)) {
+                            continue;
+                        }
+                        double d = squaredDistance(node, x, y);
+                        if (count == k && d >= best[k - 1]) {
+                            continue;
+                        }
+                        int pos = count < k ? count++ : k - 1;
+                        while (pos > 0 && best[pos - 1] > d) {
+                            best[pos] = best[pos - 1];
+                            out[pos] = out[pos - 1];
+                            pos--;
+                        }
+                        best[pos] = d;
+                        out[pos] = node;
+                    }
+                }
+            }
+
+            // Mọi điểm chưa duyệt nằm ngoài hình vuông của vòng này, cách (x, y) ít nhất guard
+            if (count == k) {
+                double guard = Double.POSITIVE_INFINITY;
+                if (loColumn > 0) {
+                    guard = Math.min(guard, x - (minX + loColumn * cellWidth));
+                }
+                if (hiColumn < columns - 1) {
+                    guard = Math.min(guard, minX + (hiColumn + 1) * cellWidth - x);
+                }
+                if (loRow > 0) {
+                    guard = Math.min(guard, y - (minY + loRow * cellHeight));
+                }
+                if (hiRow < rows - 1) {
+                    guard = Math.min(guard, minY + (hiRow + 1) * cellHeight - y);
+                }
+                if (guard >= 0 && best[k - 1] <= guard * guard) {
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    private double squaredDistance(int node, double x, double y) {
+        double dx = locations[node].getX() - x;
+        double dy = locations[node].getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    private int column(double x) {
+        int c = (int) Math.floor((x - minX) / cellWidth);
+        return Math.min(Math.max(c, 0), columns - 1);
+    }
+
+    private int row(double y) {
+        int r = (int) Math.floor((y - minY) / cellHeight);
+        return Math.min(Math.max(r, 0), rows - 1);
+    }
+
+    private int cell(int column, int row) {
+        return row * columns + column;
+    }
+}
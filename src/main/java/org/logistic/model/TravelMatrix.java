@@ -0,0 +1,86 @@
+package org.logistic.model;
+
+/**
+ * Nguồn khoảng cách và thời gian di chuyển giữa các điểm của một bài toán.
+ *
+ * Có ba cách lưu trữ, chọn qua các phương thức tạo:
+ * - {@link #fromDistanceTimes}/{@link #fromArrays}: ma trận đầy đủ (double) cho dữ liệu có
+ *   DISTANCETIME_SECTION hoặc ma trận tùy ý
+ * - {@link #euclidean}: dữ liệu chỉ có tọa độ (Solomon, Li-Lim), thời gian bằng khoảng cách.
+ *   Với n nhỏ dùng nửa tam giác dưới dạng float[] đã tính sẵn, với n lớn dùng bộ nhớ đệm điền
+ *   dần, nên vòng lặp chính không phải tính lại căn bậc hai cho mỗi cạnh
+ *
+ * Mọi cách lưu trữ đều không thay đổi nội dung sau khi tạo và an toàn khi dùng chung giữa các luồng.
+ */
+public interface TravelMatrix {
+    /** Số điểm tối đa để tính sẵn toàn bộ ma trận Euclidean (khoảng 32 MiB với float) */
+    int PACKED_EUCLIDEAN_LIMIT = 4096;
+
+    /**
+     * @return Số điểm (kích thước một chiều của ma trận)
+     */
+    int getSize();
+
+    /**
+     * Khoảng cách từ điểm from đến điểm to
+     */
+    double distance(int from, int to);
+
+    /**
+     * Thời gian di chuyển từ điểm from đến điểm to
+     */
+    double travelTime(int from, int to);
+
+    /**
+     * @return Dung lượng bộ nhớ xấp xỉ của dữ liệu ma trận (byte)
+     */
+    long memoryBytes();
+
+    /**
+     * @return true nếu khoảng cách là Euclidean theo tọa độ của các địa điểm (thời gian bằng
+     *         khoảng cách), khi đó có thể dùng chỉ mục không gian thay cho duyệt toàn bộ ma trận
+     */
+    default boolean isEuclidean() {
+        return false;
+    }
+
+    /**
+     * Xây dựng ma trận từ DISTANCETIME_SECTION.
+     * Các cặp điểm không có trong dữ liệu sẽ dùng khoảng cách Euclidean cho cả
+     * khoảng cách và thời gian; nếu một cặp xuất hiện nhiều lần, giữ bản ghi đầu tiên.
+     *
+     * @param locations     Mảng các địa điểm
+     * @param distanceTimes Mảng thông tin khoảng cách-thời gian
+     * @return Ma trận mới, hoặc null nếu không có thông tin DistanceTime
+     */
+    static TravelMatrix fromDistanceTimes(Location[] locations, DistanceTime[] distanceTimes) {
+        return DenseTravelMatrix.fromDistanceTimes(locations, distanceTimes);
+    }
+
+    /**
+     * Tạo ma trận từ các mảng phẳng đã có sẵn (lưu theo hàng, kích thước size * size)
+     *
+     * @param size        Số điểm
+     * @param distances   Khoảng cách, distances[from * size + to]
+     * @param travelTimes Thời gian di chuyển, travelTimes[from * size + to]
+     * @return Ma trận mới (dùng trực tiếp các mảng, không sao chép)
+     */
+    static TravelMatrix fromArrays(int size, double[] distances, double[] travelTimes) {
+        return DenseTravelMatrix.fromArrays(size, distances, travelTimes);
+    }
+
+    /**
+     * Tạo nguồn khoảng cách Euclidean theo tọa độ (thời gian di chuyển bằng khoảng cách), tự chọn
+     * cách lưu trữ theo số điểm
+     *
+     * @param locations Mảng các địa điểm
+     * @return Ma trận tính sẵn nếu số điểm không quá PACKED_EUCLIDEAN_LIMIT, ngược lại là ma
+     *         trận điền dần
+     */
+    static TravelMatrix euclidean(Location[] locations) {
+        if (locations.length <= PACKED_EUCLIDEAN_LIMIT) {
+            return new PackedEuclideanMatrix(locations);
+        }
+        return new LazyEuclideanMatrix(locations, LazyEuclideanMatrix.DEFAULT_CAPACITY);
+    }
+}
@@ -0,0 +1,213 @@
+package org.logistic.model;
+
+/**
+ * Dấu vân tay (fingerprint) 64-bit kiểu Zobrist cho tuyến đường và giải pháp.
+ *
+ * Tuyến đường được xem như chu trình kín 0 -> way[0] -> ... -> way[n-1] -> 0 (giống
+ * {@link org.logistic.algorithm.MoveEvaluator}). Fingerprint là tổng (mod 2^64) khóa ngẫu nhiên
+ * của mọi cạnh có hướng cộng với độ dài tuyến nhân một khóa riêng, nên một bước biến đổi chỉ cần
+ * trừ khóa của các cạnh bị xóa và cộng khóa của các cạnh được thêm: chi phí O(1), riêng các phép
+ * biến đổi trên một đoạn dài k có chi phí O(k). Khóa của cạnh (from, to) được sinh bằng hàm trộn
+ * SplitMix64 thay vì bảng n x n, nên không tốn bộ nhớ. Dùng phép cộng thay vì XOR để cạnh xuất
+ * hiện nhiều lần (tuyến lặp lại điểm, ví dụ [5, 5] hay [4, 9, 4, 9]) không tự triệt tiêu.
+ *
+ * Các phương thức *Delta trả về giá trị cần cộng vào fingerprint cũ và phải được gọi trước khi
+ * mảng bị thay đổi. Hai tuyến bằng nhau luôn có cùng fingerprint; điều ngược lại không được bảo
+ * đảm: fingerprint chỉ phụ thuộc vào tập cạnh (có lặp) nên hai tuyến lặp lại điểm với cùng tập
+ * cạnh, ví dụ [1, 2, 1, 3, 1] và [1, 3, 1, 2, 1], luôn trùng nhau. Vì vậy so sánh bằng vẫn phải
+ * kiểm tra lại nội dung khi fingerprint trùng nhau.
+ */
+public final class Zobrist {
+    static final int DEPOT = 0;
+
+    // Khóa cho mỗi điểm trong tuyến, để các tuyến khác độ dài có tập cạnh gần giống nhau vẫn khác nhau
+    static final long LENGTH_KEY = 0xD6E8FEB86659FD93L;
+
+    private Zobrist() {
+    }
+
+    /**
+     * Khóa của cạnh có hướng from -> to
+     */
+    public static long edge(int from, int to) {
+        return mix((((long) from << 32) | (to & 0xFFFFFFFFL)) + 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Fingerprint của một tuyến đường, chi phí O(n)
+     *
+     * @param way Danh sách điểm (null hoặc rỗng cho fingerprint 0)
+     */
+    public static long of(int[] way) {
+        if (way == null || way.length == 0) {
+            return 0;
+        }
+        long hash = edge(DEPOT, way[0]) + edge(way[way.length - 1], DEPOT) + way.length * LENGTH_KEY;
+        for (int i = 0; i < way.length - 1; i++) {
+            hash += edge(way[i], way[i + 1]);
+        }
+        return hash;
+    }
+
+    /**
+     * Fingerprint của một giải pháp, phụ thuộc vào thứ tự các tuyến (giống Solution.equals).
+     * Chi phí O(số tuyến) khi fingerprint của các tuyến đã được lưu.
+     */
+    public static long of(Route[] routes) {
+        long hash = routes.length;
+        for (Route route : routes) {
+            hash = hash * 0x9E3779B97F4A7C15L + route.getFingerprint();
+        }
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * Mã băm nội dung của tuyến, phụ thuộc vào thứ tự từng điểm và độc lập với fingerprint (hai
+     * tuyến có cùng tập cạnh vẫn khác nhau). Dùng để kiểm tra lại nội dung khi fingerprint trùng
+     * nhau mà không phải lưu cả mảng; chi phí O(n).
+     *
+     * @param way Danh sách điểm (null được xem như rỗng)
+     */
+    public static long contentHash(int[] way) {
+        int length = way != null ? way.length : 0;
+        long hash = mix(length + 0x632BE59BD9B4E019L);
+        for (int i = 0; i < length; i++) {
+            hash = mix(hash + way[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Mã băm nội dung của một giải pháp, phụ thuộc vào thứ tự các tuyến. Chi phí O(số tuyến) khi
+     * mã băm của các tuyến đã được lưu.
+     */
+    public static long contentHash(Route[] routes) {
+        long hash = mix(routes.length);
+        for (Route route : routes) {
+            hash = mix(hash * 0x9E3779B97F4A7C15L + route.getContentHash());
+        }
+        return hash;
+    }
+
+    /**
+     * Giá trị cần cộng khi hoán đổi hai vị trí pos1 và pos2 trong cùng một tuyến
+     */
+    public static long swapDelta(int[] way, int pos1, int pos2) {
+        if (pos1 == pos2) {
+            return 0;
+        }
+        int i = Math.min(pos1, pos2);
+        int j = Math.max(pos1, pos2);
+        int a = way[i];
+        int b = way[j];
+        int prev = previous(way, i);
+        int next = next(way, j);
+
+        if (j == i + 1) {
+            return edge(prev, b) + edge(b, a) + edge(a, next)
+                    - edge(prev, a) - edge(a, b) - edge(b, next);
+        }
+
+        int afterA = way[i + 1];
+        int beforeB = way[j - 1];
+        return edge(prev, b) + edge(b, afterA) + edge(beforeB, a) + edge(a, next)
+                - edge(prev, a) - edge(a, afterA) - edge(beforeB, b) - edge(b, next);
+    }
+
+    /**
+     * Giá trị cần cộng khi loại bỏ điểm tại vị trí pos
+     */
+    public static long removeDelta(int[] way, int pos) {
+        int node = way[pos];
+        int prev = previous(way, pos);
+        int next = next(way, pos);
+        if (way.length == 1) {
+            // Tuyến trở thành rỗng (fingerprint 0)
+            return -edge(prev, node) - edge(node, next) - LENGTH_KEY;
+        }
+        return edge(prev, next) - edge(prev, node) - edge(node, next) - LENGTH_KEY;
+    }
+
+    /**
+     * Giá trị cần cộng khi chèn node vào trước vị trí pos (pos = way.length nghĩa là chèn vào cuối)
+     */
+    public static long insertDelta(int[] way, int pos, int node) {
+        int prev = pos == 0 ? DEPOT : way[pos - 1];
+        int next = pos == way.length ? DEPOT : way[pos];
+        if (way.length == 0) {
+            return edge(prev, node) + edge(node, next) + LENGTH_KEY;
+        }
+        return edge(prev, node) + edge(node, next) - edge(prev, next) + LENGTH_KEY;
+    }
+
+    /**
+     * Giá trị cần cộng khi thay điểm tại vị trí pos bằng node
+     */
+    public static long replaceDelta(int[] way, int pos, int node) {
+        int old = way[pos];
+        int prev = previous(way, pos);
+        int next = next(way, pos);
+        return edge(prev, node) + edge(node, next) - edge(prev, old) - edge(old, next);
+    }
+
+    /**
+     * Giá trị cần cộng khi đảo ngược đoạn [start, end], chi phí O(end - start)
+     */
+    public static long reverseDelta(int[] way, int start, int end) {
+        if (start >= end) {
+            return 0;
+        }
+        int prev = previous(way, start);
+        int next = next(way, end);
+
+        long delta = edge(prev, way[end]) + edge(way[start], next)
+                - edge(prev, way[start]) - edge(way[end], next);
+        for (int k = start; k < end; k++) {
+            delta += edge(way[k + 1], way[k]) - edge(way[k], way[k + 1]);
+        }
+        return delta;
+    }
+
+    /**
+     * Giá trị cần cộng khi thay đoạn way[start .. start + segment.length - 1] bằng segment,
+     * chi phí O(segment.length)
+     */
+    public static long segmentDelta(int[] way, int start, int[] segment) {
+        return segmentDelta(way, start, segment, segment.length);
+    }
+
+    /**
+     * Giá trị cần cộng khi thay đoạn way[start .. start + length - 1] bằng length phần tử đầu của
+     * segment
+     */
+    public static long segmentDelta(int[] way, int start, int[] segment, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int end = start + length - 1;
+        int prev = previous(way, start);
+        int next = next(way, end);
+
+        long delta = edge(prev, segment[0]) + edge(segment[length - 1], next)
+                - edge(prev, way[start]) - edge(way[end], next);
+        for (int k = 0; k < length - 1; k++) {
+            delta += edge(segment[k], segment[k + 1]) - edge(way[start + k], way[start + k + 1]);
+        }
+        return delta;
+    }
+
+    // Hàm trộn SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int previous(int[] way, int pos) {
+        return pos == 0 ? DEPOT : way[pos - 1];
+    }
+
+    private static int next(int[] way, int pos) {
+        return pos == way.length - 1 ? DEPOT : way[pos + 1];
+    }
+}
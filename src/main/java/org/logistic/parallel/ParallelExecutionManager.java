@@ -5,51 +5,96 @@ import me.tongfei.progressbar.ProgressBarBuilder;
 import me.tongfei.progressbar.ProgressBarStyle;
 import org.logistic.Main.Algorithm;
 import org.logistic.algorithm.Optimizer;
-import org.logistic.model.DistanceTime;
+import org.logistic.algorithm.TerminationCriterion;
 import org.logistic.model.Location;
 import org.logistic.model.Solution;
+import org.logistic.model.TravelMatrix;
 import org.logistic.util.CheckConditionUtil;
 import org.logistic.util.FitnessUtil;
+import org.logistic.util.SeedUtil;
 
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Quản lý thực thi song song các thuật toán tối ưu hóa
+ *
+ * Các lần chạy (thuật toán, lần lặp) được xếp vào một hàng đợi phẳng duy nhất và được tối đa
+ * maxThreads tác vụ worker trên một ForkJoinPool lấy lần lượt, nên số lần chạy đồng thời không
+ * vượt quá số thread và không tác vụ nào của pool phải chờ một tác vụ khác của cùng pool (không
+ * có nguy cơ treo do các tác vụ cha chiếm hết thread). Các thuật toán tự chạy song song bên trong
+ * (ví dụ ACO, ParallelTempering) có thể dùng pool này: join trên ForkJoinPool được bù thread
+ * thay vì chặn cứng.
+ *
+ * Các giai đoạn chủ yếu chờ I/O (đọc dữ liệu, ghi kết quả) chạy trên một executor riêng: virtual
+ * thread (mỗi tác vụ một thread) khi JVM hỗ trợ, ngược lại một pool platform thread. Pool
+ * ForkJoin chỉ dành cho các lần chạy thuật toán. Số thread của các pool và số lần chạy đồng thời
+ * lấy từ {@link ResourcePlanner} (số nhân, hạn mức CPU của container, heap).
  */
 public class ParallelExecutionManager {
     private static ParallelExecutionManager instance;
 
-    private final GPUManager gpuManager;
-    private final ExecutorService executorService;
+    private final ResourcePlanner resourcePlanner;
+    private final ForkJoinPool executorService;
     private final int maxThreads;
+    private final ExecutorService ioExecutor;
+    private final boolean virtualIo;
 
     // Progress tracking
     private final Map<Algorithm, ProgressBar> progressBars = new ConcurrentHashMap<>();
     private final Map<Algorithm, AtomicInteger> completedIterations = new ConcurrentHashMap<>();
 
     private ParallelExecutionManager() {
-        this.gpuManager = GPUManager.getInstance();
-        this.maxThreads = gpuManager.getOptimalThreadCount();
+        this.resourcePlanner = ResourcePlanner.getInstance();
+        // Các lần chạy thuật toán dùng CPU: mỗi nhân được phép (theo hạn mức cgroup) một thread
+        this.maxThreads = resourcePlanner.getComputeThreads();
+
+        // Tạo ForkJoinPool (work-stealing) với số thread bằng số nhân
+        this.executorService = new ForkJoinPool(maxThreads, pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("OptimizationWorker-" + t.getPoolIndex());
+            return t;
+        }, null, false);
 
-        // Tạo thread pool với số thread tối ưu
-        this.executorService = Executors.newFixedThreadPool(maxThreads, r -> {
+        ExecutorService virtualExecutor = createVirtualThreadExecutor();
+        this.virtualIo = virtualExecutor != null;
+        this.ioExecutor = virtualIo ? virtualExecutor : Executors.newFixedThreadPool(resourcePlanner.getIoThreads(), r -> {
             Thread t = new Thread(r);
-            t.setName("OptimizationWorker-" + t.getId());
-            t.setDaemon(false);
+            t.setName("IoWorker-" + t.getId());
+            t.setDaemon(true);
             return t;
         });
 
+        PerformanceMonitor performanceMonitor = PerformanceMonitor.getInstance();
+        performanceMonitor.setStageExecutor(PerformanceMonitor.Stage.LOAD, describeIoExecutor());
+        performanceMonitor.setStageExecutor(PerformanceMonitor.Stage.EXPORT, describeIoExecutor());
+        performanceMonitor.setStageExecutor(PerformanceMonitor.Stage.OPTIMIZE,
+                "ForkJoinPool (" + maxThreads + " threads)");
+
         System.out.println("Parallel Execution Manager khởi tạo với " + maxThreads + " threads");
-        if (gpuManager.isGpuAvailable()) {
-            System.out.println("GPU acceleration: ENABLED (" + gpuManager.getDeviceName() + ")");
-        } else {
-            System.out.println("GPU acceleration: DISABLED (sử dụng CPU)");
+        System.out.println("Executor I/O: " + describeIoExecutor());
+        System.out.println("Tài nguyên: " + resourcePlanner);
+    }
+
+    /**
+     * Tạo executor virtual thread (Java 21+) qua reflection để vẫn biên dịch và chạy được trên
+     * Java 17
+     *
+     * @return Executor mỗi tác vụ một virtual thread, hoặc null nếu JVM không hỗ trợ
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
         }
     }
 
+    private String describeIoExecutor() {
+        return virtualIo ? "virtual threads" : "platform threads (" + resourcePlanner.getIoThreads() + ")";
+    }
+
     public static synchronized ParallelExecutionManager getInstance() {
         if (instance == null) {
             instance = new ParallelExecutionManager();
@@ -75,7 +120,7 @@ public class ParallelExecutionManager {
     }
 
     /**
-     * Chạy tất cả thuật toán với DistanceTime
+     * Chạy tất cả thuật toán với ma trận khoảng cách-thời gian
      */
     public Map<Algorithm, Solution> runAllAlgorithms(
             Algorithm[] algorithms,
@@ -86,10 +131,31 @@ public class ParallelExecutionManager {
             double maxPayload,
             int iterations,
             OptimizerFactory optimizerFactory,
-            DistanceTime[] distanceTimes) {
+            TravelMatrix travelMatrix) {
 
-        return runAllAlgorithmsParallel(algorithms, initialSolutions, fitnessUtil,
-                checkConditionUtil, locations, maxPayload, iterations, optimizerFactory, distanceTimes);
+        return runAllAlgorithms(algorithms, initialSolutions, fitnessUtil, checkConditionUtil, locations,
+                maxPayload, iterations, optimizerFactory, travelMatrix, SeedUtil.randomSeed(), null);
+    }
+
+    /**
+     * Chạy tất cả thuật toán với ma trận khoảng cách-thời gian, seed cố định và điều kiện dừng
+     * chung (ví dụ cùng một ngân sách thời gian cho mọi thuật toán thay vì cùng số vòng lặp)
+     */
+    public Map<Algorithm, Solution> runAllAlgorithms(
+            Algorithm[] algorithms,
+            Solution[] initialSolutions,
+            FitnessUtil fitnessUtil,
+            CheckConditionUtil checkConditionUtil,
+            Location[] locations,
+            double maxPayload,
+            int iterations,
+            OptimizerFactory optimizerFactory,
+            TravelMatrix travelMatrix,
+            long seed,
+            TerminationCriterion terminationCriterion) {
+
+        return runAllAlgorithmsParallel(algorithms, initialSolutions, fitnessUtil, checkConditionUtil, locations,
+                maxPayload, iterations, optimizerFactory, travelMatrix, seed, terminationCriterion);
     }
 
     /**
@@ -104,50 +170,82 @@ public class ParallelExecutionManager {
             double maxPayload,
             int iterations,
             OptimizerFactory optimizerFactory,
-            DistanceTime[] distanceTimes) {
+            TravelMatrix travelMatrix) {
+
+        return runAllAlgorithmsParallel(algorithms, initialSolutions, fitnessUtil, checkConditionUtil, locations,
+                maxPayload, iterations, optimizerFactory, travelMatrix, SeedUtil.randomSeed(), null);
+    }
+
+    /**
+     * Chạy tất cả thuật toán song song với progress tracking. Mỗi lần lặp của mỗi thuật toán
+     * nhận một seed riêng suy ra từ seed gốc, nên kết quả không phụ thuộc vào thứ tự lập lịch.
+     * Điều kiện dừng (có thể null) áp dụng cho từng lần lặp của từng thuật toán.
+     */
+    public Map<Algorithm, Solution> runAllAlgorithmsParallel(
+            Algorithm[] algorithms,
+            Solution[] initialSolutions,
+            FitnessUtil fitnessUtil,
+            CheckConditionUtil checkConditionUtil,
+            Location[] locations,
+            double maxPayload,
+            int iterations,
+            OptimizerFactory optimizerFactory,
+            TravelMatrix travelMatrix,
+            long seed,
+            TerminationCriterion terminationCriterion) {
 
         System.out.println("\n=== BẮT ĐẦU CHẠY SONG SONG " + algorithms.length + " THUẬT TOÁN ===");
         System.out.println("Số iterations cho mỗi thuật toán: " + iterations);
         System.out.println("Số threads: " + maxThreads);
+        System.out.println("Seed: " + seed);
+        if (terminationCriterion != null) {
+            System.out.println("Điều kiện dừng: " + terminationCriterion);
+        }
 
         // Khởi tạo progress bars
         initializeProgressBars(algorithms, iterations);
-
-        // Tạo CompletableFuture cho mỗi thuật toán
-        List<CompletableFuture<AlgorithmResult>> futures = new ArrayList<>();
-
         for (Algorithm algorithm : algorithms) {
-            CompletableFuture<AlgorithmResult> future = CompletableFuture
-                    .supplyAsync(() -> runSingleAlgorithmWithIterations(
-                            algorithm,
-                            initialSolutions,
-                            fitnessUtil,
-                            checkConditionUtil,
-                            locations,
-                            maxPayload,
-                            iterations,
-                            optimizerFactory,
-                            distanceTimes), executorService);
-
-            futures.add(future);
+            System.out.println("Bắt đầu thuật toán " + algorithm + " với " + iterations + " iterations");
         }
 
-        // Đợi tất cả thuật toán hoàn thành
-        Map<Algorithm, Solution> results = new HashMap<>();
+        // Hàng đợi phẳng: lần chạy thứ task là (algorithms[task % số thuật toán], lần lặp
+        // task / số thuật toán + 1), xen kẽ các thuật toán để chúng tiến triển đồng đều
+        int taskCount = algorithms.length * iterations;
+        Solution[][] iterationResults = new Solution[algorithms.length][iterations];
+        AtomicInteger nextTask = new AtomicInteger();
+        Runnable worker = () -> {
+            for (int task = nextTask.getAndIncrement(); task < taskCount; task = nextTask.getAndIncrement()) {
+                int algorithmIndex = task % algorithms.length;
+                int iteration = task / algorithms.length;
+                iterationResults[algorithmIndex][iteration] = runIteration(algorithms[algorithmIndex],
+                        iteration + 1, initialSolutions, fitnessUtil, checkConditionUtil, locations,
+                        optimizerFactory, travelMatrix, seed, terminationCriterion);
+            }
+        };
+
+        // Tối đa maxThreads worker (ít hơn nếu heap không đủ cho nhiều lần chạy cùng lúc) lấy lần chạy
+        // từ hàng đợi, luồng gọi chỉ chờ các worker
+        int concurrentRuns = resourcePlanner.getConcurrentRuns(
+                ResourcePlanner.estimateRunBytes(locations.length, initialSolutions.length));
+        if (concurrentRuns < maxThreads) {
+            System.out.println("Giới hạn " + concurrentRuns + " lần chạy đồng thời theo heap");
+        }
+        List<ForkJoinTask<?>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(concurrentRuns, taskCount); i++) {
+            workers.add(executorService.submit(worker));
+        }
 
+        Map<Algorithm, Solution> results = new HashMap<>();
         try {
-            CompletableFuture<Void> allFutures = CompletableFuture.allOf(
-                    futures.toArray(new CompletableFuture[0]));
-
-            allFutures.get(); // Đợi tất cả hoàn thành
+            for (ForkJoinTask<?> task : workers) {
+                task.join();
+            }
 
-            // Thu thập kết quả
+            // Thu thập kết quả theo thứ tự thuật toán
             for (int i = 0; i < algorithms.length; i++) {
-                AlgorithmResult result = futures.get(i).get();
-                results.put(result.algorithm, result.bestSolution);
+                results.put(algorithms[i], collectResult(algorithms[i], iterationResults[i]));
             }
-
-        } catch (InterruptedException | ExecutionException e) {
+        } catch (RuntimeException e) {
             System.err.println("Lỗi khi chạy thuật toán song song: " + e.getMessage());
             e.printStackTrace();
         } finally {
@@ -160,116 +258,93 @@ public class ParallelExecutionManager {
     }
 
     /**
-     * Chạy một thuật toán với nhiều iterations song song
+     * Chạy một lần lặp của một thuật toán (một phần tử của hàng đợi phẳng)
+     *
+     * @return Giải pháp tốt nhất của lần chạy, hoặc null nếu lỗi
      */
-    private AlgorithmResult runSingleAlgorithmWithIterations(
+    private Solution runIteration(
             Algorithm algorithm,
+            int iterationNumber,
             Solution[] initialSolutions,
             FitnessUtil fitnessUtil,
             CheckConditionUtil checkConditionUtil,
             Location[] locations,
-            double maxPayload,
-            int iterations,
             OptimizerFactory optimizerFactory,
-            DistanceTime[] distanceTimes) {
-
-        System.out.println("Bắt đầu thuật toán " + algorithm + " với " + iterations + " iterations");
-
-        AtomicReference<Solution> bestSolution = new AtomicReference<>();
-        List<CompletableFuture<Solution>> iterationFutures = new ArrayList<>();
-
-        // Tạo futures cho từng iteration
-        for (int iter = 0; iter < iterations; iter++) {
-            final int iterationNumber = iter + 1;
-
-            CompletableFuture<Solution> iterationFuture = CompletableFuture.supplyAsync(() -> {
-                try {
-                    // Tạo bản sao của initial solutions
-                    Solution[] solutionsCopy = Arrays.stream(initialSolutions)
-                            .map(Solution::copy)
-                            .toArray(Solution[]::new);
-
-                    // Tạo optimizer
-                    Optimizer optimizer = optimizerFactory.createOptimizer(algorithm);
-                    if (optimizer == null) {
-                        return null;
-                    }
-
-                    // Ghi thời gian bắt đầu
-                    long startTime = System.currentTimeMillis();
-
-                    // Chạy optimization
-                    Solution result = optimizer.run(solutionsCopy, fitnessUtil,
-                            checkConditionUtil, locations, distanceTimes);
-
-                    // Ghi thời gian kết thúc và lưu vào performance monitor
-                    long executionTime = System.currentTimeMillis() - startTime;
-                    PerformanceMonitor performanceMonitor = PerformanceMonitor.getInstance();
-                    performanceMonitor.recordIterationTime(algorithm, executionTime);
-
-                    if (result != null) {
-                        System.out.println("[DEBUG] " + algorithm + " optimizer returned result with fitness: "
-                                + result.getFitness());
-                        performanceMonitor.recordFitness(algorithm, result.getFitness());
-
-                        // Ghi lại weights data từ FitnessUtil
-                        int[] weights;
-
-                        // Tính lại fitness với DistanceTime để cập nhật tempWeights
-                        if (distanceTimes != null && distanceTimes.length > 0) {
-                            fitnessUtil.calculatorFitness(result.getRoutes(), locations, distanceTimes);
-                            weights = fitnessUtil.getTempWeights();
-                        } else {
-                            weights = fitnessUtil.getTempWeights();
-                        }
-                        
-                        performanceMonitor.recordWeights(algorithm, weights);
-
-                        System.out.println("[" + algorithm + "] Iteration " + iterationNumber +
-                                " completed - Fitness: " + result.getFitness() +
-                                ", Time: " + executionTime + "ms");
-                    } else {
-                        System.out.println("[DEBUG] " + algorithm + " optimizer returned null result");
-                    }
-
-                    // Cập nhật progress
-                    updateProgress(algorithm);
-
-                    // Cập nhật best solution nếu cần
-                    synchronized (bestSolution) {
-                        Solution current = bestSolution.get();
-                        if (current == null || (result != null && result.getFitness() < current.getFitness())) {
-                            bestSolution.set(result.copy());
-                        }
-                    }
-
-                    return result;
-
-                } catch (Exception e) {
-                    System.err.println("Lỗi trong iteration " + iterationNumber +
-                            " của thuật toán " + algorithm + ": " + e.getMessage());
-                    return null;
-                } finally {
-                    // Dọn dẹp ThreadLocal để tránh memory leak
-                    FitnessUtil.cleanupThreadLocal();
-                }
-            }, executorService);
+            TravelMatrix travelMatrix,
+            long seed,
+            TerminationCriterion terminationCriterion) {
+        try {
+            // Tạo bản sao của initial solutions
+            Solution[] solutionsCopy = Arrays.stream(initialSolutions)
+                    .map(Solution::copy)
+                    .toArray(Solution[]::new);
+
+            // Tạo optimizer
+            Optimizer optimizer = optimizerFactory.createOptimizer(algorithm);
+            if (optimizer == null) {
+                return null;
+            }
+
+            // Ghi thời gian bắt đầu
+            long startTime = System.nanoTime();
+
+            // Chạy optimization với seed riêng của (thuật toán, lần lặp)
+            long iterationSeed = SeedUtil.derive(seed, algorithm.ordinal(), iterationNumber);
+            Solution result = optimizer.run(solutionsCopy, fitnessUtil,
+                    checkConditionUtil, locations, travelMatrix, iterationSeed, terminationCriterion);
+
+            // Ghi thời gian kết thúc và lưu vào performance monitor
+            long elapsedNanos = System.nanoTime() - startTime;
+            long executionTime = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            PerformanceMonitor performanceMonitor = PerformanceMonitor.getInstance();
+            performanceMonitor.recordIterationTime(algorithm, executionTime);
+            performanceMonitor.recordStage(PerformanceMonitor.Stage.OPTIMIZE, elapsedNanos);
+            performanceMonitor.recordFitnessCache(optimizer.getEvaluationContext());
+
+            if (result != null) {
+                System.out.println("[DEBUG] " + algorithm + " optimizer returned result with fitness: "
+                        + result.getFitness());
+                performanceMonitor.recordFitness(algorithm, result.getFitness());
+
+                // Tính lại các thành phần fitness của kết quả trong ngữ cảnh riêng của luồng này
+                int[] weights = fitnessUtil.calculateWeightsFromSolution(result, locations, travelMatrix);
+
+                performanceMonitor.recordWeights(algorithm, weights);
+
+                System.out.println("[" + algorithm + "] Iteration " + iterationNumber +
+                        " completed - Fitness: " + result.getFitness() +
+                        ", Time: " + executionTime + "ms");
+            } else {
+                System.out.println("[DEBUG] " + algorithm + " optimizer returned null result");
+            }
 
-            iterationFutures.add(iterationFuture);
+            // Cập nhật progress
+            updateProgress(algorithm);
+            return result;
+
+        } catch (Exception e) {
+            System.err.println("Lỗi trong iteration " + iterationNumber +
+                    " của thuật toán " + algorithm + ": " + e.getMessage());
+            return null;
         }
+    }
 
-        // Đợi tất cả iterations hoàn thành
-        try {
-            CompletableFuture.allOf(iterationFutures.toArray(new CompletableFuture[0])).get();
-        } catch (InterruptedException | ExecutionException e) {
-            System.err.println("Lỗi khi đợi iterations của " + algorithm + ": " + e.getMessage());
+    /**
+     * Chọn giải pháp tốt nhất trong các lần lặp của một thuật toán (lần lặp sớm hơn thắng khi bằng
+     * nhau, nên kết quả không phụ thuộc vào thứ tự hoàn thành) và ghi vào performance monitor
+     */
+    private Solution collectResult(Algorithm algorithm, Solution[] iterationResults) {
+        Solution finalSolution = null;
+        for (Solution result : iterationResults) {
+            if (result != null && (finalSolution == null || result.getFitness() < finalSolution.getFitness())) {
+                finalSolution = result;
+            }
         }
 
         // Ghi lại kết quả cuối cùng vào performance monitor
         PerformanceMonitor performanceMonitor = PerformanceMonitor.getInstance();
-        Solution finalSolution = bestSolution.get();
-
         if (finalSolution != null) {
+            finalSolution = finalSolution.copy();
             performanceMonitor.recordAlgorithmResult(algorithm, finalSolution, 0); // Thời gian tổng sẽ được tính trong
                                                                                    // monitor
             System.out.println("Hoàn thành thuật toán " + algorithm +
@@ -277,8 +352,7 @@ public class ParallelExecutionManager {
         } else {
             System.out.println("Thuật toán " + algorithm + " không có kết quả hợp lệ");
         }
-
-        return new AlgorithmResult(algorithm, finalSolution);
+        return finalSolution;
     }
 
     /**
@@ -322,20 +396,50 @@ public class ParallelExecutionManager {
         completedIterations.clear();
     }
 
+    /**
+     * Thread pool dùng chung cho các tác vụ song song (ví dụ các bản sao của ParallelTempering)
+     */
+    public Executor getExecutor() {
+        return executorService;
+    }
+
+    /**
+     * Executor cho một giai đoạn I/O: chạy tác vụ trên executor I/O và ghi thời gian của từng tác
+     * vụ vào performance monitor
+     *
+     * @param stage Giai đoạn (LOAD hoặc EXPORT)
+     */
+    public Executor getIoExecutor(PerformanceMonitor.Stage stage) {
+        PerformanceMonitor performanceMonitor = PerformanceMonitor.getInstance();
+        return task -> ioExecutor.execute(() -> {
+            long startTime = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                performanceMonitor.recordStage(stage, System.nanoTime() - startTime);
+            }
+        });
+    }
+
+    /**
+     * Số thread của thread pool
+     */
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
     /**
      * Lấy thông tin về khả năng xử lý
      */
     public String getSystemInfo() {
         StringBuilder info = new StringBuilder();
         info.append("=== THÔNG TIN HỆ THỐNG ===\n");
-        info.append("CPU Cores: ").append(Runtime.getRuntime().availableProcessors()).append("\n");
+        info.append("CPU Cores: ").append(resourcePlanner.getAvailableProcessors()).append("\n");
+        info.append("CPU Quota: ").append(resourcePlanner.getCpuQuota() > 0
+                ? String.format("%.2f", resourcePlanner.getCpuQuota()) : "none").append("\n");
         info.append("Max Threads: ").append(maxThreads).append("\n");
-        info.append("GPU Available: ").append(gpuManager.isGpuAvailable()).append("\n");
-
-        if (gpuManager.isGpuAvailable()) {
-            info.append("GPU Device: ").append(gpuManager.getDeviceName()).append("\n");
-            info.append("GPU Compute Units: ").append(gpuManager.getMaxComputeUnits()).append("\n");
-        }
+        info.append("I/O Executor: ").append(describeIoExecutor()).append("\n");
+        info.append("Max Heap: ").append(resourcePlanner.getMaxHeapBytes() / (1024 * 1024)).append(" MB\n");
 
         return info.toString();
     }
@@ -346,16 +450,18 @@ public class ParallelExecutionManager {
     public void shutdown() {
         System.out.println("Đang dọn dẹp Parallel Execution Manager...");
 
-        executorService.shutdown();
-        try {
-            if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
+        // Đợi các tác vụ I/O còn lại (ví dụ ghi file) trước khi đóng
+        for (ExecutorService executor : List.of(executorService, ioExecutor)) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
             }
-        } catch (InterruptedException e) {
-            executorService.shutdownNow();
         }
 
-        gpuManager.cleanup();
         closeProgressBars();
 
         System.out.println("Parallel Execution Manager đã được dọn dẹp.");
@@ -367,17 +473,4 @@ public class ParallelExecutionManager {
     public interface OptimizerFactory {
         Optimizer createOptimizer(Algorithm algorithm);
     }
-
-    /**
-     * Kết quả của một thuật toán
-     */
-    private static class AlgorithmResult {
-        final Algorithm algorithm;
-        final Solution bestSolution;
-
-        AlgorithmResult(Algorithm algorithm, Solution bestSolution) {
-            this.algorithm = algorithm;
-            this.bestSolution = bestSolution;
-        }
-    }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package org.logistic.parallel;
 
 import org.logistic.Main.Algorithm;
 import org.logistic.model.Solution;
+import org.logistic.util.EvaluationContext;
+import org.logistic.util.FingerprintCache;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -11,6 +13,13 @@ import java.util.concurrent.atomic.AtomicLong;
  * Theo dõi hiệu suất và metrics của các thuật toán
  */
 public class PerformanceMonitor {
+    /**
+     * Các giai đoạn xử lý: đọc dữ liệu và ghi kết quả chủ yếu chờ I/O, chạy thuật toán dùng CPU
+     */
+    public enum Stage {
+        LOAD, OPTIMIZE, EXPORT
+    }
+
     private static PerformanceMonitor instance;
     
     // Tracking execution times
@@ -25,6 +34,18 @@ public class PerformanceMonitor {
     // Tracking weights data for Excel export
     private final Map<Algorithm, List<int[]>> weightsData = new ConcurrentHashMap<>();
     
+    // Tracking stages: số tác vụ, tổng và lớn nhất thời gian (nano giây), loại executor
+    private final Map<Stage, AtomicLong> stageCount = new ConcurrentHashMap<>();
+    private final Map<Stage, AtomicLong> stageNanos = new ConcurrentHashMap<>();
+    private final Map<Stage, AtomicLong> stageMaxNanos = new ConcurrentHashMap<>();
+    private final Map<Stage, String> stageExecutors = new ConcurrentHashMap<>();
+
+    // Tracking bộ nhớ đệm fitness: số lần trúng/trượt cộng dồn qua các lần chạy
+    private final AtomicLong solutionCacheHits = new AtomicLong(0);
+    private final AtomicLong solutionCacheMisses = new AtomicLong(0);
+    private final AtomicLong routeCacheHits = new AtomicLong(0);
+    private final AtomicLong routeCacheMisses = new AtomicLong(0);
+
     // System metrics
     private long startTime;
     private long endTime;
@@ -40,6 +61,12 @@ public class PerformanceMonitor {
             bestFitness.put(algorithm, Double.MAX_VALUE);
             weightsData.put(algorithm, Collections.synchronizedList(new ArrayList<>()));
         }
+        for (Stage stage : Stage.values()) {
+            stageCount.put(stage, new AtomicLong(0));
+            stageNanos.put(stage, new AtomicLong(0));
+            stageMaxNanos.put(stage, new AtomicLong(0));
+            stageExecutors.put(stage, "caller thread");
+        }
     }
     
     public static synchronized PerformanceMonitor getInstance() {
@@ -104,6 +131,42 @@ public class PerformanceMonitor {
         }
     }
     
+    /**
+     * Ghi lại thời gian của một tác vụ trong một giai đoạn
+     */
+    public void recordStage(Stage stage, long nanos) {
+        stageCount.get(stage).incrementAndGet();
+        stageNanos.get(stage).addAndGet(nanos);
+        stageMaxNanos.get(stage).accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Cộng dồn số lần trúng/trượt bộ nhớ đệm fitness của một lần chạy (bỏ qua nếu ngữ cảnh không
+     * dùng bộ nhớ đệm)
+     */
+    public void recordFitnessCache(EvaluationContext context) {
+        if (context == null) {
+            return;
+        }
+        FingerprintCache solutionCache = context.getSolutionCache();
+        if (solutionCache != null) {
+            solutionCacheHits.addAndGet(solutionCache.getHits());
+            solutionCacheMisses.addAndGet(solutionCache.getMisses());
+        }
+        FingerprintCache routeCache = context.getRouteCache();
+        if (routeCache != null) {
+            routeCacheHits.addAndGet(routeCache.getHits());
+            routeCacheMisses.addAndGet(routeCache.getMisses());
+        }
+    }
+
+    /**
+     * Ghi lại loại executor chạy một giai đoạn (hiển thị trong báo cáo)
+     */
+    public void setStageExecutor(Stage stage, String description) {
+        stageExecutors.put(stage, description);
+    }
+
     /**
      * Ghi lại kết quả cuối cùng của thuật toán
      */
@@ -132,11 +195,11 @@ public class PerformanceMonitor {
         System.out.printf("  Used Memory: %.2f MB%n", usedMemory / (1024.0 * 1024.0));
         System.out.printf("  Free Memory: %.2f MB%n", freeMemory / (1024.0 * 1024.0));
         
-        GPUManager gpuManager = GPUManager.getInstance();
-        if (gpuManager.isGpuAvailable()) {
-            System.out.printf("  GPU: %s (%d compute units)%n", 
-                gpuManager.getDeviceName(), gpuManager.getMaxComputeUnits());
+        ResourcePlanner resourcePlanner = ResourcePlanner.getInstance();
+        if (resourcePlanner.getCpuQuota() > 0) {
+            System.out.printf("  CPU Quota: %.2f%n", resourcePlanner.getCpuQuota());
         }
+        System.out.printf("  Compute Threads: %d%n", resourcePlanner.getComputeThreads());
     }
     
     /**
@@ -174,6 +237,12 @@ public class PerformanceMonitor {
         
         System.out.println("-".repeat(75));
         
+        // Thống kê theo giai đoạn
+        printStageStatistics();
+
+        // Bộ nhớ đệm fitness
+        printFitnessCacheStatistics();
+
         // Thống kê chi tiết
         printDetailedStatistics();
         
@@ -184,6 +253,45 @@ public class PerformanceMonitor {
         printRecommendations();
     }
     
+    /**
+     * In thống kê theo giai đoạn (I/O và CPU) cùng executor chạy từng giai đoạn
+     */
+    private void printStageStatistics() {
+        System.out.println("\nTHỐNG KÊ THEO GIAI ĐOẠN:");
+        System.out.printf("%-10s %-8s %-15s %-15s %-15s %s%n",
+            "Giai đoạn", "Tác vụ", "Tổng (ms)", "TB (ms)", "Max (ms)", "Executor");
+        System.out.println("-".repeat(90));
+
+        for (Stage stage : Stage.values()) {
+            long count = stageCount.get(stage).get();
+            double totalMs = stageNanos.get(stage).get() / 1e6;
+            System.out.printf("%-10s %-8d %-15.2f %-15.2f %-15.2f %s%n",
+                stage,
+                count,
+                totalMs,
+                count > 0 ? totalMs / count : 0.0,
+                stageMaxNanos.get(stage).get() / 1e6,
+                stageExecutors.get(stage));
+        }
+    }
+
+    /**
+     * In tỷ lệ trúng của bộ nhớ đệm fitness (chỉ khi bộ nhớ đệm được bật)
+     */
+    private void printFitnessCacheStatistics() {
+        long solutionLookups = solutionCacheHits.get() + solutionCacheMisses.get();
+        long routeLookups = routeCacheHits.get() + routeCacheMisses.get();
+        if (solutionLookups == 0 && routeLookups == 0) {
+            return;
+        }
+        System.out.println("\nBỘ NHỚ ĐỆM FITNESS:");
+        System.out.println("-".repeat(50));
+        System.out.printf("Giải pháp: %d/%d lần trúng (%.1f%%)%n", solutionCacheHits.get(), solutionLookups,
+            solutionLookups > 0 ? solutionCacheHits.get() * 100.0 / solutionLookups : 0.0);
+        System.out.printf("Tuyến đường: %d/%d lần trúng (%.1f%%)%n", routeCacheHits.get(), routeLookups,
+            routeLookups > 0 ? routeCacheHits.get() * 100.0 / routeLookups : 0.0);
+    }
+
     /**
      * In thống kê chi tiết
      */
@@ -279,7 +387,7 @@ public class PerformanceMonitor {
         }
         
         // Parallel efficiency
-        int availableCores = runtime.availableProcessors();
+        int availableCores = ResourcePlanner.getInstance().getCpuLimit();
         System.out.printf("• Hệ thống có %d cores, đang sử dụng parallel execution%n", availableCores);
         
         // Speedup calculation
@@ -305,6 +413,10 @@ public class PerformanceMonitor {
             bestFitness.put(algorithm, Double.MAX_VALUE);
             weightsData.get(algorithm).clear();
         }
+        solutionCacheHits.set(0);
+        solutionCacheMisses.set(0);
+        routeCacheHits.set(0);
+        routeCacheMisses.set(0);
         startTime = 0;
         endTime = 0;
     }
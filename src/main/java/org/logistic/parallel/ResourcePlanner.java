@@ -0,0 +1,263 @@
+package org.logistic.parallel;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lập kế hoạch tài nguyên theo phần cứng thực tế: số nhân JVM nhìn thấy, hạn mức CPU của cgroup
+ * (container) và heap tối đa. Từ đó tính số thread của pool tính toán, số thread I/O, số lần chạy
+ * thuật toán đồng thời và mức song song khi tạo quần thể.
+ *
+ * Hạn mức cgroup được đọc từ cpu.max (cgroup v2) hoặc cpu.cfs_quota_us / cpu.cfs_period_us
+ * (cgroup v1) của cgroup chứa tiến trình và mọi cgroup cha, lấy hạn mức nhỏ nhất; số nhân sử
+ * dụng là min(availableProcessors, ceil(quota / period)), nên trong một container giới hạn 4 CPU
+ * chỉ dùng 4 thread tính toán dù máy chủ có nhiều nhân hơn.
+ */
+public class ResourcePlanner {
+    private static final Path CGROUP_ROOT = Path.of("/sys/fs/cgroup");
+    private static final Path PROC_SELF_CGROUP = Path.of("/proc/self/cgroup");
+
+    // Giới hạn số platform thread cho I/O (khi không có virtual thread)
+    private static final int MIN_IO_THREADS = 4;
+    private static final int MAX_IO_THREADS = 16;
+
+    // Tỉ lệ heap dành cho các lần chạy đồng thời (phần còn lại cho dữ liệu bài toán, kết quả, ...)
+    private static final double RUN_HEAP_FRACTION = 0.5;
+
+    private static ResourcePlanner instance;
+
+    @Getter
+    private final int availableProcessors;
+
+    // Hạn mức CPU của cgroup theo số nhân (ví dụ 2.5), -1 nếu không giới hạn
+    @Getter
+    private final double cpuQuota;
+
+    @Getter
+    private final long maxHeapBytes;
+
+    // Số nhân thực sự được dùng
+    @Getter
+    private final int cpuLimit;
+
+    private ResourcePlanner() {
+        this(Runtime.getRuntime().availableProcessors(), readCpuQuota(), Runtime.getRuntime().maxMemory());
+    }
+
+    ResourcePlanner(int availableProcessors, double cpuQuota, long maxHeapBytes) {
+        this.availableProcessors = Math.max(1, availableProcessors);
+        this.cpuQuota = cpuQuota;
+        this.maxHeapBytes = maxHeapBytes;
+        int limit = this.availableProcessors;
+        if (cpuQuota > 0) {
+            limit = Math.min(limit, (int) Math.ceil(cpuQuota));
+        }
+        this.cpuLimit = Math.max(1, limit);
+    }
+
+    public static synchronized ResourcePlanner getInstance() {
+        if (instance == null) {
+            instance = new ResourcePlanner();
+        }
+        return instance;
+    }
+
+    /**
+     * Số thread của pool tính toán (các lần chạy thuật toán): mỗi nhân được phép một thread
+     */
+    public int getComputeThreads() {
+        return cpuLimit;
+    }
+
+    /**
+     * Số platform thread cho các tác vụ I/O khi không có virtual thread: gấp đôi số nhân vì các
+     * tác vụ chủ yếu chờ đọc/ghi file, giới hạn trong [MIN_IO_THREADS, MAX_IO_THREADS]
+     */
+    public int getIoThreads() {
+        return Math.max(MIN_IO_THREADS, Math.min(MAX_IO_THREADS, cpuLimit * 2));
+    }
+
+    /**
+     * Mức song song khi tạo quần thể ban đầu (số bản sao của parallel tempering)
+     */
+    public int getPopulationParallelism() {
+        return cpuLimit;
+    }
+
+    /**
+     * Số lần chạy thuật toán đồng thời: không vượt quá số thread tính toán và số lần chạy có thể
+     * giữ cùng lúc trong RUN_HEAP_FRACTION của heap
+     *
+     * @param bytesPerRun Bộ nhớ ước lượng của một lần chạy (byte)
+     */
+    public int getConcurrentRuns(long bytesPerRun) {
+        if (bytesPerRun <= 0) {
+            return getComputeThreads();
+        }
+        long fit = (long) (maxHeapBytes * RUN_HEAP_FRACTION) / bytesPerRun;
+        return (int) Math.max(1, Math.min(getComputeThreads(), fit));
+    }
+
+    /**
+     * Ước lượng bộ nhớ của một lần chạy thuật toán: các bản sao của quần thể và ma trận
+     * pheromone/heuristic dày n x n của ACO (lớn nhất trong các thuật toán, chỉ dùng khi dưới
+     * 1000 điểm)
+     *
+     * @param locations      Số địa điểm
+     * @param populationSize Số giải pháp của quần thể
+     */
+    public static long estimateRunBytes(int locations, int populationSize) {
+        long denseNodes = Math.min(locations, 1000);
+        long matrices = 3L * denseNodes * denseNodes * Double.BYTES;
+        // Mỗi giải pháp: các chỉ số điểm và chi phí tuyến, vài bản sao cho quần thể và bộ nhớ tạm
+        long solutions = 4L * populationSize * locations * 64L;
+        return matrices + solutions;
+    }
+
+    /**
+     * Đọc hạn mức CPU của cgroup chứa tiến trình hiện tại
+     *
+     * @return Số nhân được phép (có thể lẻ), -1 nếu không giới hạn hoặc không đọc được
+     */
+    static double readCpuQuota() {
+        try {
+            List<String> cgroups = Files.exists(PROC_SELF_CGROUP) ? Files.readAllLines(PROC_SELF_CGROUP) : List.of();
+            return readCpuQuota(CGROUP_ROOT, cgroups);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Không đọc được hạn mức CPU của cgroup: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Đọc hạn mức CPU theo nội dung /proc/self/cgroup. Hạn mức của một cgroup cha cũng giới hạn
+     * mọi cgroup con, nên duyệt từ cgroup của tiến trình lên đến gốc và lấy hạn mức nhỏ nhất. Nếu
+     * đường dẫn không tồn tại (ví dụ trong container không có cgroup namespace) thì chỉ còn các
+     * thư mục tổ tiên tồn tại, tức là gốc được gắn vào container.
+     *
+     * @param cgroupRoot Thư mục gắn cgroup (/sys/fs/cgroup)
+     * @param cgroups    Các dòng của /proc/self/cgroup
+     * @return Số nhân được phép (có thể lẻ), -1 nếu không giới hạn
+     */
+    static double readCpuQuota(Path cgroupRoot, List<String> cgroups) throws IOException {
+        // cgroup v2: dòng "0::/đường/dẫn", file cpu.max
+        double quota = -1;
+        boolean unified = false;
+        for (String line : cgroups) {
+            if (line.startsWith("0::")) {
+                unified = true;
+                quota = minQuota(quota, walkCpuMax(cgroupRoot, line.substring(3)));
+            }
+        }
+        if (!unified) {
+            quota = walkCpuMax(cgroupRoot, "/");
+        }
+        if (quota > 0) {
+            return quota;
+        }
+
+        // cgroup v1: dòng "n:cpu,cpuacct:/đường/dẫn", các file cpu.cfs_quota_us và cpu.cfs_period_us
+        for (String line : cgroups) {
+            String[] parts = line.split(":", 3);
+            if (parts.length == 3 && List.of(parts[1].split(",")).contains("cpu")) {
+                for (String controller : List.of(parts[1], "cpu", "cpu,cpuacct")) {
+                    quota = minQuota(quota, walkCfsQuota(cgroupRoot.resolve(controller), parts[2]));
+                }
+            }
+        }
+        return quota;
+    }
+
+    /**
+     * Phân tích nội dung cpu.max của cgroup v2 ("quota period" hoặc "max period")
+     *
+     * @return quota / period, -1 nếu không giới hạn hoặc nội dung không hợp lệ
+     */
+    static double parseCpuMax(String content) {
+        String[] parts = content.trim().split("\\s+");
+        if (parts[0].equals("max")) {
+            return -1;
+        }
+        return parseCfsQuota(parts[0], parts.length > 1 ? parts[1] : "100000");
+    }
+
+    /**
+     * Phân tích quota và period của cgroup (cpu.cfs_quota_us / cpu.cfs_period_us hoặc hai phần của
+     * cpu.max)
+     *
+     * @return quota / period, -1 nếu không giới hạn (quota âm) hoặc nội dung không hợp lệ
+     */
+    static double parseCfsQuota(String quota, String period) {
+        try {
+            double q = Double.parseDouble(quota.trim());
+            double p = Double.parseDouble(period.trim());
+            return q > 0 && p > 0 ? q / p : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static double walkCpuMax(Path cgroupRoot, String cgroupPath) throws IOException {
+        double quota = -1;
+        for (Path directory : ancestors(cgroupRoot, cgroupPath)) {
+            Path file = directory.resolve("cpu.max");
+            if (Files.isReadable(file)) {
+                quota = minQuota(quota, parseCpuMax(Files.readString(file)));
+            }
+        }
+        return quota;
+    }
+
+    private static double walkCfsQuota(Path controllerRoot, String cgroupPath) throws IOException {
+        double quota = -1;
+        for (Path directory : ancestors(controllerRoot, cgroupPath)) {
+            Path quotaFile = directory.resolve("cpu.cfs_quota_us");
+            Path periodFile = directory.resolve("cpu.cfs_period_us");
+            if (Files.isReadable(quotaFile) && Files.isReadable(periodFile)) {
+                quota = minQuota(quota, parseCfsQuota(Files.readString(quotaFile), Files.readString(periodFile)));
+            }
+        }
+        return quota;
+    }
+
+    /**
+     * Thư mục của cgroup và mọi thư mục tổ tiên đến root (kể cả root)
+     */
+    private static List<Path> ancestors(Path root, String cgroupPath) {
+        List<Path> directories = new ArrayList<>();
+        Path directory = root.resolve(relative(cgroupPath.trim())).normalize();
+        if (!directory.startsWith(root)) {
+            directory = root;
+        }
+        for (; directory != null && directory.startsWith(root); directory = directory.getParent()) {
+            directories.add(directory);
+        }
+        return directories;
+    }
+
+    /**
+     * Hạn mức nhỏ hơn trong hai hạn mức, -1 nghĩa là không giới hạn
+     */
+    private static double minQuota(double a, double b) {
+        if (a <= 0) {
+            return b;
+        }
+        return b <= 0 ? a : Math.min(a, b);
+    }
+
+    private static String relative(String cgroupPath) {
+        return cgroupPath.startsWith("/") ? cgroupPath.substring(1) : cgroupPath;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CPU: %d processors, cgroup quota %s -> %d compute threads, %d I/O threads; heap %.0f MB",
+                availableProcessors, cpuQuota > 0 ? String.format("%.2f", cpuQuota) : "none",
+                getComputeThreads(), getIoThreads(), maxHeapBytes / (1024.0 * 1024.0));
+    }
+}
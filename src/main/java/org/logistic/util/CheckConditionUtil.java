@@ -1,11 +1,8 @@
 package org.logistic.util;
 
-import org.logistic.model.DistanceTime;
 import org.logistic.model.Location;
 import org.logistic.model.Route;
-import java.util.Arrays;
-import java.util.Map;
-import java.util.stream.Collectors;
+import org.logistic.model.TravelMatrix;
 
 /**
  * Tiện ích kiểm tra các điều kiện ràng buộc cho tuyến đường
@@ -36,87 +33,90 @@ public class CheckConditionUtil {
      * - Trọng tải không xảy ra mâu thuẫn (không xuất hiện số âm trong quá trình)
      * - Thời gian giao phải khớp với cửa sổ thời gian (cả ltw và utw)
      *
+     * Kết quả được lưu theo phiên bản của tuyến đường: lần kiểm tra đầu tiên sau mỗi thay đổi
+     * tốn O(n) để xây dựng dữ liệu tiền tố/hậu tố, các lần sau chỉ tốn O(1).
+     *
      * @param route Tuyến đường cần kiểm tra
      * @param locations Mảng các vị trí
      * @param maxPayload Trọng tải tối đa của phương tiện
-     * @param distanceTimes Mảng thông tin khoảng cách-thời gian (có thể null)
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
      * @return true nếu tuyến đường hợp lệ, false nếu không
      */
-    public boolean isInsertionFeasible(Route route, Location[] locations, double maxPayload, DistanceTime[] distanceTimes) {
-        int[] indLocations = route.getIndLocations();
-        double targetPayload = 0;
-        double currentTime = 0;
-        int length = indLocations.length;
-
-        // Tạo map để tra cứu nhanh DistanceTime nếu có
-        Map<String, DistanceTime> distanceMap = null;
-        if (distanceTimes != null && distanceTimes.length > 0) {
-            distanceMap = Arrays.stream(distanceTimes)
-                    .collect(Collectors.toMap(
-                        dt -> dt.getFromNode() + "-" + dt.getToNode(),
-                        dt -> dt,
-                        (existing, replacement) -> existing
-                    ));
+    public boolean isInsertionFeasible(Route route, Location[] locations, double maxPayload, TravelMatrix travelMatrix) {
+        // Tuyến đường chưa thay đổi kể từ lần xác nhận gần nhất
+        if (route.isKnownFeasible(locations, travelMatrix, maxPayload)) {
+            return true;
         }
 
-        for (int i = 0; i < length; i++) {
-            Location currLoc = locations[indLocations[i]];
-
-            // Kiểm tra ràng buộc trọng tải trước khi thực hiện hoạt động
-            if (currLoc.isDeliver()) {
-                targetPayload -= currLoc.getDemandDeliver();
-                // Nếu trọng tải âm, tuyến đường không hợp lệ
-                if (targetPayload < 0) {
-                    return false;
-                }
-            }
-
-            if (currLoc.isPick()) {
-                targetPayload += currLoc.getDemandPick();
-                // Nếu vượt quá trọng tải tối đa, tuyến đường không hợp lệ
-                if (targetPayload > maxPayload) {
-                    return false;
-                }
-            }
+        // Dữ liệu tiền tố/hậu tố chỉ được xây dựng lại (O(n)) khi tuyến đường đã thay đổi
+        boolean feasible = route.getSegments(locations, travelMatrix).isFeasible(maxPayload);
+        if (feasible) {
+            route.markFeasible(locations, travelMatrix, maxPayload);
+        }
+        return feasible;
+    }
 
-            // Kiểm tra ràng buộc thời gian tại địa điểm hiện tại
-            // Nếu đến sớm, phải chờ đến thời gian sẵn sàng
-            if (currentTime < currLoc.getLtw()) {
-                currentTime = currLoc.getLtw();
-            }
-            
-            // Nếu đến muộn hơn thời gian hạn chót, tuyến đường không hợp lệ
-            if (currentTime > currLoc.getUtw()) {
-                return false;
-            }
+    /**
+     * Kiểm tra tuyến đường sau khi loại bỏ điểm tại vị trí pos có hợp lệ không, O(1)
+     *
+     * @param route Tuyến đường gốc (không bị thay đổi)
+     * @param pos Vị trí điểm bị loại bỏ
+     * @param locations Mảng các vị trí
+     * @param maxPayload Trọng tải tối đa của phương tiện
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
+     * @return true nếu tuyến đường mới hợp lệ
+     */
+    public boolean isRemovalFeasible(Route route, int pos, Location[] locations, double maxPayload,
+            TravelMatrix travelMatrix) {
+        return route.getSegments(locations, travelMatrix).isRemovalFeasible(pos, maxPayload);
+    }
 
-            // Thêm thời gian phục vụ tại địa điểm hiện tại
-            currentTime += currLoc.getServiceTime();
+    /**
+     * Kiểm tra tuyến đường sau khi chèn node vào trước vị trí pos có hợp lệ không, O(1)
+     *
+     * @param route Tuyến đường gốc (không bị thay đổi)
+     * @param pos Vị trí chèn (bằng độ dài tuyến nếu chèn vào cuối)
+     * @param node Điểm được chèn
+     * @param locations Mảng các vị trí
+     * @param maxPayload Trọng tải tối đa của phương tiện
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
+     * @return true nếu tuyến đường mới hợp lệ
+     */
+    public boolean isNodeInsertionFeasible(Route route, int pos, int node, Location[] locations, double maxPayload,
+            TravelMatrix travelMatrix) {
+        return route.getSegments(locations, travelMatrix).isInsertionFeasible(pos, node, maxPayload);
+    }
 
-            // Tính thời gian di chuyển đến địa điểm tiếp theo
-            if (i < length - 1) {
-                int fromNode = indLocations[i];
-                int toNode = indLocations[i + 1];
-                
-                if (distanceMap != null) {
-                    DistanceTime dt = distanceMap.get(fromNode + "-" + toNode);
-                    if (dt != null) {
-                        currentTime += dt.getTravelTime();
-                    } else {
-                        // Fallback về tính toán Euclidean nếu không tìm thấy
-                        Location nextLoc = locations[toNode];
-                        currentTime += currLoc.distance(nextLoc);
-                    }
-                } else {
-                    // Sử dụng khoảng cách Euclidean nếu không có distanceTimes
-                    Location nextLoc = locations[toNode];
-                    currentTime += currLoc.distance(nextLoc);
-                }
-            }
-        }
+    /**
+     * Kiểm tra tuyến đường sau khi thay điểm tại vị trí pos bằng node có hợp lệ không, O(1)
+     *
+     * @param route Tuyến đường gốc (không bị thay đổi)
+     * @param pos Vị trí điểm bị thay thế
+     * @param node Điểm mới
+     * @param locations Mảng các vị trí
+     * @param maxPayload Trọng tải tối đa của phương tiện
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
+     * @return true nếu tuyến đường mới hợp lệ
+     */
+    public boolean isReplacementFeasible(Route route, int pos, int node, Location[] locations, double maxPayload,
+            TravelMatrix travelMatrix) {
+        return route.getSegments(locations, travelMatrix).isReplacementFeasible(pos, node, maxPayload);
+    }
 
-        // Tuyến đường hợp lệ nếu đã vượt qua tất cả các kiểm tra
-        return true;
+    /**
+     * Kiểm tra tuyến đường sau khi hoán đổi hai vị trí có hợp lệ không, O(|pos2 - pos1|)
+     *
+     * @param route Tuyến đường gốc (không bị thay đổi)
+     * @param pos1 Vị trí thứ nhất
+     * @param pos2 Vị trí thứ hai
+     * @param locations Mảng các vị trí
+     * @param maxPayload Trọng tải tối đa của phương tiện
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
+     * @return true nếu tuyến đường mới hợp lệ
+     */
+    public boolean isSwapFeasible(Route route, int pos1, int pos2, Location[] locations, double maxPayload,
+            TravelMatrix travelMatrix) {
+        return route.getSegments(locations, travelMatrix).isSwapFeasible(pos1, pos2, maxPayload);
     }
 
     /**
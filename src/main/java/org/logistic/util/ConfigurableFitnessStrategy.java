@@ -34,6 +34,13 @@ public class ConfigurableFitnessStrategy implements FitnessStrategy {
 
     @Override
     public double calculateFitness(int numberVehicle, int totalDistances, int totalServiceTime, int totalWaitingTime) {
+        return calculateFitness(numberVehicle, (double) totalDistances, (double) totalServiceTime,
+                (double) totalWaitingTime);
+    }
+
+    @Override
+    public double calculateFitness(int numberVehicle, double totalDistances, double totalServiceTime,
+            double totalWaitingTime) {
         double fitness = 0.0;
         
         if (useDistance) {
@@ -14,4 +14,11 @@ public class DefaultFitnessStrategy implements FitnessStrategy {
         return alpha * totalDistances + beta * totalServiceTime +
                 gamma * totalWaitingTime + delta * numberVehicle;
     }
+
+    @Override
+    public double calculateFitness(int numberVehicle, double totalDistances, double totalServiceTime,
+            double totalWaitingTime) {
+        return alpha * totalDistances + beta * totalServiceTime +
+                gamma * totalWaitingTime + delta * numberVehicle;
+    }
 }
\ No newline at end of file
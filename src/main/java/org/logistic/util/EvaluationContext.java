@@ -0,0 +1,216 @@
+package org.logistic.util;
+
+import java.util.stream.IntStream;
+
+import org.logistic.model.Location;
+import org.logistic.model.Route;
+import org.logistic.model.RouteCost;
+import org.logistic.model.TravelMatrix;
+import org.logistic.model.Zobrist;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Ngữ cảnh đánh giá fitness của một lần chạy optimizer.
+ *
+ * Mỗi lần chạy giữ một ngữ cảnh riêng chứa strategy, dữ liệu bài toán và kết quả đánh giá gần
+ * nhất, vì vậy nhiều optimizer có thể chạy đồng thời mà không chia sẻ trạng thái có thể thay đổi
+ * (không dùng singleton hay ThreadLocal). Strategy và chế độ song song được cố định khi tạo ngữ
+ * cảnh, thay đổi sau đó trên {@link FitnessUtil} không ảnh hưởng đến các lần chạy đang diễn ra.
+ *
+ * Chi phí của từng tuyến được lưu trong chính tuyến đường (xem {@link Route#getCost}) nên chỉ các
+ * tuyến đã thay đổi kể từ lần đánh giá trước mới được tính lại. Ngữ cảnh có thể kèm bộ nhớ đệm
+ * theo fingerprint (xem {@link FingerprintCache}): bộ nhớ đệm giải pháp bỏ qua hoàn toàn việc
+ * đánh giá một tập tuyến đã gặp, bộ nhớ đệm tuyến đường cho phép tuyến đã thay đổi nhưng có nội
+ * dung đã gặp lấy lại chi phí cũ (chỉ dùng ở chế độ tuần tự). Mỗi lần trúng đều được xác nhận
+ * lại bằng mã băm nội dung của tuyến vì fingerprint có thể trùng với nội dung khác.
+ *
+ * Một ngữ cảnh chỉ nên được dùng bởi một luồng tại một thời điểm.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EvaluationContext {
+    /** Số tuyến tối thiểu để chế độ song song thực sự được dùng */
+    public static final int DEFAULT_PARALLEL_ROUTE_THRESHOLD = 64;
+
+    // Bố cục một phần tử của bộ nhớ đệm giải pháp
+    static final int RESULT_FITNESS = 0;
+    static final int RESULT_VEHICLES = 1;
+    static final int RESULT_DISTANCE = 2;
+    static final int RESULT_SERVICE_TIME = 3;
+    static final int RESULT_WAITING_TIME = 4;
+    static final int RESULT_STRIDE = 5;
+
+    @Getter
+    final FitnessStrategy fitnessStrategy;
+    @Getter
+    final Location[] locations;
+    @Getter
+    final TravelMatrix travelMatrix;
+    @Getter
+    final boolean parallel;
+    @Getter
+    final int parallelRouteThreshold;
+
+    // Bộ nhớ đệm theo fingerprint (null nếu không dùng)
+    @Getter
+    final FingerprintCache solutionCache;
+    @Getter
+    final FingerprintCache routeCache;
+    final double[] cacheEntry = new double[Math.max(RESULT_STRIDE, RouteCost.STRIDE)];
+
+    // Kết quả đánh giá gần nhất (các thành phần của fitness)
+    @Getter
+    FitnessResult lastResult;
+
+    /**
+     * @param fitnessStrategy Strategy tính fitness
+     * @param locations       Mảng các vị trí
+     * @param travelMatrix    Ma trận khoảng cách-thời gian (có thể null, khi đó dùng Euclidean)
+     * @param parallel        Có sử dụng xử lý song song hay không
+     */
+    public EvaluationContext(FitnessStrategy fitnessStrategy, Location[] locations, TravelMatrix travelMatrix,
+            boolean parallel) {
+        this(fitnessStrategy, locations, travelMatrix, parallel, DEFAULT_PARALLEL_ROUTE_THRESHOLD);
+    }
+
+    /**
+     * @param fitnessStrategy        Strategy tính fitness
+     * @param locations              Mảng các vị trí
+     * @param travelMatrix           Ma trận khoảng cách-thời gian (có thể null, khi đó dùng Euclidean)
+     * @param parallel               Có sử dụng xử lý song song hay không
+     * @param parallelRouteThreshold Số tuyến tối thiểu để tính song song; ít hơn thì tính tuần tự
+     *                               vì chi phí chia việc lớn hơn phần tính toán
+     */
+    public EvaluationContext(FitnessStrategy fitnessStrategy, Location[] locations, TravelMatrix travelMatrix,
+            boolean parallel, int parallelRouteThreshold) {
+        this(fitnessStrategy, locations, travelMatrix, parallel, parallelRouteThreshold, 0);
+    }
+
+    /**
+     * @param fitnessStrategy        Strategy tính fitness
+     * @param locations              Mảng các vị trí
+     * @param travelMatrix           Ma trận khoảng cách-thời gian (có thể null, khi đó dùng Euclidean)
+     * @param parallel               Có sử dụng xử lý song song hay không
+     * @param parallelRouteThreshold Số tuyến tối thiểu để tính song song
+     * @param cacheCapacity          Số phần tử tối đa của mỗi bộ nhớ đệm (giải pháp và tuyến
+     *                               đường), 0 để không dùng bộ nhớ đệm
+     */
+    public EvaluationContext(FitnessStrategy fitnessStrategy, Location[] locations, TravelMatrix travelMatrix,
+            boolean parallel, int parallelRouteThreshold, int cacheCapacity) {
+        this.fitnessStrategy = fitnessStrategy;
+        this.locations = locations;
+        this.travelMatrix = travelMatrix;
+        this.parallel = parallel;
+        this.parallelRouteThreshold = Math.max(parallelRouteThreshold, 1);
+        this.solutionCache = cacheCapacity > 0 ? new FingerprintCache(cacheCapacity, RESULT_STRIDE) : null;
+        this.routeCache = cacheCapacity > 0 ? new FingerprintCache(cacheCapacity, RouteCost.STRIDE) : null;
+    }
+
+    /**
+     * Đánh giá một tập tuyến đường
+     *
+     * @param routes Mảng các tuyến đường
+     * @return Kết quả gồm fitness và các thành phần
+     */
+    public FitnessResult evaluate(Route[] routes) {
+        long key = 0;
+        long check = 0;
+        if (solutionCache != null) {
+            key = Zobrist.of(routes);
+            check = Zobrist.contentHash(routes);
+            if (solutionCache.get(key, check, cacheEntry, 0)) {
+                FitnessResult cached = new FitnessResult(cacheEntry[RESULT_FITNESS],
+                        (int) cacheEntry[RESULT_VEHICLES], cacheEntry[RESULT_DISTANCE],
+                        cacheEntry[RESULT_SERVICE_TIME], cacheEntry[RESULT_WAITING_TIME]);
+                lastResult = cached;
+                return cached;
+            }
+        }
+
+        boolean useParallel = parallel && routes.length >= parallelRouteThreshold;
+        FitnessResult result = useParallel ? evaluateParallel(routes) : evaluateSequential(routes);
+        lastResult = result;
+
+        if (solutionCache != null) {
+            cacheEntry[RESULT_FITNESS] = result.fitness();
+            cacheEntry[RESULT_VEHICLES] = result.numberVehicle();
+            cacheEntry[RESULT_DISTANCE] = result.totalDistances();
+            cacheEntry[RESULT_SERVICE_TIME] = result.totalServiceTime();
+            cacheEntry[RESULT_WAITING_TIME] = result.totalWaitingTime();
+            solutionCache.put(key, check, cacheEntry, 0);
+        }
+        return result;
+    }
+
+    /**
+     * Tính giá trị fitness (càng thấp càng tốt)
+     *
+     * @param routes Mảng các tuyến đường
+     * @return Giá trị fitness
+     */
+    public double calculatorFitness(Route[] routes) {
+        return evaluate(routes).fitness();
+    }
+
+    /**
+     * Tính lại song song chi phí của các tuyến đã thay đổi (mỗi luồng chỉ ghi vào tuyến của nó),
+     * sau đó cộng dồn tuần tự theo thứ tự tuyến nên kết quả giống hệt chế độ tuần tự
+     */
+    private FitnessResult evaluateParallel(Route[] routes) {
+        IntStream.range(0, routes.length).parallel()
+                .forEach(i -> routes[i].getCost(locations, travelMatrix));
+        return evaluateSequential(routes);
+    }
+
+    /**
+     * Tính giá trị fitness tuần tự (không sử dụng stream parallel), chỉ tính lại các tuyến đã thay đổi
+     */
+    private FitnessResult evaluateSequential(Route[] routes) {
+        int numberVehicle = 0;
+        double totalDistances = 0;
+        double totalServiceTime = 0;
+        double totalWaitingTime = 0;
+
+        for (Route route : routes) {
+            RouteCost cost = routeCost(route);
+            if (cost.isUsed()) {
+                numberVehicle++;
+                totalDistances += cost.getDistance();
+                totalServiceTime += cost.getServiceTime();
+                totalWaitingTime += cost.getWaitingTime();
+            }
+        }
+
+        return toResult(numberVehicle, totalDistances, totalServiceTime, totalWaitingTime);
+    }
+
+    /**
+     * Lấy chi phí của tuyến: dùng chi phí đã lưu trong tuyến nếu tuyến chưa thay đổi, sau đó đến
+     * bộ nhớ đệm tuyến đường (nếu có), cuối cùng mới tính lại
+     */
+    private RouteCost routeCost(Route route) {
+        if (routeCache == null || route.hasCost(locations, travelMatrix)) {
+            return route.getCost(locations, travelMatrix);
+        }
+        long key = route.getFingerprint();
+        long check = route.getContentHash();
+        if (routeCache.get(key, check, cacheEntry, 0)) {
+            RouteCost cost = RouteCost.read(cacheEntry, 0, locations, travelMatrix, route.getVersion());
+            route.attachCost(cost);
+            return cost;
+        }
+        RouteCost cost = route.getCost(locations, travelMatrix);
+        cost.writeTo(cacheEntry, 0);
+        routeCache.put(key, check, cacheEntry, 0);
+        return cost;
+    }
+
+    private FitnessResult toResult(int numberVehicle, double totalDistances, double totalServiceTime,
+            double totalWaitingTime) {
+        double fitness = fitnessStrategy.calculateFitness(numberVehicle, totalDistances, totalServiceTime,
+                totalWaitingTime);
+        return new FitnessResult(fitness, numberVehicle, totalDistances, totalServiceTime, totalWaitingTime);
+    }
+}
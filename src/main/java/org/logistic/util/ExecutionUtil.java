@@ -3,26 +3,48 @@ package org.logistic.util;
 import org.logistic.Main.Algorithm;
 import org.logistic.Main.ExportType;
 import org.logistic.algorithm.Optimizer;
+import org.logistic.algorithm.TerminationCriterion;
 import org.logistic.algorithm.aco.AntColonyOptimization;
 import org.logistic.algorithm.gwo.GreyWolfOptimizer;
+import org.logistic.algorithm.sa.ParallelTempering;
 import org.logistic.algorithm.sa.SimulatedAnnealing;
 import org.logistic.algorithm.sho.SpottedHyenaOptimizer;
 import org.logistic.algorithm.woa.WhaleOptimizationAlgorithm;
 import org.logistic.data.ReadDataFromFile;
-import org.logistic.model.DistanceTime;
 import org.logistic.model.Location;
 import org.logistic.model.Route;
 import org.logistic.model.Solution;
+import org.logistic.model.TravelMatrix;
 import org.logistic.parallel.ParallelExecutionManager;
 import org.logistic.parallel.PerformanceMonitor;
+import org.logistic.parallel.ResourcePlanner;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Tiện ích thực thi các thuật toán tối ưu hóa
  */
 public class ExecutionUtil {
+    // Chỉ số luồng seed dành cho SA tạo quần thể ban đầu (các thuật toán dùng ordinal của Algorithm)
+    static final int SA_STREAM = -1;
+
+    // Biến thể cập nhật pheromone dùng khi chạy Algorithm.ACO
+    static volatile AntColonyOptimization.Variant acoVariant = AntColonyOptimization.Variant.ANT_SYSTEM;
+
+    /**
+     * Chọn biến thể ACO (Ant System hoặc MAX-MIN Ant System) cho các optimizer được tạo sau đó
+     *
+     * @param variant Biến thể cập nhật pheromone
+     */
+    public static void setAcoVariant(AntColonyOptimization.Variant variant) {
+        if (variant == null) {
+            throw new IllegalArgumentException("variant must not be null");
+        }
+        acoVariant = variant;
+    }
 
     /**
      * Xử lý tất cả các file trong thư mục
@@ -31,36 +53,54 @@ public class ExecutionUtil {
             ReadDataFromFile rdff, FitnessUtil fitnessUtil, PrintUtil printUtil,
             CheckConditionUtil checkConditionUtil, ReadDataFromFile.ProblemType problemType,
             ExportType exportType, int iterations, boolean parallelEnabled) {
+        processAllFilesInDirectory(srcDirectory, solutionDirectory, rdff, fitnessUtil, printUtil,
+                checkConditionUtil, problemType, exportType, iterations, parallelEnabled, SeedUtil.randomSeed(), null);
+    }
+
+    /**
+     * Xử lý tất cả các file trong thư mục với seed cố định (mỗi file dùng seed suy ra từ tên file)
+     * và điều kiện dừng chung cho mọi lần chạy (null: số vòng lặp mặc định của từng thuật toán)
+     */
+    public static void processAllFilesInDirectory(String srcDirectory, String solutionDirectory,
+            ReadDataFromFile rdff, FitnessUtil fitnessUtil, PrintUtil printUtil,
+            CheckConditionUtil checkConditionUtil, ReadDataFromFile.ProblemType problemType,
+            ExportType exportType, int iterations, boolean parallelEnabled, long seed,
+            TerminationCriterion terminationCriterion) {
         System.out.println("\n=== BẮT ĐẦU XỬ LÝ TẤT CẢ CÁC FILE TRONG THƯ MỤC ===");
         System.out.println("Thư mục src: " + srcDirectory);
         System.out.println("Thư mục solution: " + solutionDirectory);
+        System.out.println("Seed: " + seed);
 
-        // Xử lý từng file trong thư mục
+        // Xử lý từng file trong thư mục; khi chạy song song các file tiếp theo được đọc trước trên
+        // executor I/O trong lúc các thuật toán chạy trên file hiện tại
+        Executor loader = parallelEnabled
+                ? ParallelExecutionManager.getInstance().getIoExecutor(PerformanceMonitor.Stage.LOAD)
+                : Runnable::run;
         rdff.processAllFilesInDirectory(srcDirectory, solutionDirectory, problemType,
                 (locations, routes, fileName) -> {
                     try {
                         System.out.println("\n=== XỬ LÝ FILE: " + fileName + " ===");
 
                         // Tạo giải pháp ban đầu và tập giải pháp
-                        // Sử dụng DistanceTime nếu có (cho Liu Tang Yao format)
-                        double initialFitness;
-                        if (rdff.getDistanceTimes() != null && rdff.getDistanceTimes().length > 0) {
-                            initialFitness = fitnessUtil.calculatorFitness(routes, locations, rdff.getDistanceTimes(),
-                                    parallelEnabled);
-                            System.out.println("Sử dụng thông tin DistanceTime từ DISTANCETIME_SECTION");
-                        } else {
-                            initialFitness = fitnessUtil.calculatorFitness(routes, locations, parallelEnabled);
+                        // Ma trận khoảng cách-thời gian (DISTANCETIME_SECTION hoặc Euclidean theo tọa độ)
+                        TravelMatrix travelMatrix = rdff.getTravelMatrix();
+                        if (travelMatrix != null) {
+                            System.out.println("Ma trận khoảng cách-thời gian: " + travelMatrix);
                         }
+                        double initialFitness = fitnessUtil.calculatorFitness(routes, locations, travelMatrix,
+                                parallelEnabled);
 
+                        long fileSeed = SeedUtil.derive(seed, fileName.hashCode(), 0);
                         Solution mainSolution = new Solution(routes, initialFitness);
-                        SimulatedAnnealing sa = new SimulatedAnnealing(mainSolution);
-                        Solution[] initialSolutions = sa.runAndGetPopulation(fitnessUtil, checkConditionUtil,
-                                locations);
+                        Solution[] initialSolutions = createInitialPopulation(mainSolution, fitnessUtil,
+                                checkConditionUtil, locations, travelMatrix, parallelEnabled,
+                                SeedUtil.derive(fileSeed, SA_STREAM, 0));
 
                         // Chạy tất cả các thuật toán tối ưu hóa
                         runAllOptimizers(initialSolutions, fitnessUtil, checkConditionUtil, locations,
                                 routes[0].getMaxPayload(), printUtil, fileName,
-                                exportType, iterations, parallelEnabled, rdff.getDistanceTimes());
+                                exportType, iterations, parallelEnabled, travelMatrix, fileSeed,
+                                terminationCriterion);
 
                         System.out.println("=== HOÀN THÀNH XỬ LÝ FILE: " + fileName + " ===\n");
 
@@ -68,7 +108,7 @@ public class ExecutionUtil {
                         System.err.println("Lỗi khi xử lý file " + fileName + ": " + e.getMessage());
                         e.printStackTrace();
                     }
-                });
+                }, loader);
 
         // Lưu ý: Không lưu Excel ở đây vì sẽ được lưu trong Main.java
 
@@ -82,7 +122,21 @@ public class ExecutionUtil {
             ReadDataFromFile rdff, FitnessUtil fitnessUtil, PrintUtil printUtil,
             CheckConditionUtil checkConditionUtil, ReadDataFromFile.ProblemType problemType,
             ExportType exportType, int iterations, boolean parallelEnabled) {
+        processSingleFile(dataLocation, dataSolution, rdff, fitnessUtil, printUtil, checkConditionUtil,
+                problemType, exportType, iterations, parallelEnabled, SeedUtil.randomSeed(), null);
+    }
+
+    /**
+     * Xử lý một file duy nhất với seed cố định và điều kiện dừng chung cho mọi lần chạy
+     * (null: số vòng lặp mặc định của từng thuật toán)
+     */
+    public static void processSingleFile(String dataLocation, String dataSolution,
+            ReadDataFromFile rdff, FitnessUtil fitnessUtil, PrintUtil printUtil,
+            CheckConditionUtil checkConditionUtil, ReadDataFromFile.ProblemType problemType,
+            ExportType exportType, int iterations, boolean parallelEnabled, long seed,
+            TerminationCriterion terminationCriterion) {
         System.out.println("\n=== BẮT ĐẦU XỬ LÝ FILE ĐƠN ===");
+        System.out.println("Seed: " + seed);
 
         try {
             // Đọc dữ liệu đầu vào
@@ -106,24 +160,21 @@ public class ExecutionUtil {
             }
 
             // Tạo giải pháp ban đầu và tập giải pháp
-            // Sử dụng DistanceTime nếu có (cho Liu Tang Yao format)
-            double initialFitness;
-            if (rdff.getDistanceTimes() != null && rdff.getDistanceTimes().length > 0) {
-                initialFitness = fitnessUtil.calculatorFitness(routes, locations, rdff.getDistanceTimes(),
-                        parallelEnabled);
-                System.out.println("Sử dụng thông tin DistanceTime từ DISTANCETIME_SECTION");
-            } else {
-                initialFitness = fitnessUtil.calculatorFitness(routes, locations, parallelEnabled);
+            // Ma trận khoảng cách-thời gian (DISTANCETIME_SECTION hoặc Euclidean theo tọa độ)
+            TravelMatrix travelMatrix = rdff.getTravelMatrix();
+            if (travelMatrix != null) {
+                System.out.println("Ma trận khoảng cách-thời gian: " + travelMatrix);
             }
+            double initialFitness = fitnessUtil.calculatorFitness(routes, locations, travelMatrix, parallelEnabled);
 
             Solution mainSolution = new Solution(routes, initialFitness);
-            SimulatedAnnealing sa = new SimulatedAnnealing(mainSolution);
-            Solution[] initialSolutions = sa.runAndGetPopulation(fitnessUtil, checkConditionUtil, locations);
+            Solution[] initialSolutions = createInitialPopulation(mainSolution, fitnessUtil, checkConditionUtil,
+                    locations, travelMatrix, parallelEnabled, SeedUtil.derive(seed, SA_STREAM, 0));
 
             // Chạy tất cả các thuật toán tối ưu hóa
             runAllOptimizers(initialSolutions, fitnessUtil, checkConditionUtil, locations,
                     routes[0].getMaxPayload(), printUtil, null,
-                    exportType, iterations, parallelEnabled, rdff.getDistanceTimes());
+                    exportType, iterations, parallelEnabled, travelMatrix, seed, terminationCriterion);
 
         } catch (Exception e) {
             System.err.println("Lỗi khi xử lý file đơn: " + e.getMessage());
@@ -136,7 +187,37 @@ public class ExecutionUtil {
     }
 
     /**
-     * Tạo đối tượng tối ưu hóa dựa trên thuật toán được chọn
+     * Tạo quần thể ban đầu từ một giải pháp: khi chạy song song trên máy nhiều nhân dùng
+     * parallel tempering trên thread pool của ParallelExecutionManager (mỗi nhân một nhiệt độ),
+     * ngược lại dùng Simulated Annealing
+     *
+     * @param mainSolution    Giải pháp ban đầu
+     * @param parallelEnabled Có sử dụng xử lý song song hay không
+     * @param seed            Seed của bộ sinh số ngẫu nhiên
+     * @return Tập quần thể
+     */
+    public static Solution[] createInitialPopulation(Solution mainSolution, FitnessUtil fitnessUtil,
+            CheckConditionUtil checkConditionUtil, Location[] locations, TravelMatrix travelMatrix,
+            boolean parallelEnabled, long seed) {
+        int parallelism = ResourcePlanner.getInstance().getPopulationParallelism();
+        if (parallelEnabled && parallelism > 1) {
+            ParallelExecutionManager parallelManager = ParallelExecutionManager.getInstance();
+            ParallelTempering pt = new ParallelTempering(mainSolution,
+                    Math.min(parallelism, parallelManager.getMaxThreads()), parallelManager.getExecutor());
+            pt.setSeed(seed);
+            return pt.runAndGetPopulation(fitnessUtil, checkConditionUtil, locations, travelMatrix);
+        }
+
+        SimulatedAnnealing sa = new SimulatedAnnealing(mainSolution);
+        sa.setSeed(seed);
+        return sa.runAndGetPopulation(fitnessUtil, checkConditionUtil, locations, travelMatrix,
+                SimulatedAnnealing.populationChains(parallelEnabled, parallelism));
+    }
+
+    /**
+     * Tạo đối tượng tối ưu hóa dựa trên thuật toán được chọn. Các con kiến của ACO chạy trên thread
+     * pool của ParallelExecutionManager (thay vì common pool) để tổng số thread không vượt quá
+     * maxThreads khi nhiều optimizer chạy song song
      *
      * @param algorithm Thuật toán được chọn
      * @return Đối tượng tối ưu hóa
@@ -144,8 +225,8 @@ public class ExecutionUtil {
     public static Optimizer createOptimizer(Algorithm algorithm) {
         return switch (algorithm) {
             case ACO -> {
-                System.out.println("Đang chạy thuật toán Ant Colony Optimization (ACO)...");
-                yield new AntColonyOptimization();
+                System.out.println("Đang chạy thuật toán Ant Colony Optimization (ACO, " + acoVariant + ")...");
+                yield new AntColonyOptimization(acoVariant, ParallelExecutionManager.getInstance().getExecutor());
             }
             case GWO -> {
                 System.out.println("Đang chạy thuật toán Grey Wolf Optimizer (GWO)...");
@@ -175,12 +256,15 @@ public class ExecutionUtil {
      * @param locations          Mảng các vị trí
      * @param maxPayload         Trọng tải tối đa
      * @param iterations         Số lần chạy lặp lại cho mỗi thuật toán
-     * @param distanceTimes      Mảng thông tin khoảng cách-thời gian
+     * @param travelMatrix       Ma trận khoảng cách-thời gian (có thể null)
+     * @param seed               Seed gốc, mỗi lần chạy dùng seed suy ra từ (thuật toán, lần chạy)
+     * @param terminationCriterion Điều kiện dừng của mỗi lần chạy (có thể null)
      * @return SequentialResults chứa kết quả và thống kê của từng thuật toán
      */
     private static SequentialResults runSequentialOptimizers(Solution[] initialSolutions,
             FitnessUtil fitnessUtil, CheckConditionUtil checkConditionUtil,
-            Location[] locations, double maxPayload, int iterations, DistanceTime[] distanceTimes) {
+            Location[] locations, double maxPayload, int iterations, TravelMatrix travelMatrix, long seed,
+            TerminationCriterion terminationCriterion) {
 
         Map<Algorithm, Solution> bestResults = new HashMap<>();
         Map<Algorithm, Long> executionTimes = new HashMap<>();
@@ -208,25 +292,21 @@ public class ExecutionUtil {
                 for (int i = 0; i < iterations; i++) {
                     System.out.println("Lần chạy " + (i + 1) + "/" + iterations + " cho " + algorithm);
 
-                    long startTime = System.currentTimeMillis();
+                    long startTime = System.nanoTime();
                     Solution currentSolution = optimizer.run(initialSolutions, fitnessUtil,
-                            checkConditionUtil, locations, distanceTimes);
-                    long endTime = System.currentTimeMillis();
+                            checkConditionUtil, locations, travelMatrix,
+                            SeedUtil.derive(seed, algorithm.ordinal(), i + 1), terminationCriterion);
+                    long elapsedNanos = System.nanoTime() - startTime;
 
-                    totalExecutionTime += (endTime - startTime);
+                    totalExecutionTime += TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+                    PerformanceMonitor.getInstance().recordStage(PerformanceMonitor.Stage.OPTIMIZE, elapsedNanos);
+                    PerformanceMonitor.getInstance().recordFitnessCache(optimizer.getEvaluationContext());
 
                     if (currentSolution != null) {
                         // Thu thập dữ liệu weights cho lần chạy này
-                        int[] weights;
-
-                        // Tính lại fitness với DistanceTime để cập nhật tempWeights
-                        if (distanceTimes != null && distanceTimes.length > 0) {
-                            fitnessUtil.calculatorFitness(currentSolution.getRoutes(), locations, distanceTimes);
-                            weights = fitnessUtil.getTempWeights();
-                        } else {
-                            weights = fitnessUtil.calculateWeightsFromSolution(currentSolution, locations);
-                        }
-                        
+                        int[] weights = fitnessUtil.calculateWeightsFromSolution(currentSolution, locations,
+                                travelMatrix);
+
                         for (int j = 0; j < 4; j++) {
                             allWeights[j][i] = weights[j];
                         }
@@ -262,9 +342,6 @@ public class ExecutionUtil {
             }
         }
 
-        // Dọn dẹp ThreadLocal sau khi hoàn thành tất cả thuật toán
-        FitnessUtil.cleanupThreadLocal();
-
         return new SequentialResults(bestResults, executionTimes, algorithmStats);
     }
 
@@ -322,13 +399,31 @@ public class ExecutionUtil {
      * @param exportType         Loại xuất dữ liệu
      * @param iterations         Số lần chạy lặp lại cho mỗi thuật toán
      * @param parallelEnabled    Có sử dụng xử lý song song hay không
-     * @param distanceTimes      Mảng thông tin khoảng cách-thời gian (có thể null)
+     * @param travelMatrix       Ma trận khoảng cách-thời gian (có thể null)
+     */
+    public static void runAllOptimizers(Solution[] initialSolutions,
+            FitnessUtil fitnessUtil, CheckConditionUtil checkConditionUtil,
+            Location[] locations, double maxPayload, PrintUtil printUtil,
+            String fileName, ExportType exportType, int iterations,
+            boolean parallelEnabled, TravelMatrix travelMatrix) {
+        runAllOptimizers(initialSolutions, fitnessUtil, checkConditionUtil, locations, maxPayload, printUtil,
+                fileName, exportType, iterations, parallelEnabled, travelMatrix, SeedUtil.randomSeed(), null);
+    }
+
+    /**
+     * Chạy tất cả các thuật toán tối ưu hóa với seed cố định để có thể tái lập kết quả
+     *
+     * @param seed Seed gốc, lần chạy thứ i của thuật toán a dùng seed suy ra từ (seed, a, i) nên
+     *             kết quả giống nhau ở cả chế độ tuần tự và song song
+     * @param terminationCriterion Điều kiện dừng của mỗi lần chạy, ví dụ ngân sách thời gian như
+     *             nhau cho mọi thuật toán (null: số vòng lặp mặc định của từng thuật toán)
      */
     public static void runAllOptimizers(Solution[] initialSolutions,
             FitnessUtil fitnessUtil, CheckConditionUtil checkConditionUtil,
             Location[] locations, double maxPayload, PrintUtil printUtil,
             String fileName, ExportType exportType, int iterations,
-            boolean parallelEnabled, DistanceTime[] distanceTimes) {
+            boolean parallelEnabled, TravelMatrix travelMatrix, long seed,
+            TerminationCriterion terminationCriterion) {
 
         // Thiết lập chế độ parallel cho FitnessUtil
         fitnessUtil.setParallelMode(parallelEnabled);
@@ -350,11 +445,13 @@ public class ExecutionUtil {
                     maxPayload,
                     iterations,
                     optimizerFactory,
-                    distanceTimes);
+                    travelMatrix,
+                    seed,
+                    terminationCriterion);
         } else {
             // Xử lý tuần tự thông thường
             sequentialResults = runSequentialOptimizers(initialSolutions, fitnessUtil, checkConditionUtil,
-                    locations, maxPayload, iterations, distanceTimes);
+                    locations, maxPayload, iterations, travelMatrix, seed, terminationCriterion);
             results = sequentialResults.getBestResults();
         }
 
@@ -0,0 +1,152 @@
+package org.logistic.util;
+
+import java.util.Arrays;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Bộ nhớ đệm có giới hạn ánh xạ fingerprint 64-bit (xem {@link org.logistic.model.Zobrist}) sang
+ * một bộ giá trị double có độ dài cố định.
+ *
+ * Cấu trúc kiểu set-associative: mỗi khóa chỉ có thể nằm ở một tập gồm WAYS ô, khi tập đầy thì
+ * loại bỏ theo thuật toán CLOCK trong tập đó (ô vừa được dùng có cơ hội thứ hai). Toàn bộ dữ liệu
+ * nằm trong các mảng nguyên thủy cấp phát một lần nên dung lượng bộ nhớ cố định và tra cứu/ghi
+ * không cấp phát bộ nhớ.
+ *
+ * Fingerprint Zobrist có thể trùng nhau với nội dung khác nhau (ví dụ tuyến lặp lại điểm với cùng
+ * tập cạnh), nên mỗi phần tử lưu kèm một giá trị kiểm tra độc lập với khóa (mã băm nội dung, xem
+ * {@link org.logistic.model.Zobrist#contentHash(int[])}) và chỉ được trả về khi cả khóa lẫn giá trị
+ * kiểm tra đều khớp. Không an toàn đa luồng (mỗi EvaluationContext giữ bộ nhớ đệm riêng).
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FingerprintCache {
+    static final int WAYS = 4;
+
+    final int stride;
+    final int setMask;
+    final long[] keys;
+    final long[] checks;
+    final boolean[] valid;
+    final boolean[] referenced;
+    final byte[] hands;
+    final double[] values;
+
+    @Getter
+    long hits;
+    @Getter
+    long misses;
+
+    /**
+     * @param capacity Số phần tử tối đa (làm tròn lên lũy thừa của 2, tối thiểu WAYS)
+     * @param stride   Số giá trị double của mỗi phần tử
+     */
+    public FingerprintCache(int capacity, int stride) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be >= 1");
+        }
+        if (stride < 1) {
+            throw new IllegalArgumentException("stride must be >= 1");
+        }
+        int sets = Integer.highestOneBit(Math.max((capacity + WAYS - 1) / WAYS, 1) - 1) << 1;
+        sets = Math.max(sets, 1);
+        this.stride = stride;
+        this.setMask = sets - 1;
+        this.keys = new long[sets * WAYS];
+        this.checks = new long[sets * WAYS];
+        this.valid = new boolean[sets * WAYS];
+        this.referenced = new boolean[sets * WAYS];
+        this.hands = new byte[sets];
+        this.values = new double[sets * WAYS * stride];
+    }
+
+    /**
+     * Tìm phần tử theo khóa và sao chép giá trị vào out[offset..offset + stride)
+     *
+     * @param check Giá trị kiểm tra đã lưu cùng phần tử, phải khớp để được xem là trúng
+     * @return true nếu tìm thấy
+     */
+    public boolean get(long key, long check, double[] out, int offset) {
+        int base = setOf(key) * WAYS;
+        for (int slot = base; slot < base + WAYS; slot++) {
+            if (valid[slot] && keys[slot] == key && checks[slot] == check) {
+                referenced[slot] = true;
+                System.arraycopy(values, slot * stride, out, offset, stride);
+                hits++;
+                return true;
+            }
+        }
+        misses++;
+        return false;
+    }
+
+    /**
+     * Ghi phần tử với giá trị lấy từ source[offset..offset + stride), thay thế phần tử cũ nếu
+     * tập đã đầy. Phần tử cùng khóa (kể cả khác giá trị kiểm tra) bị ghi đè.
+     */
+    public void put(long key, long check, double[] source, int offset) {
+        int set = setOf(key);
+        int base = set * WAYS;
+        int target = -1;
+        for (int slot = base; slot < base + WAYS; slot++) {
+            if (!valid[slot] || keys[slot] == key) {
+                target = slot;
+                break;
+            }
+        }
+        if (target < 0) {
+            // CLOCK: bỏ qua (và xóa cờ) các ô vừa được dùng cho đến khi gặp ô chưa được dùng
+            int hand = hands[set];
+            while (referenced[base + hand]) {
+                referenced[base + hand] = false;
+                hand = (hand + 1) & (WAYS - 1);
+            }
+            target = base + hand;
+            hands[set] = (byte) ((hand + 1) & (WAYS - 1));
+        }
+        keys[target] = key;
+        checks[target] = check;
+        valid[target] = true;
+        referenced[target] = false;
+        System.arraycopy(source, offset, values, target * stride, stride);
+    }
+
+    /**
+     * Xóa toàn bộ phần tử và bộ đếm
+     */
+    public void clear() {
+        Arrays.fill(valid, false);
+        Arrays.fill(referenced, false);
+        Arrays.fill(hands, (byte) 0);
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * @return Số phần tử tối đa
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * @return Tỷ lệ tra cứu trúng (0 nếu chưa tra cứu lần nào)
+     */
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * @return Dung lượng bộ nhớ xấp xỉ của các mảng dữ liệu (byte)
+     */
+    public long memoryBytes() {
+        return (long) keys.length * (2 * Long.BYTES + 2) + hands.length + (long) values.length * Double.BYTES;
+    }
+
+    private int setOf(long key) {
+        // Fingerprint đã được trộn đều, chỉ cần gộp nửa cao vào nửa thấp
+        return (int) (key ^ (key >>> 32)) & setMask;
+    }
+}
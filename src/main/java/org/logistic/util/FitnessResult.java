@@ -0,0 +1,24 @@
+package org.logistic.util;
+
+/**
+ * Kết quả đánh giá một giải pháp: giá trị fitness và các thành phần tạo nên nó
+ *
+ * @param fitness          Giá trị fitness (càng thấp càng tốt)
+ * @param numberVehicle    Số lượng phương tiện được sử dụng
+ * @param totalDistances   Tổng khoảng cách
+ * @param totalServiceTime Tổng thời gian phục vụ
+ * @param totalWaitingTime Tổng thời gian chờ
+ */
+public record FitnessResult(double fitness, int numberVehicle, double totalDistances, double totalServiceTime,
+        double totalWaitingTime) {
+
+    /**
+     * Các thành phần dưới dạng mảng số nguyên (làm tròn), theo thứ tự dùng trong báo cáo
+     *
+     * @return mảng [numberVehicle, totalDistances, totalServiceTime, totalWaitingTime]
+     */
+    public int[] toWeights() {
+        return new int[] { numberVehicle, (int) Math.round(totalDistances), (int) Math.round(totalServiceTime),
+                (int) Math.round(totalWaitingTime) };
+    }
+}
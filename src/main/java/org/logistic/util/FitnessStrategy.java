@@ -14,6 +14,22 @@ public interface FitnessStrategy {
      * @return Giá trị fitness
      */
     double calculateFitness(int numberVehicle, int totalDistances, int totalServiceTime, int totalWaitingTime);
+
+    /**
+     * Tính giá trị fitness từ các thành phần dạng số thực (không bị cắt phần thập phân).
+     * Mặc định làm tròn và chuyển sang phiên bản số nguyên để tương thích với strategy cũ.
+     *
+     * @param numberVehicle    Số lượng phương tiện
+     * @param totalDistances   Tổng khoảng cách
+     * @param totalServiceTime Tổng thời gian phục vụ
+     * @param totalWaitingTime Tổng thời gian chờ
+     * @return Giá trị fitness
+     */
+    default double calculateFitness(int numberVehicle, double totalDistances, double totalServiceTime,
+            double totalWaitingTime) {
+        return calculateFitness(numberVehicle, (int) Math.round(totalDistances), (int) Math.round(totalServiceTime),
+                (int) Math.round(totalWaitingTime));
+    }
     
     /**
      * Kiểm tra xem có cần tính khoảng cách không
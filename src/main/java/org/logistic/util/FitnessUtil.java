@@ -3,27 +3,28 @@ package org.logistic.util;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.experimental.FieldDefaults;
-import org.logistic.model.DistanceTime;
 import org.logistic.model.Location;
 import org.logistic.model.Route;
 import org.logistic.model.Solution;
-
-import java.util.Arrays;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
+import org.logistic.model.TravelMatrix;
 
 /**
- * Tiện ích tính toán giá trị fitness cho các giải pháp
+ * Tiện ích tính toán giá trị fitness cho các giải pháp.
+ *
+ * Lớp này chỉ giữ cấu hình chung (strategy, chế độ song song). Việc tính toán được thực hiện bởi
+ * {@link EvaluationContext}; mỗi lần chạy optimizer nên tạo ngữ cảnh riêng bằng
+ * {@link #createContext(Location[], TravelMatrix)} thay vì dùng chung một đối tượng.
  */
 @Getter
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class FitnessUtil {
     static FitnessUtil instance;
-    // Sử dụng ThreadLocal để mỗi thread có bản sao riêng của tempWeights
-    private static final ThreadLocal<int[]> tempWeights = ThreadLocal.withInitial(() -> new int[4]);
-    FitnessStrategy fitnessStrategy;
-    boolean parallelMode = true; // Mặc định là song song
+    volatile FitnessStrategy fitnessStrategy;
+    volatile boolean parallelMode = true; // Mặc định là song song
+    // Chỉ tính song song khi số tuyến đạt ngưỡng này
+    volatile int parallelRouteThreshold = EvaluationContext.DEFAULT_PARALLEL_ROUTE_THRESHOLD;
+    // Số phần tử tối đa của bộ nhớ đệm fitness trong mỗi ngữ cảnh (0: không dùng bộ nhớ đệm)
+    volatile int fitnessCacheCapacity = 0;
 
     private FitnessUtil() {
         this.fitnessStrategy = new DefaultFitnessStrategy();
@@ -69,386 +70,119 @@ public class FitnessUtil {
     }
 
     /**
-     * Tính giá trị fitness của giải pháp dựa trên các tuyến đường và vị trí
-     * Sử dụng chế độ song song hiện tại được thiết lập
+     * Thiết lập số tuyến tối thiểu để chế độ song song được sử dụng. Với ít tuyến hơn, việc tính
+     * toán luôn tuần tự vì chi phí chia việc giữa các luồng lớn hơn phần tính toán.
      *
-     * @param routes    Mảng các tuyến đường
-     * @param locations Mảng các vị trí
-     * @return Giá trị fitness (càng thấp càng tốt)
+     * @param parallelRouteThreshold Số tuyến tối thiểu (>= 1)
      */
-    public double calculatorFitness(Route[] routes, Location[] locations) {
-        return calculatorFitness(routes, locations, this.parallelMode);
+    public void setParallelRouteThreshold(int parallelRouteThreshold) {
+        if (parallelRouteThreshold < 1) {
+            throw new IllegalArgumentException("parallelRouteThreshold must be >= 1");
+        }
+        this.parallelRouteThreshold = parallelRouteThreshold;
     }
 
     /**
-     * Tính giá trị fitness của giải pháp dựa trên các tuyến đường và vị trí
+     * Thiết lập bộ nhớ đệm fitness cho các ngữ cảnh được tạo sau đó. Mỗi ngữ cảnh có một bộ nhớ
+     * đệm giải pháp và một bộ nhớ đệm tuyến đường, mỗi bộ tối đa capacity phần tử (khoảng 58 và
+     * 106 byte mỗi phần tử).
      *
-     * @param routes    Mảng các tuyến đường
-     * @param locations Mảng các vị trí
-     * @param parallel  Có sử dụng xử lý song song hay không
-     * @return Giá trị fitness (càng thấp càng tốt)
+     * @param fitnessCacheCapacity Số phần tử tối đa của mỗi bộ nhớ đệm, 0 để tắt
      */
-    public double calculatorFitness(Route[] routes, Location[] locations, boolean parallel) {
-        if (parallel) {
-            return calculatorFitnessParallel(routes, locations);
-        } else {
-            return calculatorFitnessSequential(routes, locations);
+    public void setFitnessCacheCapacity(int fitnessCacheCapacity) {
+        if (fitnessCacheCapacity < 0) {
+            throw new IllegalArgumentException("fitnessCacheCapacity must be >= 0");
         }
+        this.fitnessCacheCapacity = fitnessCacheCapacity;
     }
 
     /**
-     * Tính giá trị fitness với thông tin DistanceTime (sử dụng chế độ song song
-     * hiện tại)
+     * Tạo ngữ cảnh đánh giá mới với strategy và chế độ song song hiện tại
      *
-     * @param routes        Mảng các tuyến đường
-     * @param locations     Mảng các vị trí
-     * @param distanceTimes Mảng thông tin khoảng cách-thời gian
-     * @return Giá trị fitness (càng thấp càng tốt)
+     * @param locations    Mảng các vị trí
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
+     * @return Ngữ cảnh đánh giá dành riêng cho người gọi
      */
-    public double calculatorFitness(Route[] routes, Location[] locations, DistanceTime[] distanceTimes) {
-        return calculatorFitness(routes, locations, distanceTimes, this.parallelMode);
+    public EvaluationContext createContext(Location[] locations, TravelMatrix travelMatrix) {
+        return createContext(locations, travelMatrix, this.parallelMode);
     }
 
     /**
-     * Tính giá trị fitness với thông tin DistanceTime
+     * Tạo ngữ cảnh đánh giá mới với strategy hiện tại
      *
-     * @param routes        Mảng các tuyến đường
-     * @param locations     Mảng các vị trí
-     * @param distanceTimes Mảng thông tin khoảng cách-thời gian
-     * @param parallel      Có sử dụng xử lý song song hay không
-     * @return Giá trị fitness (càng thấp càng tốt)
+     * @param locations    Mảng các vị trí
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
+     * @param parallel     Có sử dụng xử lý song song hay không
+     * @return Ngữ cảnh đánh giá dành riêng cho người gọi
      */
-    public double calculatorFitness(Route[] routes, Location[] locations, DistanceTime[] distanceTimes,
-            boolean parallel) {
-        if (distanceTimes == null || distanceTimes.length == 0) {
-            // Fallback về phương thức cũ nếu không có DistanceTime
-            return calculatorFitness(routes, locations, parallel);
-        }
-
-        if (parallel) {
-            return calculatorFitnessWithDistanceTimeParallel(routes, locations, distanceTimes);
-        } else {
-            return calculatorFitnessWithDistanceTimeSequential(routes, locations, distanceTimes);
-        }
+    public EvaluationContext createContext(Location[] locations, TravelMatrix travelMatrix, boolean parallel) {
+        return new EvaluationContext(this.fitnessStrategy, locations, travelMatrix, parallel,
+                this.parallelRouteThreshold, this.fitnessCacheCapacity);
     }
 
     /**
-     * Tính giá trị fitness song song (sử dụng stream parallel)
+     * Đánh giá giải pháp và trả về cả fitness lẫn các thành phần của nó
+     *
+     * @param routes       Mảng các tuyến đường
+     * @param locations    Mảng các vị trí
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
+     * @param parallel     Có sử dụng xử lý song song hay không
+     * @return Kết quả đánh giá
      */
-    private double calculatorFitnessParallel(Route[] routes, Location[] locations) {
-        AtomicInteger totalDistances = new AtomicInteger(0);
-        AtomicInteger totalServiceTime = new AtomicInteger(0);
-        AtomicInteger totalWaitingTime = new AtomicInteger(0);
-        AtomicInteger numberVehicle = new AtomicInteger(0);
-
-        Arrays.stream(routes).parallel().forEach(route -> {
-            int[] indLocs = route.getIndLocations();
-
-            if (indLocs != null && indLocs.length > 0) {
-                numberVehicle.incrementAndGet();
-
-                // Thời gian hiện tại bắt đầu từ 0 (xuất phát từ kho)
-                double currentTime = 0;
-
-                for (int j = 0; j < indLocs.length; j++) {
-                    Location currLoc = locations[indLocs[j]];
-
-                    // Nếu không phải điểm đầu tiên, tính thời gian di chuyển từ điểm trước
-                    if (j > 0) {
-                        Location prevLoc = locations[indLocs[j - 1]];
-                        currentTime += prevLoc.distance(currLoc);
-
-                        // Tính khoảng cách
-                        totalDistances.addAndGet((int) prevLoc.distance(currLoc));
-                    } else {
-                        // Khoảng cách từ kho đến điểm đầu tiên
-                        currentTime += locations[0].distance(currLoc);
-                        totalDistances.addAndGet((int) locations[0].distance(currLoc));
-                    }
-
-                    // Tính thời gian chờ nếu đến sớm hơn time window
-                    double waitingTime = Math.max(0, currLoc.getLtw() - currentTime);
-                    totalWaitingTime.addAndGet((int) waitingTime);
-
-                    // Cập nhật thời gian hiện tại (thời gian bắt đầu phục vụ)
-                    currentTime = Math.max(currentTime, currLoc.getLtw());
-
-                    // Thêm thời gian phục vụ (chỉ tính thời gian phục vụ tương ứng với hoạt động)
-                    currentTime += currLoc.getServiceTime();
-                    totalServiceTime.addAndGet((int) currLoc.getServiceTime());
-                }
-
-                // Thêm khoảng cách về kho
-                totalDistances.addAndGet((int) locations[indLocs[indLocs.length - 1]].distance(locations[0]));
-            }
-        });
-
-        int[] weights = tempWeights.get();
-        weights[0] = numberVehicle.get();
-        weights[1] = totalDistances.get();
-        weights[2] = totalServiceTime.get();
-        weights[3] = totalWaitingTime.get();
-
-        // Sử dụng strategy để tính fitness
-        return fitnessStrategy.calculateFitness(
-                numberVehicle.get(),
-                totalDistances.get(),
-                totalServiceTime.get(),
-                totalWaitingTime.get());
+    public FitnessResult evaluate(Route[] routes, Location[] locations, TravelMatrix travelMatrix,
+            boolean parallel) {
+        return createContext(locations, travelMatrix, parallel).evaluate(routes);
     }
 
     /**
-     * Tính giá trị fitness tuần tự (không sử dụng stream parallel)
+     * Tính giá trị fitness của giải pháp dựa trên các tuyến đường và vị trí
+     * Sử dụng chế độ song song hiện tại được thiết lập
+     *
+     * @param routes    Mảng các tuyến đường
+     * @param locations Mảng các vị trí
+     * @return Giá trị fitness (càng thấp càng tốt)
      */
-    private double calculatorFitnessSequential(Route[] routes, Location[] locations) {
-        int totalDistances = 0;
-        int totalServiceTime = 0;
-        int totalWaitingTime = 0;
-        int numberVehicle = 0;
-
-        for (Route route : routes) {
-            int[] indLocs = route.getIndLocations();
-
-            if (indLocs != null && indLocs.length > 0) {
-                numberVehicle++;
-
-                // Thời gian hiện tại bắt đầu từ 0 (xuất phát từ kho)
-                double currentTime = 0;
-
-                for (int j = 0; j < indLocs.length; j++) {
-                    Location currLoc = locations[indLocs[j]];
-
-                    // Nếu không phải điểm đầu tiên, tính thời gian di chuyển từ điểm trước
-                    if (j > 0) {
-                        Location prevLoc = locations[indLocs[j - 1]];
-                        currentTime += prevLoc.distance(currLoc);
-
-                        // Tính khoảng cách
-                        totalDistances += prevLoc.distance(currLoc);
-                    } else {
-                        // Khoảng cách từ kho đến điểm đầu tiên
-                        currentTime += locations[0].distance(currLoc);
-                        totalDistances += locations[0].distance(currLoc);
-                    }
-
-                    // Tính thời gian chờ nếu đến sớm hơn time window
-                    double waitingTime = Math.max(0, currLoc.getLtw() - currentTime);
-                    totalWaitingTime += waitingTime;
-
-                    // Cập nhật thời gian hiện tại (thời gian bắt đầu phục vụ)
-                    currentTime = Math.max(currentTime, currLoc.getLtw());
-
-                    // Thêm thời gian phục vụ (chỉ tính thời gian phục vụ tương ứng với hoạt động)
-                    currentTime += currLoc.getServiceTime();
-                    totalServiceTime += currLoc.getServiceTime();
-                }
-
-                // Thêm khoảng cách về kho
-                totalDistances += locations[indLocs[indLocs.length - 1]].distance(locations[0]);
-            }
-        }
-
-        int[] weights = tempWeights.get();
-        weights[0] = numberVehicle;
-        weights[1] = totalDistances;
-        weights[2] = totalServiceTime;
-        weights[3] = totalWaitingTime;
-
-        // Sử dụng strategy để tính fitness
-        return fitnessStrategy.calculateFitness(
-                numberVehicle,
-                totalDistances,
-                totalServiceTime,
-                totalWaitingTime);
+    public double calculatorFitness(Route[] routes, Location[] locations) {
+        return calculatorFitness(routes, locations, this.parallelMode);
     }
 
     /**
-     * Tính giá trị fitness song song với thông tin DistanceTime
+     * Tính giá trị fitness của giải pháp dựa trên các tuyến đường và vị trí
+     *
+     * @param routes    Mảng các tuyến đường
+     * @param locations Mảng các vị trí
+     * @param parallel  Có sử dụng xử lý song song hay không
+     * @return Giá trị fitness (càng thấp càng tốt)
      */
-    private double calculatorFitnessWithDistanceTimeParallel(Route[] routes, Location[] locations,
-            DistanceTime[] distanceTimes) {
-        AtomicInteger totalDistances = new AtomicInteger(0);
-        AtomicInteger totalServiceTime = new AtomicInteger(0);
-        AtomicInteger totalWaitingTime = new AtomicInteger(0);
-        AtomicInteger numberVehicle = new AtomicInteger(0);
-
-        // Tạo map để tra cứu nhanh DistanceTime
-        Map<String, DistanceTime> distanceMap = Arrays.stream(distanceTimes)
-                .parallel()
-                .collect(Collectors.toConcurrentMap(
-                        dt -> dt.getFromNode() + "-" + dt.getToNode(),
-                        dt -> dt,
-                        (existing, replacement) -> existing));
-
-        Arrays.stream(routes).parallel().forEach(route -> {
-            int[] indLocs = route.getIndLocations();
-
-            if (indLocs != null && indLocs.length > 0) {
-                numberVehicle.incrementAndGet();
-
-                double currentTime = 0;
-
-                for (int j = 0; j < indLocs.length; j++) {
-                    Location currLoc = locations[indLocs[j]];
-
-                    // Tính khoảng cách và thời gian di chuyển
-                    if (j > 0) {
-                        int fromNode = indLocs[j - 1];
-                        int toNode = indLocs[j];
-                        DistanceTime dt = distanceMap.get(fromNode + "-" + toNode);
-
-                        if (dt != null) {
-                            currentTime += dt.getTravelTime();
-                            totalDistances.addAndGet((int) dt.getDistance());
-                        } else {
-                            // Fallback về tính toán Euclidean nếu không tìm thấy
-                            Location prevLoc = locations[fromNode];
-                            currentTime += prevLoc.distance(currLoc);
-                            totalDistances.addAndGet((int) prevLoc.distance(currLoc));
-                        }
-                    } else {
-                        // Khoảng cách từ depot (node 0) đến điểm đầu tiên
-                        DistanceTime dt = distanceMap.get("0-" + indLocs[j]);
-                        if (dt != null) {
-                            currentTime += dt.getTravelTime();
-                            totalDistances.addAndGet((int) dt.getDistance());
-                        } else {
-                            currentTime += locations[0].distance(currLoc);
-                            totalDistances.addAndGet((int) locations[0].distance(currLoc));
-                        }
-                    }
-
-                    // Tính thời gian chờ
-                    double waitingTime = Math.max(0, currLoc.getLtw() - currentTime);
-                    totalWaitingTime.addAndGet((int) waitingTime);
-
-                    // Cập nhật thời gian hiện tại
-                    currentTime = Math.max(currentTime, currLoc.getLtw());
-                    currentTime += currLoc.getServiceTime();
-                    totalServiceTime.addAndGet((int) currLoc.getServiceTime());
-                }
-
-                // Thêm khoảng cách về depot
-                int lastNode = indLocs[indLocs.length - 1];
-                DistanceTime dt = distanceMap.get(lastNode + "-0");
-                if (dt != null) {
-                    totalDistances.addAndGet((int) dt.getDistance());
-                } else {
-                    totalDistances.addAndGet((int) locations[lastNode].distance(locations[0]));
-                }
-            }
-        });
-
-        int[] weights = tempWeights.get();
-        weights[0] = numberVehicle.get();
-        weights[1] = totalDistances.get();
-        weights[2] = totalServiceTime.get();
-        weights[3] = totalWaitingTime.get();
-
-        return fitnessStrategy.calculateFitness(
-                numberVehicle.get(),
-                totalDistances.get(),
-                totalServiceTime.get(),
-                totalWaitingTime.get());
+    public double calculatorFitness(Route[] routes, Location[] locations, boolean parallel) {
+        return evaluate(routes, locations, null, parallel).fitness();
     }
 
     /**
-     * Tính giá trị fitness tuần tự với thông tin DistanceTime
+     * Tính giá trị fitness với ma trận khoảng cách-thời gian (sử dụng chế độ song
+     * song hiện tại)
+     *
+     * @param routes       Mảng các tuyến đường
+     * @param locations    Mảng các vị trí
+     * @param travelMatrix Ma trận khoảng cách-thời gian
+     * @return Giá trị fitness (càng thấp càng tốt)
      */
-    private double calculatorFitnessWithDistanceTimeSequential(Route[] routes, Location[] locations,
-            DistanceTime[] distanceTimes) {
-        int totalDistances = 0;
-        int totalServiceTime = 0;
-        int totalWaitingTime = 0;
-        int numberVehicle = 0;
-
-        // Tạo map để tra cứu nhanh DistanceTime
-        Map<String, DistanceTime> distanceMap = Arrays.stream(distanceTimes)
-                .collect(Collectors.toMap(
-                        dt -> dt.getFromNode() + "-" + dt.getToNode(),
-                        dt -> dt,
-                        (existing, replacement) -> existing));
-
-        for (Route route : routes) {
-            int[] indLocs = route.getIndLocations();
-
-            if (indLocs != null && indLocs.length > 0) {
-                numberVehicle++;
-
-                double currentTime = 0;
-
-                for (int j = 0; j < indLocs.length; j++) {
-                    Location currLoc = locations[indLocs[j]];
-
-                    // Tính khoảng cách và thời gian di chuyển
-                    if (j > 0) {
-                        int fromNode = indLocs[j - 1];
-                        int toNode = indLocs[j];
-                        DistanceTime dt = distanceMap.get(fromNode + "-" + toNode);
-
-                        if (dt != null) {
-                            currentTime += dt.getTravelTime();
-                            totalDistances += dt.getDistance();
-                        } else {
-                            // Fallback về tính toán Euclidean nếu không tìm thấy
-                            Location prevLoc = locations[fromNode];
-                            currentTime += prevLoc.distance(currLoc);
-                            totalDistances += prevLoc.distance(currLoc);
-                        }
-                    } else {
-                        // Khoảng cách từ depot (node 0) đến điểm đầu tiên
-                        DistanceTime dt = distanceMap.get("0-" + indLocs[j]);
-                        if (dt != null) {
-                            currentTime += dt.getTravelTime();
-                            totalDistances += dt.getDistance();
-                        } else {
-                            currentTime += locations[0].distance(currLoc);
-                            totalDistances += locations[0].distance(currLoc);
-                        }
-                    }
-
-                    // Tính thời gian chờ
-                    double waitingTime = Math.max(0, currLoc.getLtw() - currentTime);
-                    totalWaitingTime += waitingTime;
-
-                    // Cập nhật thời gian hiện tại
-                    currentTime = Math.max(currentTime, currLoc.getLtw());
-                    currentTime += currLoc.getServiceTime();
-                    totalServiceTime += currLoc.getServiceTime();
-                }
-
-                // Thêm khoảng cách về depot
-                int lastNode = indLocs[indLocs.length - 1];
-                DistanceTime dt = distanceMap.get(lastNode + "-0");
-                if (dt != null) {
-                    totalDistances += dt.getDistance();
-                } else {
-                    totalDistances += locations[lastNode].distance(locations[0]);
-                }
-            }
-        }
-
-        int[] weights = tempWeights.get();
-        weights[0] = numberVehicle;
-        weights[1] = totalDistances;
-        weights[2] = totalServiceTime;
-        weights[3] = totalWaitingTime;
-
-        return fitnessStrategy.calculateFitness(
-                numberVehicle,
-                totalDistances,
-                totalServiceTime,
-                totalWaitingTime);
+    public double calculatorFitness(Route[] routes, Location[] locations, TravelMatrix travelMatrix) {
+        return calculatorFitness(routes, locations, travelMatrix, this.parallelMode);
     }
 
     /**
-     * Lấy các giá trị weights tạm thời
-     * 
-     * @return mảng [numberVehicle, totalDistances, totalServiceTime,
-     *         totalWaitingTime]
+     * Tính giá trị fitness với ma trận khoảng cách-thời gian
+     *
+     * @param routes       Mảng các tuyến đường
+     * @param locations    Mảng các vị trí
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
+     * @param parallel     Có sử dụng xử lý song song hay không
+     * @return Giá trị fitness (càng thấp càng tốt)
      */
-    public int[] getTempWeights() {
-        return tempWeights.get().clone();
+    public double calculatorFitness(Route[] routes, Location[] locations, TravelMatrix travelMatrix,
+            boolean parallel) {
+        return evaluate(routes, locations, travelMatrix, parallel).fitness();
     }
 
     /**
@@ -460,67 +194,23 @@ public class FitnessUtil {
      *         totalWaitingTime]
      */
     public int[] calculateWeightsFromSolution(Solution solution, Location[] locations) {
-        if (solution == null || solution.getRoutes() == null) {
-            return new int[] { 0, 0, 0, 0 };
-        }
-
-        int numberVehicle = 0;
-        int totalDistances = 0;
-        int totalServiceTime = 0;
-        int totalWaitingTime = 0;
-
-        Route[] routes = solution.getRoutes();
-
-        for (Route route : routes) {
-            if (route != null && route.getIndLocations() != null && route.getIndLocations().length > 0) {
-                numberVehicle++;
-                int[] indLocs = route.getIndLocations();
-
-                // Thời gian hiện tại bắt đầu từ 0 (xuất phát từ kho)
-                double currentTime = 0;
-
-                for (int i = 0; i < indLocs.length; i++) {
-                    Location currLoc = locations[indLocs[i]];
-
-                    // Nếu không phải điểm đầu tiên, tính thời gian di chuyển từ điểm trước
-                    if (i > 0) {
-                        Location prevLoc = locations[indLocs[i - 1]];
-                        currentTime += prevLoc.distance(currLoc);
-
-                        // Tính khoảng cách
-                        totalDistances += prevLoc.distance(currLoc);
-                    } else {
-                        // Khoảng cách từ kho đến điểm đầu tiên
-                        currentTime += locations[0].distance(currLoc);
-                        totalDistances += locations[0].distance(currLoc);
-                    }
-
-                    // Tính thời gian chờ nếu đến sớm hơn time window
-                    double waitingTime = Math.max(0, currLoc.getLtw() - currentTime);
-                    totalWaitingTime += waitingTime;
-
-                    // Cập nhật thời gian hiện tại (thời gian bắt đầu phục vụ)
-                    currentTime = Math.max(currentTime, currLoc.getLtw());
-
-                    // Thêm thời gian phục vụ (chỉ tính thời gian phục vụ tương ứng với hoạt động)
-                    currentTime += currLoc.getServiceTime();
-                    totalServiceTime += currLoc.getServiceTime();
-                }
-
-                // Thêm khoảng cách về kho
-                totalDistances += locations[indLocs[indLocs.length - 1]].distance(locations[0]);
-            }
-        }
-
-        return new int[] { numberVehicle, totalDistances, totalServiceTime, totalWaitingTime };
+        return calculateWeightsFromSolution(solution, locations, null);
     }
 
     /**
-     * Dọn dẹp ThreadLocal để tránh memory leak
-     * Nên được gọi khi thread kết thúc hoặc không còn sử dụng FitnessUtil
+     * Tính toán các thành phần weights từ Solution với ma trận khoảng cách-thời gian
+     *
+     * @param solution     Solution cần tính toán
+     * @param locations    Mảng các địa điểm
+     * @param travelMatrix Ma trận khoảng cách-thời gian (có thể null)
+     * @return mảng [numberVehicle, totalDistances, totalServiceTime,
+     *         totalWaitingTime]
      */
-    public static void cleanupThreadLocal() {
-        tempWeights.remove();
+    public int[] calculateWeightsFromSolution(Solution solution, Location[] locations, TravelMatrix travelMatrix) {
+        if (solution == null || solution.getRoutes() == null) {
+            return new int[] { 0, 0, 0, 0 };
+        }
+        return evaluate(solution.getRoutes(), locations, travelMatrix, false).toWeights();
     }
 
     /**
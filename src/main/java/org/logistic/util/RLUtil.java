@@ -7,14 +7,18 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.logistic.Main.Algorithm;
 import org.logistic.Main.ExportType;
-import org.logistic.algorithm.sa.SimulatedAnnealing;
 import org.logistic.data.ReadDataFromFile;
 import org.logistic.model.Location;
 import org.logistic.model.Route;
 import org.logistic.model.Solution;
+import org.logistic.model.TravelMatrix;
+import org.logistic.parallel.ParallelExecutionManager;
+import org.logistic.parallel.PerformanceMonitor;
 
 public class RLUtil {
     
@@ -94,6 +98,22 @@ public class RLUtil {
             ReadDataFromFile rdff, FitnessUtil fitnessUtil, PrintUtil printUtil,
             CheckConditionUtil checkConditionUtil, ReadDataFromFile.ProblemType problemType,
             FitnessStrategy strategy, ExportType exportType, int iterations, boolean parallelEnabled, int iterator, int epoch) {
+        processRL(srcDirectory, solutionDirectory, rdff, fitnessUtil, printUtil, checkConditionUtil, problemType,
+                strategy, exportType, iterations, parallelEnabled, iterator, epoch, SeedUtil.randomSeed());
+    }
+
+    /**
+     * Xử lý học tăng cường với seed cố định: mỗi (file, epoch) dùng seed suy ra từ tên file và số
+     * epoch cho quần thể ban đầu, mỗi (iterator, thuật toán) dùng seed suy ra từ seed của epoch,
+     * nên cùng seed cho cùng kết quả
+     *
+     * @param seed Seed gốc
+     */
+    public static void processRL(String srcDirectory, String solutionDirectory,
+            ReadDataFromFile rdff, FitnessUtil fitnessUtil, PrintUtil printUtil,
+            CheckConditionUtil checkConditionUtil, ReadDataFromFile.ProblemType problemType,
+            FitnessStrategy strategy, ExportType exportType, int iterations, boolean parallelEnabled, int iterator,
+            int epoch, long seed) {
 
         // Trích xuất tên dataset từ srcDirectory
         String datasetName = extractDatasetName(srcDirectory);
@@ -106,6 +126,7 @@ public class RLUtil {
         System.out.println("Số vòng lặp mỗi epoch: " + iterator);
         System.out.println("Số iterations mỗi thuật toán: " + iterations);
         System.out.println("Chế độ song song: " + (parallelEnabled ? "BẬT" : "TẮT"));
+        System.out.println("Seed: " + seed);
 
         // Lưu trữ kết quả của từng epoch
         List<EpochResult> epochResults = new ArrayList<>();
@@ -114,6 +135,18 @@ public class RLUtil {
         // Key: fileName, Value: best solution của file đó tại epoch hiện tại
         Map<String, Solution> fileBestSolutions = new HashMap<>();
         
+        // Khi chạy song song, đọc trước các file và ghi kết quả epoch trên executor I/O để không
+        // chặn các thuật toán; các lần ghi được đợi trước khi ghi global best
+        Executor loader = Runnable::run;
+        Executor writer = Runnable::run;
+        if (parallelEnabled) {
+            ParallelExecutionManager parallelManager = ParallelExecutionManager.getInstance();
+            loader = parallelManager.getIoExecutor(PerformanceMonitor.Stage.LOAD);
+            writer = parallelManager.getIoExecutor(PerformanceMonitor.Stage.EXPORT);
+        }
+        Executor epochWriter = writer;
+        List<CompletableFuture<Void>> pendingWrites = new ArrayList<>();
+
         // Xử lý từng file trong thư mục
         rdff.processAllFilesInDirectory(srcDirectory, solutionDirectory, problemType,
                 (locations, routes, fileName) -> {
@@ -121,13 +154,15 @@ public class RLUtil {
                         System.out.println("\n=== XỬ LÝ FILE: " + fileName + " ===");
                         
                         // Khởi tạo solution ban đầu cho file này
+                        TravelMatrix travelMatrix = rdff.getTravelMatrix();
                         Solution initialSolution = new Solution(routes, 
-                            fitnessUtil.calculatorFitness(routes, locations, parallelEnabled));
+                            fitnessUtil.calculatorFitness(routes, locations, travelMatrix, parallelEnabled));
                         
                         // Khởi tạo best solution cho file này trong map
                         fileBestSolutions.put(fileName, initialSolution.copy());
                         
                         List<EpochResult> fileEpochResults = new ArrayList<>();
+                        long fileSeed = SeedUtil.derive(seed, fileName.hashCode(), 0);
                         
                         // Chạy qua từng epoch
                         for (int currentEpoch = 1; currentEpoch <= epoch; currentEpoch++) {
@@ -137,9 +172,10 @@ public class RLUtil {
                             Solution baseSolution = fileBestSolutions.get(fileName);
                             
                             // Tạo initial solutions cho epoch hiện tại
-                            SimulatedAnnealing sa = new SimulatedAnnealing(baseSolution);
-                            Solution[] initialSolutions = sa.runAndGetPopulation(fitnessUtil, checkConditionUtil,
-                                    locations);
+                            long epochSeed = SeedUtil.derive(fileSeed, currentEpoch, 0);
+                            Solution[] initialSolutions = ExecutionUtil.createInitialPopulation(baseSolution,
+                                    fitnessUtil, checkConditionUtil, locations, travelMatrix, parallelEnabled,
+                                    SeedUtil.derive(epochSeed, ExecutionUtil.SA_STREAM, 0));
                             
                             if (currentEpoch == 1) {
                                 System.out.println("Sử dụng solution gốc cho epoch đầu tiên (fitness: " + 
@@ -158,8 +194,8 @@ public class RLUtil {
                                 
                                 // Chạy tất cả các thuật toán cho iterator hiện tại
                                 Map<Algorithm, Solution> iteratorResults = runAllOptimizersForIterator(
-                                    initialSolutions, fitnessUtil, checkConditionUtil, locations,
-                                    routes[0].getMaxPayload(), iterations, parallelEnabled);
+                                    initialSolutions, fitnessUtil, checkConditionUtil, locations, travelMatrix,
+                                    routes[0].getMaxPayload(), iterations, parallelEnabled, epochSeed, iter);
                                 
                                 // Tìm solution tốt nhất trong iterator này
                                 Solution iteratorBestSolution = findBestSolution(iteratorResults);
@@ -189,7 +225,10 @@ public class RLUtil {
                             // Ghi file sau khi hoàn thành epoch với global best solution của file này
                             Solution currentFileBest = fileBestSolutions.get(fileName);
                             if (currentFileBest != null) {
-                                writeEpochResultToFile(datasetName, fileName, currentEpoch, currentFileBest, exportType);
+                                Solution snapshot = currentFileBest.copy();
+                                int epochNumber = currentEpoch;
+                                pendingWrites.add(CompletableFuture.runAsync(() -> writeEpochResultToFile(
+                                        datasetName, fileName, epochNumber, snapshot, exportType), epochWriter));
                             }
                             
                             // Global best đã được cập nhật trong từng iterator
@@ -216,7 +255,9 @@ public class RLUtil {
                         System.err.println("Lỗi khi xử lý RL cho file " + fileName + ": " + e.getMessage());
                         e.printStackTrace();
                     }
-                });
+                }, loader);
+
+        CompletableFuture.allOf(pendingWrites.toArray(new CompletableFuture[0])).join();
         
         // Ghi global best solution cho tất cả các file
         writeGlobalBestSolution(datasetName, epochResults, exportType);
@@ -225,12 +266,13 @@ public class RLUtil {
     }
     
     /**
-     * Chạy tất cả các thuật toán cho một iterator trong epoch
+     * Chạy tất cả các thuật toán cho một iterator trong epoch; mỗi thuật toán dùng seed suy ra từ
+     * seed của epoch, thứ tự thuật toán và số thứ tự iterator
      */
     private static Map<Algorithm, Solution> runAllOptimizersForIterator(
             Solution[] initialSolutions, FitnessUtil fitnessUtil, 
-            CheckConditionUtil checkConditionUtil, Location[] locations, 
-            double maxPayload, int iterations, boolean parallelEnabled) {
+            CheckConditionUtil checkConditionUtil, Location[] locations, TravelMatrix travelMatrix,
+            double maxPayload, int iterations, boolean parallelEnabled, long epochSeed, int iter) {
         
         Map<Algorithm, Solution> results = new HashMap<>();
         Algorithm[] algorithms = Algorithm.values();
@@ -248,7 +290,8 @@ public class RLUtil {
                 
                 // Chạy thuật toán một lần cho iterator này
                 Solution currentSolution = optimizer.run(initialSolutions, fitnessUtil, 
-                        checkConditionUtil, locations);
+                        checkConditionUtil, locations, travelMatrix,
+                        SeedUtil.derive(epochSeed, algorithm.ordinal(), iter));
                 
                 results.put(algorithm, currentSolution);
                 
@@ -0,0 +1,49 @@
+package org.logistic.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tiện ích sinh seed cho các luồng số ngẫu nhiên.
+ *
+ * Seed của mỗi lần chạy được suy ra từ seed gốc và chỉ số (thuật toán, lần lặp) bằng hàm trộn
+ * SplitMix64, không phụ thuộc vào thứ tự các luồng được lập lịch. Nhờ vậy cùng một seed gốc
+ * luôn cho cùng kết quả, kể cả khi các lần chạy được thực hiện song song.
+ */
+public final class SeedUtil {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Nguồn seed gốc khi người dùng không chỉ định
+    private static final SplittableRandom SEED_SOURCE = new SplittableRandom();
+
+    private SeedUtil() {
+    }
+
+    /**
+     * Tạo seed gốc ngẫu nhiên (dùng khi không cấu hình seed, nên in ra để có thể chạy lại)
+     */
+    public static synchronized long randomSeed() {
+        return SEED_SOURCE.nextLong();
+    }
+
+    /**
+     * Suy ra seed của một luồng con từ seed gốc
+     *
+     * @param seed   Seed gốc
+     * @param stream Chỉ số luồng (ví dụ thứ tự thuật toán)
+     * @param index  Chỉ số trong luồng (ví dụ số thứ tự lần lặp)
+     * @return Seed của luồng con
+     */
+    public static long derive(long seed, long stream, long index) {
+        long z = mix(seed + GOLDEN_GAMMA * (stream + 1));
+        return mix(z + GOLDEN_GAMMA * (index + 1));
+    }
+
+    /**
+     * Hàm trộn 64 bit của SplitMix64
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
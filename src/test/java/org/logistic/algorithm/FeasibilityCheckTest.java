@@ -0,0 +1,212 @@
+package org.logistic.algorithm;
+
+import org.logistic.model.Location;
+import org.logistic.model.Point;
+import org.logistic.model.Route;
+import org.logistic.model.TravelMatrix;
+import org.logistic.util.CheckConditionUtil;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Test so sánh các phép kiểm tra ràng buộc O(1) (dữ liệu tiền tố/hậu tố của RouteSegments) với
+ * phép duyệt toàn bộ tuyến đường O(n) trên mảng đã bị thay đổi, trên các bài toán sinh ngẫu nhiên
+ */
+public class FeasibilityCheckTest {
+    private static final int TRIALS = 200_000;
+    private static final int LOCATIONS = 40;
+    private static final double MAX_PAYLOAD = 60;
+
+    private static final CheckConditionUtil checkConditionUtil = CheckConditionUtil.getInstance();
+
+    private static int checks;
+    private static int feasible;
+    private static int mismatches;
+
+    public static void main(String[] args) {
+        System.out.println("=== TEST KIỂM TRA RÀNG BUỘC O(1) ===");
+
+        SplittableRandom random = new SplittableRandom(args.length > 0 ? Long.parseLong(args[0]) : 42L);
+        Location[] locations = randomLocations(random);
+        TravelMatrix travelMatrix = TravelMatrix.euclidean(locations);
+        // Bài toán khác cùng kích thước: kết quả đã ghi nhận cho bài toán này không được dùng lại
+        Location[] otherLocations = randomLocations(random);
+        TravelMatrix otherTravelMatrix = TravelMatrix.euclidean(otherLocations);
+
+        for (int trial = 0; trial < TRIALS; trial++) {
+            int[] way = randomWay(random, 1 + random.nextInt(12));
+            Route route = new Route(way.clone(), MAX_PAYLOAD);
+            // Lần kiểm tra toàn tuyến dùng dữ liệu đoạn vừa xây dựng
+            compare("full", way, checkConditionUtil.isInsertionFeasible(route, locations, MAX_PAYLOAD, travelMatrix),
+                    way, locations, travelMatrix);
+
+            int n = way.length;
+            int pos = random.nextInt(n);
+            int node = randomNode(random, way);
+
+            if (n > 1) {
+                boolean fast = checkConditionUtil.isRemovalFeasible(route, pos, locations, MAX_PAYLOAD, travelMatrix);
+                compare("remove", way, fast, remove(way, pos), locations, travelMatrix);
+            }
+
+            int insertPos = random.nextInt(n + 1);
+            boolean fast = checkConditionUtil.isNodeInsertionFeasible(route, insertPos, node, locations, MAX_PAYLOAD,
+                    travelMatrix);
+            compare("insert", way, fast, insert(way, insertPos, node), locations, travelMatrix);
+
+            fast = checkConditionUtil.isReplacementFeasible(route, pos, node, locations, MAX_PAYLOAD, travelMatrix);
+            compare("replace", way, fast, replace(way, pos, node), locations, travelMatrix);
+
+            int pos2 = random.nextInt(n);
+            fast = checkConditionUtil.isSwapFeasible(route, pos, pos2, locations, MAX_PAYLOAD, travelMatrix);
+            int[] swapped = swap(way, pos, pos2);
+            compare("swap", way, fast, swapped, locations, travelMatrix);
+
+            // Áp dụng phép biến đổi như các toán tử: markFeasible sau khi kiểm tra O(1) thành công
+            // không được làm lần kiểm tra toàn tuyến tiếp theo bỏ qua một tuyến không khả thi
+            route.setIndLocations(swapped);
+            if (fast) {
+                route.markFeasible(locations, travelMatrix, MAX_PAYLOAD);
+            }
+            compare("swap+mark", swapped,
+                    checkConditionUtil.isInsertionFeasible(route, locations, MAX_PAYLOAD, travelMatrix),
+                    swapped, locations, travelMatrix);
+            compare("other-context", swapped,
+                    checkConditionUtil.isInsertionFeasible(route, otherLocations, MAX_PAYLOAD, otherTravelMatrix),
+                    swapped, otherLocations, otherTravelMatrix);
+        }
+
+        System.out.printf("Số lần kiểm tra: %d, khả thi: %.1f%%, sai khác: %d%n",
+                checks, 100.0 * feasible / checks, mismatches);
+        if (mismatches > 0) {
+            throw new AssertionError(mismatches + " kết quả O(1) khác với duyệt toàn tuyến");
+        }
+        System.out.println("OK");
+    }
+
+    private static void compare(String operation, int[] original, boolean fast, int[] mutated,
+            Location[] locations, TravelMatrix travelMatrix) {
+        boolean expected = walk(mutated, locations, travelMatrix);
+        checks++;
+        if (expected) {
+            feasible++;
+        }
+        if (fast != expected) {
+            mismatches++;
+            if (mismatches <= 10) {
+                System.out.println("Sai khác (" + operation + "): " + Arrays.toString(original) + " -> "
+                        + Arrays.toString(mutated) + ", O(1)=" + fast + ", O(n)=" + expected);
+            }
+        }
+    }
+
+    /**
+     * Kiểm tra toàn tuyến O(n) theo đúng ngữ nghĩa ban đầu của CheckConditionUtil: xe có mặt tại
+     * điểm đầu tiên ở thời điểm 0 với trọng tải 0, tại mỗi điểm giao hàng trước rồi nhận hàng
+     */
+    private static boolean walk(int[] way, Location[] locations, TravelMatrix travelMatrix) {
+        double payload = 0;
+        double time = 0;
+        for (int i = 0; i < way.length; i++) {
+            Location location = locations[way[i]];
+            if (location.isDeliver()) {
+                payload -= location.getDemandDeliver();
+                if (payload < 0) {
+                    return false;
+                }
+            }
+            if (location.isPick()) {
+                payload += location.getDemandPick();
+                if (payload > MAX_PAYLOAD) {
+                    return false;
+                }
+            }
+            if (time < location.getLtw()) {
+                time = location.getLtw();
+            }
+            if (time > location.getUtw()) {
+                return false;
+            }
+            time += location.getServiceTime();
+            if (i < way.length - 1) {
+                time += travelMatrix.travelTime(way[i], way[i + 1]);
+            }
+        }
+        return true;
+    }
+
+    private static Location[] randomLocations(SplittableRandom random) {
+        Location[] locations = new Location[LOCATIONS];
+        for (int i = 0; i < LOCATIONS; i++) {
+            double ltw = random.nextDouble(0, 150);
+            // Phần lớn là điểm nhận hàng để các tuyến không bị loại ngay bởi trọng tải âm
+            boolean pick = i == 0 || random.nextInt(4) != 0;
+            boolean deliver = i != 0 && random.nextInt(3) == 0;
+            locations[i] = Location.builder()
+                    .id(i)
+                    .point(new Point(random.nextDouble(0, 50), random.nextDouble(0, 50)))
+                    .serviceTimePick(pick ? random.nextDouble(1, 10) : 0)
+                    .serviceTimeDeliver(deliver ? random.nextDouble(1, 10) : 0)
+                    .demandPick(pick ? random.nextInt(0, 15) : 0)
+                    .demandDeliver(deliver ? random.nextInt(1, 10) : 0)
+                    .ltw(ltw)
+                    .utw(ltw + random.nextDouble(20, 400))
+                    .isPick(pick)
+                    .isDeliver(deliver)
+                    .build();
+        }
+        return locations;
+    }
+
+    private static int[] randomWay(SplittableRandom random, int length) {
+        int[] nodes = new int[LOCATIONS - 1];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = i + 1;
+        }
+        for (int i = 0; i < length; i++) {
+            int j = i + random.nextInt(nodes.length - i);
+            int tmp = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = tmp;
+        }
+        return Arrays.copyOf(nodes, length);
+    }
+
+    private static int randomNode(SplittableRandom random, int[] way) {
+        while (true) {
+            int node = 1 + random.nextInt(LOCATIONS - 1);
+            if (Arrays.stream(way).noneMatch(n -> n == node)) {
+                return node;
+            }
+        }
+    }
+
+    private static int[] remove(int[] way, int pos) {
+        int[] result = new int[way.length - 1];
+        System.arraycopy(way, 0, result, 0, pos);
+        System.arraycopy(way, pos + 1, result, pos, way.length - pos - 1);
+        return result;
+    }
+
+    private static int[] insert(int[] way, int pos, int node) {
+        int[] result = new int[way.length + 1];
+        System.arraycopy(way, 0, result, 0, pos);
+        result[pos] = node;
+        System.arraycopy(way, pos, result, pos + 1, way.length - pos);
+        return result;
+    }
+
+    private static int[] replace(int[] way, int pos, int node) {
+        int[] result = way.clone();
+        result[pos] = node;
+        return result;
+    }
+
+    private static int[] swap(int[] way, int pos1, int pos2) {
+        int[] result = way.clone();
+        result[pos1] = way[pos2];
+        result[pos2] = way[pos1];
+        return result;
+    }
+}
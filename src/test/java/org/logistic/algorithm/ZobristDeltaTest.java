@@ -0,0 +1,184 @@
+package org.logistic.algorithm;
+
+import org.logistic.model.Route;
+import org.logistic.model.Zobrist;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Test so sánh fingerprint cập nhật bằng các hàm Zobrist.*Delta với fingerprint tính lại toàn bộ
+ * bằng Zobrist.of trên mảng đã bị thay đổi
+ */
+public class ZobristDeltaTest {
+    private static final int TRIALS = 200_000;
+    private static final int LOCATIONS = 60;
+    private static final int REPEATED_LOCATIONS = 4;
+
+    private static int checks;
+    private static int mismatches;
+
+    public static void main(String[] args) {
+        System.out.println("=== TEST ZOBRIST DELTA ===");
+
+        SplittableRandom random = new SplittableRandom(args.length > 0 ? Long.parseLong(args[0]) : 42L);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            int[] way = randomWay(random, 1 + random.nextInt(15));
+            checkOperations(random, way, randomNode(random, way));
+        }
+
+        // Tuyến lặp lại điểm (GWO/WOA làm tròn chỉ số trung bình): cạnh lặp lại không được triệt tiêu
+        for (int trial = 0; trial < TRIALS; trial++) {
+            int[] way = repeatedWay(random, 1 + random.nextInt(15));
+            checkOperations(random, way, 1 + random.nextInt(REPEATED_LOCATIONS));
+        }
+        distinct(new int[] { 5 }, new int[] { 5, 5, 5 });
+        distinct(new int[] { 4 }, new int[] { 4, 9, 4, 9, 4 });
+        distinct(new int[] { 4, 9 }, new int[] { 4, 9, 4, 9 });
+        distinct(new int[] { 7 }, new int[] { 7, 7 });
+
+        System.out.printf("Số lần kiểm tra: %d, sai khác: %d%n", checks, mismatches);
+        if (mismatches > 0) {
+            throw new AssertionError(mismatches + " fingerprint theo delta khác với Zobrist.of hoặc bị trùng");
+        }
+        System.out.println("OK");
+    }
+
+    private static void checkOperations(SplittableRandom random, int[] way, int node) {
+        long hash = Zobrist.of(way);
+        int n = way.length;
+        int pos = random.nextInt(n);
+
+        compare("remove", way, hash + Zobrist.removeDelta(way, pos), remove(way, pos));
+
+        int insertPos = random.nextInt(n + 1);
+        compare("insert", way, hash + Zobrist.insertDelta(way, insertPos, node), insert(way, insertPos, node));
+
+        compare("replace", way, hash + Zobrist.replaceDelta(way, pos, node), replace(way, pos, node));
+
+        int pos2 = random.nextInt(n);
+        compare("swap", way, hash + Zobrist.swapDelta(way, pos, pos2), swap(way, pos, pos2));
+
+        int start = Math.min(pos, pos2);
+        int end = Math.max(pos, pos2);
+        compare("reverse", way, hash + Zobrist.reverseDelta(way, start, end), reverse(way, start, end));
+
+        // Đoạn mới là hoán vị ngẫu nhiên của đoạn cũ, truyền qua mảng tạm dài hơn như PD-Rearrange
+        int length = end - start + 1;
+        int[] scratch = new int[length + random.nextInt(4)];
+        System.arraycopy(way, start, scratch, 0, length);
+        shuffle(scratch, length, random);
+        int[] segmented = way.clone();
+        System.arraycopy(scratch, 0, segmented, start, length);
+        compare("segment", way, hash + Zobrist.segmentDelta(way, start, scratch, length), segmented);
+
+        // Route cập nhật fingerprint theo delta phải giống với tính lại sau markModified
+        Route route = new Route(way.clone(), 100);
+        route.getFingerprint();
+        int[] routeWay = route.getIndLocations();
+        long delta = Zobrist.swapDelta(routeWay, pos, pos2);
+        int temp = routeWay[pos];
+        routeWay[pos] = routeWay[pos2];
+        routeWay[pos2] = temp;
+        route.markModified();
+        route.applyFingerprintDelta(delta);
+        compare("route", way, route.getFingerprint(), routeWay);
+    }
+
+    private static void distinct(int[] way1, int[] way2) {
+        checks++;
+        if (Zobrist.of(way1) == Zobrist.of(way2)) {
+            mismatches++;
+            System.out.println("Trùng fingerprint: " + Arrays.toString(way1) + " và " + Arrays.toString(way2));
+        }
+    }
+
+    private static void compare(String operation, int[] original, long actual, int[] mutated) {
+        checks++;
+        long expected = Zobrist.of(mutated);
+        if (actual != expected) {
+            mismatches++;
+            if (mismatches <= 10) {
+                System.out.println("Sai khác (" + operation + "): " + Arrays.toString(original) + " -> "
+                        + Arrays.toString(mutated));
+            }
+        }
+    }
+
+    private static int[] randomWay(SplittableRandom random, int length) {
+        int[] nodes = new int[LOCATIONS - 1];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = i + 1;
+        }
+        for (int i = 0; i < length; i++) {
+            int j = i + random.nextInt(nodes.length - i);
+            int tmp = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = tmp;
+        }
+        return Arrays.copyOf(nodes, length);
+    }
+
+    private static int[] repeatedWay(SplittableRandom random, int length) {
+        int[] way = new int[length];
+        for (int i = 0; i < length; i++) {
+            way[i] = 1 + random.nextInt(REPEATED_LOCATIONS);
+        }
+        return way;
+    }
+
+    private static int randomNode(SplittableRandom random, int[] way) {
+        while (true) {
+            int node = 1 + random.nextInt(LOCATIONS - 1);
+            if (Arrays.stream(way).noneMatch(n -> n == node)) {
+                return node;
+            }
+        }
+    }
+
+    private static void shuffle(int[] values, int length, SplittableRandom random) {
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    private static int[] remove(int[] way, int pos) {
+        int[] result = new int[way.length - 1];
+        System.arraycopy(way, 0, result, 0, pos);
+        System.arraycopy(way, pos + 1, result, pos, way.length - pos - 1);
+        return result;
+    }
+
+    private static int[] insert(int[] way, int pos, int node) {
+        int[] result = new int[way.length + 1];
+        System.arraycopy(way, 0, result, 0, pos);
+        result[pos] = node;
+        System.arraycopy(way, pos, result, pos + 1, way.length - pos);
+        return result;
+    }
+
+    private static int[] replace(int[] way, int pos, int node) {
+        int[] result = way.clone();
+        result[pos] = node;
+        return result;
+    }
+
+    private static int[] swap(int[] way, int pos1, int pos2) {
+        int[] result = way.clone();
+        result[pos1] = way[pos2];
+        result[pos2] = way[pos1];
+        return result;
+    }
+
+    private static int[] reverse(int[] way, int start, int end) {
+        int[] result = way.clone();
+        for (int i = start, j = end; i < j; i++, j--) {
+            result[i] = way[j];
+            result[j] = way[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,166 @@
+package org.logistic.algorithm.aco;
+
+import org.logistic.algorithm.NeighborIndex;
+import org.logistic.algorithm.TerminationCriterion;
+import org.logistic.data.ReadDataFromFile.ProblemType;
+import org.logistic.data.SyntheticInstance;
+import org.logistic.model.Location;
+import org.logistic.model.Solution;
+import org.logistic.util.CheckConditionUtil;
+import org.logistic.util.FitnessUtil;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+/**
+ * Test MAX-MIN Ant System: sau mỗi lần chạy pheromone trên mọi cạnh nằm trong [tau_min, tau_max],
+ * khởi động lại đưa mọi cạnh về tau_max; giới hạn và khởi động lại cũng được kiểm tra trực tiếp
+ * trên {@link DensePheromoneStore} và {@link SparsePheromoneStore}
+ */
+public class MaxMinAntSystemTest {
+    private static final int CUSTOMERS = 60;
+    private static final int POPULATION = 8;
+    private static final long[] ITERATIONS = { 1, 5, 45 };
+    private static final int STORE_TRIALS = 2_000;
+    private static final double EPSILON = 1e-12;
+    // SparsePheromoneStore lưu pheromone dạng float
+    private static final double FLOAT_EPSILON = 1e-6;
+
+    private static int checks;
+    private static int mismatches;
+
+    public static void main(String[] args) {
+        System.out.println("=== TEST MAX-MIN ANT SYSTEM ===");
+
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        FitnessUtil fitnessUtil = FitnessUtil.getInstance();
+        CheckConditionUtil checkConditionUtil = CheckConditionUtil.getInstance();
+
+        for (ProblemType type : new ProblemType[] { ProblemType.VRPTW, ProblemType.PDPTW }) {
+            SyntheticInstance instance = SyntheticInstance.generate(type, CUSTOMERS, seed);
+            for (long iterations : ITERATIONS) {
+                checkRun(instance, iterations, seed, fitnessUtil, checkConditionUtil);
+            }
+        }
+
+        SyntheticInstance instance = SyntheticInstance.generate(ProblemType.VRPTW, CUSTOMERS, seed);
+        Location[] locations = instance.getLocations();
+        NeighborIndex neighbors = new NeighborIndex(locations, instance.getTravelMatrix(), NeighborIndex.DEFAULT_K);
+        SplittableRandom random = new SplittableRandom(seed);
+        PheromoneStore dense = new DensePheromoneStore(locations, neighbors, AntColonyOptimization.RHO,
+                AntColonyOptimization.ALPHA, AntColonyOptimization.BETA);
+        PheromoneStore sparse = new SparsePheromoneStore(locations, neighbors, AntColonyOptimization.RHO,
+                AntColonyOptimization.ALPHA, AntColonyOptimization.BETA);
+        checkStore("dense", dense, neighbors, locations.length, EPSILON, random);
+        checkStore("sparse", sparse, neighbors, locations.length, FLOAT_EPSILON, random);
+
+        System.out.printf("Số lần kiểm tra: %d, sai khác: %d%n", checks, mismatches);
+        if (mismatches > 0) {
+            throw new AssertionError(mismatches + " giá trị pheromone nằm ngoài giới hạn MMAS");
+        }
+        System.out.println("OK");
+    }
+
+    /**
+     * Chạy MMAS với số vòng lặp cho trước, kiểm tra giới hạn trên mọi cạnh rồi khởi động lại
+     */
+    private static void checkRun(SyntheticInstance instance, long iterations, long seed, FitnessUtil fitnessUtil,
+            CheckConditionUtil checkConditionUtil) {
+        String label = instance.getProblemType() + "/" + iterations;
+        Solution[] initialSolutions = instance.createInitialSolutions(fitnessUtil, POPULATION);
+        AntColonyOptimization aco = new AntColonyOptimization(AntColonyOptimization.Variant.MAX_MIN, Runnable::run);
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            aco.run(initialSolutions, fitnessUtil, checkConditionUtil, instance.getLocations(),
+                    instance.getTravelMatrix(), seed, TerminationCriterion.maxIterations(iterations));
+        } finally {
+            System.setOut(console);
+        }
+
+        double min = aco.getPheromoneMin();
+        double max = aco.getPheromoneMax();
+        expect(label + " bounds", min > 0 && min <= max);
+        PheromoneStore pheromones = aco.getPheromones();
+        int size = instance.getLocations().length;
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                if (from == to) {
+                    continue; // Cạnh tự lặp không bao giờ được chọn, pheromone luôn bằng 0
+                }
+                double value = pheromones.pheromone(from, to);
+                expect(label + " edge " + from + "->" + to + " = " + value, inBounds(value, min, max, EPSILON));
+            }
+        }
+
+        aco.restartPheromone();
+        expect(label + " restart counter", aco.getIterationsWithoutImprovement() == 0);
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                if (from == to) {
+                    continue;
+                }
+                expect(label + " restart edge " + from + "->" + to, pheromones.pheromone(from, to) == max);
+            }
+        }
+    }
+
+    /**
+     * Bay hơi và để lại ngẫu nhiên với giới hạn thay đổi dần như MMAS, kiểm tra các cạnh láng giềng
+     */
+    private static void checkStore(String label, PheromoneStore store, NeighborIndex neighbors, int size,
+            double tolerance, SplittableRandom random) {
+        double max = 1.0;
+        for (int trial = 0; trial < STORE_TRIALS; trial++) {
+            // tau_max chỉ tăng khi giải pháp tốt nhất được cải thiện
+            if (random.nextInt(10) == 0) {
+                max *= 1.0 + random.nextDouble();
+            }
+            double min = max * 0.01;
+            store.setBounds(min, max);
+            store.evaporate();
+            for (int d = 0; d < 20; d++) {
+                int from = random.nextInt(size);
+                int count = neighbors.count(from);
+                if (count > 0) {
+                    store.deposit(from, neighbors.neighbor(from, random.nextInt(count)), random.nextDouble() * 2 * max);
+                }
+            }
+            store.refreshChoices();
+            for (int from = 0; from < size; from++) {
+                for (int rank = 0; rank < neighbors.count(from); rank++) {
+                    double value = store.candidatePheromone(from, rank);
+                    expect(label + " trial " + trial + " edge " + from + "#" + rank + " = " + value,
+                            inBounds(value, min, max, tolerance));
+                }
+            }
+
+            if (trial % 500 == 499) {
+                store.reset(max);
+                store.refreshChoices();
+                for (int from = 0; from < size; from++) {
+                    for (int rank = 0; rank < neighbors.count(from); rank++) {
+                        double value = store.candidatePheromone(from, rank);
+                        expect(label + " reset edge " + from + "#" + rank, inBounds(value, max, max, tolerance));
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean inBounds(double value, double min, double max, double tolerance) {
+        return value >= min * (1 - tolerance) && value <= max * (1 + tolerance);
+    }
+
+    private static void expect(String description, boolean condition) {
+        checks++;
+        if (!condition) {
+            mismatches++;
+            if (mismatches <= 10) {
+                System.out.println("Sai khác: " + description);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.logistic.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * Test truy vấn k láng giềng gần nhất của {@link SpatialGrid} so với duyệt toàn bộ: điểm phân bố
+ * đều, điểm trùng nhau, điểm thẳng hàng và điểm truy vấn nằm ngoài vùng bao, có và không có điều
+ * kiện chọn. Khoảng cách bằng nhau có thể đổi thứ tự nên so sánh dãy khoảng cách, kèm kiểm tra mỗi
+ * điểm trả về là duy nhất và thỏa điều kiện
+ */
+public class SpatialGridTest {
+    private static final int[] SIZES = { 1, 2, 7, 100, 1000 };
+    private static final int[] KS = { 1, 5, 10, 50 };
+    private static final int QUERIES = 200;
+
+    private static int checks;
+    private static int mismatches;
+
+    public static void main(String[] args) {
+        System.out.println("=== TEST SPATIAL GRID ===");
+
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        SplittableRandom random = new SplittableRandom(seed);
+
+        for (int size : SIZES) {
+            check("uniform/" + size, uniform(random, size), random);
+            check("duplicates/" + size, duplicates(random, size), random);
+            check("horizontal/" + size, line(random, size, true), random);
+            check("vertical/" + size, line(random, size, false), random);
+        }
+
+        System.out.printf("Số lần kiểm tra: %d, sai khác: %d%n", checks, mismatches);
+        if (mismatches > 0) {
+            throw new AssertionError(mismatches + " truy vấn láng giềng khác với duyệt toàn bộ");
+        }
+        System.out.println("OK");
+    }
+
+    private static void check(String label, Location[] locations, SplittableRandom random) {
+        SpatialGrid grid = new SpatialGrid(locations);
+        for (int query = 0; query < QUERIES; query++) {
+            // Điểm truy vấn: một điểm có sẵn hoặc một điểm ngẫu nhiên (có thể ngoài vùng bao)
+            double x;
+            double y;
+            if (random.nextBoolean()) {
+                Location location = locations[random.nextInt(locations.length)];
+                x = location.getX();
+                y = location.getY();
+            } else {
+                x = random.nextDouble(-20, 120);
+                y = random.nextDouble(-20, 120);
+            }
+            int modulus = 2 + random.nextInt(3);
+            IntPredicate accept = random.nextBoolean() ? null : node -> node % modulus != 0;
+            for (int k : KS) {
+                int[] out = new int[k];
+                int count = grid.nearest(x, y, k, accept, out);
+                double[] expected = bruteForce(locations, x, y, k, accept);
+                String description = label + " (" + x + ", " + y + ") k=" + k;
+                expect(description + " count", count == expected.length);
+
+                double[] actual = new double[count];
+                boolean[] seen = new boolean[locations.length];
+                for (int i = 0; i < count; i++) {
+                    int node = out[i];
+                    expect(description + " duplicate " + node, !seen[node]);
+                    seen[node] = true;
+                    expect(description + " rejected " + node, accept == null || accept.test(node));
+                    actual[i] = squaredDistance(locations[node], x, y);
+                    expect(description + " order", i == 0 || actual[i - 1] <= actual[i]);
+                }
+                expect(description + " distances", Arrays.equals(actual, expected));
+            }
+        }
+    }
+
+    /**
+     * Bình phương khoảng cách của tối đa k điểm gần nhất thỏa điều kiện, tăng dần
+     */
+    private static double[] bruteForce(Location[] locations, double x, double y, int k, IntPredicate accept) {
+        double[] distances = new double[locations.length];
+        int count = 0;
+        for (int node = 0; node < locations.length; node++) {
+            if (accept == null || accept.test(node)) {
+                distances[count++] = squaredDistance(locations[node], x, y);
+            }
+        }
+        Arrays.sort(distances, 0, count);
+        return Arrays.copyOf(distances, Math.min(k, count));
+    }
+
+    private static double squaredDistance(Location location, double x, double y) {
+        double dx = location.getX() - x;
+        double dy = location.getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    private static Location[] uniform(SplittableRandom random, int size) {
+        Location[] locations = new Location[size];
+        for (int i = 0; i < size; i++) {
+            locations[i] = location(i, random.nextDouble(100), random.nextDouble(100));
+        }
+        return locations;
+    }
+
+    /**
+     * Tọa độ nguyên trên lưới nhỏ nên nhiều điểm trùng nhau và nhiều khoảng cách bằng nhau
+     */
+    private static Location[] duplicates(SplittableRandom random, int size) {
+        Location[] locations = new Location[size];
+        for (int i = 0; i < size; i++) {
+            locations[i] = location(i, 10 * random.nextInt(6), 10 * random.nextInt(6));
+        }
+        return locations;
+    }
+
+    private static Location[] line(SplittableRandom random, int size, boolean horizontal) {
+        Location[] locations = new Location[size];
+        for (int i = 0; i < size; i++) {
+            double value = random.nextDouble(100);
+            locations[i] = horizontal ? location(i, value, 50) : location(i, 50, value);
+        }
+        return locations;
+    }
+
+    private static Location location(int id, double x, double y) {
+        return Location.builder().id(id).point(new Point(x, y)).build();
+    }
+
+    private static void expect(String description, boolean condition) {
+        checks++;
+        if (!condition) {
+            mismatches++;
+            if (mismatches <= 10) {
+                System.out.println("Sai khác: " + description);
+            }
+        }
+    }
+}
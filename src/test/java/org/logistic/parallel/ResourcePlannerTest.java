@@ -0,0 +1,119 @@
+package org.logistic.parallel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Test đọc hạn mức CPU của cgroup: phân tích nội dung cpu.max và cpu.cfs_quota_us /
+ * cpu.cfs_period_us (kể cả nội dung không hợp lệ), và duyệt từ cgroup của tiến trình lên gốc để
+ * lấy hạn mức nhỏ nhất trên các cây thư mục cgroup v1/v2 giả lập
+ */
+public class ResourcePlannerTest {
+    private static final double EPSILON = 1e-12;
+
+    private static int checks;
+    private static int mismatches;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== TEST RESOURCE PLANNER ===");
+
+        // cpu.max
+        expect("cpu.max unlimited", ResourcePlanner.parseCpuMax("max 100000"), -1);
+        expect("cpu.max unlimited without period", ResourcePlanner.parseCpuMax("max\n"), -1);
+        expect("cpu.max 2 cpus", ResourcePlanner.parseCpuMax("200000 100000\n"), 2);
+        expect("cpu.max quota < period", ResourcePlanner.parseCpuMax("50000 100000"), 0.5);
+        expect("cpu.max default period", ResourcePlanner.parseCpuMax("150000"), 1.5);
+        expect("cpu.max malformed", ResourcePlanner.parseCpuMax("abc 100000"), -1);
+        expect("cpu.max malformed period", ResourcePlanner.parseCpuMax("100000 abc"), -1);
+        expect("cpu.max empty", ResourcePlanner.parseCpuMax(""), -1);
+        expect("cpu.max zero period", ResourcePlanner.parseCpuMax("100000 0"), -1);
+
+        // cpu.cfs_quota_us / cpu.cfs_period_us
+        expect("cfs unlimited", ResourcePlanner.parseCfsQuota("-1\n", "100000\n"), -1);
+        expect("cfs 4 cpus", ResourcePlanner.parseCfsQuota("400000\n", "100000\n"), 4);
+        expect("cfs quota < period", ResourcePlanner.parseCfsQuota("25000", "100000"), 0.25);
+        expect("cfs malformed", ResourcePlanner.parseCfsQuota("", "100000"), -1);
+
+        // Hạn mức lẻ vẫn được ít nhất một nhân, làm tròn lên
+        expect("limit quota < period", new ResourcePlanner(8, 0.5, 1L << 30).getCpuLimit(), 1);
+        expect("limit fractional", new ResourcePlanner(8, 2.5, 1L << 30).getCpuLimit(), 3);
+        expect("limit above processors", new ResourcePlanner(2, 6, 1L << 30).getCpuLimit(), 2);
+
+        Path root = Files.createTempDirectory("cgroup");
+        try {
+            checkV2(root.resolve("v2"));
+            checkV1(root.resolve("v1"));
+        } finally {
+            try (Stream<Path> files = Files.walk(root)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+
+        System.out.printf("Số lần kiểm tra: %d, sai khác: %d%n", checks, mismatches);
+        if (mismatches > 0) {
+            throw new AssertionError(mismatches + " hạn mức CPU khác với giá trị mong đợi");
+        }
+        System.out.println("OK");
+    }
+
+    private static void checkV2(Path root) throws IOException {
+        write(root.resolve("cpu.max"), "max 100000\n");
+        write(root.resolve("system.slice/cpu.max"), "400000 100000\n");
+        write(root.resolve("system.slice/app.service/cpu.max"), "max 100000\n");
+        write(root.resolve("user.slice/cpu.max"), "200000 100000\n");
+        write(root.resolve("user.slice/session/cpu.max"), "300000 100000\n");
+        write(root.resolve("user.slice/session/job/cpu.max"), "garbage\n");
+        write(root.resolve("small/cpu.max"), "50000 100000\n");
+
+        // Cgroup lá không giới hạn, hạn mức đến từ cgroup cha
+        expect("v2 parent quota", quota(root, "0::/system.slice/app.service"), 4);
+        // Cha chặt hơn con, nội dung không hợp lệ được bỏ qua
+        expect("v2 minimum over ancestors", quota(root, "0::/user.slice/session/job"), 2);
+        expect("v2 quota < period", quota(root, "0::/small"), 0.5);
+        // Container có cgroup namespace: cgroup của tiến trình là gốc
+        expect("v2 namespace root", quota(root, "0::/"), -1);
+        // Đường dẫn của host không tồn tại trong container: chỉ còn các thư mục tổ tiên
+        expect("v2 missing path", quota(root, "0::/system.slice/missing/deeper"), 4);
+        // Không thoát ra ngoài thư mục gốc
+        expect("v2 escaping path", quota(root.resolve("small"), "0::/../user.slice"), 0.5);
+        expect("v2 no proc entry", quota(root.resolve("small"), null), 0.5);
+    }
+
+    private static void checkV1(Path root) throws IOException {
+        Path controller = root.resolve("cpu,cpuacct");
+        write(controller.resolve("cpu.cfs_quota_us"), "-1\n");
+        write(controller.resolve("cpu.cfs_period_us"), "100000\n");
+        write(controller.resolve("docker/cpu.cfs_quota_us"), "300000\n");
+        write(controller.resolve("docker/cpu.cfs_period_us"), "100000\n");
+        write(controller.resolve("docker/app/cpu.cfs_quota_us"), "600000\n");
+        write(controller.resolve("docker/app/cpu.cfs_period_us"), "100000\n");
+        write(controller.resolve("other/cpu.cfs_quota_us"), "not a number\n");
+        write(controller.resolve("other/cpu.cfs_period_us"), "100000\n");
+
+        expect("v1 minimum over ancestors", quota(root, "4:cpu,cpuacct:/docker/app"), 3);
+        expect("v1 malformed", quota(root, "4:cpu,cpuacct:/other"), -1);
+        expect("v1 other controller", quota(root, "5:memory:/docker/app"), -1);
+        expect("v1 missing path", quota(root, "4:cpu,cpuacct:/docker/gone"), 3);
+    }
+
+    private static double quota(Path root, String line) throws IOException {
+        return ResourcePlanner.readCpuQuota(root, line == null ? List.of() : List.of(line));
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private static void expect(String description, double actual, double expected) {
+        checks++;
+        if (Math.abs(actual - expected) > EPSILON) {
+            mismatches++;
+            System.out.println("Sai khác (" + description + "): " + actual + ", mong đợi " + expected);
+        }
+    }
+}